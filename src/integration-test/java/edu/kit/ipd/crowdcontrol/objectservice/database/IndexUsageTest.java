@@ -0,0 +1,145 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import edu.kit.ipd.crowdcontrol.objectservice.ConfigLoader;
+import edu.kit.ipd.crowdcontrol.objectservice.config.Config;
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.CalibrationOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentsPlatformOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerCalibrationOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerOperations;
+import org.jooq.DSLContext;
+import org.jooq.ExecuteContext;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultExecuteListener;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.ANSWER_RESERVATION;
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.WORKER_BALANCE;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Asserts with EXPLAIN, that the hot queries use the indexes made for them.
+ * The test needs the database configured in config.yml.
+ */
+public class IndexUsageTest {
+    private DSLContext create;
+    private List<String> statements;
+    private AnswerRatingOperations answerRatingOperations;
+
+    @Before
+    public void setUp() throws Exception {
+        Config config = new ConfigLoader().getConfig();
+        DatabaseManager manager = new DatabaseManager(config.database.writing.user, config.database.writing.password,
+                config.database.url, null, SQLDialect.valueOf(config.database.dialect));
+        manager.initDatabase();
+
+        statements = new ArrayList<>();
+        create = DSL.using(manager.getContext().configuration().derive(new DefaultExecuteListenerProvider(
+                new DefaultExecuteListener() {
+                    @Override
+                    public void renderEnd(ExecuteContext ctx) {
+                        statements.add(ctx.query().getSQL(ParamType.INLINED));
+                    }
+                })));
+        ExperimentOperations experimentOperations = new ExperimentOperations(create, new ExperimentsPlatformOperations(create));
+        answerRatingOperations = new AnswerRatingOperations(create, new CalibrationOperations(create),
+                new WorkerCalibrationOperations(create), experimentOperations);
+    }
+
+    /**
+     * explains the only statement executed since the last call and asserts that it uses an index, which may be the
+     * expected index.
+     * @param index the index made for the statement
+     */
+    private void assertUsesIndex(String index) {
+        assertTrue("expected one statement, got " + statements, statements.size() == 1);
+        String sql = statements.remove(0);
+        for (Record row : create.fetch("EXPLAIN " + sql)) {
+            String table = row.getValue("table", String.class);
+            if (table == null || table.startsWith("<")) {
+                continue;
+            }
+            assertNotNull("full scan of " + table + " in: " + sql, row.getValue("key", String.class));
+        }
+        assertTrue("the optimizer does not consider " + index + " for: " + sql, create.fetch("EXPLAIN " + sql).stream()
+                .map(row -> row.getValue("possible_keys", String.class))
+                .anyMatch(keys -> keys != null && keys.contains(index)));
+    }
+
+    @Test
+    public void testAnswersOfWorker() throws Exception {
+        answerRatingOperations.getAnswersOfWorkerFromExperiment(1, 1);
+        assertUsesIndex("answer_experiment_worker_idx");
+    }
+
+    @Test
+    public void testHashedAnswers() throws Exception {
+        answerRatingOperations.getHashedAnswers(1);
+        assertUsesIndex("answer_experiment_hash_idx");
+
+        answerRatingOperations.getAnswersWithoutHash(1);
+        assertUsesIndex("answer_experiment_hash_idx");
+    }
+
+    @Test
+    public void testFinalGoodAnswers() throws Exception {
+        answerRatingOperations.getNumberOfFinalGoodAnswers(1);
+        assertUsesIndex("answer_experiment_quality_idx");
+    }
+
+    @Test
+    public void testGoodRatings() throws Exception {
+        AnswerRecord answer = new AnswerRecord();
+        answer.setIdAnswer(1);
+        answerRatingOperations.getGoodRatingsOfAnswer(answer, 5);
+        assertUsesIndex("rating_answer_quality_idx");
+
+        answerRatingOperations.getNumOfGoodRatingsOfExperiment(1, 5);
+        assertUsesIndex("rating_experiment_quality_idx");
+    }
+
+    @Test
+    public void testOutdatedReservations() throws Exception {
+        // the same condition as the DatabaseMaintainer, but without deleting
+        create.selectFrom(ANSWER_RESERVATION)
+                .where(ANSWER_RESERVATION.USED.eq(false))
+                .and(ANSWER_RESERVATION.TIMESTAMP.lessThan(Timestamp.valueOf(LocalDateTime.now().minusHours(2))))
+                .fetch();
+        assertUsesIndex("answer_reservation_used_timestamp_idx");
+    }
+
+    @Test
+    public void testBalance() throws Exception {
+        // the same query as WorkerBalanceOperations.repairBalance
+        create.select(DSL.sum(WORKER_BALANCE.TRANSACTION_VALUE))
+                .from(WORKER_BALANCE)
+                .where(WORKER_BALANCE.WORKER.eq(1))
+                .fetch();
+        assertUsesIndex("worker_balance_worker_value_idx");
+    }
+
+    @Test
+    public void testWorkerIdentification() throws Exception {
+        new WorkerOperations(create).getWorker("dummy", "\"identification\"");
+        assertUsesIndex("worker_identification_idx");
+    }
+
+    @Test
+    public void testPayout() throws Exception {
+        new WorkerOperations(create).getWorkerWithCreditBalanceGreaterOrEqual(10);
+        assertUsesIndex("worker_balance_total_balance_idx");
+    }
+}
@@ -3,6 +3,9 @@ package edu.kit.ipd.crowdcontrol.objectservice;
 import edu.kit.ipd.crowdcontrol.objectservice.config.Config;
 import edu.kit.ipd.crowdcontrol.objectservice.config.ConfigException;
 import edu.kit.ipd.crowdcontrol.objectservice.config.ConfigPlatform;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.TextHash;
+import edu.kit.ipd.crowdcontrol.objectservice.event.Backpressure;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jooq.SQLDialect;
@@ -61,6 +64,9 @@ public class ConfigLoader {
         configValidate(config);
 
         config.database.url = appendUtf8Settings(config.database.url);
+        if (config.database.replicaUrl != null) {
+            config.database.replicaUrl = appendUtf8Settings(config.database.replicaUrl);
+        }
     }
 
     private String appendUtf8Settings(String url) {
@@ -180,6 +186,18 @@ public class ConfigLoader {
     private void configValidate(Config config) throws ConfigException {
         if (config.database.maintainInterval < 0)
             throw new ConfigException("negative maintainInterval of database is not valid");
+        if (config.database.reconcileInterval < 0)
+            throw new ConfigException("negative reconcileInterval of database is not valid");
+        if (config.database.experimentCacheSize < 0)
+            throw new ConfigException("negative experimentCacheSize of database is not valid");
+        if (config.database.experimentCacheTtl < 0)
+            throw new ConfigException("negative experimentCacheTtl of database is not valid");
+        if (config.database.workerCacheSize < 0)
+            throw new ConfigException("negative workerCacheSize of database is not valid");
+        if (config.database.workerCacheTtl < 0)
+            throw new ConfigException("negative workerCacheTtl of database is not valid");
+        if (config.database.workerCacheNegativeTtl < 0)
+            throw new ConfigException("negative workerCacheNegativeTtl of database is not valid");
         if (NullOrEmpty(config.database.dialect) || SQLDialect.valueOf(config.database.dialect) == null)
             throw new ConfigException("Dialect does not exist");
         if ((config.database.writing == null ||
@@ -188,6 +206,21 @@ public class ConfigLoader {
             throw new ConfigException("database.writing and database.readonly or database.databasepool have to be set correctly");
         if (NullOrEmpty(config.database.url))
             throw new ConfigException("database.url is not present!");
+        if (config.database.replicaUrl != null && !NullOrEmpty(config.database.databasepool))
+            throw new ConfigException("database.replicaUrl can not be used with database.databasepool");
+        if (config.database.pool == null)
+            throw new ConfigException("database.pool has to be set if present");
+        if (config.database.pool.maximumPoolSize < 1)
+            throw new ConfigException("database.pool.maximumPoolSize has to be positive");
+        if (config.database.pool.minimumIdle > config.database.pool.maximumPoolSize)
+            throw new ConfigException("database.pool.minimumIdle must not exceed database.pool.maximumPoolSize");
+        if (config.database.pool.connectionTimeout < 250)
+            throw new ConfigException("database.pool.connectionTimeout has to be at least 250ms");
+        if (config.database.pool.idleTimeout < 0 || config.database.pool.maxLifetime < 0
+                || config.database.pool.leakDetectionThreshold < 0)
+            throw new ConfigException("negative database.pool timeouts are not valid");
+        if (config.database.pool.prepStmtCacheSize < 0 || config.database.pool.prepStmtCacheSqlLimit < 0)
+            throw new ConfigException("negative database.pool statement-cache sizes are not valid");
         if (NullOrEmpty(config.deployment.jwtsecret))
             throw new ConfigException("deployment.jwtsecret not set");
         if (NullOrEmpty(config.deployment.workerService))
@@ -196,6 +229,54 @@ public class ConfigLoader {
             throw new ConfigException("deployment.workerUILocal urls are not found!");
         if (NullOrEmpty(config.mail.admin))
             throw new ConfigException("mail.admin mail adress is empty");
+        if (config.mail.connections < 1)
+            throw new ConfigException("mail.connections has to be positive");
+        if (config.mail.retries < 0 || config.mail.retries > 16)
+            throw new ConfigException("mail.retries has to be between 0 and 16");
+        if (config.mail.retryBackoff < 0)
+            throw new ConfigException("negative mail.retryBackoff is not valid");
+        if (config.mail.queueThreads < 1)
+            throw new ConfigException("mail.queueThreads has to be positive");
+        if (config.mail.queueCapacity < 1)
+            throw new ConfigException("mail.queueCapacity has to be positive");
+        if (config.mail.batchSize < 1)
+            throw new ConfigException("mail.batchSize has to be positive");
+        if (config.events.threads < 1)
+            throw new ConfigException("events.threads has to be positive");
+        if (config.events.queueCapacity < 1)
+            throw new ConfigException("events.queueCapacity has to be positive");
+        if (Arrays.stream(Backpressure.values()).noneMatch(value -> value.name().equals(config.events.backpressure)))
+            throw new ConfigException("events.backpressure has to be one of " + Arrays.toString(Backpressure.values()));
+        if (config.duplicateDetection.threads < 1)
+            throw new ConfigException("duplicateDetection.threads has to be positive");
+        if (config.duplicateDetection.queueCapacity < 1)
+            throw new ConfigException("duplicateDetection.queueCapacity has to be positive");
+        if (config.duplicateDetection.recoveryInterval < 0)
+            throw new ConfigException("negative duplicateDetection.recoveryInterval is not valid");
+        if (Arrays.stream(TextHash.values()).noneMatch(value -> value.name().equals(config.duplicateDetection.textHash)))
+            throw new ConfigException("duplicateDetection.textHash has to be one of " + Arrays.toString(TextHash.values()));
+        if (config.duplicateDetection.imageThreads < 1)
+            throw new ConfigException("duplicateDetection.imageThreads has to be positive");
+        if (config.duplicateDetection.imageConnectTimeout < 0 || config.duplicateDetection.imageReadTimeout < 0)
+            throw new ConfigException("negative duplicateDetection image timeouts are not valid");
+        if (config.duplicateDetection.imageMaxSize < 1)
+            throw new ConfigException("duplicateDetection.imageMaxSize has to be positive");
+        if (config.duplicateDetection.imageRetries < 0 || config.duplicateDetection.imageRetries > 16)
+            throw new ConfigException("duplicateDetection.imageRetries has to be between 0 and 16");
+        if (config.duplicateDetection.imageRetryBackoff < 0)
+            throw new ConfigException("negative duplicateDetection.imageRetryBackoff is not valid");
+        if (config.duplicateDetection.imageCacheSize < 0)
+            throw new ConfigException("negative duplicateDetection.imageCacheSize is not valid");
+        if (Arrays.stream(ImageHash.values()).noneMatch(value -> value.name().equals(config.duplicateDetection.imageHash)))
+            throw new ConfigException("duplicateDetection.imageHash has to be one of " + Arrays.toString(ImageHash.values()));
+        if (config.quality.distributionCacheSize < 0)
+            throw new ConfigException("negative quality.distributionCacheSize is not valid");
+        if (config.quality.threads < 0)
+            throw new ConfigException("negative quality.threads is not valid");
+        if (config.quality.progressVerifyInterval < 0)
+            throw new ConfigException("negative quality.progressVerifyInterval is not valid");
+        if (config.metrics.logInterval < 0)
+            throw new ConfigException("negative metrics.logInterval is not valid");
         configPlatformsValidate(config);
     }
 
@@ -4,23 +4,35 @@ import com.google.gson.JsonElement;
 import edu.kit.ipd.crowdcontrol.objectservice.config.Config;
 import edu.kit.ipd.crowdcontrol.objectservice.config.ConfigException;
 import edu.kit.ipd.crowdcontrol.objectservice.config.ConfigPlatform;
+import edu.kit.ipd.crowdcontrol.objectservice.config.DuplicateDetection;
+import edu.kit.ipd.crowdcontrol.objectservice.config.Mail;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.*;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.dummy.DummyPlatform;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.fallback.FallbackWorker;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.local.LocalPlatform;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.mturk.MturkPlatform;
 import edu.kit.ipd.crowdcontrol.objectservice.crowdworking.pybossa.PyBossaPlatform;
+import edu.kit.ipd.crowdcontrol.objectservice.database.BalanceReconciler;
 import edu.kit.ipd.crowdcontrol.objectservice.database.DatabaseMaintainer;
 import edu.kit.ipd.crowdcontrol.objectservice.database.DatabaseManager;
 import edu.kit.ipd.crowdcontrol.objectservice.database.ExperimentFetcher;
 import edu.kit.ipd.crowdcontrol.objectservice.database.PopulationsHelper;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerBalanceOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.event.AsyncDispatch;
+import edu.kit.ipd.crowdcontrol.objectservice.event.Backpressure;
 import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
 import edu.kit.ipd.crowdcontrol.objectservice.feedback.FeedbackCreator;
 import edu.kit.ipd.crowdcontrol.objectservice.mail.*;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsReporter;
 import edu.kit.ipd.crowdcontrol.objectservice.moneytransfer.MoneyTransferManager;
 import edu.kit.ipd.crowdcontrol.objectservice.notification.NotificationController;
 import edu.kit.ipd.crowdcontrol.objectservice.notification.SQLEmailNotificationPolicy;
 import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.DuplicateChecker;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.ImageFetcher;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.TextHash;
 import edu.kit.ipd.crowdcontrol.objectservice.payment.PaymentDispatcher;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.QualityIdentificator;
@@ -40,6 +52,8 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Niklas Keller
@@ -61,31 +75,39 @@ public class Main {
 
         initLogLevel(config);
 
-        DatabaseManager databaseManager = initDatabase(config);
-        EventManager eventManager = new EventManager();
+        InMemoryMetricsRegistry metrics = initMetrics(config);
+        DatabaseManager databaseManager = initDatabase(config, metrics);
+        EventManager eventManager = initEventManager(config, metrics);
 
-        OperationCarrier operationCarrier = new OperationCarrier(config, databaseManager);
+        OperationCarrier operationCarrier = new OperationCarrier(config, databaseManager, metrics);
+        // subscribed first, so the other subscribers of the experiment-events fetch the changed experiments
+        operationCarrier.experimentCache.subscribe(eventManager);
+        operationCarrier.workerIdentityCache.subscribe(eventManager);
 
         List<Platform> platforms = getPlatforms(config, operationCarrier);
 
-        MailSender moneyTransferSender = getMailSender(config.mail.disabled, config.mail.moneytransfer, config.mail.debug);
+        // the gift codes are only debited if their mail was sent, so they are not sent in the background
+        MailSender moneyTransferSender = getMailSender(config.mail, config.mail.moneytransfer, "moneytransfer", metrics);
         MailFetcher moneyTransferFetcher = getMailFetcher(config.mail.disabled, config.mail.moneyReceiver, config.mail.debug);
         MoneyTransferManager moneyTransfer = initMoneyTransfer(config, operationCarrier, moneyTransferFetcher, moneyTransferSender);
 
-        MailSender notificationSender = getMailSender(config.mail.disabled, config.mail.notifications, config.mail.debug);
+        MailSender notificationSender = getMailQueue(config.mail, config.mail.notifications, "notifications", metrics);
         NotificationController notificationController = initNotificationController(operationCarrier, notificationSender, eventManager);
 
         PlatformManager platformManager = initPlatformManager(operationCarrier, platforms, moneyTransfer);
 
 
-        ExperimentFetcher experimentFetcher = new ExperimentFetcher(operationCarrier.experimentOperations, operationCarrier.experimentsPlatformOperations,operationCarrier.tagConstraintsOperations, operationCarrier.algorithmsOperations, operationCarrier.calibrationOperations);
-        DuplicateChecker duplicateChecker = new DuplicateChecker(operationCarrier.answerRatingOperations,operationCarrier.experimentOperations,eventManager);
-        ExperimentOperator experimentOperator = new ExperimentOperator(platformManager,experimentFetcher,operationCarrier.experimentsPlatformOperations,eventManager,duplicateChecker,config.deployment.taskWaitBeforeFinish);
+        ExperimentFetcher experimentFetcher = new ExperimentFetcher(operationCarrier.experimentOperations, operationCarrier.experimentsPlatformOperations,operationCarrier.tagConstraintsOperations, operationCarrier.algorithmsOperations, operationCarrier.calibrationOperations, operationCarrier.experimentCache);
+        DuplicateChecker duplicateChecker = new DuplicateChecker(operationCarrier.answerRatingOperations,operationCarrier.experimentOperations,eventManager,
+                config.duplicateDetection.threads, config.duplicateDetection.queueCapacity,
+                TextHash.valueOf(config.duplicateDetection.textHash), initImageFetcher(config, metrics), metrics);
+        ExperimentOperator experimentOperator = new ExperimentOperator(platformManager,experimentFetcher,operationCarrier.experimentsPlatformOperations,eventManager,duplicateChecker,config.deployment.taskWaitBeforeFinish,
+                config.duplicateDetection.recoveryInterval);
         PopulationsHelper populationsHelper = new PopulationsHelper( operationCarrier.calibrationOperations, operationCarrier.experimentsPlatformOperations);
 
         JWTHelper jwtHelper = new JWTHelper(config.deployment.jwtsecret);
 
-        initEventHandler(operationCarrier, platformManager, experimentOperator, eventManager, experimentFetcher, jwtHelper);
+        initEventHandler(config, operationCarrier, platformManager, experimentOperator, eventManager, experimentFetcher, jwtHelper, metrics);
         initRouter(config, operationCarrier, platformManager, experimentOperator, experimentFetcher, populationsHelper, eventManager);
 
         Spark.awaitInitialization();
@@ -93,21 +115,26 @@ public class Main {
 
     /**
      * Load all modules which are subscribing on events
+     * @param config the configuration to use
      * @param operationCarrier DatabaseOperations to use
      * @param platformManager PlatformManager to use
      * @param experimentOperator the operations to use for starting stopping experiments
      * @param eventManager the EventManager to use
      * @param jwtHelper the jwt-helper used to generate the JWT-tokens
+     * @param metrics the registry to report the ratings waiting for the quality identification to
      */
-    private static void initEventHandler(OperationCarrier operationCarrier, PlatformManager platformManager, ExperimentOperator experimentOperator, EventManager eventManager, ExperimentFetcher experimentFetcher, JWTHelper jwtHelper) {
+    private static void initEventHandler(Config config, OperationCarrier operationCarrier, PlatformManager platformManager, ExperimentOperator experimentOperator, EventManager eventManager, ExperimentFetcher experimentFetcher, JWTHelper jwtHelper, MetricsRegistry metrics) {
         FeedbackCreator feedbackCreator = new FeedbackCreator(operationCarrier.answerRatingOperations, operationCarrier.experimentOperations, operationCarrier.workerOperations, jwtHelper);
-        new QualityIdentificator(
+        QualityIdentificator qualityIdentificator = new QualityIdentificator(
                 operationCarrier.algorithmsOperations,
                 operationCarrier.answerRatingOperations,
                 operationCarrier.experimentOperations,
                 experimentOperator,
                 operationCarrier.experimentsPlatformOperations,
-                eventManager, experimentFetcher);
+                eventManager, experimentFetcher, initQualityDispatch(config), metrics,
+                config.quality.incremental, config.quality.distributionCacheSize,
+                TimeUnit.SECONDS.toMillis(config.quality.progressVerifyInterval));
+        qualityIdentificator.start();
 
         new PaymentDispatcher(
                 feedbackCreator,
@@ -219,9 +246,10 @@ public class Main {
      * Load Database related stuff and create manager.
      *
      * @param config config to use
+     * @param metrics the registry to report the state of the connection-pool to
      * @return initialized database manager
      */
-    private static DatabaseManager initDatabase(Config config) {
+    private static DatabaseManager initDatabase(Config config, MetricsRegistry metrics) {
         SQLDialect dialect = SQLDialect.valueOf(config.database.dialect);
         DatabaseManager databaseManager = null;
         try {
@@ -230,11 +258,22 @@ public class Main {
                     config.database.writing.password,
                     config.database.url,
                     config.database.databasepool,
-                    dialect);
+                    dialect,
+                    config.database.pool,
+                    metrics,
+                    config.database.replicaUrl);
             databaseManager.initDatabase();
 
             DatabaseMaintainer maintainer = new DatabaseMaintainer(databaseManager.getContext(), config.database.maintainInterval);
             maintainer.start();
+
+            if (config.database.reconcileInterval > 0) {
+                BalanceReconciler reconciler = new BalanceReconciler(
+                        new WorkerBalanceOperations(databaseManager.getContext()),
+                        config.database.reconcileInterval,
+                        metrics);
+                reconciler.start();
+            }
         } catch (NamingException | SQLException e) {
             e.printStackTrace();
             System.exit(-1);
@@ -242,6 +281,75 @@ public class Main {
         return databaseManager;
     }
 
+    /**
+     * Create the fetcher downloading the images of image answers.
+     *
+     * @param config the configuration to use
+     * @param metrics the registry to report the downloads to
+     * @return the image fetcher
+     */
+    private static ImageFetcher initImageFetcher(Config config, MetricsRegistry metrics) {
+        DuplicateDetection duplicateDetection = config.duplicateDetection;
+        return new ImageFetcher(duplicateDetection.imageThreads, duplicateDetection.imageConnectTimeout,
+                duplicateDetection.imageReadTimeout, duplicateDetection.imageMaxSize, duplicateDetection.imageRetries,
+                duplicateDetection.imageRetryBackoff, duplicateDetection.imageCacheSize,
+                ImageHash.valueOf(duplicateDetection.imageHash), metrics);
+    }
+
+    /**
+     * Create the metrics registry and start reporting it, if configured.
+     *
+     * @param config config to use
+     * @return the registry to report to
+     */
+    private static InMemoryMetricsRegistry initMetrics(Config config) {
+        InMemoryMetricsRegistry metrics = new InMemoryMetricsRegistry();
+        if (config.metrics.logInterval > 0) {
+            new MetricsReporter(metrics, config.metrics.logInterval).start();
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Create the EventManager, with a thread pool for the asynchronous subscribers if configured.
+     *
+     * @param config config to use
+     * @param metrics the registry to report the event metrics to
+     * @return the EventManager to use
+     */
+    private static EventManager initEventManager(Config config, MetricsRegistry metrics) {
+        if (!config.events.async) {
+            return new EventManager(null, metrics);
+        }
+
+        AsyncDispatch dispatch = new AsyncDispatch(
+                Executors.newFixedThreadPool(config.events.threads),
+                config.events.threads,
+                config.events.queueCapacity,
+                Backpressure.valueOf(config.events.backpressure));
+
+        return new EventManager(dispatch, metrics);
+    }
+
+    /**
+     * Create the dispatch with the own thread pool of the quality identification, if configured.
+     *
+     * @param config config to use
+     * @return the dispatch to use or null to use the dispatch of the events
+     */
+    private static AsyncDispatch initQualityDispatch(Config config) {
+        if (config.quality.threads == 0) {
+            return null;
+        }
+
+        return new AsyncDispatch(
+                Executors.newFixedThreadPool(config.quality.threads),
+                config.quality.threads,
+                config.events.queueCapacity,
+                Backpressure.valueOf(config.events.backpressure));
+    }
+
     /**
      * flush log lvls into the logger
      * @param config config to use
@@ -330,21 +438,51 @@ public class Main {
 
     /**
      * Get a MailSender instance for the passed config
-     * @param mailDisabled if the mail is dissabled
+     * @param mail the mail section of the config
      * @param sender config to use
-     * @param debug if you want to debug your connection
+     * @param name the name of the sender in the metrics
+     * @param metrics the registry to report the sent mails to
      * @return a Mailsender instance to use
      */
-    private static MailSender getMailSender(boolean mailDisabled, edu.kit.ipd.crowdcontrol.objectservice.config.MailSender sender, boolean debug) {
-        if (mailDisabled || sender == null) {
+    private static MailSender getMailSender(Mail mail, edu.kit.ipd.crowdcontrol.objectservice.config.MailSender sender, String name, MetricsRegistry metrics) {
+        if (mail.disabled || sender == null) {
             return new CommandLineMailHandler();
         }
+        return getMailSend(mail, sender, name, metrics);
+    }
+
+    /**
+     * Get a MailSender instance for the passed config, which sends the mails in the background
+     * @param mail the mail section of the config
+     * @param sender config to use
+     * @param name the name of the sender in the metrics
+     * @param metrics the registry to report the sent mails to
+     * @return a Mailsender instance to use
+     */
+    private static MailSender getMailQueue(Mail mail, edu.kit.ipd.crowdcontrol.objectservice.config.MailSender sender, String name, MetricsRegistry metrics) {
+        if (mail.disabled || sender == null) {
+            return new CommandLineMailHandler();
+        }
+        return new MailQueue(getMailSend(mail, sender, name, metrics),
+                mail.queueThreads,
+                mail.queueCapacity,
+                mail.batchSize,
+                name,
+                metrics);
+    }
+
+    private static MailSend getMailSend(Mail mail, edu.kit.ipd.crowdcontrol.objectservice.config.MailSender sender, String name, MetricsRegistry metrics) {
         return new MailSend(MailSend.Protocol.valueOf(sender.protocol),
                 sender.auth.credentials.user,
                 sender.auth.credentials.password,
                 sender.from,
                 sender.auth.server,
                 sender.auth.port,
-                debug);
+                mail.debug,
+                mail.connections,
+                mail.retries,
+                mail.retryBackoff,
+                name,
+                metrics);
     }
 }
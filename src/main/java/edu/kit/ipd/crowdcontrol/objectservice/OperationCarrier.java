@@ -3,6 +3,7 @@ package edu.kit.ipd.crowdcontrol.objectservice;
 import edu.kit.ipd.crowdcontrol.objectservice.config.Config;
 import edu.kit.ipd.crowdcontrol.objectservice.database.DatabaseManager;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.*;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import org.jooq.DSLContext;
 
 import java.sql.SQLException;
@@ -26,26 +27,34 @@ class OperationCarrier {
     public final AnswerRatingOperations answerRatingOperations;
     public final ExperimentsPlatformOperations experimentsPlatformOperations;
     public final WorkerBalanceOperations workerBalanceOperations;
+    public final ExperimentCache experimentCache;
+    public final WorkerIdentityCache workerIdentityCache;
 
     /**
      * Create this object and init all operations for the given Database manager
      * @param config config to use for
      * @param manager manager to connect to
+     * @param metrics the registry to report the hits and misses of the caches to
      * @throws SQLException for the case there is a problem with SQL
      */
-    public OperationCarrier(Config config, DatabaseManager manager) throws SQLException {
+    public OperationCarrier(Config config, DatabaseManager manager, MetricsRegistry metrics) throws SQLException {
         DSLContext ctx = manager.getContext();
+        DSLContext read = manager.getReadContext();
         templateOperations = new TemplateOperations(ctx);
         notificationRestOperations = new NotificationOperations(manager, config.database.readonly.user, config.database.readonly.password);
         platformOperations = new PlatformOperations(ctx);
-        workerOperations = new WorkerOperations(ctx);
-        calibrationOperations = new CalibrationOperations(ctx);
-        experimentsPlatformOperations = new ExperimentsPlatformOperations(ctx);
-        experimentOperations = new ExperimentOperations(ctx,experimentsPlatformOperations);
-        tagConstraintsOperations = new TagConstraintsOperations(ctx);
-        algorithmsOperations = new AlgorithmOperations(ctx);
+        workerIdentityCache = new WorkerIdentityCache(config.database.workerCacheSize,
+                config.database.workerCacheTtl, config.database.workerCacheNegativeTtl, metrics);
+        workerOperations = new WorkerOperations(ctx, read, workerIdentityCache);
+        calibrationOperations = new CalibrationOperations(ctx, read);
+        experimentCache = new ExperimentCache(config.database.experimentCacheSize,
+                config.database.experimentCacheTtl, metrics);
+        experimentsPlatformOperations = new ExperimentsPlatformOperations(ctx, read, experimentCache);
+        experimentOperations = new ExperimentOperations(ctx, read, experimentsPlatformOperations, experimentCache);
+        tagConstraintsOperations = new TagConstraintsOperations(ctx, read);
+        algorithmsOperations = new AlgorithmOperations(ctx, read);
         workerCalibrationOperations = new WorkerCalibrationOperations(ctx);
-        answerRatingOperations = new AnswerRatingOperations(ctx, calibrationOperations, workerCalibrationOperations, experimentOperations);
+        answerRatingOperations = new AnswerRatingOperations(ctx, read, calibrationOperations, workerCalibrationOperations, experimentOperations);
         workerBalanceOperations = new WorkerBalanceOperations(ctx);
     }
 }
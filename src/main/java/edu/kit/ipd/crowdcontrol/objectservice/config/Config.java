@@ -35,6 +35,26 @@ public class Config {
      */
     public Mail mail = new Mail();
 
+    /**
+     * Event dispatch configuration
+     */
+    public Events events = new Events();
+
+    /**
+     * Duplicate detection configuration
+     */
+    public DuplicateDetection duplicateDetection = new DuplicateDetection();
+
+    /**
+     * Quality identification configuration
+     */
+    public Quality quality = new Quality();
+
+    /**
+     * Metrics configuration
+     */
+    public Metrics metrics = new Metrics();
+
     /**
      * Log level configuration
      *
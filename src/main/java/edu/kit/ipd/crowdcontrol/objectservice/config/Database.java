@@ -9,6 +9,37 @@ public class Database {
      */
     public int maintainInterval = 24;
 
+    /**
+     * how many hours have to went by before the balances of the workers are verified against their transactions,
+     * 0 disables the verification
+     */
+    public int reconcileInterval = 24;
+
+    /**
+     * number of experiments, whose records, states and protobufs are kept in memory, 0 disables the cache
+     */
+    public int experimentCacheSize = 1000;
+
+    /**
+     * time in milliseconds an experiment is kept in memory
+     */
+    public long experimentCacheTtl = 30000;
+
+    /**
+     * number of worker-identifications, whose workers are kept in memory, 0 disables the cache
+     */
+    public int workerCacheSize = 10000;
+
+    /**
+     * time in milliseconds a worker is kept in memory
+     */
+    public long workerCacheTtl = 30000;
+
+    /**
+     * time in milliseconds an identification without a worker is kept in memory
+     */
+    public long workerCacheNegativeTtl = 60000;
+
     /**
      * URL of the db to use
      */
@@ -28,4 +59,14 @@ public class Database {
      * A possible databasepool name to use to login
      */
     public String databasepool;
+
+    /**
+     * URL of a read-replica of the db, which is accessed with the writing user. Listings are read from it if set
+     */
+    public String replicaUrl;
+
+    /**
+     * The settings of the own connection-pools
+     */
+    public DatabasePool pool = new DatabasePool();
 }
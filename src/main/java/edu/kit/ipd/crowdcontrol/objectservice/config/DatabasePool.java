@@ -0,0 +1,62 @@
+package edu.kit.ipd.crowdcontrol.objectservice.config;
+
+/**
+ * Representation of the pool section of the database in the config.
+ * Ignored if a databasepool provided by the application-server is used.
+ */
+public class DatabasePool {
+    /**
+     * Maximum number of connections, idle and in use
+     */
+    public int maximumPoolSize = 10;
+
+    /**
+     * Minimum number of idle connections, -1 to keep maximumPoolSize connections open
+     */
+    public int minimumIdle = -1;
+
+    /**
+     * Maximum time in milliseconds a request waits for a connection
+     */
+    public long connectionTimeout = 30000;
+
+    /**
+     * Time in milliseconds after which idle connections above minimumIdle are closed, 0 to never close them
+     */
+    public long idleTimeout = 600000;
+
+    /**
+     * Maximum lifetime of a connection in milliseconds, should be shorter than the wait_timeout of the database
+     */
+    public long maxLifetime = 1800000;
+
+    /**
+     * Time in milliseconds a connection may be out of the pool before a possible leak is logged, 0 to disable
+     */
+    public long leakDetectionThreshold = 0;
+
+    /**
+     * If true, the MySQL driver caches the prepared statements of every connection
+     */
+    public boolean cachePrepStmts = true;
+
+    /**
+     * Number of prepared statements the MySQL driver caches per connection
+     */
+    public int prepStmtCacheSize = 250;
+
+    /**
+     * Maximum length of a sql statement the MySQL driver caches
+     */
+    public int prepStmtCacheSqlLimit = 2048;
+
+    /**
+     * If true, the MySQL driver uses server-side prepared statements
+     */
+    public boolean useServerPrepStmts = true;
+
+    /**
+     * If true, the MySQL driver rewrites batched inserts into multi-row inserts
+     */
+    public boolean rewriteBatchedStatements = true;
+}
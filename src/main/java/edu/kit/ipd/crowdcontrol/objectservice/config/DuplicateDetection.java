@@ -0,0 +1,68 @@
+package edu.kit.ipd.crowdcontrol.objectservice.config;
+
+/**
+ * Representation of the duplicate detection section in the config
+ */
+public class DuplicateDetection {
+    /**
+     * Number of threads checking for duplicates, the answers of one experiment are always checked by the same thread
+     */
+    public int threads = 4;
+
+    /**
+     * Maximum number of answers waiting per thread, further answers are loaded from the database later
+     */
+    public int queueCapacity = 1000;
+
+    /**
+     * Interval in minutes in which answers missed by the duplicate detection are searched, 0 searches only on startup
+     */
+    public int recoveryInterval = 10;
+
+    /**
+     * Algorithm to hash text answers: MD5 (compatible to existing hashes) or ROLLING (faster).
+     * Hashes of different algorithms are not comparable, only change it while no experiment is running.
+     */
+    public String textHash = "MD5";
+
+    /**
+     * Maximal number of parallel image downloads
+     */
+    public int imageThreads = 4;
+
+    /**
+     * Timeout in milliseconds to connect to the host of an image
+     */
+    public int imageConnectTimeout = 5000;
+
+    /**
+     * Timeout in milliseconds to wait for data of an image
+     */
+    public int imageReadTimeout = 10000;
+
+    /**
+     * Maximal size of an image in bytes, larger images are not readable
+     */
+    public int imageMaxSize = 10 * 1024 * 1024;
+
+    /**
+     * Number of retries if a download failed because of connection problems or server errors
+     */
+    public int imageRetries = 2;
+
+    /**
+     * Milliseconds to wait before the first retry, doubled for every further retry
+     */
+    public int imageRetryBackoff = 1000;
+
+    /**
+     * Number of image URLs whose hashes are cached
+     */
+    public int imageCacheSize = 1000;
+
+    /**
+     * Algorithm to hash images: SIGNATURE (compatible to existing hashes), RASTER (faster, nearly equal hashes)
+     * or SUBSAMPLED (like RASTER, but decodes large JPEGs at a reduced resolution)
+     */
+    public String imageHash = "SIGNATURE";
+}
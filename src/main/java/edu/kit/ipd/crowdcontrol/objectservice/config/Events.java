@@ -0,0 +1,27 @@
+package edu.kit.ipd.crowdcontrol.objectservice.config;
+
+/**
+ * Representation of the events section in the config
+ */
+public class Events {
+    /**
+     * If true, slow subscribers (duplicate detection, quality identification, payment) are served by a
+     * thread pool instead of the thread which emitted the event.
+     */
+    public boolean async = false;
+
+    /**
+     * Number of threads which are delivering the events to asynchronous subscribers
+     */
+    public int threads = 4;
+
+    /**
+     * Maximum number of events queued per lane of a subscriber
+     */
+    public int queueCapacity = 1000;
+
+    /**
+     * What to do if the queue of a subscriber is full: BLOCK, DROP_OLDEST or CALLER_RUNS
+     */
+    public String backpressure = "BLOCK";
+}
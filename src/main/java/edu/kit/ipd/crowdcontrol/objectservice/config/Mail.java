@@ -23,4 +23,34 @@ public class Mail {
     public MailSender notifications, moneytransfer;
 
     public MailReceiver moneyReceiver;
+
+    /**
+     * Maximal number of open connections per sending mail account, the connections are reused for further mails
+     */
+    public int connections = 2;
+
+    /**
+     * Number of retries if a mail could not be sent because of connection problems
+     */
+    public int retries = 3;
+
+    /**
+     * Milliseconds to wait before the first retry, doubled for every further retry
+     */
+    public int retryBackoff = 1000;
+
+    /**
+     * Number of threads sending the queued notification mails
+     */
+    public int queueThreads = 1;
+
+    /**
+     * Maximal number of notification mails waiting to be sent, further notifications fail
+     */
+    public int queueCapacity = 1000;
+
+    /**
+     * Maximal number of queued mails sent over one connection at once
+     */
+    public int batchSize = 20;
 }
@@ -0,0 +1,11 @@
+package edu.kit.ipd.crowdcontrol.objectservice.config;
+
+/**
+ * Representation of the metrics section in the config
+ */
+public class Metrics {
+    /**
+     * Interval in minutes in which all metrics are written to the log, 0 disables the reporting
+     */
+    public int logInterval = 0;
+}
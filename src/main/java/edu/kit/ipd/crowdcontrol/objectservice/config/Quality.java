@@ -0,0 +1,29 @@
+package edu.kit.ipd.crowdcontrol.objectservice.config;
+
+/**
+ * Representation of the quality section in the config
+ */
+public class Quality {
+    /**
+     * If true, the distribution of the ratings of every answer is kept in memory and updated with every new rating,
+     * instead of reading and rating all ratings of the answer again.
+     */
+    public boolean incremental = false;
+
+    /**
+     * Maximum number of answers whose rating distributions are kept in memory
+     */
+    public int distributionCacheSize = 10000;
+
+    /**
+     * Number of threads rating the quality of answers and ratings, ratings of different answers are rated in parallel.
+     * 0 to rate like the other subscribers of events
+     */
+    public int threads = 4;
+
+    /**
+     * Interval in seconds in which the in-memory progress of an experiment is verified against the database,
+     * 0 queries the progress after every rating
+     */
+    public int progressVerifyInterval = 60;
+}
@@ -43,9 +43,11 @@ public class ExperimentOperator {
      * @param platformManager the platformManager to use
      * @param eventManager the eventManager to use
      * @param waitTimeInMin the time in minutes which is waited before the experiment is set to finished and payed;
+     * @param duplicateRecoveryIntervalInMin the interval in minutes in which answers missed by the duplicateChecker
+     *                                       are searched, 0 searches them only on startup
      */
     public ExperimentOperator(PlatformManager platformManager, ExperimentFetcher experimentFetcher, ExperimentsPlatformOperations experimentsPlatformOperations,
-                              EventManager eventManager, DuplicateChecker duplicateChecker, int waitTimeInMin) {
+                              EventManager eventManager, DuplicateChecker duplicateChecker, int waitTimeInMin, int duplicateRecoveryIntervalInMin) {
         this.waitTimeInMin = waitTimeInMin;
         this.platformManager = platformManager;
         this.scheduledExecutorService = Executors.newScheduledThreadPool(1);
@@ -55,6 +57,10 @@ public class ExperimentOperator {
         this.eventManager = eventManager;
         recoverExperiments();
         retryShutdown.start();
+        if (duplicateRecoveryIntervalInMin > 0) {
+            scheduledExecutorService.scheduleAtFixedRate(this::recoverDuplicateDetection,
+                    duplicateRecoveryIntervalInMin, duplicateRecoveryIntervalInMin, TimeUnit.MINUTES);
+        }
     }
 
     /**
@@ -178,10 +184,20 @@ public class ExperimentOperator {
         experimentsPlatformOperations.getExperimentsFailedDuringShutdown().forEach(
                 (exp) -> recoverExperimentShutdown(exp.getIdExperiment())
         );
-        experimentsPlatformOperations.getRunningExperiments().forEach(
-                (exp) -> duplicateChecker.rescheduleAnswersForDuplicateDetection(exp.getIdExperiment())
-        );
+        recoverDuplicateDetection();
+    }
 
+    /**
+     * Hands all answers of running experiments, which were not checked by the duplicateChecker, to the duplicateChecker
+     */
+    private void recoverDuplicateDetection() {
+        try {
+            experimentsPlatformOperations.getRunningExperiments().forEach(
+                    (exp) -> duplicateChecker.rescheduleAnswersForDuplicateDetection(exp.getIdExperiment())
+            );
+        } catch (RuntimeException e) {
+            log.error("failed to recover the answers for the duplicate detection", e);
+        }
     }
 
     /**
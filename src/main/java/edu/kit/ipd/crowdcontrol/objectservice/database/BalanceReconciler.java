@@ -0,0 +1,106 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerBalanceOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * this class periodically verifies the materialized balances of the workers against the ledger.
+ * <p>
+ * Balances which differ from the ledger are recomputed and counted as balance.mismatches. A difference is only
+ * a mismatch if it is still present after locking the balance, transactions which are running while the
+ * balances are compared are not reported.
+ * @version 1.0
+ */
+public class BalanceReconciler {
+    private static final Logger LOGGER = LogManager.getLogger(BalanceReconciler.class);
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final WorkerBalanceOperations workerBalanceOperations;
+    private final int reconcileInterval;
+    private final Counter mismatches;
+    private final Histogram duration;
+    private ScheduledFuture<?> schedule = null;
+
+    /**
+     * creates a new Instance of BalanceReconciler.
+     * @param workerBalanceOperations the operations used to compare and repair the balances
+     * @param reconcileInterval the intervall the task should be run, in hours
+     * @param metrics the registry to report the mismatches to
+     */
+    public BalanceReconciler(WorkerBalanceOperations workerBalanceOperations, int reconcileInterval,
+                             MetricsRegistry metrics) {
+        this.workerBalanceOperations = workerBalanceOperations;
+        this.reconcileInterval = reconcileInterval;
+        this.mismatches = metrics.counter("balance.mismatches");
+        this.duration = metrics.histogram("balance.reconcile");
+    }
+
+    /**
+     * starts the BalanceReconciler
+     */
+    public synchronized void start() {
+        if (schedule != null) {
+            throw new IllegalStateException("start() was called twice!");
+        }
+
+        schedule = scheduler.scheduleAtFixedRate(this::runReconcile, reconcileInterval, reconcileInterval,
+                TimeUnit.HOURS);
+    }
+
+    private void runReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // an exception would cancel all further runs
+            LOGGER.error("unable to reconcile the balances of the workers", e);
+        }
+    }
+
+    /**
+     * compares the materialized balances with the ledger and repairs the differing ones.
+     * @return the number of repaired balances
+     */
+    int reconcile() {
+        long start = System.nanoTime();
+        Map<Integer, Integer> ledger = workerBalanceOperations.getLedgerBalances();
+        Map<Integer, Integer> materialized = workerBalanceOperations.getMaterializedBalances();
+
+        Set<Integer> workers = new HashSet<>(ledger.keySet());
+        workers.addAll(materialized.keySet());
+        int repaired = 0;
+        for (Integer worker : workers) {
+            int expected = ledger.getOrDefault(worker, 0);
+            if (!Objects.equals(materialized.getOrDefault(worker, 0), expected)
+                    && workerBalanceOperations.repairBalance(worker)) {
+                LOGGER.warn("repaired the balance of worker {}, the ledger has a balance of {}, but it was {}",
+                        worker, expected, materialized.get(worker));
+                repaired++;
+            }
+        }
+        mismatches.add(repaired);
+        duration.recordSince(start);
+        return repaired;
+    }
+
+    /**
+     * shuts the BalanceReconciler down.
+     */
+    public void shutdown() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        scheduler.shutdown();
+    }
+}
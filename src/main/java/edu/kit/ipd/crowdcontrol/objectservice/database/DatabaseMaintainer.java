@@ -11,7 +11,6 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.ANSWER_RESERVATION;
-import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.RATING;
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.RATING_RESERVATION;
 
 /**
@@ -56,7 +55,7 @@ public class DatabaseMaintainer {
 
         create.deleteFrom(RATING_RESERVATION)
                 .where(RATING_RESERVATION.USED.eq(false))
-                .and(RATING.TIMESTAMP.lessThan(timestamp))
+                .and(RATING_RESERVATION.TIMESTAMP.lessThan(timestamp))
                 .execute();
 
         create.deleteFrom(ANSWER_RESERVATION)
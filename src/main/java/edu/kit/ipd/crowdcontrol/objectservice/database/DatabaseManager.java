@@ -1,12 +1,12 @@
 package edu.kit.ipd.crowdcontrol.objectservice.database;
 
 import com.zaxxer.hikari.HikariDataSource;
+import edu.kit.ipd.crowdcontrol.objectservice.config.DatabasePool;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables;
-import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.DatabaseVersionRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import org.apache.commons.io.IOUtils;
 import org.apache.ibatis.jdbc.ScriptRunner;
 import org.jooq.DSLContext;
-import org.jooq.Record1;
 import org.jooq.SQLDialect;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
@@ -19,11 +19,8 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
 import java.util.Objects;
-
-import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.DATABASE_VERSION;
+import java.util.Optional;
 
 /**
  * Initializes and holds the connection to the database and eventually the database itself.
@@ -33,9 +30,10 @@ import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.DATAB
  */
 public class DatabaseManager {
     private final DSLContext context;
+    private final DSLContext readContext;
     private final String url;
     private final DataSource ds;
-    private final int currentVersion = 3;
+    private final int currentVersion = 6;
 
     /**
      * creates new DatabaseManager.
@@ -76,53 +74,102 @@ public class DatabaseManager {
      * @throws SQLException if there was a problem establishing a connection to the database
      */
     public DatabaseManager(String userName, String password, String url, String providedDBPoolName, SQLDialect sqlDialect) throws NamingException, SQLException {
+        this(userName, password, url, providedDBPoolName, sqlDialect, new DatabasePool(), MetricsRegistry.NOOP, null);
+    }
+
+    /**
+     * creates new DatabaseManager.
+     *
+     * @param userName the username for the database
+     * @param password the password for the database
+     * @param url the url to the database
+     * @param providedDBPoolName if not null, it will use the built in Connection pool with the passed Name
+     * @param sqlDialect the dialect to use
+     * @param pool the settings of the own connection-pools, ignored if providedDBPoolName is not null
+     * @param metrics the registry to report the state of the own connection-pools to
+     * @param replicaUrl if not null, the url to a read-replica of the database, which is accessed with the same user
+     * @throws NamingException if there was a problem establishing a connection to the provided database-pool
+     * @throws SQLException if there was a problem establishing a connection to the database
+     */
+    public DatabaseManager(String userName, String password, String url, String providedDBPoolName, SQLDialect sqlDialect,
+                           DatabasePool pool, MetricsRegistry metrics, String replicaUrl) throws NamingException, SQLException {
         this.url = url;
         DataSource ds = null;
         if (providedDBPoolName != null) {
             ds = (DataSource) new InitialContext().lookup(providedDBPoolName);
         } else {
-            //TODO performance tweaking maybe?
-            HikariDataSource hds = new HikariDataSource();
-            hds.setJdbcUrl(url);
-            hds.setUsername(userName);
-            hds.setPassword(password);
-            ds = hds;
+            ds = createPool(userName, password, url, pool, new PoolMetricsTrackerFactory(metrics, "db.pool"));
         }
         this.ds = ds;
         context = DSL.using(this.ds, sqlDialect);
+        if (replicaUrl != null) {
+            readContext = DSL.using(createPool(userName, password, replicaUrl, pool,
+                    new PoolMetricsTrackerFactory(metrics, "db.replica")), sqlDialect);
+        } else {
+            readContext = context;
+        }
     }
 
     /**
-     * Initializes the database if not already initialized.
-     * @throws SQLException if there was a problem establishing a connection to the database
-     * @throws IllegalStateException if the version does not match the current version
+     * creates a new connection-pool.
+     * @param userName the username for the database
+     * @param password the password for the database
+     * @param url the url to the database
+     * @param pool the settings of the pool
+     * @param metricsTrackerFactory reports the state of the pool
+     * @return the pool
      */
-    public void initDatabase() throws SQLException, IllegalStateException {
-        createSchemaIfNotExisting();
-        checkDBVersion();
+    private static HikariDataSource createPool(String userName, String password, String url, DatabasePool pool,
+                                               PoolMetricsTrackerFactory metricsTrackerFactory) {
+        HikariDataSource hds = new HikariDataSource();
+        hds.setJdbcUrl(url);
+        hds.setUsername(userName);
+        hds.setPassword(password);
+        configurePool(hds, pool);
+        hds.setMetricsTrackerFactory(metricsTrackerFactory);
+        return hds;
     }
 
     /**
-     * Checks whether the db matches the current version and if not throws an exception.
-     * @throws IllegalStateException if the version does not match the current version
+     * applies the settings to the connection-pool.
+     * The statement-cache settings are passed to the driver and are only understood by MySQL.
+     * @param hds the pool to configure
+     * @param pool the settings to apply
+     */
+    static void configurePool(HikariDataSource hds, DatabasePool pool) {
+        hds.setMaximumPoolSize(pool.maximumPoolSize);
+        if (pool.minimumIdle >= 0) {
+            hds.setMinimumIdle(pool.minimumIdle);
+        }
+        hds.setConnectionTimeout(pool.connectionTimeout);
+        hds.setIdleTimeout(pool.idleTimeout);
+        hds.setMaxLifetime(pool.maxLifetime);
+        hds.setLeakDetectionThreshold(pool.leakDetectionThreshold);
+        hds.addDataSourceProperty("cachePrepStmts", pool.cachePrepStmts);
+        hds.addDataSourceProperty("prepStmtCacheSize", pool.prepStmtCacheSize);
+        hds.addDataSourceProperty("prepStmtCacheSqlLimit", pool.prepStmtCacheSqlLimit);
+        hds.addDataSourceProperty("useServerPrepStmts", pool.useServerPrepStmts);
+        hds.addDataSourceProperty("rewriteBatchedStatements", pool.rewriteBatchedStatements);
+    }
+
+    /**
+     * Initializes the database if not already initialized and migrates it to the current version.
+     * An already migrated database is verified with a single query.
+     * @throws SQLException if there was a problem establishing a connection to the database
+     * @throws IllegalStateException if the version does not match the current version and can not be migrated
      */
-    private void checkDBVersion() throws IllegalStateException {
-        Integer dbVersion = context.select(DATABASE_VERSION.VERSION)
-                .from(DATABASE_VERSION)
-                .orderBy(DATABASE_VERSION.TIMESTAMP.desc())
-                .limit(1)
-                .fetchOptional()
-                .map(Record1::value1)
-                .orElseGet(() -> {
-                    context.executeInsert(new DatabaseVersionRecord(null, currentVersion, Timestamp.valueOf(LocalDateTime.now())));
-                    return currentVersion;
-                });
-        if (dbVersion != currentVersion) {
-            throw new IllegalStateException(String.format(
-                    "Database Version is %d but the object-service expects %d",
-                    dbVersion,
-                    currentVersion
-            ));
+    public void initDatabase() throws SQLException, IllegalStateException {
+        if (Boolean.getBoolean("dropSchema")) {
+            String drop = "DROP DATABASE `crowdcontrol`;";
+            context.execute(drop);
+        }
+        SchemaMigrator migrator = new SchemaMigrator(context, currentVersion);
+        Optional<Integer> version = migrator.getVersion();
+        if (version.isPresent()) {
+            migrator.migrate(version.get());
+        } else {
+            createSchemaIfNotExisting();
+            migrator.baseline();
         }
     }
 
@@ -133,10 +180,6 @@ public class DatabaseManager {
     private void createSchemaIfNotExisting() throws SQLException {
         try (InputStream in = DatabaseManager.class.getResourceAsStream("/db.sql")) {
             String initScript = IOUtils.toString(in, "UTF-8");
-            if (Boolean.getBoolean("dropSchema")) {
-                String drop = "DROP DATABASE `crowdcontrol`;";
-                context.execute(drop);
-            }
             try {
                 context.selectFrom(Tables.EXPERIMENT).fetchAny();
             } catch (DataAccessException e) {
@@ -168,6 +211,15 @@ public class DatabaseManager {
         return context;
     }
 
+    /**
+     * returns the Context used for reads, which may lag behind the database.
+     * If no read-replica is configured, this is the same as {@link #getContext()}.
+     * @return an instance of DSLContext
+     */
+    public DSLContext getReadContext() {
+        return readContext;
+    }
+
     /**
      * returns the Connection used to communicate with the database.
      * @return an instance of Connection
@@ -11,10 +11,7 @@ import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.exceptions.InternalServerErrorException;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.exceptions.NotFoundException;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -31,6 +28,7 @@ public class ExperimentFetcher {
     private final TagConstraintsOperations tagConstraintsOperations;
     private final AlgorithmOperations algorithmOperations;
     private final CalibrationOperations calibrationOperations;
+    private final ExperimentCache cache;
 
     /**
      * Create a new Experiment Fetcher
@@ -41,11 +39,25 @@ public class ExperimentFetcher {
      * @param calibrationOperations Operations to use
      */
     public ExperimentFetcher(ExperimentOperations experimentOperations, ExperimentsPlatformOperations experimentsPlatformOperations, TagConstraintsOperations tagConstraintsOperations, AlgorithmOperations algorithmOperations, CalibrationOperations calibrationOperations) {
+        this(experimentOperations, experimentsPlatformOperations, tagConstraintsOperations, algorithmOperations, calibrationOperations, ExperimentCache.disabled());
+    }
+
+    /**
+     * Create a new Experiment Fetcher caching the fetched experiments
+     * @param experimentOperations Operations to use
+     * @param experimentsPlatformOperations Operations to use
+     * @param tagConstraintsOperations Operations to use
+     * @param algorithmOperations Operations to use
+     * @param calibrationOperations Operations to use
+     * @param cache the cache of the experiments, invalidated by the operations and the experiment-events
+     */
+    public ExperimentFetcher(ExperimentOperations experimentOperations, ExperimentsPlatformOperations experimentsPlatformOperations, TagConstraintsOperations tagConstraintsOperations, AlgorithmOperations algorithmOperations, CalibrationOperations calibrationOperations, ExperimentCache cache) {
         this.experimentOperations = experimentOperations;
         this.experimentsPlatformOperations = experimentsPlatformOperations;
         this.tagConstraintsOperations = tagConstraintsOperations;
         this.algorithmOperations = algorithmOperations;
         this.calibrationOperations = calibrationOperations;
+        this.cache = cache;
     }
 
     /**
@@ -60,19 +72,136 @@ public class ExperimentFetcher {
             CalibrationAnswerOptionRecord acceptedAnswer = calibrationOperations.getCalibrationAnswerOption(record.getAnswer())
                     .orElseThrow(() -> new InternalServerErrorException(String.format("CalibrationAnswerOption: %s not found", record.getAnswer())));
 
-            Calibration.Answer answer = Calibration.Answer.newBuilder()
-                    .setAnswer(acceptedAnswer.getAnswer())
-                    .setId(acceptedAnswer.getIdCalibrationAnswerOption())
-                    .build();
+            return toCalibration(acceptedAnswer, calibrationOperations.getCalibration(acceptedAnswer.getCalibration()));
+        };
+
+        return toPopulations(experimentOperations.getCalibrations(id), experimentsPlatformOperations.getActivePlatforms(id), toCalibration);
+    }
+
+    /**
+     * Fetches the experiments and all needed information from the db and creates the Proto-Experiment Objects.
+     * <p>
+     * Every relation is fetched with one query for all experiments, so the number of queries does not depend on
+     * the number of experiments.
+     *
+     * @param ids database ids to use
+     *
+     * @return the experiments in the order of the passed ids, experiments which do not exist are left out
+     */
+    public List<Experiment> fetchExperiments(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Integer, ExperimentRecord> experimentRecords = experimentOperations.getExperiments(ids);
+        Map<Integer, Experiment.State> states = experimentOperations.getExperimentStates(ids);
+        Map<Integer, List<RatingOptionExperimentRecord>> ratingOptions = experimentOperations.getRatingOptions(ids);
+        Map<Integer, List<TagRecord>> tagRecords = tagConstraintsOperations.getTags(ids);
+        Map<Integer, List<ConstraintRecord>> constraintRecords = tagConstraintsOperations.getConstraints(ids);
+        Map<Integer, List<Experiment.Population>> populations = getPopulations(ids);
+
+        Map<String, AlgorithmTaskChooserRecord> taskChoosers = algorithmOperations.getTaskChoosers(
+                getAlgorithms(experimentRecords.values(), ExperimentRecord::getAlgorithmTaskChooser));
+        Map<String, AlgorithmAnswerQualityRecord> answerQualities = algorithmOperations.getAnswerQualityRecords(
+                getAlgorithms(experimentRecords.values(), ExperimentRecord::getAlgorithmQualityAnswer));
+        Map<String, AlgorithmRatingQualityRecord> ratingQualities = algorithmOperations.getRatingQualityRecords(
+                getAlgorithms(experimentRecords.values(), ExperimentRecord::getAlgorithmQualityRating));
+        Map<Integer, Map<AlgorithmTaskChooserParamRecord, String>> taskChooserParams = algorithmOperations.getTaskChooserParams(ids);
+        Map<Integer, Map<AlgorithmAnswerQualityParamRecord, String>> answerQualityParams = algorithmOperations.getAnswerQualityParams(ids);
+        Map<Integer, Map<AlgorithmRatingQualityParamRecord, String>> ratingQualityParams = algorithmOperations.getRatingQualityParams(ids);
+
+        return ids.stream()
+                .distinct()
+                .map(experimentRecords::get)
+                .filter(Objects::nonNull)
+                .map(experimentRecord -> {
+                    int id = experimentRecord.getIdExperiment();
+                    AlgorithmOption taskChooser = Optional.ofNullable(experimentRecord.getAlgorithmTaskChooser())
+                            .map(taskChoosers::get)
+                            .map(record -> AlgorithmsTransformer.toTaskChooserProto(record,
+                                    taskChooserParams.getOrDefault(id, Collections.emptyMap())))
+                            .orElse(null);
+                    AlgorithmOption answerQuality = Optional.ofNullable(experimentRecord.getAlgorithmQualityAnswer())
+                            .map(answerQualities::get)
+                            .map(record -> AlgorithmsTransformer.toAnswerQualityProto(record,
+                                    answerQualityParams.getOrDefault(id, Collections.emptyMap())))
+                            .orElse(null);
+                    AlgorithmOption ratingQuality = Optional.ofNullable(experimentRecord.getAlgorithmQualityRating())
+                            .map(ratingQualities::get)
+                            .map(record -> AlgorithmsTransformer.toRatingQualityProto(record,
+                                    ratingQualityParams.getOrDefault(id, Collections.emptyMap())))
+                            .orElse(null);
+
+                    return ExperimentTransformer.toProto(experimentRecord,
+                            states.get(id),
+                            constraintRecords.getOrDefault(id, Collections.emptyList()),
+                            populations.getOrDefault(id, Collections.emptyList()),
+                            tagRecords.getOrDefault(id, Collections.emptyList()),
+                            ratingOptions.getOrDefault(id, Collections.emptyList()),
+                            taskChooser,
+                            answerQuality,
+                            ratingQuality);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the populations of the experiments, loading the calibrations of all experiments at once.
+     *
+     * @param ids the ids of the experiments
+     * @return a map from the id of the experiment to its populations
+     * @see #getPopulations(int)
+     */
+    private Map<Integer, List<Experiment.Population>> getPopulations(Collection<Integer> ids) {
+        Map<ExperimentsPlatformRecord, List<ExperimentsCalibrationRecord>> calibrations = experimentOperations.getCalibrations(ids);
+        Map<Integer, Map<String, ExperimentsPlatformModeMode>> activePlatforms = experimentsPlatformOperations.getActivePlatforms(ids);
+
+        Map<Integer, CalibrationAnswerOptionRecord> acceptedAnswers = calibrationOperations.getCalibrationAnswerOptions(
+                calibrations.values().stream()
+                        .flatMap(List::stream)
+                        .map(ExperimentsCalibrationRecord::getAnswer)
+                        .collect(Collectors.toSet()));
+        Map<Integer, Calibration> calibrationProtos = calibrationOperations.getCalibrations(
+                acceptedAnswers.values().stream()
+                        .map(CalibrationAnswerOptionRecord::getCalibration)
+                        .collect(Collectors.toSet()));
+
+        Function<ExperimentsCalibrationRecord, Calibration.Builder> toCalibration = record -> {
+            CalibrationAnswerOptionRecord acceptedAnswer = Optional.ofNullable(acceptedAnswers.get(record.getAnswer()))
+                    .orElseThrow(() -> new InternalServerErrorException(String.format("CalibrationAnswerOption: %s not found", record.getAnswer())));
 
-            return calibrationOperations.getCalibration(acceptedAnswer.getCalibration())
-                    .map(calibration -> calibration.toBuilder().addAcceptedAnswers(answer))
-                    .orElseThrow(() -> new InternalServerErrorException(String.format("Calibration: %d not found", acceptedAnswer.getCalibration())));
+            return toCalibration(acceptedAnswer, Optional.ofNullable(calibrationProtos.get(acceptedAnswer.getCalibration())));
         };
 
+        Map<Integer, Map<ExperimentsPlatformRecord, List<ExperimentsCalibrationRecord>>> calibrationsByExperiment = calibrations.entrySet().stream()
+                .collect(Collectors.groupingBy(entry -> entry.getKey().getExperiment(),
+                        Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+
+        return ids.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), id -> toPopulations(
+                        calibrationsByExperiment.getOrDefault(id, Collections.emptyMap()),
+                        activePlatforms.getOrDefault(id, Collections.emptyMap()),
+                        toCalibration)));
+    }
+
+    private Calibration.Builder toCalibration(CalibrationAnswerOptionRecord acceptedAnswer, Optional<Calibration> calibration) {
+        Calibration.Answer answer = Calibration.Answer.newBuilder()
+                .setAnswer(acceptedAnswer.getAnswer())
+                .setId(acceptedAnswer.getIdCalibrationAnswerOption())
+                .build();
+
+        return calibration
+                .map(found -> found.toBuilder().addAcceptedAnswers(answer))
+                .orElseThrow(() -> new InternalServerErrorException(String.format("Calibration: %d not found", acceptedAnswer.getCalibration())));
+    }
+
+    private List<Experiment.Population> toPopulations(Map<ExperimentsPlatformRecord, List<ExperimentsCalibrationRecord>> calibrations,
+                                                      Map<String, ExperimentsPlatformModeMode> activePlatforms,
+                                                      Function<ExperimentsCalibrationRecord, Calibration.Builder> toCalibration) {
         BiFunction<String, List<Calibration.Builder>, Experiment.Population.Builder> toPopulation = (name , calibrationsBuilders) -> {
             //normalize, multiple chosen answers from the same Calibration were multiple objects
-            List<Calibration> calibrations = calibrationsBuilders.stream()
+            List<Calibration> calibrationList = calibrationsBuilders.stream()
                     .collect(Collectors.groupingBy(
                             Calibration.Builder::getId,
                             Collectors.toList())
@@ -85,10 +214,10 @@ public class ExperimentFetcher {
 
             return Experiment.Population.newBuilder()
                     .setPlatformId(name)
-                    .addAllCalibrations(calibrations);
+                    .addAllCalibrations(calibrationList);
         };
 
-        Map<String, Experiment.Population.Builder> populations = experimentOperations.getCalibrations(id).entrySet().stream()
+        Map<String, Experiment.Population.Builder> populations = calibrations.entrySet().stream()
                 .map(entry -> toPopulation.apply(entry.getKey().getPlatform(), entry.getValue().stream().map(toCalibration).collect(Collectors.toList())))
                 .collect(Collectors.toMap(Experiment.Population.Builder::getPlatformId, Function.identity()));
 
@@ -101,7 +230,7 @@ public class ExperimentFetcher {
             return Experiment.Population.Task.BOTH;
         };
 
-        experimentsPlatformOperations.getActivePlatforms(id).entrySet()
+        activePlatforms.entrySet()
                 .forEach(entry -> {
                     if (!populations.containsKey(entry.getKey())) {
                         populations.put(entry.getKey(), Experiment.Population.newBuilder().setPlatformId(entry.getKey()));
@@ -115,6 +244,13 @@ public class ExperimentFetcher {
                 .collect(Collectors.toList());
     }
 
+    private Set<String> getAlgorithms(Collection<ExperimentRecord> experimentRecords, Function<ExperimentRecord, String> algorithm) {
+        return experimentRecords.stream()
+                .map(algorithm)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
     /**
      * Fetches a new Experiment and all needed information from the db and creates a new Proto-Experiment Object.
      *
@@ -124,6 +260,10 @@ public class ExperimentFetcher {
      * @throws NotFoundException for the case the experiment if not found
      */
     public Experiment fetchExperiment(int id) {
+        return cache.getExperiment(id, () -> fetchUncached(id));
+    }
+
+    private Experiment fetchUncached(int id) {
         ExperimentRecord experimentRecord = experimentOperations.getExperiment(id).orElseThrow(NotFoundException::new);
         Experiment.State state = experimentOperations.getExperimentState(id);
         List<RatingOptionExperimentRecord> ratingOptions = experimentOperations.getRatingOptions(id);
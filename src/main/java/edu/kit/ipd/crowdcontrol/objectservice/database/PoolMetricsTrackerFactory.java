@@ -0,0 +1,70 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the state of the connection-pool to the metrics.
+ * <p>
+ * The number of active, idle and total connections and of the threads waiting for a connection are reported as
+ * gauges, the time to acquire a connection and the time a connection is in use as histograms.
+ */
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+    private final MetricsRegistry metrics;
+    private final String prefix;
+
+    /**
+     * creates a new PoolMetricsTrackerFactory.
+     * @param metrics the registry to report to
+     * @param prefix the prefix of the names of the metrics, e.g. db.pool
+     */
+    public PoolMetricsTrackerFactory(MetricsRegistry metrics, String prefix) {
+        this.metrics = metrics;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        metrics.gauge(prefix + ".active", poolStats::getActiveConnections);
+        metrics.gauge(prefix + ".idle", poolStats::getIdleConnections);
+        metrics.gauge(prefix + ".total", poolStats::getTotalConnections);
+        metrics.gauge(prefix + ".pending", poolStats::getPendingThreads);
+        return new Tracker(metrics, prefix);
+    }
+
+    /**
+     * Records the timings of the connections
+     */
+    private static class Tracker implements IMetricsTracker {
+        private final Histogram acquire;
+        private final Histogram usage;
+        private final Counter timeouts;
+
+        private Tracker(MetricsRegistry metrics, String prefix) {
+            acquire = metrics.histogram(prefix + ".acquire");
+            usage = metrics.histogram(prefix + ".usage");
+            timeouts = metrics.counter(prefix + ".timeouts");
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
+}
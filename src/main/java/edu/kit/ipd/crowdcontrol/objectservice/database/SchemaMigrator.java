@@ -0,0 +1,296 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.DatabaseVersionRecord;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record1;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.DATABASE_VERSION;
+
+/**
+ * Upgrades the database from its version to the current version of the object-service.
+ * <p>
+ * Every version after the first has a migration-script /migrations/[version].sql. The scripts are applied in order,
+ * statement by statement, and recorded with their checksum in Schema_Migration. Before new scripts are applied,
+ * the checksums of the applied scripts are verified, so changes to released scripts are detected.
+ * The row in Schema_Migration_Lock makes sure, that only one object-service migrates at a time.
+ * <p>
+ * MySQL commits every DDL-statement on its own, so the scripts should change every table with one
+ * ALTER TABLE ... ALGORITHM=INPLACE, LOCK=NONE to keep the table online and scan it only once.
+ */
+public class SchemaMigrator {
+    private static final Logger LOGGER = LogManager.getLogger(SchemaMigrator.class);
+    private static final Table<?> MIGRATION = DSL.table(DSL.name("crowdcontrol", "Schema_Migration"));
+    private static final Field<Integer> MIGRATION_VERSION = DSL.field(DSL.name("version"), Integer.class);
+    private static final Field<String> MIGRATION_CHECKSUM = DSL.field(DSL.name("checksum"), String.class);
+    private static final Field<Long> MIGRATION_EXECUTION_TIME = DSL.field(DSL.name("execution_time"), Long.class);
+    private static final Table<?> LOCK = DSL.table(DSL.name("crowdcontrol", "Schema_Migration_Lock"));
+    private static final Field<Integer> LOCK_ID = DSL.field(DSL.name("id"), Integer.class);
+    private static final Field<String> LOCK_LOCKED_BY = DSL.field(DSL.name("locked_by"), String.class);
+    private static final Field<Timestamp> LOCK_LOCKED_AT = DSL.field(DSL.name("locked_at"), Timestamp.class);
+
+    private final DSLContext create;
+    private final int currentVersion;
+    private final String location;
+    private final long lockTimeout;
+    private final long staleLock;
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * creates a new SchemaMigrator using the scripts in /migrations/.
+     * @param create the context to use to communicate with the database
+     * @param currentVersion the version the object-service expects
+     */
+    public SchemaMigrator(DSLContext create, int currentVersion) {
+        this(create, currentVersion, "/migrations/", TimeUnit.MINUTES.toMillis(10), TimeUnit.HOURS.toMillis(1));
+    }
+
+    /**
+     * creates a new SchemaMigrator.
+     * @param create the context to use to communicate with the database
+     * @param currentVersion the version the object-service expects
+     * @param location the resource-directory containing the migration-scripts, ending with /
+     * @param lockTimeout the time in milliseconds to wait for the migration-lock
+     * @param staleLock the time in milliseconds after which a lock is considered abandoned
+     */
+    SchemaMigrator(DSLContext create, int currentVersion, String location, long lockTimeout, long staleLock) {
+        this.create = create;
+        this.currentVersion = currentVersion;
+        this.location = location;
+        this.lockTimeout = lockTimeout;
+        this.staleLock = staleLock;
+    }
+
+    /**
+     * returns the version of the database with a single query.
+     * @return the version, or empty if the schema does not exist or has no version yet
+     */
+    public Optional<Integer> getVersion() {
+        try {
+            return create.select(DATABASE_VERSION.VERSION)
+                    .from(DATABASE_VERSION)
+                    .orderBy(DATABASE_VERSION.TIMESTAMP.desc(), DATABASE_VERSION.IDDATABASE_VERSION.desc())
+                    .limit(1)
+                    .fetchOptional()
+                    .map(Record1::value1);
+        } catch (DataAccessException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * records that a freshly created schema is in the current version. The scripts up to the current version are
+     * recorded as applied, because db.sql always creates the current version.
+     * @throws IllegalStateException if a migration-script is missing
+     */
+    public void baseline() throws IllegalStateException {
+        createMigrationTables();
+        for (int version = 1; version <= currentVersion; version++) {
+            Optional<String> script = loadScript(version);
+            if (script.isPresent()) {
+                recordMigration(version, checksum(script.get()), 0);
+            }
+        }
+        create.executeInsert(new DatabaseVersionRecord(null, currentVersion, Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /**
+     * migrates the database from the passed version to the current version.
+     * @param version the version of the database, as returned by {@link #getVersion()}
+     * @throws IllegalStateException if the database is newer than the object-service, a checksum does not match,
+     *                               a script is missing or the lock could not be acquired
+     */
+    public void migrate(int version) throws IllegalStateException {
+        if (version > currentVersion) {
+            throw new IllegalStateException(String.format(
+                    "Database Version is %d but the object-service expects %d", version, currentVersion));
+        } else if (version == currentVersion) {
+            return;
+        }
+        createMigrationTables();
+        lock();
+        try {
+            // an other object-service may have migrated while we were waiting for the lock
+            int locked = getVersion().orElse(version);
+            verifyChecksums();
+            for (int next = locked + 1; next <= currentVersion; next++) {
+                apply(next);
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * compares the checksums of the applied scripts with the scripts of the object-service.
+     * @throws IllegalStateException if an applied script was changed
+     */
+    private void verifyChecksums() throws IllegalStateException {
+        Map<Integer, String> applied = create.select(MIGRATION_VERSION, MIGRATION_CHECKSUM)
+                .from(MIGRATION)
+                .fetchMap(MIGRATION_VERSION, MIGRATION_CHECKSUM);
+        applied.forEach((version, checksum) -> loadScript(version)
+                .map(this::checksum)
+                .filter(actual -> !actual.equals(checksum))
+                .ifPresent(actual -> {
+                    throw new IllegalStateException("the migration-script of version " + version
+                            + " was changed after it was applied");
+                }));
+    }
+
+    /**
+     * applies the script of the version and records it.
+     * @param version the version to migrate to
+     * @throws IllegalStateException if the script is missing
+     */
+    private void apply(int version) throws IllegalStateException {
+        String script = loadScript(version)
+                .orElseThrow(() -> new IllegalStateException("No migration to database version " + version));
+        LOGGER.info("migrating database to version {}", version);
+        long start = System.nanoTime();
+        for (String statement : splitStatements(script)) {
+            long statementStart = System.nanoTime();
+            create.execute(statement);
+            LOGGER.debug("executed {} in {}ms", statement,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - statementStart));
+        }
+        long executionTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        recordMigration(version, checksum(script), executionTime);
+        create.executeInsert(new DatabaseVersionRecord(null, version, Timestamp.valueOf(LocalDateTime.now())));
+        LOGGER.info("migrated database to version {} in {}ms", version, executionTime);
+    }
+
+    private void recordMigration(int version, String checksum, long executionTime) {
+        create.insertInto(MIGRATION, MIGRATION_VERSION, MIGRATION_CHECKSUM, MIGRATION_EXECUTION_TIME)
+                .values(version, checksum, executionTime)
+                .onDuplicateKeyIgnore()
+                .execute();
+    }
+
+    /**
+     * waits until the lock is acquired.
+     * @throws IllegalStateException if the lock could not be acquired within the timeout
+     */
+    private void lock() throws IllegalStateException {
+        create.insertInto(LOCK, LOCK_ID)
+                .values(1)
+                .onDuplicateKeyIgnore()
+                .execute();
+        long deadline = System.currentTimeMillis() + lockTimeout;
+        while (true) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            int acquired = create.update(LOCK)
+                    .set(LOCK_LOCKED_BY, owner)
+                    .set(LOCK_LOCKED_AT, now)
+                    .where(LOCK_ID.eq(1))
+                    .and(LOCK_LOCKED_BY.isNull()
+                            .or(LOCK_LOCKED_AT.lessThan(new Timestamp(now.getTime() - staleLock))))
+                    .execute();
+            if (acquired == 1) {
+                return;
+            } else if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("unable to acquire the migration-lock, an other object-service "
+                        + "is migrating the database");
+            }
+            LOGGER.info("waiting for the migration-lock");
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for the migration-lock", e);
+            }
+        }
+    }
+
+    private void unlock() {
+        create.update(LOCK)
+                .set(LOCK_LOCKED_BY, (String) null)
+                .set(LOCK_LOCKED_AT, (Timestamp) null)
+                .where(LOCK_ID.eq(1))
+                .and(LOCK_LOCKED_BY.eq(owner))
+                .execute();
+    }
+
+    /**
+     * creates the tables of the migrations, if not existing.
+     */
+    private void createMigrationTables() {
+        String script = loadResource(location + "schema_migration.sql")
+                .orElseThrow(() -> new IllegalStateException("unable to read " + location + "schema_migration.sql"));
+        splitStatements(script).forEach(create::execute);
+    }
+
+    private Optional<String> loadScript(int version) {
+        return loadResource(location + version + ".sql");
+    }
+
+    private Optional<String> loadResource(String name) {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(name)) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            return Optional.of(IOUtils.toString(in, "UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to read " + name, e);
+        }
+    }
+
+    /**
+     * splits the script into its statements, dropping comments and empty statements.
+     * @param script the script, where every statement ends with ;
+     * @return the statements
+     */
+    static List<String> splitStatements(String script) {
+        String withoutComments = Arrays.stream(script.split("\n"))
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        List<String> statements = new ArrayList<>();
+        for (String statement : withoutComments.split(";")) {
+            if (!statement.trim().isEmpty()) {
+                statements.add(statement.trim());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * computes the checksum of the script, ignoring the line endings.
+     * @param script the script
+     * @return the SHA-256 of the script as hex
+     */
+    String checksum(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
@@ -24,14 +24,56 @@ import static edu.kit.ipd.crowdcontrol.objectservice.database.model.enums.Experi
  * @version 1.0
  */
 public abstract class AbstractOperations {
+    /**
+     * the number of doIf*-functions the current thread is executing, reads are routed to the primary meanwhile
+     */
+    private static final ThreadLocal<int[]> onPrimary = ThreadLocal.withInitial(() -> new int[1]);
     protected final DSLContext create;
+    private final DSLContext read;
 
     /**
      * creates a new AbstractOperation
      * @param create the context to use to communicate with the database
      */
     protected AbstractOperations(DSLContext create) {
+        this(create, create);
+    }
+
+    /**
+     * creates a new AbstractOperation
+     * @param create the context to use to communicate with the database
+     * @param read the context to use for reads, which tolerate a lag behind create (e.g. a read-replica)
+     */
+    protected AbstractOperations(DSLContext create, DSLContext read) {
         this.create = create;
+        this.read = read;
+    }
+
+    /**
+     * returns the context for read-only queries, which may return slightly outdated data.
+     * <p>
+     * While the current thread executes one of the doIf*-functions, create is returned, so the function reads its
+     * own writes.
+     * @return the context to read from
+     */
+    protected DSLContext read() {
+        return onPrimary.get()[0] > 0 ? create : read;
+    }
+
+    /**
+     * executes the function in a transaction on create, while routing all reads of the current thread to create.
+     * @param function the function to execute
+     * @param <R> the return type
+     * @return the result of the function
+     */
+    private <R> R transactionOnPrimary(TransactionalCallable<R> function) {
+        int[] depth = onPrimary.get();
+        depth[0]++;
+        try {
+            return create.transactionResult(function);
+        } finally {
+            depth[0]--;
+        }
     }
 
     /**
@@ -43,7 +85,7 @@ public abstract class AbstractOperations {
      * @throws IllegalStateException if the experiment is running
      */
     protected <R> R doIfDraft(int experimentID, Function<Configuration, R> function) throws IllegalStateException {
-        return create.transactionResult(trans -> {
+        return transactionOnPrimary(trans -> {
             boolean notDraft = DSL.using(trans).fetchExists(
                     DSL.selectFrom(Tables.EXPERIMENTS_PLATFORM_STATUS)
                             .where(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM.in(
@@ -62,6 +104,27 @@ public abstract class AbstractOperations {
         });
     }
 
+    /**
+     * the condition for the platform-statuses of an experiment, which is met by the platforms the experiment
+     * is running on.
+     * @param experimentID the id of the experiment
+     * @return the condition on EXPERIMENTS_PLATFORM_STATUS
+     */
+    protected Condition isRunning(int experimentID) {
+        return Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM.in(
+                DSL.select(Tables.EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS)
+                        .from(Tables.EXPERIMENTS_PLATFORM)
+                        .where(Tables.EXPERIMENTS_PLATFORM.EXPERIMENT.eq(experimentID))
+        )
+                .and(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
+                        .eq(ExperimentsPlatformStatusPlatformStatus.running)
+                        .or(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
+                                .eq(ExperimentsPlatformStatusPlatformStatus.creative_stopping))
+                        .or(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
+                                .eq(ExperimentsPlatformStatusPlatformStatus.shutdown))
+                );
+    }
+
     /**
      * executes the function if the experiment is running.
      * @param experimentID the id of the experiment
@@ -73,22 +136,10 @@ public abstract class AbstractOperations {
     protected <R> R doIfRunning(int experimentID, Function<Configuration, R> function) throws IllegalStateException {
         boolean running = create.fetchExists(
                 DSL.selectFrom(Tables.EXPERIMENTS_PLATFORM_STATUS)
-                        .where(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM.in(
-                                DSL.select(Tables.EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS)
-                                        .from(Tables.EXPERIMENTS_PLATFORM)
-                                        .where(Tables.EXPERIMENTS_PLATFORM.EXPERIMENT.eq(experimentID))
-                        ))
-                        .and(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
-                                .eq(ExperimentsPlatformStatusPlatformStatus.running)
-                                .or(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
-                                    .eq(ExperimentsPlatformStatusPlatformStatus.creative_stopping))
-                                .or(Tables.EXPERIMENTS_PLATFORM_STATUS.PLATFORM_STATUS
-                                    .eq(ExperimentsPlatformStatusPlatformStatus.shutdown))
-                        )
-
+                        .where(isRunning(experimentID))
         );
         if (running) {
-            return create.transactionResult(function::apply);
+            return transactionOnPrimary(function::apply);
         } else {
             throw new IllegalStateException("Experiment is not running: " + experimentID);
         }
@@ -103,7 +154,7 @@ public abstract class AbstractOperations {
      * @throws IllegalStateException if the experiment is running
      */
     protected <R> R doIfNotRunning(int experimentID, Function<Configuration, R> function) throws IllegalStateException {
-        return create.transactionResult(trans -> {
+        return transactionOnPrimary(trans -> {
             ExperimentsPlatformStatus status1 = EXPERIMENTS_PLATFORM_STATUS.as("mode1");
             ExperimentsPlatformStatus status2 = EXPERIMENTS_PLATFORM_STATUS.as("mode2");
             Set<ExperimentsPlatformStatusPlatformStatus> statuses = DSL.using(trans).select(EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS, status1.PLATFORM_STATUS)
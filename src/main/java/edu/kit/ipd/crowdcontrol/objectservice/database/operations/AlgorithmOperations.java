@@ -28,6 +28,16 @@ public class AlgorithmOperations extends AbstractOperations {
         super(create);
     }
 
+    /**
+     * creates a new AlgorithmsOperations
+     *
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the algorithms of listed experiments from, may lag behind create
+     */
+    public AlgorithmOperations(DSLContext create, DSLContext read) {
+        super(create, read);
+    }
+
     /**
      * returns all the Task-Choosers as AlgorithmOptions
      * @return a List of AlgorithmOptions
@@ -196,6 +206,39 @@ public class AlgorithmOperations extends AbstractOperations {
                 .fetchOptional();
     }
 
+    /**
+     * returns the TaskChooser-Algorithms with the passed primary keys
+     * @param ids the primary keys of the TaskChooser-Algorithms
+     * @return a map from the primary key to the TaskChooser-Algorithm, missing algorithms are not contained
+     */
+    public Map<String, AlgorithmTaskChooserRecord> getTaskChoosers(Collection<String> ids) {
+        return read().selectFrom(ALGORITHM_TASK_CHOOSER)
+                .where(ALGORITHM_TASK_CHOOSER.ID_TASK_CHOOSER.in(ids))
+                .fetchMap(ALGORITHM_TASK_CHOOSER.ID_TASK_CHOOSER);
+    }
+
+    /**
+     * returns the RatingQuality-Algorithms with the passed primary keys
+     * @param ids the primary keys of the RatingQuality-Algorithms
+     * @return a map from the primary key to the RatingQuality-Algorithm, missing algorithms are not contained
+     */
+    public Map<String, AlgorithmRatingQualityRecord> getRatingQualityRecords(Collection<String> ids) {
+        return read().selectFrom(ALGORITHM_RATING_QUALITY)
+                .where(ALGORITHM_RATING_QUALITY.ID_ALGORITHM_RATING_QUALITY.in(ids))
+                .fetchMap(ALGORITHM_RATING_QUALITY.ID_ALGORITHM_RATING_QUALITY);
+    }
+
+    /**
+     * returns the AnswerQuality-Algorithms with the passed primary keys
+     * @param ids the primary keys of the AnswerQuality-Algorithms
+     * @return a map from the primary key to the AnswerQuality-Algorithm, missing algorithms are not contained
+     */
+    public Map<String, AlgorithmAnswerQualityRecord> getAnswerQualityRecords(Collection<String> ids) {
+        return read().selectFrom(ALGORITHM_ANSWER_QUALITY)
+                .where(ALGORITHM_ANSWER_QUALITY.ID_ALGORITHM_ANSWER_QUALITY.in(ids))
+                .fetchMap(ALGORITHM_ANSWER_QUALITY.ID_ALGORITHM_ANSWER_QUALITY);
+    }
+
     /**
      * returns the TaskChooser-Algorithm parameters and the chosen value (or null if not yet chosen)
      * @param taskChooserID the primary key of the chosen taskChooser
@@ -246,6 +289,69 @@ public class AlgorithmOperations extends AbstractOperations {
                 .fetchMap(ALGORITHM_RATING_QUALITY_PARAM, record -> record.getValue(CHOSEN_RATING_QUALITY_PARAM.VALUE));
     }
 
+    /**
+     * returns the parameters of the TaskChooser-Algorithms chosen for the experiments and the chosen values
+     * @param experimentIDs the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its parameters and values
+     * @see #getTaskChooserParams(String, int)
+     */
+    public Map<Integer, Map<AlgorithmTaskChooserParamRecord, String>> getTaskChooserParams(Collection<Integer> experimentIDs) {
+        Map<Integer, Map<AlgorithmTaskChooserParamRecord, String>> result = new HashMap<>();
+        read().select(ALGORITHM_TASK_CHOOSER_PARAM.fields())
+                .select(CHOSEN_TASK_CHOOSER_PARAM.EXPERIMENT, CHOSEN_TASK_CHOOSER_PARAM.VALUE)
+                .from(ALGORITHM_TASK_CHOOSER_PARAM)
+                .join(CHOSEN_TASK_CHOOSER_PARAM).onKey()
+                .join(EXPERIMENT).on(EXPERIMENT.ID_EXPERIMENT.eq(CHOSEN_TASK_CHOOSER_PARAM.EXPERIMENT))
+                .where(CHOSEN_TASK_CHOOSER_PARAM.EXPERIMENT.in(experimentIDs))
+                .and(ALGORITHM_TASK_CHOOSER_PARAM.ALGORITHM.eq(EXPERIMENT.ALGORITHM_TASK_CHOOSER))
+                .fetch()
+                .forEach(record -> result.computeIfAbsent(record.getValue(CHOSEN_TASK_CHOOSER_PARAM.EXPERIMENT), id -> new HashMap<>())
+                        .put(record.into(ALGORITHM_TASK_CHOOSER_PARAM), record.getValue(CHOSEN_TASK_CHOOSER_PARAM.VALUE)));
+        return result;
+    }
+
+    /**
+     * returns the parameters of the AnswerQuality-Algorithms chosen for the experiments and the chosen values
+     * @param experimentIDs the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its parameters and values
+     * @see #getAnswerQualityParams(String, int)
+     */
+    public Map<Integer, Map<AlgorithmAnswerQualityParamRecord, String>> getAnswerQualityParams(Collection<Integer> experimentIDs) {
+        Map<Integer, Map<AlgorithmAnswerQualityParamRecord, String>> result = new HashMap<>();
+        read().select(ALGORITHM_ANSWER_QUALITY_PARAM.fields())
+                .select(CHOSEN_ANSWER_QUALITY_PARAM.EXPERIMENT, CHOSEN_ANSWER_QUALITY_PARAM.VALUE)
+                .from(ALGORITHM_ANSWER_QUALITY_PARAM)
+                .join(CHOSEN_ANSWER_QUALITY_PARAM).onKey()
+                .join(EXPERIMENT).on(EXPERIMENT.ID_EXPERIMENT.eq(CHOSEN_ANSWER_QUALITY_PARAM.EXPERIMENT))
+                .where(CHOSEN_ANSWER_QUALITY_PARAM.EXPERIMENT.in(experimentIDs))
+                .and(ALGORITHM_ANSWER_QUALITY_PARAM.ALGORITHM.eq(EXPERIMENT.ALGORITHM_QUALITY_ANSWER))
+                .fetch()
+                .forEach(record -> result.computeIfAbsent(record.getValue(CHOSEN_ANSWER_QUALITY_PARAM.EXPERIMENT), id -> new HashMap<>())
+                        .put(record.into(ALGORITHM_ANSWER_QUALITY_PARAM), record.getValue(CHOSEN_ANSWER_QUALITY_PARAM.VALUE)));
+        return result;
+    }
+
+    /**
+     * returns the parameters of the RatingQuality-Algorithms chosen for the experiments and the chosen values
+     * @param experimentIDs the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its parameters and values
+     * @see #getRatingQualityParams(String, int)
+     */
+    public Map<Integer, Map<AlgorithmRatingQualityParamRecord, String>> getRatingQualityParams(Collection<Integer> experimentIDs) {
+        Map<Integer, Map<AlgorithmRatingQualityParamRecord, String>> result = new HashMap<>();
+        read().select(ALGORITHM_RATING_QUALITY_PARAM.fields())
+                .select(CHOSEN_RATING_QUALITY_PARAM.EXPERIMENT, CHOSEN_RATING_QUALITY_PARAM.VALUE)
+                .from(ALGORITHM_RATING_QUALITY_PARAM)
+                .join(CHOSEN_RATING_QUALITY_PARAM).onKey()
+                .join(EXPERIMENT).on(EXPERIMENT.ID_EXPERIMENT.eq(CHOSEN_RATING_QUALITY_PARAM.EXPERIMENT))
+                .where(CHOSEN_RATING_QUALITY_PARAM.EXPERIMENT.in(experimentIDs))
+                .and(ALGORITHM_RATING_QUALITY_PARAM.ALGORITHM.eq(EXPERIMENT.ALGORITHM_QUALITY_RATING))
+                .fetch()
+                .forEach(record -> result.computeIfAbsent(record.getValue(CHOSEN_RATING_QUALITY_PARAM.EXPERIMENT), id -> new HashMap<>())
+                        .put(record.into(ALGORITHM_RATING_QUALITY_PARAM), record.getValue(CHOSEN_RATING_QUALITY_PARAM.VALUE)));
+        return result;
+    }
+
     /**
      * deletes all the chosen TaskChooser-Algorithm parameters for the passed experiment
      * @param experimentId the primary key of the experiment
@@ -5,6 +5,7 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.*;
 import edu.kit.ipd.crowdcontrol.objectservice.database.transformers.AnswerRatingTransformer;
 import edu.kit.ipd.crowdcontrol.objectservice.database.transformers.ExperimentTransformer;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.CalibrationAnswer;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Constraint;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
 import org.jooq.*;
@@ -14,8 +15,13 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -35,7 +41,20 @@ public class AnswerRatingOperations extends AbstractOperations {
 
     public AnswerRatingOperations(DSLContext create, CalibrationOperations calibrationOperations,
                                   WorkerCalibrationOperations workerCalibrationOperations, ExperimentOperations experimentOperations) {
-        super(create);
+        this(create, create, calibrationOperations, workerCalibrationOperations, experimentOperations);
+    }
+
+    /**
+     * creates a new AnswerRatingOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the listings of answers from, may lag behind create
+     * @param calibrationOperations the operations to query the calibrations with
+     * @param workerCalibrationOperations the operations to store the calibration-answers of the workers with
+     * @param experimentOperations the operations to query the experiments with
+     */
+    public AnswerRatingOperations(DSLContext create, DSLContext read, CalibrationOperations calibrationOperations,
+                                  WorkerCalibrationOperations workerCalibrationOperations, ExperimentOperations experimentOperations) {
+        super(create, read);
         this.calibrationOperations = calibrationOperations;
         this.workerCalibrationOperations = workerCalibrationOperations;
         this.experimentOperations = experimentOperations;
@@ -191,6 +210,24 @@ public class AnswerRatingOperations extends AbstractOperations {
         create.batchUpdate(toUpdate).execute();
     }
 
+    /**
+     * Sets the quality of all ratings of an answer with the passed rating-value.
+     * Ratings which already have the quality are not updated.
+     *
+     * @param answerId the primary key of the rated answer
+     * @param rating   the rating-value of the ratings
+     * @param quality  the quality of the ratings
+     * @return the number of updated ratings
+     */
+    public int setQualityToRatings(int answerId, int rating, int quality) {
+        return create.update(RATING)
+                .set(RATING.QUALITY, quality)
+                .where(RATING.ANSWER_R.eq(answerId))
+                .and(RATING.RATING_.eq(rating))
+                .and(RATING.QUALITY.isNull().or(RATING.QUALITY.ne(quality)))
+                .execute();
+    }
+
     /**
      * Sets quality rating to an answer
      *
@@ -206,62 +243,90 @@ public class AnswerRatingOperations extends AbstractOperations {
 
     /**
      * inserts a new answer into the DB
+     * <p>
+     * All checks, the use of the reservation and the insert are done in one transaction with four statements.
+     * The worker and the reservation are locked first, so the answers of a worker are inserted one at a time
+     * and the worker can not exceed the maximum of allowed answers.
      *
      * @param answerRecord the record to insert
      * @return the resulting record
-     * @throws IllegalArgumentException if the experiment the answers is referring to is not
-     *                                  existing
-     * @throws IllegalStateException    if the worker is not allowed to submit more answers
+     * @throws IllegalArgumentException if the experiment, the worker or the reservation the answers is referring to
+     *                                  is not existing
+     * @throws IllegalStateException    if the worker is not allowed to submit more answers, the experiment is not
+     *                                  running or the reservation is already in use
      */
     public AnswerRecord insertNewAnswer(AnswerRecord answerRecord) throws IllegalArgumentException, IllegalStateException {
         answerRecord.setIdAnswer(null);
-        ExperimentRecord experimentRecord = experimentOperations.getExperiment(answerRecord.getExperiment())
-                .orElseThrow(() -> new IllegalArgumentException("Illegal experiment-value in answer record."));
-        if (getAnswerCount(answerRecord.getWorkerId(), experimentRecord.getIdExperiment()) >= experimentRecord.getAnwersPerWorker()) {
-            throw new IllegalStateException(
-                    String.format("Worker %d already submitted the maximum of allowed answers", answerRecord.getWorkerId())
-            );
+        if (answerRecord.getQualityAssured() == null) {
+            answerRecord.setQualityAssured(false);
         }
-
-        AnswerRecord result = doIfRunning(answerRecord.getExperiment(), conf -> {
-            AnswerReservationRecord reservation = DSL.using(conf).selectFrom(ANSWER_RESERVATION)
-                    .where(ANSWER_RESERVATION.ID_ANSWER_RESERVATION.eq(answerRecord.getReservation()))
-                    .fetchOne();
-
-            if (reservation.getUsed()) {
+        if (answerRecord.getDuplicate() == null) {
+            answerRecord.setDuplicate(false);
+        }
+        int experimentID = answerRecord.getExperiment();
+        int workerID = answerRecord.getWorkerId();
+
+        AnswerRecord result = create.transactionResult(conf -> {
+            Record2<Integer, Boolean> locked = DSL.using(conf).select(WORKER.ID_WORKER, ANSWER_RESERVATION.USED)
+                    .from(WORKER)
+                    .leftJoin(ANSWER_RESERVATION).on(ANSWER_RESERVATION.ID_ANSWER_RESERVATION.eq(answerRecord.getReservation()))
+                    .where(WORKER.ID_WORKER.eq(workerID))
+                    .forUpdate()
+                    .fetchOptional()
+                    .orElseThrow(() -> new IllegalArgumentException("The given worker does not exists!"));
+            if (locked.value2() == null) {
+                throw new IllegalArgumentException(String.format("Reservation %d is not existing", answerRecord.getReservation()));
+            }
+            if (locked.value2()) {
                 throw new IllegalStateException(String.format("Reservation %d is already in use", answerRecord.getReservation()));
             }
 
-            reservation.setUsed(true);
+            // read after the lock was acquired, so it includes all answers of the worker
+            Field<Integer> answersPerWorker = DSL.select(EXPERIMENT.ANWERS_PER_WORKER)
+                    .from(EXPERIMENT)
+                    .where(EXPERIMENT.ID_EXPERIMENT.eq(experimentID))
+                    .asField("answersPerWorker");
+            Field<Integer> answers = DSL.selectCount()
+                    .from(ANSWER)
+                    .where(ANSWER.WORKER_ID.eq(workerID))
+                    .and(ANSWER.EXPERIMENT.eq(experimentID))
+                    .asField("answers");
+            Field<Integer> runningPlatforms = DSL.selectCount()
+                    .from(EXPERIMENTS_PLATFORM_STATUS)
+                    .where(isRunning(experimentID))
+                    .asField("runningPlatforms");
+            Record3<Integer, Integer, Integer> state = DSL.using(conf)
+                    .select(answersPerWorker, answers, runningPlatforms)
+                    .fetchOne();
+            if (state.value1() == null) {
+                throw new IllegalArgumentException("Experiment does not exists!");
+            }
+            if (state.value3() == 0) {
+                throw new IllegalStateException("Experiment is not running: " + experimentID);
+            }
+            if (state.value2() >= state.value1()) {
+                throw new IllegalStateException(
+                        String.format("Worker %d already submitted the maximum of allowed answers", workerID)
+                );
+            }
 
-            DSL.using(conf).executeUpdate(reservation);
+            DSL.using(conf).update(ANSWER_RESERVATION)
+                    .set(ANSWER_RESERVATION.USED, true)
+                    .where(ANSWER_RESERVATION.ID_ANSWER_RESERVATION.eq(answerRecord.getReservation()))
+                    .execute();
 
-            return DSL.using(conf)
+            AnswerRecord inserted = DSL.using(conf)
                     .insertInto(ANSWER)
                     .set(answerRecord)
-                    .returning()
+                    .returning(ANSWER.ID_ANSWER)
                     .fetchOne();
+            answerRecord.setIdAnswer(inserted.getIdAnswer());
+            return answerRecord;
         });
-        addToExperimentCalibration(answerRecord.getWorkerId(), answerRecord.getExperiment());
+        addToExperimentCalibration(workerID, experimentID);
         return result;
     }
 
-    /**
-     * Returns the number of answers a given worker has submitted for a given experiment.
-     *
-     * @param workerID the primary key of the worker
-     * @param experimentID the primary key of the experiment
-     *
-     * @return the number of answers
-     */
-    private int getAnswerCount(int workerID, int experimentID) {
-        return create.fetchCount(
-                DSL.selectFrom(ANSWER)
-                        .where(ANSWER.WORKER_ID.eq(workerID))
-                        .and(ANSWER.EXPERIMENT.eq(experimentID))
-        );
-    }
-
 
 
     /**
@@ -289,72 +354,121 @@ public class AnswerRatingOperations extends AbstractOperations {
      * @throws IllegalStateException    if the worker is not allowed to submit more ratings
      */
     public Rating insertRating(Rating rating) throws IllegalArgumentException, IllegalStateException {
-        assertHasField(rating, Rating.RESERVATION_FIELD_NUMBER);
+        return insertRatings(Collections.singletonList(rating)).get(0);
+    }
 
-        String feedback = null;
+    /**
+     * updates many ratings of the same experiment at once.
+     * <p>
+     * The reservations are checked and marked as used with set-based queries and the ratings are inserted
+     * with batch statements in one transaction. Either all or none of the ratings are inserted.
+     *
+     * @param ratings the ratings to update, all referring to the same experiment
+     * @return the resulting ratings in the order of the passed ratings
+     * @throws IllegalArgumentException if the ratings refer to different experiments, a reservation is not
+     *                                  existing or a reservation is used twice
+     * @throws IllegalStateException    if the experiment is not running or a reservation is already in use
+     */
+    public List<Rating> insertRatings(List<Rating> ratings) throws IllegalArgumentException, IllegalStateException {
+        if (ratings.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ratings.forEach(rating -> assertHasField(rating, Rating.RESERVATION_FIELD_NUMBER));
 
-        if (rating.hasField(rating.getDescriptorForType().findFieldByNumber(Rating.FEEDBACK_FIELD_NUMBER))) {
-            feedback = rating.getFeedback();
+        int experimentId = ratings.get(0).getExperimentId();
+        if (ratings.stream().anyMatch(rating -> rating.getExperimentId() != experimentId)) {
+            throw new IllegalArgumentException("All ratings have to refer to the same experiment");
         }
 
-        String finalFeedback = feedback;
+        List<Integer> reservationIds = ratings.stream()
+                .map(Rating::getReservation)
+                .collect(Collectors.toList());
+        if (reservationIds.stream().distinct().count() != reservationIds.size()) {
+            throw new IllegalArgumentException("A reservation is used by more than one rating");
+        }
 
         Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
 
-        RatingRecord result = doIfRunning(rating.getExperimentId(), conf -> {
-            RatingReservationRecord reservation = DSL.using(conf).selectFrom(RATING_RESERVATION)
-                    .where(RATING_RESERVATION.ID_RESERVERD_RATING.eq(rating.getReservation()))
-                    .fetchOptional()
-                    .orElseThrow(() -> new IllegalArgumentException(String.format("Reservation %d is not existing", rating.getReservation())));
+        Map<Integer, RatingRecord> result = doIfRunning(experimentId, conf -> {
+            Map<Integer, RatingReservationRecord> reservations = DSL.using(conf).selectFrom(RATING_RESERVATION)
+                    .where(RATING_RESERVATION.ID_RESERVERD_RATING.in(reservationIds))
+                    .fetchMap(RATING_RESERVATION.ID_RESERVERD_RATING);
+
+            for (Integer reservationId : reservationIds) {
+                RatingReservationRecord reservation = reservations.get(reservationId);
+                if (reservation == null) {
+                    throw new IllegalArgumentException(String.format("Reservation %d is not existing", reservationId));
+                }
+                if (reservation.getUsed()) {
+                    throw new IllegalStateException(String.format("Reservation %d is already in use", reservationId));
+                }
+            }
 
-            if (reservation.getUsed()) {
-                throw new IllegalStateException(String.format("Reservation %d is already in use", rating.getReservation()));
+            // only unused reservations are updated, so concurrent uses of a reservation can't both succeed
+            int used = DSL.using(conf).update(RATING_RESERVATION)
+                    .set(RATING_RESERVATION.USED, true)
+                    .where(RATING_RESERVATION.ID_RESERVERD_RATING.in(reservationIds))
+                    .and(RATING_RESERVATION.USED.eq(false))
+                    .execute();
+            if (used != reservationIds.size()) {
+                throw new IllegalStateException("A reservation is already in use");
             }
 
-            reservation.setUsed(true);
-
-            DSL.using(conf).executeUpdate(reservation);
-
-            RatingRecord ratingRecord = new RatingRecord(
-                    null,
-                    rating.getExperimentId(),
-                    reservation.getAnswer(),
-                    timestamp,
-                    rating.getRating(),
-                    rating.getReservation(),
-                    finalFeedback,
-                    rating.getWorker(),
-                    null
-            );
-
-            return DSL.using(conf).insertInto(RATING)
-                    .set(ratingRecord)
-                    .returning()
-                    .fetchOne();
+            List<RatingRecord> ratingRecords = ratings.stream()
+                    .map(rating -> new RatingRecord(
+                            null,
+                            rating.getExperimentId(),
+                            reservations.get(rating.getReservation()).getAnswer(),
+                            timestamp,
+                            rating.getRating(),
+                            rating.getReservation(),
+                            rating.hasField(rating.getDescriptorForType().findFieldByNumber(Rating.FEEDBACK_FIELD_NUMBER))
+                                    ? rating.getFeedback()
+                                    : null,
+                            rating.getWorker(),
+                            null
+                    ))
+                    .collect(Collectors.toList());
+            DSL.using(conf).batchInsert(ratingRecords).execute();
+
+            // the reservations are unique and belong to the new ratings now
+            Map<Integer, RatingRecord> inserted = DSL.using(conf).selectFrom(RATING)
+                    .where(RATING.RESERVATION.in(reservationIds))
+                    .fetchMap(RATING.RESERVATION);
+
+            List<RatingConstraintRecord> toInsert = ratings.stream()
+                    .flatMap(rating -> rating.getViolatedConstraintsList().stream()
+                            .map(constraint -> {
+                                RatingConstraintRecord constraintRecord = new RatingConstraintRecord();
+                                constraintRecord.setRefRating(inserted.get(rating.getReservation()).getIdRating());
+                                constraintRecord.setOffConstraint(constraint.getId());
+                                return constraintRecord;
+                            }))
+                    .collect(Collectors.toList());
+            DSL.using(conf).batchInsert(toInsert).execute();
+
+            return inserted;
         });
 
-        List<RatingConstraintRecord> toInsert = rating.getViolatedConstraintsList().stream()
-                .map(constraint -> {
-                    RatingConstraintRecord constraintRecord = new RatingConstraintRecord();
-                    constraintRecord.setRefRating(result.getIdRating());
-                    constraintRecord.setOffConstraint(constraint.getId());
-                    return constraintRecord;
-                })
+        result.values().stream()
+                .map(RatingRecord::getWorkerId)
+                .distinct()
+                .forEach(worker -> addToExperimentCalibration(worker, experimentId));
+
+        Map<Integer, ConstraintRecord> constraints = create.selectFrom(CONSTRAINT)
+                .where(CONSTRAINT.ID_CONSTRAINT.in(ratings.stream()
+                        .flatMap(rating -> rating.getViolatedConstraintsList().stream())
+                        .map(Constraint::getId)
+                        .collect(Collectors.toSet())))
+                .fetchMap(CONSTRAINT.ID_CONSTRAINT);
+
+        return ratings.stream()
+                .map(rating -> AnswerRatingTransformer.toRatingProto(result.get(rating.getReservation()),
+                        rating.getViolatedConstraintsList().stream()
+                                .map(constraint -> constraints.get(constraint.getId()))
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toList())))
                 .collect(Collectors.toList());
-
-        create.batchInsert(toInsert).execute();
-
-        addToExperimentCalibration(result.getWorkerId(), result.getExperiment());
-
-        Result<RatingConstraintRecord> ratingConstraints = create.selectFrom(RATING_CONSTRAINT)
-                .where(RATING_CONSTRAINT.REF_RATING.eq(result.getIdRating()))
-                .fetch();
-
-        Result<ConstraintRecord> constraints = create.selectFrom(CONSTRAINT)
-                .where(CONSTRAINT.ID_CONSTRAINT.in(ratingConstraints.map(RatingConstraintRecord::getOffConstraint)))
-                .fetch();
-
-        return AnswerRatingTransformer.toRatingProto(result, constraints);
     }
 
     /**
@@ -413,7 +527,7 @@ public class AnswerRatingOperations extends AbstractOperations {
      * @return List of answers
      */
     public Range<AnswerRecord, Integer> getAnswersFrom(int expid, int cursor, boolean next, int limit) {
-        SelectConditionStep<AnswerRecord> query = create.selectFrom(ANSWER)
+        SelectConditionStep<AnswerRecord> query = read().selectFrom(ANSWER)
                 .where(ANSWER.EXPERIMENT.eq(expid));
         return getNextRange(query, ANSWER.ID_ANSWER, ANSWER, cursor, next, limit);
     }
@@ -437,21 +551,68 @@ public class AnswerRatingOperations extends AbstractOperations {
      * @return A list of ratingRecords
      */
     public List<Rating> getRatings(int answerId) {
-        List<RatingRecord> ratingRecords = create.selectFrom(RATING)
-                .where(RATING.ANSWER_R.eq(answerId))
+        return getRatingsForAnswers(Collections.singletonList(answerId))
+                .getOrDefault(answerId, Collections.emptyList());
+    }
+
+    /**
+     * Returns the ratings of the answers with their violated constraints.
+     * All ratings are fetched with two queries, independent of the number of answers and ratings.
+     *
+     * @param answerIds the answers which were rated
+     *
+     * @return a map from the primary key of the answer to its ratings, answers without ratings are not contained
+     */
+    public Map<Integer, List<Rating>> getRatingsForAnswers(Collection<Integer> answerIds) {
+        if (answerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Result<RatingRecord> ratingRecords = create.selectFrom(RATING)
+                .where(RATING.ANSWER_R.in(answerIds))
                 .fetch();
 
-        return ratingRecords.stream().map((ratingRecord) -> {
-            Result<RatingConstraintRecord> ratingConstraints = create.selectFrom(RATING_CONSTRAINT)
-                    .where(RATING_CONSTRAINT.REF_RATING.eq(ratingRecord.getIdRating()))
-                    .fetch();
+        return toRatings(ratingRecords, RATING_CONSTRAINT.REF_RATING.in(ratingRecords.map(RatingRecord::getIdRating)));
+    }
 
-            Result<ConstraintRecord> constraints = create.selectFrom(CONSTRAINT)
-                    .where(CONSTRAINT.ID_CONSTRAINT.in(ratingConstraints.map(RatingConstraintRecord::getOffConstraint)))
-                    .fetch();
+    /**
+     * Returns the ratings of all the answers of the experiment with their violated constraints.
+     * All ratings are fetched with two queries, independent of the number of answers and ratings.
+     *
+     * @param expID the primary key of the experiment
+     *
+     * @return a map from the primary key of the answer to its ratings, answers without ratings are not contained
+     */
+    public Map<Integer, List<Rating>> getRatingsOfExperiment(int expID) {
+        Result<RatingRecord> ratingRecords = create.selectFrom(RATING)
+                .where(RATING.EXPERIMENT.eq(expID))
+                .fetch();
+
+        // the ratings of big experiments are too many to be listed in the query of the constraints
+        return toRatings(ratingRecords, RATING_CONSTRAINT.REF_RATING.in(
+                DSL.select(RATING.ID_RATING).from(RATING).where(RATING.EXPERIMENT.eq(expID))));
+    }
 
-            return AnswerRatingTransformer.toRatingProto(ratingRecord, constraints);
-        }).collect(Collectors.toList());
+    private Map<Integer, List<Rating>> toRatings(Result<RatingRecord> ratingRecords, Condition ofRatings) {
+        if (ratingRecords.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, List<ConstraintRecord>> constraints = new HashMap<>();
+        create.select(RATING_CONSTRAINT.REF_RATING)
+                .select(CONSTRAINT.fields())
+                .from(RATING_CONSTRAINT)
+                .join(CONSTRAINT).on(CONSTRAINT.ID_CONSTRAINT.eq(RATING_CONSTRAINT.OFF_CONSTRAINT))
+                .where(ofRatings)
+                .fetch()
+                .forEach(record -> constraints.computeIfAbsent(record.getValue(RATING_CONSTRAINT.REF_RATING), id -> new ArrayList<>())
+                        .add(record.into(CONSTRAINT)));
+
+        return ratingRecords.stream()
+                .collect(Collectors.groupingBy(RatingRecord::getAnswerR, Collectors.mapping(ratingRecord ->
+                        AnswerRatingTransformer.toRatingProto(ratingRecord,
+                                constraints.getOrDefault(ratingRecord.getIdRating(), Collections.emptyList())),
+                        Collectors.toList())));
     }
 
     /**
@@ -479,8 +640,17 @@ public class AnswerRatingOperations extends AbstractOperations {
      * @return true if all answers have max ratings, false if not
      */
     public boolean allAnswersHaveMaxRatings(int experiment) {
+        return getNumberOfAnswersWithoutMaxRatings(experiment) == 0;
+    }
+
+    /**
+     * returns the number of non-duplicate answers without max-ratings
+     * @param experiment the primary key of the experiment
+     * @return the number of answers which need more ratings
+     */
+    public int getNumberOfAnswersWithoutMaxRatings(int experiment) {
         Field<Integer> countRating = DSL.count(RATING.ID_RATING).as("countRating");
-        return !create.fetchExists(
+        return create.fetchCount(
                 DSL.select(ANSWER_RESERVATION.ID_ANSWER_RESERVATION, countRating)
                         .from(ANSWER_RESERVATION)
                         .leftJoin(ANSWER).onKey()
@@ -529,6 +699,21 @@ public class AnswerRatingOperations extends AbstractOperations {
                 .fetchOptional();
     }
 
+    /**
+     * Gets the ids of the answers the specified ratings belong to
+     * @param ratings the ratings
+     * @return the ids of the answers mapped by the reservations of the ratings,
+     * ratings whose reservation does not exist are missing
+     */
+    public Map<Integer, Integer> getAnswerIdsOfRatings(Collection<Rating> ratings) {
+        return create.select(RATING_RESERVATION.ID_RESERVERD_RATING, RATING_RESERVATION.ANSWER)
+                .from(RATING_RESERVATION)
+                .where(RATING_RESERVATION.ID_RESERVERD_RATING.in(ratings.stream()
+                        .map(Rating::getReservation)
+                        .collect(Collectors.toSet())))
+                .fetchMap(RATING_RESERVATION.ID_RESERVERD_RATING, RATING_RESERVATION.ANSWER);
+    }
+
     /**
      * Sets system-response-field of specified answerRecord
      */
@@ -558,6 +743,7 @@ public class AnswerRatingOperations extends AbstractOperations {
      * @param threshold the threshold
      * @return mapping of the identified duplicates to their corresponding original answer
      */
+    @Deprecated //because the duplicate-checker searches its in-memory index now
     public List<AnswerRecord> getDuplicates(long hash, int experiment, double threshold){
         Field<Long> xor = ANSWER.HASH.bitXor(hash).as("XOR");
         //bitcount(xor) + 1
@@ -573,6 +759,19 @@ public class AnswerRatingOperations extends AbstractOperations {
     }
 
 
+    /**
+     * Retrieves the id, hash and timestamp of all answers of the experiment which were checked by the duplicate-checker
+     * @param experiment the primary key of the experiment
+     * @return list of the hashed answers, only containing the id, hash and timestamp
+     */
+    public List<AnswerRecord> getHashedAnswers(int experiment) {
+        return create.select(ANSWER.ID_ANSWER, ANSWER.HASH, ANSWER.TIMESTAMP)
+                .from(ANSWER)
+                .where(ANSWER.EXPERIMENT.eq(experiment))
+                .and(ANSWER.HASH.isNotNull())
+                .fetchInto(ANSWER);
+    }
+
     /**
      * Retrieves all answers which were not checked by the duplicate-checker before
      * @return list of all unchecked answers
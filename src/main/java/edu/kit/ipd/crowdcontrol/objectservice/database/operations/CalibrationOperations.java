@@ -13,7 +13,10 @@ import org.jooq.DSLContext;
 import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,6 +36,16 @@ public class CalibrationOperations extends AbstractOperations {
         super(create);
     }
 
+    /**
+     * Creates a new calibration operations instance.
+     *
+     * @param create context used to communicate with the database
+     * @param read context used to read the calibrations of listed experiments, may lag behind create
+     */
+    public CalibrationOperations(DSLContext create, DSLContext read) {
+        super(create, read);
+    }
+
     /**
      * Returns a range of calibrations starting from {@code cursor}.
      *
@@ -75,6 +88,28 @@ public class CalibrationOperations extends AbstractOperations {
                 });
     }
 
+    /**
+     * Returns the calibrations with the passed primary keys.
+     *
+     * @param ids the primary keys of the calibrations
+     *
+     * @return a map from the primary key to the calibration, missing calibrations are not contained
+     */
+    public Map<Integer, Calibration> getCalibrations(Collection<Integer> ids) {
+        Map<Integer, List<CalibrationAnswerOptionRecord>> answers = read().selectFrom(CALIBRATION_ANSWER_OPTION)
+                .where(CALIBRATION_ANSWER_OPTION.CALIBRATION.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(CalibrationAnswerOptionRecord::getCalibration));
+
+        return read().selectFrom(CALIBRATION)
+                .where(CALIBRATION.ID_CALIBRATION.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(CalibrationRecord::getIdCalibration, record -> CalibrationTransformer.toProto(record,
+                        answers.getOrDefault(record.getIdCalibration(), Collections.emptyList()))));
+    }
+
     /**
      * Creates a new calibration.
      *
@@ -167,6 +202,17 @@ public class CalibrationOperations extends AbstractOperations {
                 CALIBRATION_ANSWER_OPTION.ID_CALIBRATION_ANSWER_OPTION.eq(id));
     }
 
+    /**
+     * gets the CalibrationAnswerOptions with the passed primary keys
+     * @param ids the primary keys of the CalibrationAnswerOptions
+     * @return a map from the primary key to the record, missing records are not contained
+     */
+    public Map<Integer, CalibrationAnswerOptionRecord> getCalibrationAnswerOptions(Collection<Integer> ids) {
+        return read().selectFrom(CALIBRATION_ANSWER_OPTION)
+                .where(CALIBRATION_ANSWER_OPTION.ID_CALIBRATION_ANSWER_OPTION.in(ids))
+                .fetchMap(CALIBRATION_ANSWER_OPTION.ID_CALIBRATION_ANSWER_OPTION);
+    }
+
     /**
      * gets the CalibrationAnswerOption associated with the experiment
      * @param experimentID the id of the experiment
@@ -0,0 +1,202 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.ExperimentRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.EXPERIMENT;
+
+/**
+ * Keeps the most recently used experiments in memory: their record, their state and the fully fetched experiment.
+ * <p>
+ * Every write to an experiment or to the status of its platforms invalidates the experiment, the operations
+ * doing the writes are passed the cache. The experiment-events invalidate the experiment as well, so writes
+ * to the other parts of the experiment (tags, algorithms etc.) are visible after the event was emitted.
+ * A value loaded while the experiment got invalidated is returned, but not cached.
+ * <p>
+ * The invalidations only reach the own object-service, so an experiment expires after the ttl, to see
+ * the changes of the other object-services.
+ * <p>
+ * A cache of size 0 caches nothing.
+ */
+public class ExperimentCache {
+    private final Map<Integer, Cached> entries;
+    private final int size;
+    private final long ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private long generation = 0;
+
+    /**
+     * Creates a new ExperimentCache.
+     *
+     * @param size the maximum number of experiments kept in memory
+     * @param ttl the time in milliseconds an experiment is kept in memory
+     * @param metrics the registry to report the hits and misses to
+     */
+    public ExperimentCache(int size, long ttl, MetricsRegistry metrics) {
+        this.size = size;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<Integer, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Cached> eldest) {
+                return size() > size;
+            }
+        };
+        this.hits = metrics.counter("experimentCache.hits");
+        this.misses = metrics.counter("experimentCache.misses");
+        this.invalidations = metrics.counter("experimentCache.invalidations");
+    }
+
+    /**
+     * Creates a cache which caches nothing.
+     *
+     * @return the disabled cache
+     */
+    public static ExperimentCache disabled() {
+        return new ExperimentCache(0, 0, MetricsRegistry.NOOP);
+    }
+
+    /**
+     * @return false if the cache caches nothing
+     */
+    public boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Invalidates the experiments, which are created, changed or deleted by the events.
+     * The subscriptions are served on the emitting thread, so the experiment is invalidated when the event is emitted.
+     *
+     * @param eventManager the manager providing the events
+     */
+    public void subscribe(EventManager eventManager) {
+        eventManager.EXPERIMENT_CREATE.getObservable("ExperimentCache")
+                .subscribe(event -> invalidate(event.getData().getId()));
+        eventManager.EXPERIMENT_CHANGE.getObservable("ExperimentCache")
+                .subscribe(event -> invalidate(event.getData().getNeww().getId()));
+        eventManager.EXPERIMENT_DELETE.getObservable("ExperimentCache")
+                .subscribe(event -> invalidate(event.getData().getId()));
+    }
+
+    /**
+     * Returns the record of the experiment. Missing experiments are not cached.
+     *
+     * @param id the primary key of the experiment
+     * @param loader loads the record from the database
+     * @return a copy of the record, which may be changed by the caller
+     */
+    public Optional<ExperimentRecord> getRecord(int id, Supplier<Optional<ExperimentRecord>> loader) {
+        ExperimentRecord record = get(id, entry -> entry.record, (entry, value) -> entry.record = value,
+                () -> loader.get().orElse(null));
+        return Optional.ofNullable(record).map(this::copy);
+    }
+
+    /**
+     * Returns the state of the experiment.
+     *
+     * @param id the primary key of the experiment
+     * @param loader derives the state from the statuses of the platforms
+     * @return the state
+     */
+    public Experiment.State getState(int id, Supplier<Experiment.State> loader) {
+        return get(id, entry -> entry.state, (entry, value) -> entry.state = value, loader);
+    }
+
+    /**
+     * Returns the fully fetched experiment.
+     *
+     * @param id the primary key of the experiment
+     * @param loader fetches the experiment
+     * @return the experiment
+     */
+    public Experiment getExperiment(int id, Supplier<Experiment> loader) {
+        return get(id, entry -> entry.experiment, (entry, value) -> entry.experiment = value, loader);
+    }
+
+    /**
+     * Forgets everything about the experiment.
+     *
+     * @param id the primary key of the experiment
+     */
+    public void invalidate(int id) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(id);
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Forgets all the experiments.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    private <T> T get(int id, Function<Cached, T> getter, BiConsumer<Cached, T> setter, Supplier<T> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        long loadGeneration;
+        synchronized (entries) {
+            Cached entry = entries.get(id);
+            if (entry != null && System.currentTimeMillis() >= entry.expires) {
+                entries.remove(id);
+                entry = null;
+            }
+            T value = entry == null ? null : getter.apply(entry);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        T value = loader.get();
+        if (value != null) {
+            synchronized (entries) {
+                // the loaded value may be outdated if the experiment got invalidated meanwhile
+                if (generation == loadGeneration) {
+                    setter.accept(entries.computeIfAbsent(id,
+                            key -> new Cached(System.currentTimeMillis() + ttl)), value);
+                }
+            }
+        }
+        return value;
+    }
+
+    private ExperimentRecord copy(ExperimentRecord record) {
+        ExperimentRecord copy = record.into(EXPERIMENT);
+        copy.changed(false);
+        return copy;
+    }
+
+    /**
+     * The cached parts of one experiment, null if not cached.
+     */
+    private static class Cached {
+        private final long expires;
+        private ExperimentRecord record;
+        private Experiment.State state;
+        private Experiment experiment;
+
+        private Cached(long expires) {
+            this.expires = expires;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.jooq.DSLContext;
 import org.jooq.impl.DSL;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.*;
@@ -21,9 +22,34 @@ import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.*;
  */
 public class ExperimentOperations extends AbstractOperations {
     private final ExperimentsPlatformOperations experimentsPlatformOperations;
+    private final ExperimentCache cache;
     public ExperimentOperations(DSLContext create, ExperimentsPlatformOperations experimentsPlatformOperations) {
-        super(create);
+        this(create, create, experimentsPlatformOperations);
+    }
+
+    /**
+     * creates a new ExperimentOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the listings of experiments from, may lag behind create
+     * @param experimentsPlatformOperations the operations to query the platforms of the experiments with
+     */
+    public ExperimentOperations(DSLContext create, DSLContext read, ExperimentsPlatformOperations experimentsPlatformOperations) {
+        this(create, read, experimentsPlatformOperations, ExperimentCache.disabled());
+    }
+
+    /**
+     * creates a new ExperimentOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the listings of experiments from, may lag behind create
+     * @param experimentsPlatformOperations the operations to query the platforms of the experiments with,
+     *                                      invalidating the same cache
+     * @param cache the cache of the experiments and their states
+     */
+    public ExperimentOperations(DSLContext create, DSLContext read, ExperimentsPlatformOperations experimentsPlatformOperations,
+                                ExperimentCache cache) {
+        super(create, read);
         this.experimentsPlatformOperations = experimentsPlatformOperations;
+        this.cache = cache;
     }
     /**
      * inserts the Experiment into the database
@@ -31,11 +57,14 @@ public class ExperimentOperations extends AbstractOperations {
      * @return the resulting id of the experiment
      */
     public int insertNewExperiment(ExperimentRecord experimentRecord) {
-        return create.insertInto(EXPERIMENT)
+        int id = create.insertInto(EXPERIMENT)
                 .set(experimentRecord)
                 .returning(EXPERIMENT.ID_EXPERIMENT)
                 .fetchOne()
                 .value1();
+        // the state of a missing experiment may be cached
+        cache.invalidate(id);
+        return id;
     }
 
     /**
@@ -44,9 +73,20 @@ public class ExperimentOperations extends AbstractOperations {
      * @return the optional experiment
      */
     public Optional<ExperimentRecord> getExperiment(int id) {
-        return create.selectFrom(EXPERIMENT)
+        return cache.getRecord(id, () -> create.selectFrom(EXPERIMENT)
                 .where(EXPERIMENT.ID_EXPERIMENT.eq(id))
-                .fetchOptional();
+                .fetchOptional());
+    }
+
+    /**
+     * returns the experiments with the passed primary keys
+     * @param ids the primary keys of the experiments
+     * @return a map from the primary key to the experiment, missing experiments are not contained
+     */
+    public Map<Integer, ExperimentRecord> getExperiments(Collection<Integer> ids) {
+        return read().selectFrom(EXPERIMENT)
+                .where(EXPERIMENT.ID_EXPERIMENT.in(ids))
+                .fetchMap(EXPERIMENT.ID_EXPERIMENT);
     }
 
     /**
@@ -56,8 +96,12 @@ public class ExperimentOperations extends AbstractOperations {
      * @throws IllegalStateException if the experiment is running
      */
     public boolean updateExperiment(ExperimentRecord experimentRecord) throws IllegalStateException {
-        return doIfDraft(experimentRecord.getIdExperiment(), trans ->
-                DSL.using(trans).executeUpdate(experimentRecord) == 1);
+        try {
+            return doIfDraft(experimentRecord.getIdExperiment(), trans ->
+                    DSL.using(trans).executeUpdate(experimentRecord) == 1);
+        } finally {
+            cache.invalidate(experimentRecord.getIdExperiment());
+        }
     }
 
     /**
@@ -67,6 +111,14 @@ public class ExperimentOperations extends AbstractOperations {
      * @throws IllegalStateException if the experiment is running
      */
     public boolean deleteExperiment(int id) throws IllegalStateException {
+        try {
+            return delete(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    private boolean delete(int id) throws IllegalStateException {
         return doIfNotRunning(id, trans -> {
             DSL.using(trans).deleteFrom(EXPERIMENTS_PLATFORM)
                     .where(EXPERIMENTS_PLATFORM.EXPERIMENT.eq(id))
@@ -122,8 +174,26 @@ public class ExperimentOperations extends AbstractOperations {
      * @return the state
      */
     public Experiment.State getExperimentState(int id) {
-        Set<ExperimentsPlatformStatusPlatformStatus> statuses = new HashSet<>(experimentsPlatformOperations
-                .getExperimentsPlatformStatusPlatformStatuses(id).values());
+        return cache.getState(id, () ->
+                toExperimentState(experimentsPlatformOperations.getExperimentsPlatformStatusPlatformStatuses(id).values()));
+    }
+
+    /**
+     * returns the states of the experiments
+     * @param ids the primary keys of the experiments
+     * @return a map from the primary key to the state of the experiment
+     */
+    public Map<Integer, Experiment.State> getExperimentStates(Collection<Integer> ids) {
+        Map<Integer, Map<Integer, ExperimentsPlatformStatusPlatformStatus>> statuses = experimentsPlatformOperations
+                .getExperimentsPlatformStatusPlatformStatuses(ids);
+        return ids.stream()
+                .distinct()
+                .collect(Collectors.toMap(Function.identity(), id -> toExperimentState(statuses
+                        .getOrDefault(id, Collections.emptyMap()).values())));
+    }
+
+    private Experiment.State toExperimentState(Collection<ExperimentsPlatformStatusPlatformStatus> platformStatuses) {
+        Set<ExperimentsPlatformStatusPlatformStatus> statuses = new HashSet<>(platformStatuses);
         //TODO: what to do if one of the platforms failed?
         if (statuses.isEmpty()) {
             return Experiment.State.DRAFT;
@@ -157,6 +227,20 @@ public class ExperimentOperations extends AbstractOperations {
                 .fetchGroups(EXPERIMENTS_PLATFORM, record -> record.into(EXPERIMENTS_CALIBRATION));
     }
 
+    /**
+     * returns all calibrations of the experiments
+     * @param ids the primary keys of the experiments
+     * @return a map where the keys are the platforms of the experiments and the values the calibrations
+     */
+    public Map<ExperimentsPlatformRecord, List<ExperimentsCalibrationRecord>> getCalibrations(Collection<Integer> ids) {
+        return read().select(EXPERIMENTS_PLATFORM.fields())
+                .select(EXPERIMENTS_CALIBRATION.fields())
+                .from(EXPERIMENTS_PLATFORM)
+                .join(EXPERIMENTS_CALIBRATION).onKey()
+                .where(EXPERIMENTS_PLATFORM.EXPERIMENT.in(ids))
+                .fetchGroups(EXPERIMENTS_PLATFORM, record -> record.into(EXPERIMENTS_CALIBRATION));
+    }
+
     /**
      * returns all RatingOptions for the Experiment
      * @param experimentId the primary key of the experiment
@@ -168,6 +252,19 @@ public class ExperimentOperations extends AbstractOperations {
                 .fetch();
     }
 
+    /**
+     * returns all RatingOptions for the Experiments
+     * @param experimentIds the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its RatingOptionExperiments
+     */
+    public Map<Integer, List<RatingOptionExperimentRecord>> getRatingOptions(Collection<Integer> experimentIds) {
+        return read().selectFrom(RATING_OPTION_EXPERIMENT)
+                .where(RATING_OPTION_EXPERIMENT.EXPERIMENT.in(experimentIds))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(RatingOptionExperimentRecord::getExperiment));
+    }
+
     /**
      * returns the experiments starting from {@code cursor}
      * @param cursor pagination cursor
@@ -176,7 +273,7 @@ public class ExperimentOperations extends AbstractOperations {
      * @return a list of experiments
      */
     public Range<ExperimentRecord, Integer> getExperimentsFrom(int cursor, boolean next, int limit) {
-        return getNextRange(create.selectFrom(EXPERIMENT), EXPERIMENT.ID_EXPERIMENT, EXPERIMENT, cursor, next, limit);
+        return getNextRange(read().selectFrom(EXPERIMENT), EXPERIMENT.ID_EXPERIMENT, EXPERIMENT, cursor, next, limit);
     }
 
     /**
@@ -264,6 +361,7 @@ public class ExperimentOperations extends AbstractOperations {
         create.deleteFrom(RATING_OPTION_EXPERIMENT)
                 .where(RATING_OPTION_EXPERIMENT.EXPERIMENT.eq(experimentId))
                 .execute();
+        cache.invalidate(experimentId);
     }
 
     /**
@@ -285,6 +383,7 @@ public class ExperimentOperations extends AbstractOperations {
 
             DSL.using(conf).batchInsert(toInsert).execute();
         });
+        cache.invalidate(experimentId);
     }
 
     /**
@@ -29,8 +29,29 @@ import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.*;
  * @version 1.0
  */
 public class ExperimentsPlatformOperations extends AbstractOperations {
+    private final ExperimentCache cache;
     public ExperimentsPlatformOperations(DSLContext create) {
-        super(create);
+        this(create, create);
+    }
+
+    /**
+     * creates a new ExperimentsPlatformOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the platforms of listed experiments from, may lag behind create
+     */
+    public ExperimentsPlatformOperations(DSLContext create, DSLContext read) {
+        this(create, read, ExperimentCache.disabled());
+    }
+
+    /**
+     * creates a new ExperimentsPlatformOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the platforms of listed experiments from, may lag behind create
+     * @param cache the cache of the experiments, invalidated when the platforms of an experiment change
+     */
+    public ExperimentsPlatformOperations(DSLContext create, DSLContext read, ExperimentCache cache) {
+        super(create, read);
+        this.cache = cache;
     }
 
     /**
@@ -99,6 +120,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
 
             DSL.using(conf).batchInsert(toInsert).execute();
         });
+        cache.invalidate(experimentId);
     }
 
     /**
@@ -139,6 +161,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
                 .collect(Collectors.toList());
 
         create.batchInsert(toInsert).execute();
+        cache.invalidate(experiment);
     }
 
     /**
@@ -164,6 +187,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
         ExperimentsPlatformModeRecord toInsert = new ExperimentsPlatformModeRecord(null, experimentsPlatform, mode, timestamp);
 
         create.batchInsert(toInsert).execute();
+        cache.invalidate(experiment);
     }
 
     /**
@@ -176,6 +200,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
         ExperimentsPlatformModeRecord toInsert = new ExperimentsPlatformModeRecord(null, experimentsPlatform, mode, timestamp);
 
         create.executeInsert(toInsert);
+        invalidateExperimentOf(experimentsPlatform);
     }
 
     /**
@@ -188,6 +213,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
         ExperimentsPlatformStatusRecord toInsert = new ExperimentsPlatformStatusRecord(null, status, timestamp, experimentsPlatform);
 
         create.executeInsert(toInsert);
+        invalidateExperimentOf(experimentsPlatform);
     }
 
     /**
@@ -207,6 +233,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
         ExperimentsPlatformStatusRecord toInsert = new ExperimentsPlatformStatusRecord(null, status, timestamp, idExperimentsPlatforms);
 
         create.executeInsert(toInsert);
+        cache.invalidate(experiment);
     }
 
      /**
@@ -217,7 +244,31 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
      */
     public boolean updateExperimentsPlatform(ExperimentsPlatformRecord platformRecord) throws IllegalArgumentException {
         assertHasPrimaryKey(platformRecord);
-        return create.executeUpdate(platformRecord) == 1;
+        try {
+            return create.executeUpdate(platformRecord) == 1;
+        } finally {
+            invalidateExperimentOf(platformRecord.getIdexperimentsPlatforms());
+        }
+    }
+
+    /**
+     * invalidates the cached experiment of the ExperimentsPlatform, or all experiments if it is not existing
+     * @param experimentsPlatform the primary key of the ExperimentsPlatform
+     */
+    private void invalidateExperimentOf(int experimentsPlatform) {
+        if (!cache.isEnabled()) {
+            return;
+        }
+        Optional<Integer> experiment = create.select(EXPERIMENTS_PLATFORM.EXPERIMENT)
+                .from(EXPERIMENTS_PLATFORM)
+                .where(EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS.eq(experimentsPlatform))
+                .fetchOptional()
+                .map(Record1::value1);
+        if (experiment.isPresent()) {
+            cache.invalidate(experiment.get());
+        } else {
+            cache.invalidateAll();
+        }
     }
 
     /**
@@ -265,14 +316,45 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
                 .fetchMap(EXPERIMENTS_PLATFORM.PLATFORM, EXPERIMENTS_PLATFORM_MODE.MODE);
     }
 
+    /**
+     * returns the active platforms of the experiments
+     * @param experimentIds the primary keys of the experiments
+     * @return a map from the primary key of the experiment to a map of its active platforms and their modes
+     * @see #getActivePlatforms(int)
+     */
+    public Map<Integer, Map<String, ExperimentsPlatformModeMode>> getActivePlatforms(Collection<Integer> experimentIds) {
+        ExperimentsPlatformMode mode1 = EXPERIMENTS_PLATFORM_MODE.as("mode1");
+        ExperimentsPlatformMode mode2 = EXPERIMENTS_PLATFORM_MODE.as("mode2");
+        Map<Integer, Map<String, ExperimentsPlatformModeMode>> result = new HashMap<>();
+        read().select(EXPERIMENTS_PLATFORM.EXPERIMENT, EXPERIMENTS_PLATFORM.PLATFORM, mode1.MODE)
+                .from(EXPERIMENTS_PLATFORM)
+                .join(mode1).onKey()
+                .leftOuterJoin(mode2).on(
+                        EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS.eq(mode2.EXPERIMENTS_PLATFORM)
+                        .and(mode1.TIMESTAMP.lessThan(mode2.TIMESTAMP).or(mode1.TIMESTAMP.eq(mode2.TIMESTAMP)
+                                .and(mode1.ID_EXPERIMENTS_PLATFORM_MODE.lessThan(mode2.ID_EXPERIMENTS_PLATFORM_MODE))))
+                )
+                .where(mode2.ID_EXPERIMENTS_PLATFORM_MODE.isNull())
+                .and(EXPERIMENTS_PLATFORM.EXPERIMENT.in(experimentIds))
+                .fetch()
+                .forEach(record -> result.computeIfAbsent(record.value1(), id -> new HashMap<>())
+                        .put(record.value2(), record.value3()));
+        return result;
+    }
+
     /**
      * Deletes a TaskRecord matching the primary key of the passed TaskRecord
      * @param experimentsPlatform the primary key of the ExperimentsPlatform to delete
      */
     public void deleteExperimentsPlatform(int experimentsPlatform) {
+        // the experiment has to be looked up before the ExperimentsPlatform is gone
+        Optional<Integer> experiment = cache.isEnabled()
+                ? getExperimentsPlatform(experimentsPlatform).map(ExperimentsPlatformRecord::getExperiment)
+                : Optional.empty();
         create.deleteFrom(EXPERIMENTS_PLATFORM)
                 .where(EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS.eq(experimentsPlatform))
                 .execute();
+        experiment.ifPresent(cache::invalidate);
     }
 
     /**
@@ -308,6 +390,32 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
 
     }
 
+    /**
+     * returns the current status of every platform of the experiments
+     * @param experiments the primary keys of the experiments
+     * @return a map from the primary key of the experiment to a map of the platforms and their status
+     * @see #getExperimentsPlatformStatusPlatformStatuses(int)
+     */
+    public Map<Integer, Map<Integer, ExperimentsPlatformStatusPlatformStatus>> getExperimentsPlatformStatusPlatformStatuses(Collection<Integer> experiments) {
+        ExperimentsPlatformStatus status1 = EXPERIMENTS_PLATFORM_STATUS.as("mode1");
+        ExperimentsPlatformStatus status2 = EXPERIMENTS_PLATFORM_STATUS.as("mode2");
+        Map<Integer, Map<Integer, ExperimentsPlatformStatusPlatformStatus>> result = new HashMap<>();
+        read().select(EXPERIMENTS_PLATFORM.EXPERIMENT, EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS, status1.PLATFORM_STATUS)
+                .from(EXPERIMENTS_PLATFORM)
+                .join(status1).onKey()
+                .leftOuterJoin(status2).on(
+                        EXPERIMENTS_PLATFORM.IDEXPERIMENTS_PLATFORMS.eq(status2.PLATFORM)
+                                .and(status1.TIMESTAMP.lessThan(status2.TIMESTAMP).or(status1.TIMESTAMP.eq(status2.TIMESTAMP)
+                                        .and(status1.ID_EXPERIMENTS_PLATFORM_STATUS.lessThan(status2.ID_EXPERIMENTS_PLATFORM_STATUS))))
+                )
+                .where(status2.ID_EXPERIMENTS_PLATFORM_STATUS.isNull())
+                .and(EXPERIMENTS_PLATFORM.EXPERIMENT.in(experiments))
+                .fetch()
+                .forEach(record -> result.computeIfAbsent(record.value1(), id -> new HashMap<>())
+                        .put(record.value2(), record.value3()));
+        return result;
+    }
+
     /**
      * Updates the status of all platforms of specified experiment to given status
      * @param experiment the experiment whose platforms will be updated
@@ -323,6 +431,7 @@ public class ExperimentsPlatformOperations extends AbstractOperations {
                 .map(record -> new ExperimentsPlatformStatusRecord(null, globalPlatformStatus, timestamp, record.value1()));
 
         create.batchInsert(toInsert).execute();
+        cache.invalidate(experiment.getId());
     }
 
     /**
@@ -4,7 +4,10 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.Cons
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.TagRecord;
 import org.jooq.DSLContext;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.*;
 
@@ -18,6 +21,15 @@ public class TagConstraintsOperations extends AbstractOperations {
         super(create);
     }
 
+    /**
+     * creates a new TagConstraintsOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the tags and constraints of listed experiments from, may lag behind create
+     */
+    public TagConstraintsOperations(DSLContext create, DSLContext read) {
+        super(create, read);
+    }
+
     /**
      * inserts a new Tag
      * @param tagRecord the TagRecord to insert
@@ -64,6 +76,32 @@ public class TagConstraintsOperations extends AbstractOperations {
                 .fetch();
     }
 
+    /**
+     * returns all the tags for the experiments
+     * @param experimentIds the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its tags
+     */
+    public Map<Integer, List<TagRecord>> getTags(Collection<Integer> experimentIds) {
+        return read().selectFrom(TAG)
+                .where(TAG.EXPERIMENT.in(experimentIds))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(TagRecord::getExperiment));
+    }
+
+    /**
+     * returns all the constraints for the experiments
+     * @param experimentIds the primary keys of the experiments
+     * @return a map from the primary key of the experiment to its constraints
+     */
+    public Map<Integer, List<ConstraintRecord>> getConstraints(Collection<Integer> experimentIds) {
+        return read().selectFrom(CONSTRAINT)
+                .where(CONSTRAINT.EXPERIMENT.in(experimentIds))
+                .fetch()
+                .stream()
+                .collect(Collectors.groupingBy(ConstraintRecord::getExperiment));
+    }
+
     /**
      * deletes all the tags for the passed experiment
      * @param experiment the primary of the experiment
@@ -1,23 +1,39 @@
 package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
 
-import edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.enums.WorkerBalanceType;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.GiftCodeRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.WorkerBalanceRecord;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
 import org.jooq.impl.DSL;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.GIFT_CODE;
 import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.WORKER_BALANCE;
 
 /**
  * contains all the Operations concerned with paying the workers.
+ * <p>
+ * Next to the ledger in Worker_Balance, the balance of every worker is kept in Worker_Balance_Total, which is
+ * updated in the same transaction as the ledger. Balance-checks are therefore lookups by primary key.
  * @author LeanderK
  * @version 1.0
  */
 public class WorkerBalanceOperations extends AbstractOperations {
+    static final Table<?> BALANCE_TOTAL = DSL.table(DSL.name("crowdcontrol", "Worker_Balance_Total"));
+    static final Field<Integer> BALANCE_TOTAL_WORKER =
+            DSL.field(DSL.name("crowdcontrol", "Worker_Balance_Total", "worker"), Integer.class);
+    static final Field<Integer> BALANCE_TOTAL_BALANCE =
+            DSL.field(DSL.name("crowdcontrol", "Worker_Balance_Total", "balance"), Integer.class);
+    static final Field<Timestamp> BALANCE_TOTAL_LATEST_TRANSACTION =
+            DSL.field(DSL.name("crowdcontrol", "Worker_Balance_Total", "latest_transaction"), Timestamp.class);
+
     public WorkerBalanceOperations(DSLContext create) {
         super(create);
     }
@@ -60,12 +76,12 @@ public class WorkerBalanceOperations extends AbstractOperations {
     public boolean addCredit(int workerID, int amount, int experiment) {
         if (amount < 0)
             throw new IllegalArgumentException("amount: " + amount + " has do be positive or zero");
-        WorkerBalanceRecord workerBalanceRecord = create.newRecord(WORKER_BALANCE);
+        WorkerBalanceRecord workerBalanceRecord = new WorkerBalanceRecord();
         workerBalanceRecord.setExperiment(experiment);
         workerBalanceRecord.setTransactionValue(amount);
         workerBalanceRecord.setWorker(workerID);
         workerBalanceRecord.setType(WorkerBalanceType.credit);
-        return workerBalanceRecord.store() == 1;
+        return addTransaction(workerBalanceRecord);
     }
 
     /**
@@ -78,28 +94,113 @@ public class WorkerBalanceOperations extends AbstractOperations {
     public boolean addDebit(int workerID, int amount, int giftCode) {
         if (amount < 0)
             throw new IllegalArgumentException("amount: " + amount + " has do be positive or zero");
-        WorkerBalanceRecord workerBalanceRecord = create.newRecord(WORKER_BALANCE);
+        WorkerBalanceRecord workerBalanceRecord = new WorkerBalanceRecord();
         workerBalanceRecord.setTransactionValue((-1) * amount);
         workerBalanceRecord.setWorker(workerID);
         workerBalanceRecord.setGiftCode(giftCode);
         workerBalanceRecord.setType(WorkerBalanceType.debit);
-        return workerBalanceRecord.store() == 1;
+        return addTransaction(workerBalanceRecord);
+    }
+
+    /**
+     * inserts the transaction into the ledger and adds its value to the balance of the worker.
+     * The ledger is written first, so the reconciliation, which locks the balance, sees either both or none.
+     * @param transaction the transaction to insert
+     * @return true if successful
+     */
+    private boolean addTransaction(WorkerBalanceRecord transaction) {
+        return create.transactionResult(config -> {
+            int inserted = DSL.using(config).executeInsert(transaction);
+            addToBalance(DSL.using(config), transaction.getWorker(), transaction.getTransactionValue());
+            return inserted == 1;
+        });
+    }
+
+    /**
+     * adds the value to the materialized balance of the worker.
+     * @param create the context of the running transaction
+     * @param workerID the primary key of the worker
+     * @param value the value to add, may be negative
+     */
+    static void addToBalance(DSLContext create, int workerID, int value) {
+        create.insertInto(BALANCE_TOTAL, BALANCE_TOTAL_WORKER, BALANCE_TOTAL_BALANCE, BALANCE_TOTAL_LATEST_TRANSACTION)
+                .values(DSL.val(workerID), DSL.val(value), DSL.currentTimestamp())
+                .onDuplicateKeyUpdate()
+                .set(BALANCE_TOTAL_BALANCE, BALANCE_TOTAL_BALANCE.plus(value))
+                .set(BALANCE_TOTAL_LATEST_TRANSACTION, DSL.currentTimestamp())
+                .execute();
     }
 
     /**
      * gets the balance of the worker.
      * @param workerID the primary key of the worker to get the balance for
-     * @return the balance
-     * @throws ArithmeticException if the balance does not fit into an int
+     * @return the balance, 0 if the worker has no transactions
      */
-    public int getBalance(int workerID) throws ArithmeticException {
-        return create.select(DSL.sum(WORKER_BALANCE.TRANSACTION_VALUE))
+    public int getBalance(int workerID) {
+        return create.select(BALANCE_TOTAL_BALANCE)
+                .from(BALANCE_TOTAL)
+                .where(BALANCE_TOTAL_WORKER.eq(workerID))
+                .fetchOptional()
+                .map(record -> record.value1())
+                .orElse(0);
+    }
+
+    /**
+     * sums up the ledger of every worker.
+     * This scans the whole ledger and is meant to be used by the reconciliation only.
+     * @return the balance of the ledger, mapped by the primary key of the worker
+     */
+    public Map<Integer, Integer> getLedgerBalances() {
+        Field<BigDecimal> sum = DSL.sum(WORKER_BALANCE.TRANSACTION_VALUE);
+        return create.select(WORKER_BALANCE.WORKER, sum)
                 .from(WORKER_BALANCE)
-                .where(Tables.WORKER_BALANCE.WORKER.eq(workerID))
-                .fetchOne()
-                .value1()
-                .intValueExact();
+                .groupBy(WORKER_BALANCE.WORKER)
+                .fetchMap(WORKER_BALANCE.WORKER, record -> record.value2().intValueExact());
     }
 
+    /**
+     * returns the materialized balances of all the workers.
+     * @return the balance, mapped by the primary key of the worker
+     */
+    public Map<Integer, Integer> getMaterializedBalances() {
+        return create.select(BALANCE_TOTAL_WORKER, BALANCE_TOTAL_BALANCE)
+                .from(BALANCE_TOTAL)
+                .fetchMap(BALANCE_TOTAL_WORKER, BALANCE_TOTAL_BALANCE);
+    }
 
-}
\ No newline at end of file
+    /**
+     * recomputes the materialized balance of the worker from the ledger.
+     * The balance is locked while the ledger is summed up, so running transactions are not lost.
+     * @param workerID the primary key of the worker
+     * @return true if the materialized balance was wrong and got repaired
+     */
+    public boolean repairBalance(int workerID) {
+        return create.transactionResult(config -> {
+            DSLContext transaction = DSL.using(config);
+            Optional<Integer> materialized = transaction.select(BALANCE_TOTAL_BALANCE)
+                    .from(BALANCE_TOTAL)
+                    .where(BALANCE_TOTAL_WORKER.eq(workerID))
+                    .forUpdate()
+                    .fetchOptional()
+                    .map(record -> record.value1());
+            BigDecimal sum = transaction.select(DSL.sum(WORKER_BALANCE.TRANSACTION_VALUE))
+                    .from(WORKER_BALANCE)
+                    .where(WORKER_BALANCE.WORKER.eq(workerID))
+                    .fetchOne()
+                    .value1();
+            int ledger = sum == null ? 0 : sum.intValueExact();
+            if (materialized.isPresent() && materialized.get() == ledger) {
+                return false;
+            }
+            if (!materialized.isPresent() && ledger == 0) {
+                return false;
+            }
+            transaction.insertInto(BALANCE_TOTAL, BALANCE_TOTAL_WORKER, BALANCE_TOTAL_BALANCE)
+                    .values(workerID, ledger)
+                    .onDuplicateKeyUpdate()
+                    .set(BALANCE_TOTAL_BALANCE, ledger)
+                    .execute();
+            return true;
+        });
+    }
+}
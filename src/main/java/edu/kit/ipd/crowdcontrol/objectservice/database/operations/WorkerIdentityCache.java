@@ -0,0 +1,201 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.WorkerRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.WORKER;
+
+/**
+ * Keeps the most recently identified workers in memory, mapped by their platform and identification.
+ * <p>
+ * Identifications without a worker are cached as well, because the worker-ui identifies unknown workers
+ * on every page until they are created. These negative entries expire after the negative ttl, so workers created
+ * by an other object-service are found. The writes of the WorkerOperations and the worker-events invalidate the
+ * affected entries. They only reach the own object-service, so the workers expire after the ttl, to find workers
+ * changed or deleted by an other object-service. A value loaded while the cache got invalidated is returned,
+ * but not cached.
+ * <p>
+ * A cache of size 0 caches nothing.
+ */
+public class WorkerIdentityCache {
+    private final Map<Identity, Cached> entries;
+    private final int size;
+    private final long ttl;
+    private final long negativeTtl;
+    private final Counter hits;
+    private final Counter misses;
+    private long generation = 0;
+
+    /**
+     * Creates a new WorkerIdentityCache.
+     *
+     * @param size the maximum number of identifications kept in memory
+     * @param ttl the time in milliseconds workers are cached
+     * @param negativeTtl the time in milliseconds identifications without a worker are cached
+     * @param metrics the registry to report the hits and misses to
+     */
+    public WorkerIdentityCache(int size, long ttl, long negativeTtl, MetricsRegistry metrics) {
+        this.size = size;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.entries = new LinkedHashMap<Identity, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Identity, Cached> eldest) {
+                return size() > size;
+            }
+        };
+        this.hits = metrics.counter("workerCache.hits");
+        this.misses = metrics.counter("workerCache.misses");
+    }
+
+    /**
+     * Creates a cache which caches nothing.
+     *
+     * @return the disabled cache
+     */
+    public static WorkerIdentityCache disabled() {
+        return new WorkerIdentityCache(0, 0, 0, MetricsRegistry.NOOP);
+    }
+
+    /**
+     * Invalidates the workers, which are created, changed or deleted by the events.
+     * The subscriptions are served on the emitting thread, so the worker is invalidated when the event is emitted.
+     *
+     * @param eventManager the manager providing the events
+     */
+    public void subscribe(EventManager eventManager) {
+        eventManager.WORKER_CREATE.getObservable("WorkerIdentityCache")
+                .subscribe(event -> invalidatePlatform(event.getData().getPlatform()));
+        eventManager.WORKER_CHANGE.getObservable("WorkerIdentityCache")
+                .subscribe(event -> invalidateWorker(event.getData().getId()));
+        eventManager.WORKER_DELETE.getObservable("WorkerIdentityCache")
+                .subscribe(event -> invalidateWorker(event.getData().getId()));
+    }
+
+    /**
+     * Returns the worker with the identification.
+     *
+     * @param platform the platform of the worker
+     * @param identification the platform-specific identification
+     * @param loader loads the worker from the database
+     * @return a copy of the worker, which may be changed by the caller, or empty if not existing
+     */
+    public Optional<WorkerRecord> get(String platform, String identification, Supplier<Optional<WorkerRecord>> loader) {
+        if (size == 0) {
+            return loader.get();
+        }
+        Identity identity = new Identity(platform, identification);
+        long loadGeneration;
+        synchronized (entries) {
+            Cached cached = entries.get(identity);
+            if (cached != null && System.currentTimeMillis() < cached.expires) {
+                hits.increment();
+                return Optional.ofNullable(cached.worker).map(this::copy);
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        Optional<WorkerRecord> worker = loader.get();
+        synchronized (entries) {
+            // the loaded worker may be outdated if it got invalidated meanwhile
+            if (generation == loadGeneration) {
+                long expires = System.currentTimeMillis() + (worker.isPresent() ? ttl : negativeTtl);
+                entries.put(identity, new Cached(worker.orElse(null), expires));
+            }
+        }
+        return worker.map(this::copy);
+    }
+
+    /**
+     * Forgets the identification, e.g. because a worker with it was created.
+     *
+     * @param platform the platform of the worker
+     * @param identification the platform-specific identification
+     */
+    public void invalidate(String platform, String identification) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(new Identity(platform, identification));
+        }
+    }
+
+    /**
+     * Forgets the worker, e.g. because it was changed or deleted.
+     *
+     * @param worker the primary key of the worker
+     */
+    public void invalidateWorker(int worker) {
+        synchronized (entries) {
+            generation++;
+            entries.values().removeIf(cached -> cached.worker != null && cached.worker.getIdWorker() == worker);
+        }
+    }
+
+    /**
+     * Forgets all the identifications of the platform without a worker, because a worker with an unknown
+     * identification was created.
+     *
+     * @param platform the platform of the created worker
+     */
+    public void invalidatePlatform(String platform) {
+        synchronized (entries) {
+            generation++;
+            entries.entrySet().removeIf(entry -> entry.getValue().worker == null
+                    && entry.getKey().platform.equals(platform));
+        }
+    }
+
+    private WorkerRecord copy(WorkerRecord record) {
+        WorkerRecord copy = record.into(WORKER);
+        copy.changed(false);
+        return copy;
+    }
+
+    /**
+     * The key of the cache
+     */
+    private static class Identity {
+        private final String platform;
+        private final String identification;
+
+        private Identity(String platform, String identification) {
+            this.platform = platform;
+            this.identification = identification;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Identity identity = (Identity) o;
+            return Objects.equals(platform, identity.platform)
+                    && Objects.equals(identification, identity.identification);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(platform, identification);
+        }
+    }
+
+    /**
+     * The cached worker, null if there is no worker with the identification.
+     */
+    private static class Cached {
+        private final WorkerRecord worker;
+        private final long expires;
+
+        private Cached(WorkerRecord worker, long expires) {
+            this.worker = worker;
+            this.expires = expires;
+        }
+    }
+}
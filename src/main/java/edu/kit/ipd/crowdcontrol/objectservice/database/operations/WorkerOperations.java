@@ -14,8 +14,6 @@ import org.apache.commons.validator.routines.EmailValidator;
 import org.jooq.*;
 import org.jooq.impl.DSL;
 
-import java.math.BigDecimal;
-import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,9 +27,32 @@ import static org.jooq.impl.DSL.orderBy;
  * @author Niklas Keller
  */
 public class WorkerOperations extends AbstractOperations {
+    private static final Field<byte[]> IDENTIFICATION_HASH =
+            DSL.field(DSL.name("crowdcontrol", "Worker", "identification_hash"), byte[].class);
+    private final WorkerIdentityCache cache;
 
     public WorkerOperations(DSLContext create) {
-        super(create);
+        this(create, create);
+    }
+
+    /**
+     * creates a new WorkerOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the listings of workers from, may lag behind create
+     */
+    public WorkerOperations(DSLContext create, DSLContext read) {
+        this(create, read, WorkerIdentityCache.disabled());
+    }
+
+    /**
+     * creates a new WorkerOperations
+     * @param create the context to use to communicate with the database
+     * @param read the context to read the listings of workers from, may lag behind create
+     * @param cache the cache of the identified workers
+     */
+    public WorkerOperations(DSLContext create, DSLContext read, WorkerIdentityCache cache) {
+        super(create, read);
+        this.cache = cache;
     }
 
     /**
@@ -45,11 +66,10 @@ public class WorkerOperations extends AbstractOperations {
         workerRecord.setQuality(9);
         assertNonMalformedEmail(workerRecord.getEmail());
 
-        return create.transactionResult(conf -> {
+        WorkerRecord inserted = create.transactionResult(conf -> {
             boolean existing = DSL.using(conf).fetchExists(
                     DSL.selectFrom(Tables.WORKER)
-                            .where(Tables.WORKER.PLATFORM.eq(workerRecord.getPlatform()))
-                            .and(Tables.WORKER.IDENTIFICATION.eq(workerRecord.getIdentification()))
+                            .where(identifiedBy(workerRecord.getPlatform(), workerRecord.getIdentification()))
             );
 
             if (existing) {
@@ -62,25 +82,24 @@ public class WorkerOperations extends AbstractOperations {
                     .returning()
                     .fetchOne();
         });
+        cache.invalidate(workerRecord.getPlatform(), workerRecord.getIdentification());
+        return inserted;
     }
 
     /**
      * returns all the worker with the Credit-Balance greater or equal than the passed balance.
      * The workers then get sorted by their latest transaction, where the worker with the oldest latest transaction
      * comes first.
+     * The balances are read from the materialized balances, so this is a range-scan on their index.
      * @param balance the balance to check for
      * @return a list of workers
      */
     public Result<WorkerRecord> getWorkerWithCreditBalanceGreaterOrEqual(int balance) {
-        Field<BigDecimal> sum = DSL.sum(WORKER_BALANCE.TRANSACTION_VALUE).as("sum");
-        AggregateFunction<Timestamp> latestTransaction = DSL.max(WORKER_BALANCE.TIMESTAMP);
-        return create.select(sum)
-                .select(WORKER.fields())
-                .from(WORKER_BALANCE)
-                .join(WORKER).onKey()
-                .groupBy(WORKER.fields())
-                .having(sum.greaterOrEqual(new BigDecimal(balance)))
-                .orderBy(latestTransaction.asc())
+        return create.select(WORKER.fields())
+                .from(WorkerBalanceOperations.BALANCE_TOTAL)
+                .join(WORKER).on(WORKER.ID_WORKER.eq(WorkerBalanceOperations.BALANCE_TOTAL_WORKER))
+                .where(WorkerBalanceOperations.BALANCE_TOTAL_BALANCE.greaterOrEqual(balance))
+                .orderBy(WorkerBalanceOperations.BALANCE_TOTAL_LATEST_TRANSACTION.asc())
                 .fetchInto(WORKER);
     }
 
@@ -131,11 +150,24 @@ public class WorkerOperations extends AbstractOperations {
 
             DSL.using(conf).update(Tables.WORKER_BALANCE)
                     .set(Tables.WORKER_BALANCE.WORKER, anonWorker.getIdWorker())
-                    .where(Tables.WORKER_BALANCE.WORKER.eq(anonWorker.getIdWorker()))
+                    .where(Tables.WORKER_BALANCE.WORKER.eq(toAnonymize.getIdWorker()))
+                    .execute();
+
+            DSL.using(conf).select(WorkerBalanceOperations.BALANCE_TOTAL_BALANCE)
+                    .from(WorkerBalanceOperations.BALANCE_TOTAL)
+                    .where(WorkerBalanceOperations.BALANCE_TOTAL_WORKER.eq(toAnonymize.getIdWorker()))
+                    .forUpdate()
+                    .fetchOptional()
+                    .ifPresent(record -> WorkerBalanceOperations.addToBalance(DSL.using(conf),
+                            anonWorker.getIdWorker(), record.value1()));
+
+            DSL.using(conf).deleteFrom(WorkerBalanceOperations.BALANCE_TOTAL)
+                    .where(WorkerBalanceOperations.BALANCE_TOTAL_WORKER.eq(toAnonymize.getIdWorker()))
                     .execute();
 
             DSL.using(conf).executeDelete(toAnonymize);
         });
+        cache.invalidateWorker(id);
     }
 
     /**
@@ -146,10 +178,21 @@ public class WorkerOperations extends AbstractOperations {
      * @return the found worker or empty
      */
     public Optional<WorkerRecord> getWorker(String platform, String identification) {
-        return create.selectFrom(Tables.WORKER)
-                .where(Tables.WORKER.PLATFORM.eq(platform))
-                .and(Tables.WORKER.IDENTIFICATION.eq(identification))
-                .fetchOptional();
+        return cache.get(platform, identification, () -> create.selectFrom(Tables.WORKER)
+                .where(identifiedBy(platform, identification))
+                .fetchOptional());
+    }
+
+    /**
+     * matches the worker by the index on the hashed identification, comparing the identification itself as well
+     * @param platform the platform of the worker
+     * @param identification the platform-specific identification
+     * @return the condition
+     */
+    private Condition identifiedBy(String platform, String identification) {
+        return Tables.WORKER.PLATFORM.eq(platform)
+                .and(IDENTIFICATION_HASH.eq(DSL.field("unhex({0})", byte[].class, DSL.md5(identification))))
+                .and(Tables.WORKER.IDENTIFICATION.eq(identification));
     }
 
     /**
@@ -203,7 +246,7 @@ public class WorkerOperations extends AbstractOperations {
      * @return List of workers
      */
     public Range<Worker, Integer> getWorkersFrom(int cursor, boolean next, int limit) {
-        return getNextRange(create.selectFrom(WORKER), WORKER.ID_WORKER, WORKER, cursor, next, limit)
+        return getNextRange(read().selectFrom(WORKER), WORKER.ID_WORKER, WORKER, cursor, next, limit)
                 .map(WorkerTransformer::toProto);
     }
 
@@ -222,6 +265,7 @@ public class WorkerOperations extends AbstractOperations {
         WorkerRecord record = WorkerTransformer.mergeRecord(create.newRecord(WORKER), toStore);
         record.setPlatformData(data);
         record.store();
+        cache.invalidatePlatform(record.getPlatform());
 
         return WorkerTransformer.toProto(record);
     }
@@ -246,6 +290,7 @@ public class WorkerOperations extends AbstractOperations {
         if (!updated) {
             throw new IllegalArgumentException(String.format("Worker %d is not existing", id));
         }
+        cache.invalidateWorker(id);
         return WorkerTransformer.toProto(getWorker(id)
                 .orElseThrow(() -> new IllegalStateException("Database inconsistent")));
     }
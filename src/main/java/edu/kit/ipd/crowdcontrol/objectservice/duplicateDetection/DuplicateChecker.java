@@ -5,25 +5,29 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOp
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.transformers.AnswerRatingTransformer;
 import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.HashSimilarity;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
 import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageSimilarity;
-import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.Shingle;
-import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.StringSimilarity;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.TextHash;
 import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by lucaskrauss at 02.02.2016
@@ -39,42 +43,133 @@ public class DuplicateChecker {
     static final String DUPLICATE_RESPONSE = "Your answer is very similar to an existing answer for that task " +
             "and thus considered a duplicate!";
 
+    /**
+     * Default number of threads checking for duplicates
+     */
+    public static final int DEFAULT_THREADS = 4;
+    /**
+     * Default number of answers which can wait for a thread
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
     private final Logger logger = LogManager.getLogger(DuplicateChecker.class);
     private final AnswerRatingOperations answerRatingOperations;
     private final ExperimentOperations experimentOperations;
-    private final BlockingQueue<AnswerRecord> queue = new LinkedBlockingQueue<>();
+    private final TextHash textHash;
+    private final ImageFetcher imageFetcher;
+
+    private final ExecutorService executorService;
+    private final List<DuplicateWatcherThread> threads;
+    private volatile boolean threadRunning = false;
+    /**
+     * ids of the answers which are queued or currently checked
+     */
+    private final Set<Integer> pendingAnswers = ConcurrentHashMap.newKeySet();
+    /**
+     * hashes of the answers of the experiments, only accessed by the thread responsible for the experiment
+     */
+    private final Map<Integer, SimhashIndex> indexes = new ConcurrentHashMap<>();
+    /**
+     * experiments which are stopped or deleted, their indexes are not kept in memory
+     */
+    private final Set<Integer> stoppedExperiments = ConcurrentHashMap.newKeySet();
+
+    private final Counter processed;
+    private final Counter overflows;
+    private final Histogram processing;
 
-    private final int numOfThreads = 1;
-    private final ExecutorService executorService = Executors.newFixedThreadPool(numOfThreads);
-    private final List<DuplicateWatcherThread> threads = new ArrayList<>(numOfThreads);
-    private boolean threadRunning = false;
     /**
      * Constructor
      *
      * @param answerRatingOperations used to set quality and quality-assured bit to duplicates
      * @param experimentOperations db-operations used to determine the answer-type of an experiment
+     * @param eventManager the eventManager to get the created answers from
      */
-    public DuplicateChecker(AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations,EventManager eventManager) {
+    public DuplicateChecker(AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations, EventManager eventManager) {
+        this(answerRatingOperations, experimentOperations, eventManager, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, TextHash.MD5,
+                new ImageFetcher(DEFAULT_THREADS, 5000, 10000, 10 * 1024 * 1024, 2, 1000, 1000, ImageHash.SIGNATURE, MetricsRegistry.NOOP),
+                MetricsRegistry.NOOP);
+    }
+
+    /**
+     * Constructor
+     * <p>
+     * Every experiment is assigned to one of the threads, so the answers of an experiment are checked one after another,
+     * while the answers of different experiments are checked in parallel.
+     * If the queue of a thread is full, the answer stays without hash in the database and is loaded again
+     * as soon as the queue is empty.
+     * Images are downloaded by the imageFetcher, meanwhile the thread continues with other answers.
+     *
+     * @param answerRatingOperations used to set quality and quality-assured bit to duplicates
+     * @param experimentOperations db-operations used to determine the answer-type of an experiment
+     * @param eventManager the eventManager to get the created answers from
+     * @param numOfThreads the number of threads checking for duplicates
+     * @param queueCapacity the number of answers which can wait for each thread
+     * @param textHash the algorithm used to hash text answers
+     * @param imageFetcher used to download and hash image answers, it is shut down on {@link #terminate()}
+     * @param metrics the registry to report the throughput to
+     */
+    public DuplicateChecker(AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations,
+                            EventManager eventManager, int numOfThreads, int queueCapacity, TextHash textHash,
+                            ImageFetcher imageFetcher, MetricsRegistry metrics) {
 
         this.answerRatingOperations = answerRatingOperations;
+        this.textHash = textHash;
+        this.imageFetcher = imageFetcher;
         this.experimentOperations = experimentOperations;
+        this.executorService = Executors.newFixedThreadPool(numOfThreads);
+        this.threads = new ArrayList<>(numOfThreads);
         for (int i = 0; i < numOfThreads; i++) {
-            threads.add(new DuplicateWatcherThread());
+            threads.add(new DuplicateWatcherThread(queueCapacity));
         }
 
-        eventManager.ANSWER_CREATE.getObservable().subscribe(answerEvent -> {
-            try {
-                queue.put(AnswerRatingTransformer.toAnswerRecord(answerEvent.getData(), answerEvent.getData().getExperimentId()));
-            } catch (InterruptedException e) {
-                logger.fatal("Answer "+answerEvent.getData().getId()+" of experiment "+answerEvent.getData().getExperimentId()
-                        +" got interrupted during insertion in the duplicate-checker's queue!");
+        this.processed = metrics.counter("duplicateChecker.processed");
+        this.overflows = metrics.counter("duplicateChecker.overflows");
+        this.processing = metrics.histogram("duplicateChecker.processing");
+        metrics.gauge("duplicateChecker.queued", () -> threads.stream().mapToInt(thread -> thread.queue.size()).sum());
+        metrics.gauge("duplicateChecker.indexedExperiments", indexes::size);
+
+        eventManager.ANSWER_CREATE.getAsyncObservable("DuplicateChecker").subscribe(answerEvent ->
+                enqueue(AnswerRatingTransformer.toAnswerRecord(answerEvent.getData(), answerEvent.getData().getExperimentId())));
+        eventManager.EXPERIMENT_CHANGE.getObservable("DuplicateChecker").subscribe(changeEvent -> {
+            if (changeEvent.getData().getNeww().getState() == Experiment.State.STOPPED) {
+                evictIndex(changeEvent.getData().getNeww().getId());
+            } else {
+                stoppedExperiments.remove(changeEvent.getData().getNeww().getId());
             }
         });
+        eventManager.EXPERIMENT_DELETE.getObservable("DuplicateChecker").subscribe(experimentEvent ->
+                evictIndex(experimentEvent.getData().getId()));
 
+        threadRunning = true;
         threads.forEach(executorService::execute);
 
     }
 
+    /**
+     * Hands the answer to the thread responsible for its experiment.
+     * Answers which are already queued or checked are ignored.
+     * If the queue of the thread is full, the answer is loaded from the database later.
+     *
+     * @param answerRecord the answer to check
+     */
+    private void enqueue(AnswerRecord answerRecord) {
+        if (!pendingAnswers.add(answerRecord.getIdAnswer())) {
+            return;
+        }
+        DuplicateWatcherThread thread = threads.get(Math.floorMod(answerRecord.getExperiment(), threads.size()));
+        if (thread.waiting.incrementAndGet() > thread.queueCapacity) {
+            thread.waiting.decrementAndGet();
+            pendingAnswers.remove(answerRecord.getIdAnswer());
+            overflows.increment();
+            thread.overflowedExperiments.add(answerRecord.getExperiment());
+            logger.debug("Queue of the duplicate-checker is full, answer " + answerRecord.getIdAnswer()
+                    + " of experiment " + answerRecord.getExperiment() + " will be loaded from the database later");
+        } else {
+            thread.queue.add(new AnswerCheck(answerRecord, null, null));
+        }
+    }
+
 
      /**
      * Terminates the running duplicateDetector
@@ -82,6 +177,7 @@ public class DuplicateChecker {
     public boolean terminate(){
         threadRunning = false;
         executorService.shutdownNow();
+        imageFetcher.shutdown();
         return executorService.isShutdown();
 
     }
@@ -91,143 +187,254 @@ public class DuplicateChecker {
      * If duplicates are found their quality is set to 0 and their quality_assured bit is set.
      * In Addition to that, the duplicates system-response field
      * The original answer keeps its quality.
+     * <p>
+     * The hashes of the experiment are loaded from the database on the first call for an experiment
+     * and kept in memory until the experiment is stopped.
      *
      * @param submittedAnswer the be checked for duplicates
      * @param answerHash hashing of the answerRecord
      */
     public void processDuplicatesOfExperiment(String answerType,AnswerRecord submittedAnswer, long answerHash) {
         double threshold = (answerType == null) ? .80 : .75;
-        List<AnswerRecord> listOfDuplicates = answerRatingOperations.getDuplicates(answerHash,submittedAnswer.getExperiment(),threshold);
-        AnswerRecord originalAnswer = submittedAnswer;
-        for (AnswerRecord duplicate : listOfDuplicates ) {
-            if(duplicate.getTimestamp().compareTo(originalAnswer.getTimestamp()) < 0)
-                originalAnswer = duplicate;
+        SimhashIndex index = getIndex(submittedAnswer.getExperiment());
+        index.add(submittedAnswer.getIdAnswer(), answerHash, submittedAnswer.getTimestamp().getTime());
+        List<SimhashIndex.Entry> listOfDuplicates = index.find(answerHash, threshold);
+        int originalAnswer = submittedAnswer.getIdAnswer();
+        long originalTimestamp = submittedAnswer.getTimestamp().getTime();
+        for (SimhashIndex.Entry duplicate : listOfDuplicates ) {
+            if(duplicate.getTimestamp() < originalTimestamp) {
+                originalAnswer = duplicate.getAnswer();
+                originalTimestamp = duplicate.getTimestamp();
+            }
         }
-        final AnswerRecord finalOriginalAnswer = originalAnswer;
-        listOfDuplicates.removeIf(record -> record.getIdAnswer().equals(finalOriginalAnswer.getIdAnswer()));
-        listOfDuplicates.forEach((duplicate)-> {
-
-            duplicate.setDuplicate(true);
-            duplicate.setSystemResponse(DUPLICATE_RESPONSE);
-            duplicate.setQualityAssured(true);
-            duplicate.setQuality(0);
-            answerRatingOperations.updateAnswer(duplicate);
+        final int finalOriginalAnswer = originalAnswer;
+        listOfDuplicates.removeIf(entry -> entry.getAnswer() == finalOriginalAnswer);
+        listOfDuplicates.forEach((entry)-> {
+
+            Optional<AnswerRecord> duplicate = entry.getAnswer() == submittedAnswer.getIdAnswer()
+                    ? Optional.of(submittedAnswer)
+                    : answerRatingOperations.getAnswer(entry.getAnswer());
+            duplicate.filter(record -> !Boolean.TRUE.equals(record.getDuplicate())).ifPresent(record -> {
+                record.setDuplicate(true);
+                record.setSystemResponse(DUPLICATE_RESPONSE);
+                record.setQualityAssured(true);
+                record.setQuality(0);
+                answerRatingOperations.updateAnswer(record);
+            });
 
         });
     }
 
+    /**
+     * Returns the hashes of the answers of the experiment, loads them from the database if necessary.
+     * The index of a stopped experiment is not kept, so it is loaded again for every late answer.
+     *
+     * @param experiment the primary key of the experiment
+     * @return the index of the experiment
+     */
+    private SimhashIndex getIndex(int experiment) {
+        SimhashIndex index = indexes.get(experiment);
+        if (index != null) {
+            return index;
+        }
+        SimhashIndex loaded = new SimhashIndex();
+        for (AnswerRecord answerRecord : answerRatingOperations.getHashedAnswers(experiment)) {
+            loaded.add(answerRecord.getIdAnswer(), answerRecord.getHash(), answerRecord.getTimestamp().getTime());
+        }
+        // checked atomically with the insertion, so an experiment stopped meanwhile gets no index which is never evicted
+        index = indexes.compute(experiment, (key, existing) ->
+                existing != null || stoppedExperiments.contains(key) ? existing : loaded);
+        return index != null ? index : loaded;
+    }
+
+    /**
+     * Removes the index of a stopped or deleted experiment and prevents it from being loaded again.
+     *
+     * @param experiment the primary key of the experiment
+     */
+    private void evictIndex(int experiment) {
+        stoppedExperiments.add(experiment);
+        indexes.remove(experiment);
+    }
+
 
 
     /**
      * Retrieves a hash of the given answer based on its type.
      * If an answer is a string answer, its hash is calculated via the corresponding StringSimilarity method.
-     * Else if an answer is considered a URL this method tries to acquire the corresponding picture from its external source
+     * Else if an answer is considered a URL the imageFetcher tries to acquire the corresponding picture from its external source
      * In the case of failure (e.g. because of a malformed URL or connection issues) the method will return an empty-optional.
      *
      * @param answerRecord the answer which should be hashed
      * @param answerType the type of the answer
-     * @return Optional<Long> if the answer could be hashed or an empty-optional otherwise
+     * @return the future Optional<Long> if the answer could be hashed or an empty-optional otherwise
      */
-    private Optional<Long> getHashFromAnswer(AnswerRecord answerRecord, String answerType) {
+    private CompletableFuture<Optional<Long>> getHashFromAnswer(AnswerRecord answerRecord, String answerType) {
         if (answerType == null) { //String answer
-            return Optional.of(StringSimilarity.computeSimhashFromShingles(Shingle.getShingle(answerRecord.getAnswer(), 3)));
+            return CompletableFuture.completedFuture(Optional.of(textHash.compute(answerRecord.getAnswer(), 3)));
         } else {
             //Picture ulr
-            //PictureFetch
-            BufferedImage image;
             URL url;
             try {
                 url = new URL(answerRecord.getAnswer());
             } catch (MalformedURLException e) {
                 answerRecord.setSystemResponse(URL_MALFORMED_RESPONSE);
-                return Optional.empty();
-            }
-            try {
-                image = ImageIO.read(url);
-            } catch (IOException e) {
-                answerRecord.setSystemResponse(IMAGE_NOT_READABLE_RESPONSE);
-                return Optional.empty();
-            }
-            if (image == null) {
-                answerRecord.setSystemResponse(IMAGE_NOT_READABLE_RESPONSE);
-                return Optional.empty();
+                return CompletableFuture.completedFuture(Optional.empty());
             }
-            return Optional.of(ImageSimilarity.getImageHashFromSignature(image));
+            return imageFetcher.fetchHash(url).thenApply(hash -> {
+                if (!hash.isPresent()) {
+                    answerRecord.setSystemResponse(IMAGE_NOT_READABLE_RESPONSE);
+                }
+                return hash;
+            });
         }
     }
 
 
     /**
      * Reinserts answers, which were not checked/rated by the duplicate-checker back in the
-     * queue
+     * queue. Answers which could not be hashed before are not checked again.
+     *
+     * @param expID the experiment to check the answers of
      */
-    public void rescheduleAnswersForDuplicateDetection(int expID){ 
+    public void rescheduleAnswersForDuplicateDetection(int expID){
         List<AnswerRecord> unratedAnswers = answerRatingOperations.getAnswersWithoutHash(expID);
-        unratedAnswers.forEach((answerRecord -> {
-            try {
-                queue.put(answerRecord);
-            } catch (InterruptedException e) {
-                logger.fatal("Answer "+answerRecord.getIdAnswer()+" of experiment "+answerRecord.getExperiment()
-                        +" got interrupted during insertion in the duplicate-checker's queue!");
-            }
-        }));
+        unratedAnswers.stream()
+                .filter(answerRecord -> !URL_MALFORMED_RESPONSE.equals(answerRecord.getSystemResponse())
+                        && !IMAGE_NOT_READABLE_RESPONSE.equals(answerRecord.getSystemResponse()))
+                .forEach(this::enqueue);
     }
 
 
+    /**
+     * An answer waiting in the queue of a thread
+     */
+    private static class AnswerCheck {
+        private final AnswerRecord answerRecord;
+        private final String answerType;
+        /**
+         * null if the answer was not hashed yet
+         */
+        private final Optional<Long> hash;
+
+        private AnswerCheck(AnswerRecord answerRecord, String answerType, Optional<Long> hash) {
+            this.answerRecord = answerRecord;
+            this.answerType = answerType;
+            this.hash = hash;
+        }
+    }
+
     private class DuplicateWatcherThread implements Runnable
     {
+        /**
+         * contains new answers and answers whose image was downloaded
+         */
+        private final BlockingQueue<AnswerCheck> queue = new LinkedBlockingQueue<>();
+        /**
+         * number of new answers in the queue
+         */
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final int queueCapacity;
+        private final Set<Integer> overflowedExperiments = ConcurrentHashMap.newKeySet();
+
+        private DuplicateWatcherThread(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
         /**
          * While running, the DuplicateChecker hashes the answers in the queue and checks them for duplicates.
          */
         public void run() {
-            threadRunning = true;
             while (threadRunning) {
-                AnswerRecord answerRecord;
+                AnswerCheck check;
                 try {
-                    answerRecord = queue.take();
+                    if (queue.isEmpty()) {
+                        recoverOverflowedExperiments();
+                    }
+                    check = queue.take();
                 } catch (InterruptedException e) {
                     logger.info("DuplicateChecker terminated!");
                     return;
                 }
-                if (answerRecord != null) {
-                    rescheduleAnswersForDuplicateDetection(answerRecord.getExperiment());
-                    answerRecord = answerRatingOperations.getAnswer(answerRecord.getIdAnswer()).orElseThrow(IllegalArgumentException::new);
-                    String answerType = experimentOperations.getExperiment(answerRecord.getExperiment())
-                            .orElseThrow(() -> new IllegalArgumentException("Error! Can't retrieve the experiment matching to ID!")).getAnswerType();
-                    //trying to acquire answer-hash
-                    Optional<Long> answerHash = getHashFromAnswer(answerRecord,answerType);
-                    if (answerHash.isPresent()) {
-
-                        answerRecord.setHash(answerHash.get());
-                        answerRatingOperations.updateAnswer(answerRecord);
-                        processDuplicatesOfExperiment(answerType,answerRecord, answerHash.get());
+                long start = System.nanoTime();
+                boolean finished = true;
+                try {
+                    if (check.hash == null) {
+                        waiting.decrementAndGet();
+                        finished = hashAnswer(check.answerRecord);
                     } else {
-
-                        // If optional is empty and thus the hashing failed, the answers quality will be set to zero.
-                        // The reason for the failure is described in the response-field and set in the getHashFromAnswer-method
-                        answerRecord.setQuality(0);
-                        answerRecord.setQualityAssured(true);
-                        answerRatingOperations.updateAnswer(answerRecord);
-                        
+                        checkAnswer(check.answerRecord, check.answerType, check.hash);
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Duplicate detection of answer " + check.answerRecord.getIdAnswer() + " failed", e);
+                } finally {
+                    if (finished) {
+                        pendingAnswers.remove(check.answerRecord.getIdAnswer());
+                        processed.increment();
                     }
+                    processing.recordSince(start);
                 }
             }
             logger.info("DuplicateChecker terminated!");
 
         }
-    }
-
-
-
-
-
-
 
+        /**
+         * Loads the answers which did not fit into the queue from the database.
+         */
+        private void recoverOverflowedExperiments() {
+            for (Integer experiment : overflowedExperiments) {
+                overflowedExperiments.remove(experiment);
+                rescheduleAnswersForDuplicateDetection(experiment);
+            }
+        }
 
+        /**
+         * Hashes the answer and checks it for duplicates.
+         * If the hash is not available yet (image answers), the answer is added to the queue again as soon as it is.
+         *
+         * @param answerRecord the answer to check
+         * @return true if the answer was checked, false if the hash is not available yet
+         */
+        private boolean hashAnswer(AnswerRecord answerRecord) {
+            AnswerRecord freshRecord = answerRatingOperations.getAnswer(answerRecord.getIdAnswer()).orElseThrow(IllegalArgumentException::new);
+            String answerType = experimentOperations.getExperiment(freshRecord.getExperiment())
+                    .orElseThrow(() -> new IllegalArgumentException("Error! Can't retrieve the experiment matching to ID!")).getAnswerType();
+            //trying to acquire answer-hash
+            CompletableFuture<Optional<Long>> answerHash = getHashFromAnswer(freshRecord, answerType);
+            if (answerHash.isDone()) {
+                checkAnswer(freshRecord, answerType, answerHash.join());
+                return true;
+            }
+            answerHash.whenComplete((hash, e) -> queue.add(new AnswerCheck(freshRecord, answerType,
+                    hash == null ? Optional.empty() : hash)));
+            return false;
+        }
 
+        /**
+         * Stores the hash of the answer and checks it for duplicates.
+         *
+         * @param answerRecord the answer to check
+         * @param answerType the type of the answer
+         * @param answerHash the hash of the answer, empty if the answer could not be hashed
+         */
+        private void checkAnswer(AnswerRecord answerRecord, String answerType, Optional<Long> answerHash) {
+            if (answerHash.isPresent()) {
 
+                answerRecord.setHash(answerHash.get());
+                answerRatingOperations.updateAnswer(answerRecord);
+                processDuplicatesOfExperiment(answerType,answerRecord, answerHash.get());
+            } else {
 
+                // If optional is empty and thus the hashing failed, the answers quality will be set to zero.
+                // The reason for the failure is described in the response-field and set in the getHashFromAnswer-method
+                answerRecord.setQuality(0);
+                answerRecord.setQualityAssured(true);
+                answerRatingOperations.updateAnswer(answerRecord);
 
+            }
+        }
+    }
 
 
     @Deprecated //because duplicate-detection is done in the db now
@@ -0,0 +1,239 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection;
+
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads and hashes the images of image answers on its own thread pool.
+ * <p>
+ * Downloads are limited by a connect- and read-timeout and a maximum size. Failed downloads are retried with
+ * an exponential backoff, if the failure may be temporary (connection problems, server errors).
+ * The hashes are cached by URL, so an image submitted by many workers is downloaded and hashed only once.
+ * Failed downloads are not cached.
+ */
+public class ImageFetcher {
+    private final Logger logger = LogManager.getLogger(ImageFetcher.class);
+
+    private final ScheduledExecutorService executorService;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int maxSize;
+    private final int retries;
+    private final long retryBackoff;
+    private final ImageHash imageHash;
+    private final Map<String, CompletableFuture<Optional<Long>>> cache;
+
+    private final Counter downloads;
+    private final Counter cacheHits;
+    private final Counter retried;
+    private final Counter failures;
+    private final Histogram downloadTime;
+
+    /**
+     * Creates a new ImageFetcher.
+     *
+     * @param threads the maximal number of parallel downloads
+     * @param connectTimeout the timeout in milliseconds to establish a connection
+     * @param readTimeout the timeout in milliseconds to wait for data
+     * @param maxSize the maximal size of an image in bytes
+     * @param retries the number of retries of a failed download
+     * @param retryBackoff the time in milliseconds to wait before the first retry, doubled for every further retry
+     * @param cacheSize the number of URLs whose hashes are cached
+     * @param imageHash the algorithm to decode and hash the images
+     * @param metrics the registry to report the downloads to
+     */
+    public ImageFetcher(int threads, int connectTimeout, int readTimeout, int maxSize, int retries, long retryBackoff,
+                        int cacheSize, ImageHash imageHash, MetricsRegistry metrics) {
+        this.executorService = Executors.newScheduledThreadPool(threads);
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxSize = maxSize;
+        this.retries = retries;
+        this.retryBackoff = retryBackoff;
+        this.imageHash = imageHash;
+        this.cache = new LinkedHashMap<String, CompletableFuture<Optional<Long>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Optional<Long>>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        this.downloads = metrics.counter("imageFetcher.downloads");
+        this.cacheHits = metrics.counter("imageFetcher.cacheHits");
+        this.retried = metrics.counter("imageFetcher.retries");
+        this.failures = metrics.counter("imageFetcher.failures");
+        this.downloadTime = metrics.histogram("imageFetcher.download");
+    }
+
+    /**
+     * Downloads the image and computes its hash.
+     *
+     * @param url the URL of the image
+     * @return the future hash of the image, empty if the image could not be downloaded or read
+     */
+    public CompletableFuture<Optional<Long>> fetchHash(URL url) {
+        String key = url.toExternalForm();
+        CompletableFuture<Optional<Long>> result;
+        synchronized (cache) {
+            result = cache.get(key);
+            if (result != null) {
+                cacheHits.increment();
+                return result;
+            }
+            result = new CompletableFuture<>();
+            cache.put(key, result);
+        }
+
+        CompletableFuture<Optional<Long>> finalResult = result;
+        result.thenAccept(hash -> {
+            if (!hash.isPresent()) {
+                synchronized (cache) {
+                    cache.remove(key, finalResult);
+                }
+            }
+        });
+        schedule(url, 0, finalResult);
+        return result;
+    }
+
+    /**
+     * Stops all downloads.
+     */
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private void schedule(URL url, int attempt, CompletableFuture<Optional<Long>> result) {
+        long delay = attempt == 0 ? 0 : retryBackoff << (attempt - 1);
+        try {
+            executorService.schedule(() -> attempt(url, attempt, result), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            result.complete(Optional.empty());
+        }
+    }
+
+    private void attempt(URL url, int attempt, CompletableFuture<Optional<Long>> result) {
+        long start = System.nanoTime();
+        downloads.increment();
+        try {
+            Optional<Long> hash = imageHash.compute(download(url));
+            if (!hash.isPresent()) {
+                logger.debug("{} is not an image", url);
+                failures.increment();
+            }
+            result.complete(hash);
+        } catch (TemporaryException e) {
+            if (attempt < retries) {
+                logger.debug("download of {} failed, retrying: {}", url, e.getMessage());
+                retried.increment();
+                schedule(url, attempt + 1, result);
+            } else {
+                logger.debug("download of {} failed: {}", url, e.getMessage());
+                failures.increment();
+                result.complete(Optional.empty());
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("download of {} failed: {}", url, e.getMessage());
+            failures.increment();
+            result.complete(Optional.empty());
+        } finally {
+            downloadTime.recordSince(start);
+        }
+    }
+
+    /**
+     * Downloads the content of the URL.
+     *
+     * @param url the URL to download
+     * @return the content
+     * @throws TemporaryException if the download may succeed later
+     * @throws IOException if the content is too large or can not be downloaded
+     */
+    private byte[] download(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        try {
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            if (connection instanceof HttpURLConnection) {
+                int status;
+                try {
+                    status = ((HttpURLConnection) connection).getResponseCode();
+                } catch (IOException e) {
+                    throw new TemporaryException(e.toString());
+                }
+                if (status >= 500 || status == 429) {
+                    throw new TemporaryException("status " + status);
+                }
+                if (status >= 300) {
+                    throw new IOException("status " + status);
+                }
+            }
+            if (connection.getContentLengthLong() > maxSize) {
+                throw new IOException("image has " + connection.getContentLengthLong() + " bytes");
+            }
+
+            byte[] content;
+            try (InputStream in = connection.getInputStream()) {
+                content = readLimited(in);
+            } catch (IOException e) {
+                throw new TemporaryException(e.toString());
+            }
+            if (content == null) {
+                throw new IOException("image has more than " + maxSize + " bytes");
+            }
+            return content;
+        } finally {
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+        }
+    }
+
+    /**
+     * Reads the stream up to the maximal size of an image
+     *
+     * @param in the stream to read
+     * @return the content of the stream or null if it is larger than the maximal size
+     * @throws IOException if the stream can not be read
+     */
+    private byte[] readLimited(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > maxSize) {
+                return null;
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Signals a failure which may not occur on a retry
+     */
+    private static class TemporaryException extends IOException {
+        private TemporaryException(String message) {
+            super(message);
+        }
+    }
+}
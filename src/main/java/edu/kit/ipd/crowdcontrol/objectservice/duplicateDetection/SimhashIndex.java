@@ -0,0 +1,169 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection;
+
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.HashSimilarity;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory index of the 64-bit hashes of the answers of one experiment.
+ * <p>
+ * The hash is split into four blocks of 16 bits, every block has its own table.
+ * Two hashes which differ in at most r bits differ in at most r / BLOCKS bits in at least one block,
+ * so only the buckets of the block values near the searched hash have to be checked instead of all answers.
+ * The candidates are verified with {@link HashSimilarity#getSimilarityFromHash(long, long)}.
+ * <p>
+ * The index is not thread-safe.
+ */
+public class SimhashIndex {
+    private static final int BLOCKS = 4;
+    private static final int BLOCK_BITS = Long.SIZE / BLOCKS;
+    private static final int BLOCK_MASK = (1 << BLOCK_BITS) - 1;
+    /**
+     * the maximum number of differing bits per block, which is searched in the tables
+     */
+    private static final int MAX_BLOCK_DISTANCE = 4;
+    /**
+     * all block values with at most i bits set, used to probe the neighbours of a block value
+     */
+    private static final int[][] PROBES = new int[MAX_BLOCK_DISTANCE + 1][];
+
+    static {
+        for (int distance = 0; distance <= MAX_BLOCK_DISTANCE; distance++) {
+            final int maxBits = distance;
+            PROBES[distance] = IntStream.rangeClosed(0, BLOCK_MASK)
+                    .filter(value -> Integer.bitCount(value) <= maxBits)
+                    .toArray();
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Set<Integer> answers = new HashSet<>();
+    private final List<Map<Integer, List<Entry>>> tables = new ArrayList<>(BLOCKS);
+
+    /**
+     * creates a new empty index
+     */
+    public SimhashIndex() {
+        for (int i = 0; i < BLOCKS; i++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the hash of an answer to the index. Answers which are already indexed are ignored.
+     *
+     * @param answer the primary key of the answer
+     * @param hash the hash of the answer
+     * @param timestamp the creation time of the answer
+     */
+    public void add(int answer, long hash, long timestamp) {
+        if (!answers.add(answer)) {
+            return;
+        }
+        Entry entry = new Entry(answer, hash, timestamp);
+        entries.add(entry);
+        for (int block = 0; block < BLOCKS; block++) {
+            tables.get(block).computeIfAbsent(block(hash, block), key -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    /**
+     * Returns all indexed answers, whose hash has at least the passed similarity to the passed hash.
+     *
+     * @param hash the hash to search
+     * @param threshold the minimal similarity, as computed by {@link HashSimilarity#getSimilarityFromHash(long, long)}
+     * @return the matching answers
+     */
+    public List<Entry> find(long hash, double threshold) {
+        int blockDistance = maxHammingDistance(threshold) / BLOCKS;
+        if (blockDistance > MAX_BLOCK_DISTANCE || entries.size() <= PROBES[blockDistance].length * BLOCKS) {
+            List<Entry> result = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (HashSimilarity.getSimilarityFromHash(hash, entry.hash) >= threshold) {
+                    result.add(entry);
+                }
+            }
+            return result;
+        }
+
+        Map<Integer, Entry> result = new LinkedHashMap<>();
+        for (int block = 0; block < BLOCKS; block++) {
+            Map<Integer, List<Entry>> table = tables.get(block);
+            int value = block(hash, block);
+            for (int probe : PROBES[blockDistance]) {
+                List<Entry> bucket = table.get(value ^ probe);
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    if (!result.containsKey(entry.answer)
+                            && HashSimilarity.getSimilarityFromHash(hash, entry.hash) >= threshold) {
+                        result.put(entry.answer, entry);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * @return the number of indexed answers
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Computes the maximal number of differing bits of two hashes with at least the passed similarity.
+     * <p>
+     * The similarity is 1 - (bitCount + 1) / (highestDifferingBit + 1), which is at most
+     * 1 - (bitCount + 1) / 65.
+     *
+     * @param threshold the similarity
+     * @return the maximal hamming-distance
+     */
+    static int maxHammingDistance(double threshold) {
+        return Math.max(0, (int) Math.floor((1 - threshold) * (Long.SIZE + 1) - 1 + 1e-9));
+    }
+
+    private static int block(long hash, int block) {
+        return (int) (hash >>> (block * BLOCK_BITS)) & BLOCK_MASK;
+    }
+
+    /**
+     * An indexed answer
+     */
+    public static class Entry {
+        private final int answer;
+        private final long hash;
+        private final long timestamp;
+
+        private Entry(int answer, long hash, long timestamp) {
+            this.answer = answer;
+            this.hash = hash;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * @return the primary key of the answer
+         */
+        public int getAnswer() {
+            return answer;
+        }
+
+        /**
+         * @return the hash of the answer
+         */
+        public long getHash() {
+            return hash;
+        }
+
+        /**
+         * @return the creation time of the answer
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * The algorithms to decode and hash an image answer.
+ * All of them produce the hash format of {@link ImageSimilarity#getImageHashFromSignature(BufferedImage)}.
+ */
+public enum ImageHash {
+    /**
+     * Decodes the full image and hashes its rescaled signature, compatible to the hashes stored by earlier versions
+     */
+    SIGNATURE {
+        @Override
+        public Optional<Long> compute(byte[] content) throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+            return image == null ? Optional.empty() : Optional.of(ImageSimilarity.getImageHashFromSignature(image));
+        }
+    },
+    /**
+     * Decodes the full image and hashes it with {@link ImageSimilarity#getImageHashFromRaster(BufferedImage)}
+     */
+    RASTER {
+        @Override
+        public Optional<Long> compute(byte[] content) throws IOException {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+            return image == null ? Optional.empty() : Optional.of(ImageSimilarity.getImageHashFromRaster(image));
+        }
+    },
+    /**
+     * Decodes large JPEGs at a reduced resolution, so they are never fully decoded into memory,
+     * and hashes them with {@link ImageSimilarity#getImageHashFromRaster(BufferedImage)}
+     */
+    SUBSAMPLED {
+        @Override
+        public Optional<Long> compute(byte[] content) throws IOException {
+            try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+                Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+                if (!readers.hasNext()) {
+                    return Optional.empty();
+                }
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    if ("jpeg".equalsIgnoreCase(reader.getFormatName())) {
+                        int factor = Math.min(reader.getWidth(0), reader.getHeight(0)) / MIN_SUBSAMPLED_SIZE;
+                        if (factor > 1) {
+                            param.setSourceSubsampling(factor, factor, 0, 0);
+                        }
+                    }
+                    return Optional.of(ImageSimilarity.getImageHashFromRaster(reader.read(0, param)));
+                } finally {
+                    reader.dispose();
+                }
+            }
+        }
+    };
+
+    /**
+     * the minimal width and height of a subsampled image, large enough for the 5x4 sections of the signature
+     */
+    private static final int MIN_SUBSAMPLED_SIZE = 200;
+
+    /**
+     * Decodes the image and computes its hash.
+     *
+     * @param content the encoded image
+     * @return the hash of the image, empty if the content is no image
+     * @throws IOException if the image can not be decoded
+     */
+    public abstract Optional<Long> compute(byte[] content) throws IOException;
+}
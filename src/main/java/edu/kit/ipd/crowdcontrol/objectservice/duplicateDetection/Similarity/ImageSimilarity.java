@@ -3,9 +3,15 @@ package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.FilteredImageSource;
 import java.awt.image.ImageFilter;
 import java.awt.image.ImageProducer;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
 
 /**
  * Created by lucaskrauss on 10.02.16.
@@ -244,27 +250,142 @@ public class ImageSimilarity {
      */
     public static long getImageHashFromSignature(BufferedImage bufferedImage){
         Color [][] signature = getImageSignature(bufferedImage,30,4,5);
+        int[][][] cells = new int[signature.length][signature[0].length][];
+        for (int i = 0; i < signature.length; i++) {
+            for (int j = 0; j < signature[i].length; j++) {
+                cells[i][j] = new int[] {signature[i][j].getRed(), signature[i][j].getGreen(), signature[i][j].getBlue()};
+            }
+        }
+        return getHashFromCells(cells);
+    }
+
+    /**
+     * Calculates the same 64-bit hash as {@link #getImageHashFromSignature(BufferedImage)}, but reads the pixels in bulk
+     * from the raster of the image instead of rescaling it and creating a Color per pixel.
+     * The color of an image-section is the average of all its pixels, instead of the average of the pixels of the
+     * rescaled image, so the hashes are very similar but not always equal.
+     * @param bufferedImage the bufferedImage
+     * @return hashing of the image
+     */
+    public static long getImageHashFromRaster(BufferedImage bufferedImage) {
+        final int rows = 5;
+        final int columns = 4;
+        int width = bufferedImage.getWidth();
+        int height = bufferedImage.getHeight();
+        long[] sums = new long[rows * columns * 3];
+        long[] counts = new long[rows * columns];
+        int[] columnOfX = new int[width];
+        for (int x = 0; x < width; x++) {
+            columnOfX[x] = x * columns / width;
+        }
+        int[] rgb = new int[width];
+
+        Raster raster = bufferedImage.getRaster();
+        DataBuffer dataBuffer = raster.getDataBuffer();
+        boolean packedInts = dataBuffer instanceof DataBufferInt && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && (bufferedImage.getType() == BufferedImage.TYPE_INT_RGB || bufferedImage.getType() == BufferedImage.TYPE_INT_ARGB);
+        boolean interleavedBytes = dataBuffer instanceof DataBufferByte && raster.getSampleModel() instanceof PixelInterleavedSampleModel
+                && (bufferedImage.getType() == BufferedImage.TYPE_3BYTE_BGR || bufferedImage.getType() == BufferedImage.TYPE_4BYTE_ABGR);
+
+        for (int y = 0; y < height; y++) {
+            int cellRow = (y * rows / height) * columns;
+            if (packedInts) {
+                SinglePixelPackedSampleModel model = (SinglePixelPackedSampleModel) raster.getSampleModel();
+                int[] data = ((DataBufferInt) dataBuffer).getData();
+                int offset = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * model.getScanlineStride()
+                        - raster.getSampleModelTranslateX();
+                boolean alpha = bufferedImage.getType() == BufferedImage.TYPE_INT_ARGB;
+                for (int x = 0; x < width; x++) {
+                    int pixel = data[offset + x];
+                    rgb[x] = alpha ? premultiply(pixel) : pixel;
+                }
+            } else if (interleavedBytes) {
+                PixelInterleavedSampleModel model = (PixelInterleavedSampleModel) raster.getSampleModel();
+                byte[] data = ((DataBufferByte) dataBuffer).getData();
+                int pixelStride = model.getPixelStride();
+                int[] bandOffsets = model.getBandOffsets();
+                int offset = dataBuffer.getOffset() + (y - raster.getSampleModelTranslateY()) * model.getScanlineStride()
+                        - raster.getSampleModelTranslateX() * pixelStride;
+                boolean alpha = bufferedImage.getType() == BufferedImage.TYPE_4BYTE_ABGR;
+                for (int x = 0; x < width; x++) {
+                    int index = offset + x * pixelStride;
+                    int pixel = (data[index + bandOffsets[0]] & 0xFF) << 16
+                            | (data[index + bandOffsets[1]] & 0xFF) << 8
+                            | (data[index + bandOffsets[2]] & 0xFF);
+                    rgb[x] = alpha ? premultiply(pixel | (data[index + bandOffsets[3]] & 0xFF) << 24) : pixel;
+                }
+            } else {
+                bufferedImage.getRGB(0, y, width, 1, rgb, 0, width);
+                if (bufferedImage.getColorModel().hasAlpha()) {
+                    for (int x = 0; x < width; x++) {
+                        rgb[x] = premultiply(rgb[x]);
+                    }
+                }
+            }
+
+            for (int x = 0; x < width; x++) {
+                int cell = cellRow + columnOfX[x];
+                int pixel = rgb[x];
+                sums[cell * 3] += (pixel >> 16) & 0xFF;
+                sums[cell * 3 + 1] += (pixel >> 8) & 0xFF;
+                sums[cell * 3 + 2] += pixel & 0xFF;
+                counts[cell]++;
+            }
+        }
+
+        int[][][] cells = new int[rows][columns][3];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                int cell = i * columns + j;
+                for (int color = 0; color < 3; color++) {
+                    cells[i][j][color] = counts[cell] == 0 ? 0 : (int) (sums[cell * 3 + color] / counts[cell]);
+                }
+            }
+        }
+        return getHashFromCells(cells);
+    }
+
+    /**
+     * Blends a pixel with alpha-channel on black, like drawing it on an image without alpha-channel does
+     */
+    private static int premultiply(int argb) {
+        int alpha = (argb >>> 24) & 0xFF;
+        if (alpha == 0xFF) {
+            return argb & 0xFFFFFF;
+        }
+        int red = ((argb >> 16) & 0xFF) * alpha / 0xFF;
+        int green = ((argb >> 8) & 0xFF) * alpha / 0xFF;
+        int blue = (argb & 0xFF) * alpha / 0xFF;
+        return red << 16 | green << 8 | blue;
+    }
+
+    /**
+     * Calculates the hash of the average colors of the image-sections
+     * @param cells the red, green and blue value of each image-section
+     * @return hashing of the image
+     */
+    private static long getHashFromCells(int[][][] cells) {
         long hash = 0;
         int avgRed = 0;
         int avgGreen = 0;
         int avgBlue = 0;
-        for (Color[] aSignature : signature) {
-            for (Color anASignature : aSignature) {
-                avgRed += anASignature.getRed();
-                avgGreen += anASignature.getGreen();
-                avgBlue += anASignature.getBlue();
+        for (int[][] row : cells) {
+            for (int[] cell : row) {
+                avgRed += cell[0];
+                avgGreen += cell[1];
+                avgBlue += cell[2];
             }
         }
         avgRed /=25;
         avgGreen /= 25;
         avgBlue /=25;
-        for (int i = 0; i < signature.length-1; i++) {
-            for (int j = 0; j < signature[i].length - 1; j++) {
-                hash |= (signature[i][j].getRed() > avgRed) ? 1 : 0;
+        for (int i = 0; i < cells.length-1; i++) {
+            for (int j = 0; j < cells[i].length - 1; j++) {
+                hash |= (cells[i][j][0] > avgRed) ? 1 : 0;
                 hash <<= 1;
-                hash |= (signature[i][j].getGreen() > avgGreen) ? 1 : 0;
+                hash |= (cells[i][j][1] > avgGreen) ? 1 : 0;
                 hash <<= 1;
-                hash |= (signature[i][j].getBlue() > avgBlue) ? 1 : 0;
+                hash |= (cells[i][j][2] > avgBlue) ? 1 : 0;
                         hash <<= 1;
             }
         }
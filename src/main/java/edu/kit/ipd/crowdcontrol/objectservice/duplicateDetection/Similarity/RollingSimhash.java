@@ -0,0 +1,146 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity;
+
+/**
+ * Computes the simhash of the n-grams of a string without creating the n-grams as strings.
+ * <p>
+ * Spaces are skipped and the code points are converted to lower case, like {@link Shingle#getShingle(String, int)} does.
+ * The n-grams are hashed with a polynomial rolling hash, which is mixed by the finalizer of MurmurHash3.
+ * Like with the set of shingles, every distinct n-gram is counted once.
+ * <p>
+ * An instance reuses its buffers and therefore must not be shared between threads.
+ */
+class RollingSimhash {
+    private static final long BASE = 0x100000001B3L;
+
+    private final int[] vector = new int[Long.SIZE];
+    private int[] window = new int[0];
+    /**
+     * open addressing set of the n-gram hashes, a slot is used if its generation is the current one
+     */
+    private long[] seen = new long[64];
+    private int[] generations = new int[64];
+    private int generation = 0;
+    private int size = 0;
+
+    /**
+     * Computes the simhash of the n-grams of the passed string.
+     *
+     * @param input the string
+     * @param ngramSize size of the n-grams
+     * @return the simhash, 0 if the string has less than ngramSize characters
+     */
+    long compute(String input, int ngramSize) {
+        if (window.length != ngramSize) {
+            window = new int[ngramSize];
+        }
+        reset();
+
+        // BASE^ngramSize, used to remove the oldest code point from the rolling hash
+        long outFactor = 1;
+        for (int i = 0; i < ngramSize; i++) {
+            outFactor *= BASE;
+        }
+
+        long rolling = 0;
+        int count = 0;
+        for (int i = 0; i < input.length(); ) {
+            int codePoint = input.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint == ' ') {
+                continue;
+            }
+            codePoint = Character.toLowerCase(codePoint);
+
+            int slot = count % ngramSize;
+            rolling = rolling * BASE + codePoint;
+            if (count >= ngramSize) {
+                rolling -= window[slot] * outFactor;
+            }
+            window[slot] = codePoint;
+            count++;
+
+            if (count >= ngramSize) {
+                long hash = mix(rolling);
+                if (add(hash)) {
+                    for (int b = 0; b < Long.SIZE; b++) {
+                        vector[b] += ((hash >>> b) & 1) != 0 ? 1 : -1;
+                    }
+                }
+            }
+        }
+
+        long simhash = 0;
+        for (int b = 0; b < Long.SIZE; b++) {
+            if (vector[b] > 0) {
+                simhash |= 1L << b;
+            }
+        }
+        return simhash;
+    }
+
+    private void reset() {
+        for (int b = 0; b < Long.SIZE; b++) {
+            vector[b] = 0;
+        }
+        size = 0;
+        generation++;
+        if (generation == 0) {
+            generations = new int[generations.length];
+            generation = 1;
+        }
+    }
+
+    /**
+     * adds the hash to the set of seen n-grams
+     *
+     * @param hash the hash of the n-gram
+     * @return true if the n-gram was not seen before
+     */
+    private boolean add(long hash) {
+        if ((size + 1) * 2 > seen.length) {
+            grow();
+        }
+        int mask = seen.length - 1;
+        int index = (int) hash & mask;
+        while (generations[index] == generation) {
+            if (seen[index] == hash) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        generations[index] = generation;
+        seen[index] = hash;
+        size++;
+        return true;
+    }
+
+    private void grow() {
+        long[] oldSeen = seen;
+        int[] oldGenerations = generations;
+        seen = new long[oldSeen.length * 2];
+        generations = new int[oldSeen.length * 2];
+        int mask = seen.length - 1;
+        for (int i = 0; i < oldSeen.length; i++) {
+            if (oldGenerations[i] == generation) {
+                int index = (int) oldSeen[i] & mask;
+                while (generations[index] == generation) {
+                    index = (index + 1) & mask;
+                }
+                generations[index] = generation;
+                seen[index] = oldSeen[i];
+            }
+        }
+    }
+
+    /**
+     * finalizer of MurmurHash3, spreads every input bit over all output bits
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -79,6 +79,20 @@ public class StringSimilarity {
 
 
 
+    private static final ThreadLocal<RollingSimhash> rollingSimhash = ThreadLocal.withInitial(RollingSimhash::new);
+
+    /**
+     * Computes the simhash of the n-grams of the given string.
+     * In contrast to {@link #computeSimhashFromShingles(Set)} no strings are created and no MD5 is used,
+     * so the resulting hashes are not comparable to those of {@link #computeSimhashFromShingles(Set)}.
+     * @param input the string
+     * @param ngramSize size of the n-grams
+     * @return simhash of the string
+     */
+    public static long computeSimhash(String input, int ngramSize) {
+        return rollingSimhash.get().compute(input, ngramSize);
+    }
+
     /**
      * Computes hashing of the given set of shingles
      * @param shingles ngrams of the original input string
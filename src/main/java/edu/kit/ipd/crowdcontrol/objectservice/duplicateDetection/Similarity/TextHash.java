@@ -0,0 +1,37 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity;
+
+/**
+ * The algorithms to compute the simhash of a text answer.
+ * <p>
+ * Hashes of different algorithms are not comparable, so the algorithm must not be changed
+ * while experiments with hashed answers are running.
+ */
+public enum TextHash {
+    /**
+     * Hashes every shingle with MD5, compatible to the hashes stored by earlier versions
+     */
+    MD5 {
+        @Override
+        public long compute(String text, int ngramSize) {
+            return StringSimilarity.computeSimhashFromShingles(Shingle.getShingle(text, ngramSize));
+        }
+    },
+    /**
+     * Hashes the n-grams with a rolling hash without creating strings
+     */
+    ROLLING {
+        @Override
+        public long compute(String text, int ngramSize) {
+            return StringSimilarity.computeSimhash(text, ngramSize);
+        }
+    };
+
+    /**
+     * Computes the simhash of the n-grams of the passed text
+     *
+     * @param text the text
+     * @param ngramSize size of the n-grams
+     * @return the simhash of the text
+     */
+    public abstract long compute(String text, int ngramSize);
+}
@@ -0,0 +1,76 @@
+package edu.kit.ipd.crowdcontrol.objectservice.event;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Describes how events are delivered to an asynchronous subscriber.
+ * <p>
+ * Every subscription gets its own set of lanes, each lane is a bounded queue which is drained by the executor.
+ * Events with the same key always end up in the same lane, so they are delivered in the order they were emitted.
+ * Events of different lanes can be delivered in parallel.
+ */
+public class AsyncDispatch {
+    private final ExecutorService executor;
+    private final int lanes;
+    private final int queueCapacity;
+    private final Backpressure backpressure;
+
+    /**
+     * Creates a new dispatch description.
+     *
+     * @param executor      the executor which delivers the events
+     * @param lanes         the number of lanes, which is the maximum number of events delivered in parallel
+     * @param queueCapacity the capacity of the queue of each lane
+     * @param backpressure  what to do if the queue of a lane is full
+     */
+    public AsyncDispatch(ExecutorService executor, int lanes, int queueCapacity, Backpressure backpressure) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("at least one lane is needed");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.executor = executor;
+        this.lanes = lanes;
+        this.queueCapacity = queueCapacity;
+        this.backpressure = backpressure;
+    }
+
+    /**
+     * Creates a copy of this dispatch with a different number of lanes.
+     *
+     * @param lanes the number of lanes
+     * @return a new AsyncDispatch
+     */
+    public AsyncDispatch withLanes(int lanes) {
+        return new AsyncDispatch(executor, lanes, queueCapacity, backpressure);
+    }
+
+    /**
+     * @return the executor which delivers the events
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the number of lanes
+     */
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * @return the capacity of the queue of each lane
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return what happens if the queue of a lane is full
+     */
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+}
@@ -0,0 +1,168 @@
+package edu.kit.ipd.crowdcontrol.objectservice.event;
+
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import rx.Subscriber;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Subscriber which hands the events over to the executor of a {@link AsyncDispatch} instead of
+ * delivering them on the emitting thread.
+ *
+ * @param <T> Data which is emitted with the event
+ */
+class AsyncSubscriber<T> extends Subscriber<Event<T>> {
+    private static final Logger LOGGER = LogManager.getLogger(AsyncSubscriber.class);
+
+    private final Subscriber<? super Event<T>> actual;
+    private final Function<T, ?> keyFunction;
+    private final AsyncDispatch dispatch;
+    private final Lane[] lanes;
+    private final Counter dropped;
+    private final Counter callerRuns;
+
+    /**
+     * Creates a new asynchronous subscriber.
+     *
+     * @param actual      the subscriber to deliver the events to
+     * @param keyFunction extracts the key of an event, events with the same key are delivered in order
+     * @param dispatch    describes how the events are delivered
+     * @param metrics     the registry to report the queue depth and the dropped events to
+     * @param prefix      the prefix of the names of the metrics
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AsyncSubscriber(Subscriber<? super Event<T>> actual, Function<T, ?> keyFunction, AsyncDispatch dispatch,
+                    MetricsRegistry metrics, String prefix) {
+        this.actual = actual;
+        this.keyFunction = keyFunction;
+        this.dispatch = dispatch;
+        this.lanes = new AsyncSubscriber.Lane[dispatch.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+        this.dropped = metrics.counter(prefix + ".dropped");
+        this.callerRuns = metrics.counter(prefix + ".callerRuns");
+        metrics.gauge(prefix + ".queued", this::getQueued);
+    }
+
+    /**
+     * Get the number of events waiting for delivery.
+     *
+     * @return the number of queued events over all lanes
+     */
+    int getQueued() {
+        return Arrays.stream(lanes).mapToInt(lane -> lane.queue.size()).sum();
+    }
+
+    @Override
+    public void onNext(Event<T> event) {
+        Object key = keyFunction.apply(event.getData());
+        lanes[Math.floorMod(Objects.hashCode(key), lanes.length)].submit(event);
+    }
+
+    @Override
+    public void onCompleted() {
+        actual.onCompleted();
+    }
+
+    @Override
+    public void onError(Throwable e) {
+        actual.onError(e);
+    }
+
+    /**
+     * Delivers the event to the actual subscriber.
+     * Exceptions are logged, there is no emitter anymore which could handle them.
+     *
+     * @param event the event to deliver
+     */
+    private void deliver(Event<T> event) {
+        try {
+            actual.onNext(event);
+        } catch (Throwable e) {
+            LOGGER.error("subscriber failed to process event " + event.getData(), e);
+        }
+    }
+
+    /**
+     * A bounded queue which is drained in order by at most one thread at a time.
+     */
+    private class Lane implements Runnable {
+        private final BlockingQueue<Event<T>> queue = new ArrayBlockingQueue<>(dispatch.getQueueCapacity());
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        /**
+         * Enqueues the event according to the backpressure of the dispatch.
+         *
+         * @param event the event to enqueue
+         */
+        private void submit(Event<T> event) {
+            switch (dispatch.getBackpressure()) {
+                case BLOCK:
+                    try {
+                        queue.put(event);
+                    } catch (InterruptedException e) {
+                        LOGGER.error("interrupted while waiting for space in the queue, dropping event " + event.getData());
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!queue.offer(event)) {
+                        Event<T> oldest = queue.poll();
+                        if (oldest != null) {
+                            dropped.increment();
+                            LOGGER.warn("queue is full, dropping event " + oldest.getData());
+                        }
+                    }
+                    break;
+                case CALLER_RUNS:
+                    if (!queue.offer(event)) {
+                        callerRuns.increment();
+                        deliver(event);
+                        return;
+                    }
+                    break;
+            }
+            schedule();
+        }
+
+        /**
+         * Submits this lane to the executor, if it is not already submitted.
+         */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    dispatch.getExecutor().execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    LOGGER.error("executor rejected the delivery of " + queue.size() + " queued events", e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            // a lane only drains a bounded batch, so a busy lane does not starve the other lanes of the executor
+            int delivered = 0;
+            Event<T> event;
+            while (delivered++ < dispatch.getQueueCapacity() && (event = queue.poll()) != null) {
+                deliver(event);
+            }
+            scheduled.set(false);
+            // an event could have been queued after the last poll but before resetting the flag
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
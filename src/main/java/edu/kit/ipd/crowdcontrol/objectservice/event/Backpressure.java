@@ -0,0 +1,20 @@
+package edu.kit.ipd.crowdcontrol.objectservice.event;
+
+/**
+ * Describes what happens if an event is emitted to an asynchronous subscriber whose queue is full.
+ */
+public enum Backpressure {
+    /**
+     * The emitting thread waits until there is space in the queue again.
+     */
+    BLOCK,
+    /**
+     * The oldest queued event is dropped to make space for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * The emitting thread delivers the event itself.
+     * Events delivered this way may overtake queued events with the same key.
+     */
+    CALLER_RUNS
+}
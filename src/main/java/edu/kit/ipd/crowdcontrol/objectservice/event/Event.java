@@ -8,6 +8,7 @@ package edu.kit.ipd.crowdcontrol.objectservice.event;
 public class Event<T> {
     private T data;
     private EventLog eventLog;
+    private final long emitTime;
 
     /**
      * Creates a new event.
@@ -16,6 +17,7 @@ public class Event<T> {
     public Event(T data) {
         this.data = data;
         this.eventLog = new EventLog();
+        this.emitTime = System.nanoTime();
     }
 
     /**
@@ -36,6 +38,14 @@ public class Event<T> {
         return data;
     }
 
+    /**
+     * Get the point in time the event was created
+     * @return the creation time, as returned by {@link System#nanoTime()}
+     */
+    public long getEmitTime() {
+        return emitTime;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Event)) return false;
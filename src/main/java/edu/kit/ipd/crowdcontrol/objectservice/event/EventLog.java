@@ -1,23 +1,43 @@
 package edu.kit.ipd.crowdcontrol.objectservice.event;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 /**
  * Can be used to create a stack of messages from a event subscriber.
+ * <p>
+ * The log keeps the last {@link #DEFAULT_CAPACITY} messages in a ring buffer, older messages are dropped.
+ * Nothing is allocated until the first message is added.
  * @author MarcelHollerbach
- * @version 0.1
+ * @version 0.2
  */
 public class EventLog {
+    /**
+     * The default number of messages kept by a log.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final int capacity;
     private String name;
-    private ConcurrentLinkedQueue<LogEntry> logs;
+    private String[] shortmessages;
+    private String[] longmessages;
+    private int next;
+    private int size;
+    private long dropped;
 
     /**
      * Create a new Log
      */
     public EventLog() {
-        logs = new ConcurrentLinkedQueue<>();
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new Log
+     * @param capacity the maximum number of messages to keep
+     */
+    public EventLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
         name = "";
     }
 
@@ -43,38 +63,59 @@ public class EventLog {
 
     /**
      * Add a new message to this stack
+     * If the log is full, the oldest message is dropped.
      * @param shortmessage a short explanation on what this message is about. No linebreaks allowed.
      * @param longmessage detailed message what happends exactly. Linebreaks allowed.
      */
-    public void addEntry(String shortmessage, String longmessage) {
-        logs.add(new LogEntry(shortmessage, longmessage));
+    public synchronized void addEntry(String shortmessage, String longmessage) {
+        if (shortmessages == null) {
+            shortmessages = new String[capacity];
+            longmessages = new String[capacity];
+        }
+        shortmessages[next] = shortmessage;
+        longmessages[next] = longmessage;
+        next = (next + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        } else {
+            dropped++;
+        }
     }
 
     /**
-     * Internal class to abstract a log entry
+     * Get the number of messages in this log
+     * @return the number of kept messages
      */
-    private class LogEntry {
-        private final String shortmessage;
-        private final String longmessage;
-
-        private LogEntry(String shortmessage, String longmessage) {
-            this.shortmessage = shortmessage;
-            this.longmessage = longmessage;
-        }
+    public synchronized int size() {
+        return size;
+    }
 
-        @Override
-        public String toString() {
-            return shortmessage+"\n"+longmessage;
-        }
+    /**
+     * Get the number of messages which were dropped because the log was full
+     * @return the number of dropped messages
+     */
+    public synchronized long getDropped() {
+        return dropped;
     }
 
     @Override
-    public String toString() {
-        String msg = "";
+    public synchronized String toString() {
+        if (size == 0) {
+            return "";
+        }
 
-        for (LogEntry logEntry : logs) {
-            msg += (!getName().isEmpty() ? getName()+" : " : "") +logEntry.toString()+"\n";
+        String prefix = !getName().isEmpty() ? getName() + " : " : "";
+        StringBuilder msg = new StringBuilder();
+        if (dropped > 0) {
+            msg.append(prefix).append(dropped).append(" older messages dropped\n");
+        }
+        int first = (next - size + capacity) % capacity;
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % capacity;
+            msg.append(prefix)
+                    .append(shortmessages[index]).append('\n')
+                    .append(longmessages[index]).append('\n');
         }
-        return msg;
+        return msg.toString();
     }
 }
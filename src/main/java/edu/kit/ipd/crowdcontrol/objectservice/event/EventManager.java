@@ -1,5 +1,6 @@
 package edu.kit.ipd.crowdcontrol.objectservice.event;
 
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.*;
 
 /**
@@ -13,7 +14,7 @@ public class EventManager {
     public final EventObservable<ChangeEvent<Experiment>> EXPERIMENT_CHANGE;
     public final EventObservable<Experiment> EXPERIMENT_DELETE;
     public final EventObservable<Answer> ANSWER_CREATE;
-    public final EventObservable<Rating> RATINGS_CREATE;
+    public final EventObservable<RatingList> RATINGS_CREATE;
     public final EventObservable<Worker> WORKER_CREATE;
     public final EventObservable<Worker> WORKER_CHANGE;
     public final EventObservable<Worker> WORKER_DELETE;
@@ -27,23 +28,40 @@ public class EventManager {
     public final EventObservable<ChangeEvent<Notification>> NOTIFICATION_UPDATE;
     public final EventObservable<Notification> NOTIFICATION_DELETE;
 
+    /**
+     * Creates a new EventManager which delivers all events on the emitting thread and collects no metrics.
+     */
     public EventManager() {
-        EXPERIMENT_CREATE = new EventObservable<>();
-        EXPERIMENT_CHANGE = new EventObservable<>();
-        EXPERIMENT_DELETE = new EventObservable<>();
-        ANSWER_CREATE = new EventObservable<>();
-        RATINGS_CREATE = new EventObservable<>();
-        WORKER_CREATE = new EventObservable<>();
-        WORKER_CHANGE = new EventObservable<>();
-        WORKER_DELETE = new EventObservable<>();
-        WORKER_CALIBRATION_CREATE = new EventObservable<>();
-        TEMPLATE_CREATE = new EventObservable<>();
-        TEMPLATE_UPDATE = new EventObservable<>();
-        TEMPLATE_DELETE = new EventObservable<>();
-        CALIBRATION_CREATE = new EventObservable<>();
-        CALIBRATION_DELETE = new EventObservable<>();
-        NOTIFICATION_CREATE = new EventObservable<>();
-        NOTIFICATION_UPDATE = new EventObservable<>();
-        NOTIFICATION_DELETE = new EventObservable<>();
+        this(null, MetricsRegistry.NOOP);
+    }
+
+    /**
+     * Creates a new EventManager.
+     *
+     * Asynchronous subscribers get events about the same entity in the emitted order,
+     * answers and ratings are ordered per experiment.
+     *
+     * @param dispatch the default dispatch for asynchronous subscribers, null to deliver all events on the emitting thread
+     * @param metrics the registry to report the metrics of the events and their subscribers to
+     */
+    public EventManager(AsyncDispatch dispatch, MetricsRegistry metrics) {
+        EXPERIMENT_CREATE = new EventObservable<>("EXPERIMENT_CREATE", Experiment::getId, dispatch, metrics);
+        EXPERIMENT_CHANGE = new EventObservable<>("EXPERIMENT_CHANGE", change -> change.getNeww().getId(), dispatch, metrics);
+        EXPERIMENT_DELETE = new EventObservable<>("EXPERIMENT_DELETE", Experiment::getId, dispatch, metrics);
+        ANSWER_CREATE = new EventObservable<>("ANSWER_CREATE", Answer::getExperimentId, dispatch, metrics);
+        RATINGS_CREATE = new EventObservable<>("RATINGS_CREATE",
+                ratings -> ratings.getItemsCount() == 0 ? null : ratings.getItems(0).getExperimentId(), dispatch, metrics);
+        WORKER_CREATE = new EventObservable<>("WORKER_CREATE", Worker::getId, dispatch, metrics);
+        WORKER_CHANGE = new EventObservable<>("WORKER_CHANGE", Worker::getId, dispatch, metrics);
+        WORKER_DELETE = new EventObservable<>("WORKER_DELETE", Worker::getId, dispatch, metrics);
+        WORKER_CALIBRATION_CREATE = new EventObservable<>("WORKER_CALIBRATION_CREATE", CalibrationAnswer::getAnswerId, dispatch, metrics);
+        TEMPLATE_CREATE = new EventObservable<>("TEMPLATE_CREATE", Template::getId, dispatch, metrics);
+        TEMPLATE_UPDATE = new EventObservable<>("TEMPLATE_UPDATE", change -> change.getNeww().getId(), dispatch, metrics);
+        TEMPLATE_DELETE = new EventObservable<>("TEMPLATE_DELETE", Template::getId, dispatch, metrics);
+        CALIBRATION_CREATE = new EventObservable<>("CALIBRATION_CREATE", Calibration::getId, dispatch, metrics);
+        CALIBRATION_DELETE = new EventObservable<>("CALIBRATION_DELETE", Calibration::getId, dispatch, metrics);
+        NOTIFICATION_CREATE = new EventObservable<>("NOTIFICATION_CREATE", Notification::getId, dispatch, metrics);
+        NOTIFICATION_UPDATE = new EventObservable<>("NOTIFICATION_UPDATE", change -> change.getNeww().getId(), dispatch, metrics);
+        NOTIFICATION_DELETE = new EventObservable<>("NOTIFICATION_DELETE", Notification::getId, dispatch, metrics);
     }
 }
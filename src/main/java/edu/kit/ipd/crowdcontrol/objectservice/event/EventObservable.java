@@ -1,10 +1,14 @@
 package edu.kit.ipd.crowdcontrol.objectservice.event;
 
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import rx.Observable;
 import rx.Subscriber;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -12,27 +16,57 @@ import java.util.stream.Collectors;
  * Created by marcel on 02.01.16.
  */
 public class EventObservable<T> {
-    private final Observable<Event<T>> observable;
-    private final LinkedList<Subscriber<? super Event<T>>> subs;
+    private final List<Subscriber<? super Event<T>>> subs;
+    private final String name;
+    private final Function<T, ?> keyFunction;
+    private final AsyncDispatch dispatch;
+    private final MetricsRegistry metrics;
+    private final Counter emitted;
+    private final Histogram emitTime;
 
+    /**
+     * Creates a new observable which delivers all events on the emitting thread and collects no metrics.
+     */
     public EventObservable() {
-        subs = new LinkedList<>();
-        observable = Observable.create(sub -> {
-            synchronized(subs) {
-                subs.add(sub);
-            }
-        });
+        this("anonymous", t -> null, null, MetricsRegistry.NOOP);
+    }
+
+    /**
+     * Creates a new observable.
+     *
+     * @param name        the name of the event, used to name the metrics
+     * @param keyFunction extracts the key of the emitted objects,
+     *                    asynchronous subscribers get events with the same key in the emitted order
+     * @param dispatch    the default dispatch for asynchronous subscribers,
+     *                    if null asynchronous subscribers are served on the emitting thread
+     * @param metrics     the registry to report the metrics of the event and its subscribers to
+     */
+    public EventObservable(String name, Function<T, ?> keyFunction, AsyncDispatch dispatch, MetricsRegistry metrics) {
+        this.subs = new CopyOnWriteArrayList<>();
+        this.name = name;
+        this.keyFunction = keyFunction;
+        this.dispatch = dispatch;
+        this.metrics = metrics;
+        this.emitted = metrics.counter("events." + name + ".emitted");
+        this.emitTime = metrics.histogram("events." + name + ".emit");
     }
 
     /**
      * Will emit the given object as event to the subscribed subscribers of the observable.
+     * Asynchronous subscribers will fill their EventLog after this method returned.
      * @param t The object to pass to the events
      * @return The messages returned by the emits
      */
     public List<EventLog> emit(T t) {
-        return subs.stream()
-                .map(subscriber -> eventEmit(subscriber, t))
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        emitted.increment();
+        try {
+            return subs.stream()
+                    .map(subscriber -> eventEmit(subscriber, t))
+                    .collect(Collectors.toList());
+        } finally {
+            emitTime.recordSince(start);
+        }
     }
 
     private EventLog eventEmit(Subscriber<? super Event<T>> subscriber, T t) {
@@ -46,6 +80,79 @@ public class EventObservable<T> {
      * @return The observable
      */
     public Observable<Event<T>> getObservable() {
-        return observable;
+        return getObservable(null);
+    }
+
+    /**
+     * Get the observable object of this event
+     * @param subscriber the name of the subscriber, used to name its metrics
+     * @return The observable
+     */
+    public Observable<Event<T>> getObservable(String subscriber) {
+        return createObservable(subscriber, null);
+    }
+
+    /**
+     * Get a observable whose subscribers are served by the default dispatch of this event.
+     * If there is no default dispatch, the subscribers are served on the emitting thread.
+     *
+     * @param subscriber the name of the subscriber, used to name its metrics
+     * @return The observable
+     */
+    public Observable<Event<T>> getAsyncObservable(String subscriber) {
+        return getAsyncObservable(subscriber, dispatch);
+    }
+
+    /**
+     * Get a observable whose subscribers are served by the default dispatch of this event,
+     * but with the given number of lanes.
+     * If there is no default dispatch, the subscribers are served on the emitting thread.
+     *
+     * @param subscriber the name of the subscriber, used to name its metrics
+     * @param lanes the maximum number of events delivered in parallel to a subscriber
+     * @return The observable
+     */
+    public Observable<Event<T>> getAsyncObservable(String subscriber, int lanes) {
+        return getAsyncObservable(subscriber, dispatch == null ? null : dispatch.withLanes(lanes));
+    }
+
+    /**
+     * Get a observable whose subscribers are served by the given dispatch.
+     * Every subscriber gets its own queues.
+     *
+     * @param subscriber the name of the subscriber, used to name its metrics
+     * @param dispatch the dispatch to use, if null the subscribers are served on the emitting thread
+     * @return The observable
+     */
+    public Observable<Event<T>> getAsyncObservable(String subscriber, AsyncDispatch dispatch) {
+        return createObservable(subscriber, dispatch, keyFunction);
+    }
+
+    /**
+     * Get a observable whose subscribers are served by the given dispatch, ordering the events by the given key
+     * instead of the key of this event.
+     * Every subscriber gets its own queues.
+     *
+     * @param subscriber the name of the subscriber, used to name its metrics
+     * @param dispatch the dispatch to use, if null the subscribers are served on the emitting thread
+     * @param keyFunction extracts the key of the emitted objects, events with the same key are delivered in order
+     * @return The observable
+     */
+    public Observable<Event<T>> getAsyncObservable(String subscriber, AsyncDispatch dispatch, Function<T, ?> keyFunction) {
+        return createObservable(subscriber, dispatch, keyFunction);
+    }
+
+    private Observable<Event<T>> createObservable(String subscriber, AsyncDispatch dispatch) {
+        return createObservable(subscriber, dispatch, keyFunction);
+    }
+
+    private Observable<Event<T>> createObservable(String subscriber, AsyncDispatch dispatch, Function<T, ?> keyFunction) {
+        return Observable.create(sub -> {
+            String prefix = "events." + name + "." + (subscriber != null ? subscriber : "subscriber" + subs.size());
+            Subscriber<? super Event<T>> instrumented = new InstrumentedSubscriber<>(sub, metrics, prefix);
+            subs.add(dispatch == null
+                    ? instrumented
+                    : new AsyncSubscriber<>(instrumented, keyFunction, dispatch, metrics, prefix));
+        });
     }
 }
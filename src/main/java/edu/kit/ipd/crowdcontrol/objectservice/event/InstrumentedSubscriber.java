@@ -0,0 +1,61 @@
+package edu.kit.ipd.crowdcontrol.objectservice.event;
+
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import rx.Subscriber;
+
+/**
+ * Subscriber which measures the time from the emit to the start of the processing,
+ * the processing time and the failures of the wrapped subscriber.
+ * An event counts as failed if the subscriber threw an exception or is not subscribed anymore.
+ *
+ * @param <T> Data which is emitted with the event
+ */
+class InstrumentedSubscriber<T> extends Subscriber<Event<T>> {
+    private final Subscriber<? super Event<T>> actual;
+    private final Histogram wait;
+    private final Histogram processing;
+    private final Counter failures;
+
+    /**
+     * Creates a new instrumented subscriber.
+     *
+     * @param actual  the subscriber to deliver the events to
+     * @param metrics the registry to report to
+     * @param prefix  the prefix of the names of the metrics
+     */
+    InstrumentedSubscriber(Subscriber<? super Event<T>> actual, MetricsRegistry metrics, String prefix) {
+        this.actual = actual;
+        this.wait = metrics.histogram(prefix + ".wait");
+        this.processing = metrics.histogram(prefix + ".processing");
+        this.failures = metrics.counter(prefix + ".failures");
+    }
+
+    @Override
+    public void onNext(Event<T> event) {
+        long start = System.nanoTime();
+        wait.record(start - event.getEmitTime());
+        boolean failed = true;
+        try {
+            actual.onNext(event);
+            // rx hands exceptions of the subscriber to its error handler and unsubscribes it afterwards
+            failed = actual.isUnsubscribed();
+        } finally {
+            if (failed) {
+                failures.increment();
+            }
+            processing.recordSince(start);
+        }
+    }
+
+    @Override
+    public void onCompleted() {
+        actual.onCompleted();
+    }
+
+    @Override
+    public void onError(Throwable e) {
+        actual.onError(e);
+    }
+}
@@ -3,16 +3,20 @@ package edu.kit.ipd.crowdcontrol.objectservice.feedback;
 import edu.kit.ipd.crowdcontrol.objectservice.Utils;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.ExperimentRecord;
-import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.JWTHelper;
+import edu.kit.ipd.crowdcontrol.objectservice.template.CompiledTemplate;
 import edu.kit.ipd.crowdcontrol.objectservice.template.Template;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,53 +28,106 @@ import java.util.Map;
 public class FeedbackCreator {
 
     private static final Logger LOGGER = LogManager.getLogger(FeedbackCreator.class);
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
     private AnswerRatingOperations answerOps;
     private ExperimentOperations expOps;
     private WorkerOperations workerOps;
     private JWTHelper helper;
+    private final CompiledTemplate feedbackMessage;
+    private final CompiledTemplate feedbackAnswer;
+    private final CompiledTemplate feedbackRating;
 
     public FeedbackCreator(AnswerRatingOperations answerOps, ExperimentOperations expOps, WorkerOperations workerOps, JWTHelper helper) {
         this.answerOps = answerOps;
         this.expOps = expOps;
         this.workerOps = workerOps;
         this.helper = helper;
+        this.feedbackMessage = Template.compile(Utils.loadFile("/feedback/feedbackMessage.txt"));
+        this.feedbackAnswer = Template.compile(Utils.loadFile("/feedback/feedbackAnswer.txt"));
+        this.feedbackRating = Template.compile(Utils.loadFile("/feedback/feedbackRating.txt"));
     }
 
+    /**
+     * Creates the feedback message to a worker of an experiment.
+     *
+     * @param expId the primary key of the experiment
+     * @param workerId the primary key of the worker
+     * @return the message, empty if the worker gave no answers
+     * @throws FeedbackException if the experiment cannot be found
+     */
     public String getFeedback(int expId, int workerId) throws FeedbackException {
 
         LOGGER.trace("Started creating feedback message to worker " + workerId + ".");
 
-        String feedbackMessage = Utils.loadFile("/feedback/feedbackMessage.txt");
-        String feedbackAnswer = Utils.loadFile("/feedback/feedbackAnswer.txt");
-        String feedbackRating = Utils.loadFile("/feedback/feedbackRating.txt");
-
         ExperimentRecord exp = expOps.getExperiment(expId).orElseThrow(() -> new FeedbackException("Experiment cannot be found."));
 
         List<AnswerRecord> answers = answerOps.getAnswersOfWorkerFromExperiment(expId, workerId);
 
-        StringBuilder answerMessage = new StringBuilder();
+        //load the ratings of all answers at once
+        List<Integer> answerIds = new ArrayList<>();
+        for (AnswerRecord answer : answers) {
+            answerIds.add(answer.getIdAnswer());
+        }
+        Map<Integer, List<Rating>> ratingsOfAnswers = answerOps.getRatingsForAnswers(answerIds);
 
-        Map<String, String> map = new HashMap<>();
-        map.put("experimentName", exp.getTitle());
+        String message = createMessage(exp, workerId, answers, ratingsOfAnswers);
+        LOGGER.trace("Completed creating feedback message to worker " + workerId + ".");
+        return message;
+    }
+
+    /**
+     * Creates the feedback messages to all workers of an experiment.
+     * The answers and ratings of the experiment are fetched at once, independent of the number of workers.
+     *
+     * @param expId the primary key of the experiment
+     * @return a map from the primary key of the worker to its message, workers without answers are not contained
+     * @throws FeedbackException if the experiment cannot be found
+     */
+    public Map<Integer, String> getFeedbackOfExperiment(int expId) throws FeedbackException {
+
+        LOGGER.trace("Started creating feedback messages to the workers of experiment " + expId + ".");
+
+        ExperimentRecord exp = expOps.getExperiment(expId).orElseThrow(() -> new FeedbackException("Experiment cannot be found."));
+
+        Map<Integer, List<AnswerRecord>> answersOfWorkers = new LinkedHashMap<>();
+        for (AnswerRecord answer : answerOps.getAnswersOfExperiment(expId)) {
+            answersOfWorkers.computeIfAbsent(answer.getWorkerId(), worker -> new ArrayList<>()).add(answer);
+        }
+        Map<Integer, List<Rating>> ratingsOfAnswers = answerOps.getRatingsOfExperiment(expId);
+
+        Map<Integer, String> messages = new HashMap<>();
+        answersOfWorkers.forEach((workerId, answers) ->
+                messages.put(workerId, createMessage(exp, workerId, answers, ratingsOfAnswers)));
+
+        LOGGER.trace("Completed creating " + messages.size() + " feedback messages to the workers of experiment " + expId + ".");
+        return messages;
+    }
+
+    private String createMessage(ExperimentRecord exp, int workerId, List<AnswerRecord> answers, Map<Integer, List<Rating>> ratingsOfAnswers) {
+        if (answers.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder answerMessage = new StringBuilder();
 
         //iterate over answers and send them and the feedback to the workers
         for (AnswerRecord answer : answers) {
             //List all ratings to an answer in the message.
-            List<RatingRecord> ratings = answerOps.getRatingsOfAnswer(answer);
+            List<Rating> ratings = ratingsOfAnswers.getOrDefault(answer.getIdAnswer(), Collections.emptyList());
 
             StringBuilder ratingMessage = new StringBuilder();
 
-            for (RatingRecord rating : ratings) {
+            for (Rating rating : ratings) {
                 String feedback = rating.getFeedback();
-                if (rating.getFeedback() == null || rating.getFeedback().equals("")) {
+                if (rating.getFeedback().equals("")) {
                     feedback = "Rater didn't give feedback";
                 }
                 Map<String, String> ratingMap = new HashMap<>();
                 ratingMap.put("feedback", feedback);
-                ratingMap.put("quality", rating.getQuality().toString());
-                ratingMap.put("rating", rating.getRating().toString());
+                ratingMap.put("quality", String.valueOf(rating.getQuality()));
+                ratingMap.put("rating", String.valueOf(rating.getRating()));
 
-                ratingMessage.append(Template.apply(feedbackRating, ratingMap)).append(System.getProperty("line.separator"));
+                ratingMessage.append(feedbackRating.render(ratingMap)).append(LINE_SEPARATOR);
             }
 
             //Replace placeholders with answer and the ratings
@@ -78,7 +135,7 @@ public class FeedbackCreator {
             if (answer.getSystemResponse() == null || answer.getSystemResponse().equals("")) {
                 systemFeedback = "";
             } else {
-                systemFeedback = "Additional feedback: " + answer.getSystemResponse() + System.getProperty("line.separator");
+                systemFeedback = "Additional feedback: " + answer.getSystemResponse() + LINE_SEPARATOR;
             }
 
             Map<String, String> answerMap = new HashMap<>();
@@ -86,17 +143,13 @@ public class FeedbackCreator {
             answerMap.put("ratings", ratingMessage.toString());
             answerMap.put("systemResponse", systemFeedback);
 
-            answerMessage.append(Template.apply(feedbackAnswer, answerMap)).append(System.getProperty("line.separator"));
+            answerMessage.append(feedbackAnswer.render(answerMap)).append(LINE_SEPARATOR);
         }
 
-        //Send feedback to the last worker
-        String message = "";
-        if (!answers.isEmpty()) {
-            map.put("answers", answerMessage.toString());
-            map.put("address", helper.generateJWT(workerId));
-            message = Template.apply(feedbackMessage, map);
-        }
-        LOGGER.trace("Completed creating feedback message to worker " + workerId + ".");
-        return message;
+        Map<String, String> map = new HashMap<>();
+        map.put("experimentName", exp.getTitle());
+        map.put("answers", answerMessage.toString());
+        map.put("address", helper.generateJWT(workerId));
+        return feedbackMessage.render(map);
     }
 }
@@ -0,0 +1,130 @@
+package edu.kit.ipd.crowdcontrol.objectservice.mail;
+
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * A MailSender, which sends the mails in the background.
+ * <p>
+ * sendMail only creates the mail and puts it into a bounded queue, the mail is sent later by one of the threads of
+ * the queue. Every thread takes up to batchSize queued mails at once and sends them over one connection of the
+ * MailSend. Mails which could not be sent after the retries of the MailSend are logged and dropped, so the queue
+ * is only suited for mails which may get lost, like notifications.
+ */
+public class MailQueue implements MailSender {
+    private static final Logger LOGGER = LogManager.getLogger(MailQueue.class);
+
+    private final MailSend sender;
+    private final BlockingQueue<Queued> queue;
+    private final int batchSize;
+    private final ExecutorService executorService;
+
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Histogram delivery;
+
+    /**
+     * Creates a new MailQueue and starts its threads.
+     *
+     * @param sender the sender sending the mails
+     * @param threads the number of threads sending mails in parallel
+     * @param capacity the maximal number of waiting mails
+     * @param batchSize the maximal number of mails sent over one connection at once
+     * @param name the name of the queue in the metrics
+     * @param metrics the registry to report the queued mails to
+     */
+    public MailQueue(MailSend sender, int threads, int capacity, int batchSize, String name, MetricsRegistry metrics) {
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.rejected = metrics.counter("mailQueue." + name + ".rejected");
+        this.dropped = metrics.counter("mailQueue." + name + ".dropped");
+        this.delivery = metrics.histogram("mailQueue." + name + ".delivery");
+        metrics.gauge("mailQueue." + name + ".queued", queue::size);
+
+        this.executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(this::run);
+        }
+    }
+
+    /**
+     * Queues the mail to be sent in the background.
+     *
+     * @param recipientMail the mail address, the mail gets sent
+     * @param subject       the subject of the mail
+     * @param message       the content of the mail
+     * @throws MessagingException if the mail is invalid or the queue is full
+     */
+    @Override
+    public void sendMail(String recipientMail, String subject, String message) throws MessagingException, UnsupportedEncodingException {
+        Message mail = sender.createMessage(recipientMail, subject, message);
+        if (!queue.offer(new Queued(mail, System.nanoTime()))) {
+            rejected.increment();
+            throw new MessagingException("The mail queue is full, the mail to " + recipientMail + " is not sent");
+        }
+    }
+
+    /**
+     * Stops the threads of the queue, the mails still waiting are not sent.
+     */
+    public void shutdown() {
+        executorService.shutdownNow();
+        sender.close();
+    }
+
+    /**
+     * Sends the queued mails in batches until interrupted.
+     */
+    private void run() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            try {
+                List<Message> failed = sender.sendAll(batch.stream()
+                        .map(queued -> queued.message)
+                        .collect(Collectors.toList()));
+                dropped.add(failed.size());
+            } catch (RuntimeException e) {
+                LOGGER.error("Sending " + batch.size() + " queued mails failed", e);
+                dropped.add(batch.size());
+            }
+            batch.forEach(queued -> delivery.recordSince(queued.queued));
+            batch.clear();
+        }
+        LOGGER.info("MailQueue terminated!");
+    }
+
+    /**
+     * A mail waiting in the queue
+     */
+    private static class Queued {
+        private final Message message;
+        private final long queued;
+
+        private Queued(Message message, long queued) {
+            this.message = message;
+            this.queued = queued;
+        }
+    }
+}
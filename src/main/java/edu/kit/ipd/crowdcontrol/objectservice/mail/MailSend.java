@@ -1,29 +1,59 @@
 package edu.kit.ipd.crowdcontrol.objectservice.mail;
 
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Counter;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.Histogram;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import javax.mail.*;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 /**
  * Describes a MailSender, which can send mails to other mail addresses.
+ * <p>
+ * The authenticated connections to the server are kept open and reused for the following mails, at most
+ * the given number of connections is open at the same time. Mails which could not be sent because of
+ * connection problems are retried on a new connection with an exponential backoff. Rejected recipients and
+ * failed authentications are not retried.
  * @author Felix Rittler
  * @author Marcel Hollerbach
  */
 public class MailSend implements MailSender {
+    private static final Logger LOGGER = LogManager.getLogger(MailSend.class);
+    private static final int CONNECTION_TIMEOUT = 10000;
+    private static final int TIMEOUT = 30000;
 
     public enum Protocol {
         smtp, smtps
     }
 
-    private final Properties properties;
+    private final Session session;
     private final String from;
     private final Protocol protocol;
     private final String host;
     private final String user;
     private final String password;
     private final int port;
+    private final int retries;
+    private final long retryBackoff;
+    private final Semaphore connections;
+    private final BlockingQueue<Transport> idle = new LinkedBlockingQueue<>();
+
+    private final Counter sent;
+    private final Counter failures;
+    private final Counter retried;
+    private final Counter connects;
+    private final Histogram sending;
 
     /**
      * Create a new MailSender instance for the given attributes
@@ -38,14 +68,39 @@ public class MailSend implements MailSender {
      * @param port server port to connect to
      */
     public MailSend(Protocol protocol, String user, String password, String from, String host, int port, boolean debug) {
+        this(protocol, user, password, from, host, port, debug, 1, 0, 0, "mail", MetricsRegistry.NOOP);
+    }
+
+    /**
+     * Create a new MailSender instance for the given attributes
+     *
+     * If you want to use ssl you can specify smtps if not just use smtp
+     *
+     * @param protocol the protocol to use
+     * @param user user to authorize with the service
+     * @param password password to use for authorize
+     * @param from the senders email address
+     * @param host host to use as send service
+     * @param port server port to connect to
+     * @param connections the maximal number of open connections
+     * @param retries the number of retries of a mail which could not be sent
+     * @param retryBackoff the time in milliseconds to wait before the first retry, doubled for every further retry
+     * @param name the name of the sender in the metrics
+     * @param metrics the registry to report the sent mails to
+     */
+    public MailSend(Protocol protocol, String user, String password, String from, String host, int port, boolean debug,
+                    int connections, int retries, long retryBackoff, String name, MetricsRegistry metrics) {
         this.user = user;
         this.password = password;
         this.host = host;
         this.port = port;
         this.protocol = protocol;
         this.from = from;
+        this.retries = retries;
+        this.retryBackoff = retryBackoff;
+        this.connections = new Semaphore(connections);
 
-        properties = new Properties();
+        Properties properties = new Properties();
 
         //we can always send starttls as this will ask to server if he supports it
         properties.setProperty("mail.smtp.starttls.enable", "true");
@@ -53,6 +108,22 @@ public class MailSend implements MailSender {
         if (debug)
             properties.setProperty("mail.debug", true+"");
         properties.setProperty("mail." + protocol + ".ssl.checkserveridentity", "true");
+        // a hanging connection would block its sender forever
+        properties.setProperty("mail." + protocol + ".connectiontimeout", String.valueOf(CONNECTION_TIMEOUT));
+        properties.setProperty("mail." + protocol + ".timeout", String.valueOf(TIMEOUT));
+
+        session = Session.getInstance(properties, new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(user, password);
+            }
+        });
+
+        this.sent = metrics.counter("mail." + name + ".sent");
+        this.failures = metrics.counter("mail." + name + ".failures");
+        this.retried = metrics.counter("mail." + name + ".retries");
+        this.connects = metrics.counter("mail." + name + ".connects");
+        this.sending = metrics.histogram("mail." + name + ".sending");
     }
 
     /**
@@ -60,13 +131,21 @@ public class MailSend implements MailSender {
      */
     @Override
     public void sendMail(String recipientMail, String subject, String message) throws MessagingException, UnsupportedEncodingException {
-        Session session = Session.getInstance(properties, new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(user, password);
-            }
-        });
+        MimeMessage msg = createMessage(recipientMail, subject, message);
+        try (Batch batch = new Batch()) {
+            batch.send(msg);
+        }
+    }
 
+    /**
+     * Creates a mail from the sender of this MailSend.
+     *
+     * @param recipientMail the mail address, the mail gets sent
+     * @param subject       the subject of the mail
+     * @param message       the content of the mail
+     * @return the mail ready to be sent
+     */
+    public MimeMessage createMessage(String recipientMail, String subject, String message) throws MessagingException, UnsupportedEncodingException {
         MimeMessage msg = new MimeMessage(session);
         msg.addRecipient(Message.RecipientType.TO, new InternetAddress(recipientMail, recipientMail));
         msg.setFrom(new InternetAddress(from, "CrowdControl"));
@@ -75,9 +154,157 @@ public class MailSend implements MailSender {
         msg.setContent(message, "text/html; charset=utf-8");
         msg.setSubject(subject, "utf-8");
         msg.setText(message, "utf-8");
+        return msg;
+    }
+
+    /**
+     * Sends the mails one after the other over the same connection.
+     * A mail which could not be sent is logged and does not stop the following mails.
+     *
+     * @param messages the mails created by {@link #createMessage(String, String, String)}
+     * @return the mails which could not be sent
+     */
+    public List<Message> sendAll(List<? extends Message> messages) {
+        List<Message> failed = new ArrayList<>();
+        try (Batch batch = new Batch()) {
+            for (Message message : messages) {
+                try {
+                    batch.send(message);
+                } catch (MessagingException e) {
+                    LOGGER.error("Sending the mail to " + recipients(message) + " failed", e);
+                    failed.add(message);
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Closes the idle connections.
+     */
+    public void close() {
+        for (Transport transport = idle.poll(); transport != null; transport = idle.poll()) {
+            closeQuietly(transport);
+        }
+    }
+
+    private String recipients(Message message) {
+        try {
+            return Arrays.toString(message.getAllRecipients());
+        } catch (MessagingException e) {
+            return "unknown recipients";
+        }
+    }
 
-        Transport transport = session.getTransport(protocol.toString());
-        transport.connect(host, port, user, password);
-        transport.sendMessage(msg, msg.getAllRecipients());
+    /**
+     * Takes an idle connection or opens a new one, blocks while all connections are in use.
+     *
+     * @return the connected transport
+     * @throws MessagingException if no connection could be opened
+     */
+    private Transport acquire() throws MessagingException {
+        connections.acquireUninterruptibly();
+        try {
+            Transport transport = idle.poll();
+            // idle connections may have been closed by the server meanwhile
+            if (transport != null && transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+            transport = session.getTransport(protocol.toString());
+            transport.connect(host, port, user, password);
+            connects.increment();
+            return transport;
+        } catch (MessagingException | RuntimeException e) {
+            connections.release();
+            throw e;
+        }
+    }
+
+    private void closeQuietly(Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            LOGGER.debug("closing the connection to " + host + " failed", e);
+        }
+    }
+
+    /**
+     * Sends mails over one connection, which is returned to the idle connections on close.
+     */
+    private class Batch implements AutoCloseable {
+        private Transport transport;
+
+        /**
+         * Sends the mail, retries it on a new connection if the connection failed.
+         *
+         * @param message the mail to send
+         * @throws MessagingException if the mail could not be sent
+         */
+        private void send(Message message) throws MessagingException {
+            long start = System.nanoTime();
+            try {
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        if (transport == null) {
+                            transport = acquire();
+                        }
+                        transport.sendMessage(message, message.getAllRecipients());
+                        sent.increment();
+                        return;
+                    } catch (SendFailedException | AuthenticationFailedException e) {
+                        // rejected recipients and credentials are rejected on every retry
+                        failures.increment();
+                        throw e;
+                    } catch (MessagingException e) {
+                        discard();
+                        if (attempt >= retries || !backoff(attempt)) {
+                            failures.increment();
+                            throw e;
+                        }
+                        LOGGER.debug("sending mail over " + host + " failed, retrying: " + e.getMessage());
+                        retried.increment();
+                    }
+                }
+            } finally {
+                sending.recordSince(start);
+            }
+        }
+
+        /**
+         * Waits before the next attempt.
+         *
+         * @param attempt the failed attempt, starting at 0
+         * @return false if interrupted
+         */
+        private boolean backoff(int attempt) {
+            try {
+                Thread.sleep(retryBackoff << attempt);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void discard() {
+            if (transport != null) {
+                closeQuietly(transport);
+                transport = null;
+                connections.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (transport != null) {
+                idle.add(transport);
+                transport = null;
+                connections.release();
+            }
+        }
     }
 }
@@ -0,0 +1,21 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+/**
+ * A monotonically increasing count.
+ */
+@FunctionalInterface
+public interface Counter {
+    /**
+     * Adds the given amount.
+     *
+     * @param amount the amount to add
+     */
+    void add(long amount);
+
+    /**
+     * Adds one.
+     */
+    default void increment() {
+        add(1);
+    }
+}
@@ -0,0 +1,23 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+/**
+ * Records the distribution of durations.
+ */
+@FunctionalInterface
+public interface Histogram {
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    void record(long nanos);
+
+    /**
+     * Records the time passed since the given point in time.
+     *
+     * @param startNanos the start, as returned by {@link System#nanoTime()}
+     */
+    default void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+}
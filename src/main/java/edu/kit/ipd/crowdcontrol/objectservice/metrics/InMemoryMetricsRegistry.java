@@ -0,0 +1,123 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keeps all metrics in memory, so they can be reported as a snapshot.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    private final Map<String, AdderCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, BucketHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new AdderCounter());
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new BucketHistogram());
+    }
+
+    @Override
+    public void gauge(String name, Supplier<? extends Number> gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Get the current value of every metric, sorted by name.
+     * Histograms are reported as count, mean, p50, p99 and max in microseconds.
+     *
+     * @return map from the name of the metric to its formatted value
+     */
+    public Map<String, String> snapshot() {
+        Map<String, String> snapshot = new TreeMap<>();
+        counters.forEach((name, counter) -> snapshot.put(name, Long.toString(counter.sum())));
+        histograms.forEach((name, histogram) -> snapshot.put(name, histogram.toString()));
+        gauges.forEach((name, gauge) -> snapshot.put(name, String.valueOf(gauge.get())));
+        return snapshot;
+    }
+
+    /**
+     * Get the current value of a counter.
+     *
+     * @param name the name of the counter
+     * @return the value, 0 if the counter does not exist
+     */
+    public long getCount(String name) {
+        AdderCounter counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Get the number of durations recorded by a histogram.
+     *
+     * @param name the name of the histogram
+     * @return the number of durations, 0 if the histogram does not exist
+     */
+    public long getHistogramCount(String name) {
+        BucketHistogram histogram = histograms.get(name);
+        return histogram == null ? 0 : histogram.count.sum();
+    }
+
+    private static class AdderCounter extends LongAdder implements Counter {
+    }
+
+    /**
+     * Histogram with power of two buckets in microseconds, so recording is lock-free and allocation-free.
+     */
+    private static class BucketHistogram implements Histogram {
+        private static final int BUCKETS = 40;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        @Override
+        public void record(long nanos) {
+            long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            sum.add(micros);
+            max.accumulate(micros);
+        }
+
+        /**
+         * Estimates the given percentile by the upper bound of the bucket it falls in.
+         *
+         * @param percentile the percentile between 0 and 1
+         * @return the estimated value in microseconds
+         */
+        private long percentile(double percentile) {
+            long total = count.sum();
+            long threshold = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= threshold && seen > 0) {
+                    return Math.min(max.get(), i == 0 ? 0 : (1L << i) - 1);
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            long total = count.sum();
+            return "count=" + total
+                    + " mean=" + (total == 0 ? 0 : sum.sum() / total) + "us"
+                    + " p50=" + percentile(0.5) + "us"
+                    + " p99=" + percentile(0.99) + "us"
+                    + " max=" + max.get() + "us";
+        }
+    }
+}
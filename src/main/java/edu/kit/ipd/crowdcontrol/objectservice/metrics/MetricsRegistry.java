@@ -0,0 +1,58 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Hands out the metrics of the object-service.
+ * <p>
+ * Implementations decide where the values end up, the components only know the names.
+ * Asking twice for the same name returns the same metric.
+ */
+public interface MetricsRegistry {
+    /**
+     * A registry which throws everything away.
+     */
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        private final Counter counter = amount -> { };
+        private final Histogram histogram = nanos -> { };
+
+        @Override
+        public Counter counter(String name) {
+            return counter;
+        }
+
+        @Override
+        public Histogram histogram(String name) {
+            return histogram;
+        }
+
+        @Override
+        public void gauge(String name, Supplier<? extends Number> gauge) {
+        }
+    };
+
+    /**
+     * Get the counter with the given name.
+     *
+     * @param name the name of the counter
+     * @return the counter
+     */
+    Counter counter(String name);
+
+    /**
+     * Get the latency histogram with the given name.
+     *
+     * @param name the name of the histogram
+     * @return the histogram
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Registers a gauge, which is read every time the metrics are reported.
+     * A second gauge with the same name replaces the first one.
+     *
+     * @param name  the name of the gauge
+     * @param gauge supplies the current value
+     */
+    void gauge(String name, Supplier<? extends Number> gauge);
+}
@@ -0,0 +1,62 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes a snapshot of all metrics to the log.
+ */
+public class MetricsReporter {
+    private static final Logger LOGGER = LogManager.getLogger(MetricsReporter.class);
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final InMemoryMetricsRegistry registry;
+    private final int interval;
+    private ScheduledFuture<?> schedule = null;
+
+    /**
+     * Creates a new reporter.
+     *
+     * @param registry the registry to report
+     * @param interval the interval between two reports, in minutes
+     */
+    public MetricsReporter(InMemoryMetricsRegistry registry, int interval) {
+        this.registry = registry;
+        this.interval = interval;
+    }
+
+    /**
+     * starts the reporter
+     */
+    public synchronized void start() {
+        if (schedule != null) {
+            throw new IllegalStateException("start() was called twice!");
+        }
+
+        schedule = scheduler.scheduleAtFixedRate(this::report, interval, interval, TimeUnit.MINUTES);
+    }
+
+    /**
+     * writes the current snapshot to the log
+     */
+    public void report() {
+        StringBuilder builder = new StringBuilder("metrics:");
+        for (Map.Entry<String, String> entry : registry.snapshot().entrySet()) {
+            builder.append('\n').append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        LOGGER.info(builder);
+    }
+
+    /**
+     * shuts the reporter down.
+     */
+    public void shutdown() {
+        schedule.cancel(false);
+        scheduler.shutdown();
+    }
+}
@@ -30,9 +30,9 @@ public class NotificationController {
         handleMap = new HashMap<>();
 
 
-        eventManager.NOTIFICATION_CREATE.getObservable().subscribe(notificationEvent -> createNotification(notificationEvent.getData()));
-        eventManager.NOTIFICATION_UPDATE.getObservable().subscribe(changeEvent -> updateNotification(changeEvent.getData()));
-        eventManager.NOTIFICATION_DELETE.getObservable().subscribe(notificationEvent -> deleteNotification(notificationEvent.getData()));
+        eventManager.NOTIFICATION_CREATE.getObservable("NotificationController").subscribe(notificationEvent -> createNotification(notificationEvent.getData()));
+        eventManager.NOTIFICATION_UPDATE.getObservable("NotificationController").subscribe(changeEvent -> updateNotification(changeEvent.getData()));
+        eventManager.NOTIFICATION_DELETE.getObservable("NotificationController").subscribe(notificationEvent -> deleteNotification(notificationEvent.getData()));
     }
 
     /**
@@ -14,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import rx.Observable;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -42,7 +43,7 @@ public class PaymentDispatcher  {
      * @param operations AnswerRatingOperations-class of the database-package. Enables db-calls
      */
     public PaymentDispatcher(FeedbackCreator feedbackCreator, PlatformManager manager, AnswerRatingOperations operations, WorkerOperations workerOperations, EventManager eventManager) {
-        observable = eventManager.EXPERIMENT_CHANGE.getObservable();
+        observable = eventManager.EXPERIMENT_CHANGE.getAsyncObservable("PaymentDispatcher");
         observable.subscribe(expChangeEvent -> {
             if(expChangeEvent.getData().getOld().getState() != Experiment.State.STOPPED
                     && expChangeEvent.getData().getNeww().getState() == Experiment.State.STOPPED){
@@ -63,18 +64,15 @@ public class PaymentDispatcher  {
      * @param exp the finished experiment
      */
     private void dispatchPayment(Experiment exp) {
+        Map<Integer, String> feedback = createFeedback(exp);
+
         paymentCalc.estimatePayment(exp).entrySet().stream()
                 .collect(Collectors.groupingBy(
                         entry -> entry.getKey().getPlatform(),
                         Collectors.mapping(new Function<Map.Entry<WorkerRecord,Integer>, PaymentJob>() {
                             @Override
                             public PaymentJob apply(Map.Entry<WorkerRecord, Integer> workerRecordIntegerEntry) {
-                                String message = "";
-                                try {
-                                    message = feedbackCreator.getFeedback(exp.getId(), workerRecordIntegerEntry.getKey().getIdWorker());
-                                } catch (FeedbackException e) {
-                                    log.fatal("Creating feedback message of experiment " + exp.getTitle() + " could not take place!", e);
-                                }
+                                String message = feedback.getOrDefault(workerRecordIntegerEntry.getKey().getIdWorker(), "");
                                 return new PaymentJob(workerRecordIntegerEntry.getKey(), workerRecordIntegerEntry.getValue(), message);
                             }
                         }, Collectors.toList())))
@@ -87,5 +85,18 @@ public class PaymentDispatcher  {
                 });
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Creates the feedback messages to all workers of the experiment at once.
+     *
+     * @param exp the finished experiment
+     * @return a map from the primary key of the worker to its message, empty if creating the messages failed
+     */
+    private Map<Integer, String> createFeedback(Experiment exp) {
+        try {
+            return feedbackCreator.getFeedbackOfExperiment(exp.getId());
+        } catch (FeedbackException e) {
+            log.fatal("Creating feedback message of experiment " + exp.getTitle() + " could not take place!", e);
+            return Collections.emptyMap();
+        }
+    }
+}
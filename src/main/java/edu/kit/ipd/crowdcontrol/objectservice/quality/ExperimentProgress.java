@@ -0,0 +1,146 @@
+package edu.kit.ipd.crowdcontrol.objectservice.quality;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the progress of the running experiments in memory, so the QualityIdentificator does not have to
+ * query the whole experiment after every rating.
+ * <p>
+ * For every experiment the number of final good answers and the number of answers still waiting for ratings
+ * are counted. The counters are loaded from the database on first use and updated by the QualityIdentificator.
+ * Changes the QualityIdentificator does not see (e.g. answers detected as duplicates) let the counters drift,
+ * so they are reloaded from the database once the verify interval passed. A verify interval of 0 reloads them
+ * on every access. Counters which are not accessed anymore have to be verified explicitly.
+ */
+class ExperimentProgress {
+    private final AnswerRatingOperations answerRatingOperations;
+    private final long verifyInterval;
+    private final Map<Integer, Progress> progresses = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new ExperimentProgress.
+     *
+     * @param answerRatingOperations the operations to load the counters with
+     * @param verifyInterval the time in milliseconds after which the counters are reloaded
+     */
+    ExperimentProgress(AnswerRatingOperations answerRatingOperations, long verifyInterval) {
+        this.answerRatingOperations = answerRatingOperations;
+        this.verifyInterval = verifyInterval;
+    }
+
+    /**
+     * Returns the number of answers of the experiment, whose quality is assured and at least the
+     * result quality threshold of the experiment.
+     *
+     * @param experiment the id of the experiment
+     * @return the (possibly outdated) number of final good answers
+     */
+    int getFinalGoodAnswers(int experiment) {
+        return get(experiment).finalGoodAnswers.get();
+    }
+
+    /**
+     * Returns the number of answers of the experiment, which still need ratings.
+     * Answers whose quality is assured to be 0 do not need ratings.
+     *
+     * @param experiment the id of the experiment
+     * @return the (possibly outdated) number of answers without the desired number of ratings
+     */
+    int getAnswersWithoutMaxRatings(int experiment) {
+        return get(experiment).answersWithoutMaxRatings.get();
+    }
+
+    /**
+     * Counts a new answer, which needs ratings.
+     *
+     * @param experiment the id of the experiment
+     */
+    void answerCreated(int experiment) {
+        Progress progress = progresses.get(experiment);
+        if (progress != null) {
+            progress.answersWithoutMaxRatings.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts an answer, which does not need more ratings, because it got the desired number of ratings or
+     * its quality was assured to be 0.
+     *
+     * @param experiment the id of the experiment
+     */
+    void answerSaturated(int experiment) {
+        Progress progress = progresses.get(experiment);
+        if (progress != null) {
+            progress.answersWithoutMaxRatings.decrementAndGet();
+        }
+    }
+
+    /**
+     * Counts an answer, whose quality got assured to be at least the result quality threshold.
+     *
+     * @param experiment the id of the experiment
+     */
+    void finalGoodAnswer(int experiment) {
+        Progress progress = progresses.get(experiment);
+        if (progress != null) {
+            progress.finalGoodAnswers.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reloads the counters of the experiment from the database.
+     *
+     * @param experiment the id of the experiment
+     */
+    void verify(int experiment) {
+        load(experiment, progresses.computeIfAbsent(experiment, id -> new Progress()));
+    }
+
+    /**
+     * Returns the experiments whose counters are kept in memory.
+     *
+     * @return the ids of the experiments
+     */
+    Set<Integer> getExperiments() {
+        return new HashSet<>(progresses.keySet());
+    }
+
+    /**
+     * Forgets the counters of the experiment, e.g. because it ended.
+     *
+     * @param experiment the id of the experiment
+     */
+    void remove(int experiment) {
+        progresses.remove(experiment);
+    }
+
+    private Progress get(int experiment) {
+        Progress progress = progresses.computeIfAbsent(experiment, id -> new Progress());
+        if (System.currentTimeMillis() - progress.verified >= verifyInterval) {
+            load(experiment, progress);
+        }
+        return progress;
+    }
+
+    private void load(int experiment, Progress progress) {
+        progress.finalGoodAnswers.set(answerRatingOperations.getNumberOfFinalGoodAnswers(experiment));
+        progress.answersWithoutMaxRatings.set(answerRatingOperations.getNumberOfAnswersWithoutMaxRatings(experiment));
+        progress.verified = System.currentTimeMillis();
+    }
+
+    /**
+     * The counters of one experiment
+     */
+    private static class Progress {
+        private final AtomicInteger finalGoodAnswers = new AtomicInteger();
+        private final AtomicInteger answersWithoutMaxRatings = new AtomicInteger();
+        // never verified
+        private volatile long verified = Long.MIN_VALUE / 2;
+    }
+}
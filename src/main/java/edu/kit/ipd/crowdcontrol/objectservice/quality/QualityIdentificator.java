@@ -7,11 +7,15 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AlgorithmOpera
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentsPlatformOperations;
-import edu.kit.ipd.crowdcontrol.objectservice.database.transformers.ExperimentTransformer;
+import edu.kit.ipd.crowdcontrol.objectservice.event.AsyncDispatch;
+import edu.kit.ipd.crowdcontrol.objectservice.event.Backpressure;
 import edu.kit.ipd.crowdcontrol.objectservice.event.Event;
 import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventObservable;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.RatingList;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.answerQuality.AnswerQualityByRatings;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.answerQuality.AnswerQualityStrategy;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.ratingQuality.RatingQualityByDistribution;
@@ -22,6 +26,11 @@ import org.apache.logging.log4j.Logger;
 import rx.Observable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by lucaskrauss
@@ -32,15 +41,21 @@ import java.util.*;
  * In that case the QualityIdentificator will first rate the quality of all ratings of the ended experiment
  * and thus can assure that only "good" ratings will be used on the identification of the experiment's
  * answers.
+ * <p>
+ * The ratings of a RATINGS_CREATE event are split by their answers.
+ * Ratings of different answers are rated in parallel, ratings of the same answer one at a time.
+ * The algorithms are shared between the threads, so they must not store any state of a rating.
  */
 public class QualityIdentificator {
 
 
     final static int MAXIMUM_QUALITY = 9;
     final static int MINIMUM_QUALITY = 0;
+    private final static int ANSWER_LOCKS = 256;
 
     private final Logger log = LogManager.getLogger(QualityIdentificator.class);
-    private final Observable<Event<Rating>> ratingObservable;
+    private final Observable<Event<RatingList>> ratingObservable;
+    private final EventObservable<AnswerRatings> answerRatingsObservable;
     private final ExperimentsPlatformOperations experimentsPlatformOperations;
     private final ExperimentOperator experimentOperator;
     private final ExperimentFetcher experimentFetcher;
@@ -50,17 +65,57 @@ public class QualityIdentificator {
     private final Set<AnswerQualityStrategy> answerAlgorithms;
     private final Set<RatingQualityStrategy> ratingAlgorithms;
 
-    private AnswerQualityStrategy answerIdentifier;
-    private RatingQualityStrategy ratingIdentifier;
+    private final boolean incremental;
+    private final Map<Integer, RatingDistribution> distributions;
+    private final Object[] answerLocks;
+    private final Set<Integer> endingExperiments;
+    private final ExperimentProgress progress;
+    private final long progressVerifyInterval;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private ScheduledFuture<?> schedule = null;
 
+    /**
+     * Creates a new QualityIdentificator, which rates the ratings like the other subscribers of the events.
+     */
+    public QualityIdentificator(AlgorithmOperations algorithmOperations, AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations, ExperimentOperator experimentOperator, ExperimentsPlatformOperations experimentsPlatformOperations, EventManager eventManager, ExperimentFetcher experimentFetcher) {
+        this(algorithmOperations, answerRatingOperations, experimentOperations, experimentOperator, experimentsPlatformOperations, eventManager, experimentFetcher, null, MetricsRegistry.NOOP, false, 0, 0);
+    }
 
     /**
-     * Has to be  >= 0 and  <10
+     * Creates a new QualityIdentificator.
+     * <p>
+     * In the incremental mode the distribution of the ratings of every answer is kept in memory and updated with
+     * every new rating. Only the ratings whose quality changed are written to the database.
+     * Algorithms which do not support distributions are served the way of the non-incremental mode.
      * <p>
-     * Might be set to allow more flexibility and more good answers
+     * The progress of the experiments is kept in memory, the database is only queried to verify it periodically
+     * and before an experiment is ended. The progress of experiments which receive no more ratings is only
+     * verified after {@link #start()} was called.
+     *
+     * @param dispatch the dispatch with the own threads of the QualityIdentificator,
+     *                 null to rate the ratings like the other subscribers of the events
+     * @param metrics the registry to report the ratings waiting to be rated to
+     * @param incremental true to rate the quality incrementally
+     * @param distributionCacheSize the maximum number of answers whose rating distributions are kept in memory
+     * @param progressVerifyInterval the time in milliseconds after which the progress of an experiment is verified
      */
-
-    public QualityIdentificator(AlgorithmOperations algorithmOperations, AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations, ExperimentOperator experimentOperator, ExperimentsPlatformOperations experimentsPlatformOperations, EventManager eventManager, ExperimentFetcher experimentFetcher) {
+    public QualityIdentificator(AlgorithmOperations algorithmOperations, AnswerRatingOperations answerRatingOperations, ExperimentOperations experimentOperations, ExperimentOperator experimentOperator, ExperimentsPlatformOperations experimentsPlatformOperations, EventManager eventManager, ExperimentFetcher experimentFetcher,
+                                AsyncDispatch dispatch, MetricsRegistry metrics, boolean incremental, int distributionCacheSize,
+                                long progressVerifyInterval) {
+        this.incremental = incremental;
+        this.distributions = new LinkedHashMap<Integer, RatingDistribution>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RatingDistribution> eldest) {
+                return size() > distributionCacheSize;
+            }
+        };
+        this.answerLocks = new Object[ANSWER_LOCKS];
+        for (int i = 0; i < answerLocks.length; i++) {
+            answerLocks[i] = new Object();
+        }
+        this.endingExperiments = ConcurrentHashMap.newKeySet();
+        this.progress = new ExperimentProgress(answerRatingOperations, progressVerifyInterval);
+        this.progressVerifyInterval = progressVerifyInterval;
         this.experimentsPlatformOperations = experimentsPlatformOperations;
         this.experimentOperator = experimentOperator;
         this.answerRatingOperations = answerRatingOperations;
@@ -69,7 +124,16 @@ public class QualityIdentificator {
         this.experimentFetcher = experimentFetcher;
         this.answerAlgorithms = new HashSet<>();
         this.ratingAlgorithms = new HashSet<>();
-        this.ratingObservable = eventManager.RATINGS_CREATE.getObservable();
+        // the batches are split on the dispatch, so the answers are not looked up on the emitting thread.
+        // The ratings of an answer share a lane and are rated in the order they were created.
+        this.ratingObservable = dispatch == null
+                ? eventManager.RATINGS_CREATE.getAsyncObservable("QualityIdentificator")
+                : eventManager.RATINGS_CREATE.getAsyncObservable("QualityIdentificator", dispatch);
+        // a full lane of an answer is served by the splitting thread, waiting for it could block all threads
+        this.answerRatingsObservable = new EventObservable<>("RATINGS_OF_ANSWER", AnswerRatings::getAnswer,
+                dispatch == null ? null : new AsyncDispatch(dispatch.getExecutor(), dispatch.getLanes(),
+                        dispatch.getQueueCapacity(), Backpressure.CALLER_RUNS),
+                metrics);
         // Reflection isn't used, that's why algorithms need to be added manually
         //------------------------------------------------------
         //
@@ -84,39 +148,158 @@ public class QualityIdentificator {
         answerAlgorithms.forEach(algorithm -> algorithmOperations.storeAnswerQualityAlgorithm(new AlgorithmAnswerQualityRecord(algorithm.getAlgorithmName(), algorithm.getAlgorithmDescription()), algorithm.getParams()));
         ratingAlgorithms.forEach(algorithm -> algorithmOperations.storeRatingQualityAlgorithm(new AlgorithmRatingQualityRecord(algorithm.getAlgorithmName(), algorithm.getAlgorithmDescription()), algorithm.getParams()));
 
-        ratingObservable.subscribe(rating -> this.onNext(rating.getData()));
+        ratingObservable.subscribe(ratings -> split(ratings.getData()));
+        answerRatingsObservable.getAsyncObservable("QualityIdentificator")
+                .subscribe(answerRatings -> rate(answerRatings.getData()));
+        eventManager.ANSWER_CREATE.getObservable("QualityIdentificator")
+                .subscribe(answer -> progress.answerCreated(answer.getData().getExperimentId()));
+        eventManager.EXPERIMENT_CHANGE.getObservable("QualityIdentificator").subscribe(changeEvent -> {
+            if (changeEvent.getData().getNeww().getState() == Experiment.State.STOPPED) {
+                progress.remove(changeEvent.getData().getNeww().getId());
+            }
+        });
+        eventManager.EXPERIMENT_DELETE.getObservable("QualityIdentificator")
+                .subscribe(experimentEvent -> progress.remove(experimentEvent.getData().getId()));
 
     }
 
+    /**
+     * Starts to verify the progress of the experiments in memory periodically.
+     * Without the verification an experiment whose progress drifted is not ended, if it receives no more ratings.
+     */
+    public synchronized void start() {
+        if (schedule != null) {
+            throw new IllegalStateException("start() was called twice!");
+        }
+        if (progressVerifyInterval > 0) {
+            schedule = scheduler.scheduleAtFixedRate(this::verifyProgress, progressVerifyInterval,
+                    progressVerifyInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops verifying the progress of the experiments.
+     */
+    public synchronized void shutdown() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        scheduler.shutdown();
+    }
+
+    /**
+     * Reloads the progress of all experiments in memory from the database and ends the experiments whose
+     * criteria are met.
+     */
+    void verifyProgress() {
+        for (int experiment : progress.getExperiments()) {
+            try {
+                Optional<ExperimentRecord> experimentRecord = experimentOperations.getExperiment(experiment);
+                if (experimentRecord.isPresent()) {
+                    progress.verify(experiment);
+                    checkExpStatus(experimentRecord.get());
+                } else {
+                    progress.remove(experiment);
+                }
+            } catch (Exception e) {
+                // an exception would cancel all further runs
+                log.error("unable to verify the progress of experiment " + experiment, e);
+            }
+        }
+    }
+
     /**
      * This method is performed, if the RATINGS_CREATE-observable emits an event.
-     * All ratings and answers of the experiment will be rated. Furthermore the status of the experiment is checked and
-     * if the criteria are met, it will be shut-down{
+     * The ratings are grouped by their answers and the ratings of every answer are handed over to be rated.
+     *
+     * @param ratings which have been created and will be processed
+     */
+    private void split(RatingList ratings) {
+        if (ratings.getItemsCount() == 0) {
+            return;
+        }
+        Map<Integer, Integer> answers = answerRatingOperations.getAnswerIdsOfRatings(ratings.getItemsList());
+        Map<Integer, List<Rating>> ratingsOfAnswers = new LinkedHashMap<>();
+        for (Rating rating : ratings.getItemsList()) {
+            Integer answer = answers.get(rating.getReservation());
+            if (answer == null) {
+                log.error("Error! Can't retrieve the answer of the rating with reservation " + rating.getReservation());
+            } else {
+                ratingsOfAnswers.computeIfAbsent(answer, id -> new ArrayList<>()).add(rating);
+            }
+        }
+        ratingsOfAnswers.forEach((answer, answerRatings) ->
+                answerRatingsObservable.emit(new AnswerRatings(answer, answerRatings)));
+    }
+
+    /**
+     * Rates the new ratings of an answer and logs a failure.
+     * An exception would end the subscription, so no further ratings would be rated.
      *
-     * @param rating which has been created an will be processed
+     * @param answerRatings the new ratings of one answer
      */
-    private void onNext(Rating rating) {
+    private void rate(AnswerRatings answerRatings) {
+        try {
+            onNext(answerRatings);
+        } catch (RuntimeException e) {
+            log.error("Error! Rating the ratings of answer " + answerRatings.answer + " failed", e);
+        }
+    }
 
-        ExperimentRecord exp = experimentOperations.getExperiment(rating.getExperimentId()).orElseThrow(() -> new IllegalArgumentException("Error! Can't retrieve the experiment matching to ID:" + rating.getExperimentId()));
+    /**
+     * Rates the new ratings of an answer.
+     * All ratings of the answer and the answer will be rated. Furthermore the status of the experiment is checked and
+     * if the criteria are met, it will be shut-down
+     *
+     * @param answerRatings the new ratings of one answer
+     */
+    private void onNext(AnswerRatings answerRatings) {
+        int experimentId = answerRatings.ratings.get(0).getExperimentId();
+        ExperimentRecord exp = experimentOperations.getExperiment(experimentId).orElseThrow(() -> new IllegalArgumentException("Error! Can't retrieve the experiment matching to ID:" + experimentId));
 
 
-        ratingIdentifier = getRatingQualityAlgorithm(exp.getAlgorithmQualityRating()).orElseGet(() -> {
+        RatingQualityStrategy ratingIdentifier = getRatingQualityAlgorithm(exp.getAlgorithmQualityRating()).orElseGet(() -> {
                     log.fatal("Error! Could not find " + exp.getAlgorithmQualityRating() + "-algorithm. Replacing with default RatingQualityByDistribution-algorithm.");
                     return new RatingQualityByDistribution();
                 }
         );
 
 
-        answerIdentifier = getAnswerQualityAlgorithm(exp.getAlgorithmQualityAnswer()).orElseGet(() -> {
+        AnswerQualityStrategy answerIdentifier = getAnswerQualityAlgorithm(exp.getAlgorithmQualityAnswer()).orElseGet(() -> {
             log.fatal("Error! Could not find " + exp.getAlgorithmQualityAnswer() + "-algorithm. Replacing with default AnswerQualityByRatings-algorithm.");
             return new AnswerQualityByRatings();
         });
 
-        AnswerRecord answerRecord = answerRatingOperations.getAnswerFromRating(rating).orElseThrow(IllegalArgumentException::new);
-        rateQualityOfRatings(answerRecord, algorithmOperations.getRatingQualityParams(ratingIdentifier.getAlgorithmName(), exp.getIdExperiment()));
+        Map<AlgorithmRatingQualityParamRecord, String> ratingParams = algorithmOperations.getRatingQualityParams(ratingIdentifier.getAlgorithmName(), exp.getIdExperiment());
+        Map<AlgorithmAnswerQualityParamRecord, String> answerParams = algorithmOperations.getAnswerQualityParams(answerIdentifier.getAlgorithmName(), exp.getIdExperiment());
+
+        int answerId = answerRatings.answer;
+        // the lanes do not serialize synchronous subscribers and events run by the emitter
+        synchronized (answerLocks[Math.floorMod(answerId, answerLocks.length)]) {
+            // loaded inside the lock, a concurrent rating of the answer may have changed its quality
+            AnswerRecord answerRecord = answerRatingOperations.getAnswer(answerId).orElseThrow(IllegalArgumentException::new);
+            boolean wasQualityAssured = isQualityAssured(answerRecord);
+            boolean neededRatings = !wasQualityAssured || answerRecord.getQuality() != 0;
+
+            RatingDistribution distribution = null;
+            int numberOfRatings = 0;
+            if (incremental) {
+                distribution = getRatingDistribution(answerRecord, answerRatings.ratings);
+                if (rateQualityOfRatings(ratingIdentifier, answerRecord, distribution, ratingParams)) {
+                    numberOfRatings = distribution.size();
+                } else {
+                    distribution = null;
+                }
+            }
+            if (distribution == null) {
+                numberOfRatings = rateQualityOfRatings(ratingIdentifier, answerRecord, ratingParams);
+            }
 
-        if (!answerRecord.getDuplicate()) { //It's not needed to rate duplicate-answers because their quality is fixed to zero.
-            rateQualityOfAnswers(exp, answerRecord, algorithmOperations.getAnswerQualityParams(answerIdentifier.getAlgorithmName(), exp.getIdExperiment()));
+            if (!answerRecord.getDuplicate()) { //It's not needed to rate duplicate-answers because their quality is fixed to zero.
+                rateQualityOfAnswers(answerIdentifier, exp, answerRecord, distribution, answerParams);
+            }
+            updateProgress(exp, answerRecord, wasQualityAssured, neededRatings, numberOfRatings,
+                    answerRatings.ratings.size());
         }
         checkExpStatus(exp);
 
@@ -157,13 +340,46 @@ public class QualityIdentificator {
     }
 
 
+    /**
+     * Updates the progress of the experiment after an answer got rated.
+     *
+     * @param experiment the experiment of the answer
+     * @param answerRecord the rated answer
+     * @param wasQualityAssured true if the quality of the answer was assured before it got rated
+     * @param neededRatings true if the answer needed more ratings before it got rated
+     * @param numberOfRatings the number of ratings of the answer
+     * @param newRatings the number of ratings the answer just got
+     */
+    private void updateProgress(ExperimentRecord experiment, AnswerRecord answerRecord, boolean wasQualityAssured,
+                                boolean neededRatings, int numberOfRatings, int newRatings) {
+        boolean qualityAssured = isQualityAssured(answerRecord);
+        boolean reachedRatingsPerAnswer = numberOfRatings >= experiment.getRatingsPerAnswer()
+                && numberOfRatings - newRatings < experiment.getRatingsPerAnswer();
+        if (neededRatings && (reachedRatingsPerAnswer
+                || (numberOfRatings < experiment.getRatingsPerAnswer() && qualityAssured && answerRecord.getQuality() == 0))) {
+            progress.answerSaturated(experiment.getIdExperiment());
+        }
+        if (!wasQualityAssured && qualityAssured && answerRecord.getQuality() >= experiment.getResultQualityThreshold()) {
+            progress.finalGoodAnswer(experiment.getIdExperiment());
+        }
+    }
+
+    private boolean isQualityAssured(AnswerRecord answerRecord) {
+        return Boolean.TRUE.equals(answerRecord.getQualityAssured());
+    }
+
     /**
      * Checks if the criteria for ending the experiment are met. In that case the experiment will be shut down via
-     * the experiment controller
+     * the experiment controller.
+     * The criteria are checked against the database only, if the progress in memory says they may be met.
      *
      * @param experiment to be checked
      */
     private void checkExpStatus(ExperimentRecord experiment) {
+        if (progress.getFinalGoodAnswers(experiment.getIdExperiment()) < experiment.getNeededAnswers()
+                && progress.getAnswersWithoutMaxRatings(experiment.getIdExperiment()) > 0) {
+            return;
+        }
         Collection<ExperimentsPlatformStatusPlatformStatus> statuses = experimentsPlatformOperations.getExperimentsPlatformStatusPlatformStatuses(experiment.getIdExperiment())
                 .values();
         boolean doShutdown = false;
@@ -176,10 +392,16 @@ public class QualityIdentificator {
         }
         if (doShutdown){
             log.debug("there are enough answers to end the experiment");
-            if(!statuses.contains(ExperimentsPlatformStatusPlatformStatus.shutdown)){ //Only shut down if running and not already shutting down
-                log.debug("ending experiment");
-                Experiment experimentProto = experimentFetcher.fetchExperiment(experiment.getIdExperiment());
-                experimentOperator.endExperiment(experimentProto);
+            //Only shut down if running and not already shutting down, another thread may be shutting it down right now
+            if(!statuses.contains(ExperimentsPlatformStatusPlatformStatus.shutdown) && endingExperiments.add(experiment.getIdExperiment())){
+                try {
+                    log.debug("ending experiment");
+                    Experiment experimentProto = experimentFetcher.fetchExperiment(experiment.getIdExperiment());
+                    experimentOperator.endExperiment(experimentProto);
+                    progress.remove(experiment.getIdExperiment());
+                } finally {
+                    endingExperiments.remove(experiment.getIdExperiment());
+                }
             }
         }
 
@@ -190,16 +412,79 @@ public class QualityIdentificator {
      * Rates and sets quality of all ratings of specified experiment.
      * Ratings to the same answer are grouped and rated together.
      *
+     * @param ratingIdentifier the algorithm to use
      * @param answerRecord whose ratings' qualities are going to be estimated
      * @param params Mapping of parameter-records to the user specified parameters represented as a string
+     * @return the number of ratings of the answer
      */
-    private void rateQualityOfRatings(AnswerRecord answerRecord, Map<AlgorithmRatingQualityParamRecord, String> params) {
+    private int rateQualityOfRatings(RatingQualityStrategy ratingIdentifier, AnswerRecord answerRecord, Map<AlgorithmRatingQualityParamRecord, String> params) {
            List<RatingRecord> records = answerRatingOperations.getRelatedRatings(answerRecord.getIdAnswer());
             Map<RatingRecord, Integer> map = ratingIdentifier.identifyRatingQuality(records, params, MAXIMUM_QUALITY, MINIMUM_QUALITY);
             answerRatingOperations.setQualityToRatings(map);
+            return records.size();
     }
 
 
+    /**
+     * Returns the distribution of the ratings of the answer including the passed ratings.
+     * The distribution is loaded from the database, if it is not in memory.
+     *
+     * @param answerRecord the rated answer
+     * @param ratings the new ratings of the answer
+     * @return the distribution of the ratings of the answer
+     */
+    private RatingDistribution getRatingDistribution(AnswerRecord answerRecord, List<Rating> ratings) {
+        RatingDistribution distribution;
+        synchronized (distributions) {
+            distribution = distributions.get(answerRecord.getIdAnswer());
+        }
+        if (distribution == null) {
+            distribution = RatingDistribution.of(answerRatingOperations.getRelatedRatings(answerRecord.getIdAnswer()));
+            synchronized (distributions) {
+                distributions.put(answerRecord.getIdAnswer(), distribution);
+            }
+        }
+        // the ratings are already contained, if the distribution was just loaded
+        for (Rating rating : ratings) {
+            distribution.add(rating.getReservation(), rating.getRating());
+        }
+        return distribution;
+    }
+
+    /**
+     * Rates the quality of the ratings of the answer from the distribution of its ratings.
+     * Only the ratings whose quality changed are updated.
+     *
+     * @param ratingIdentifier the algorithm to use
+     * @param answerRecord whose ratings' qualities are going to be estimated
+     * @param distribution the distribution of the ratings of the answer
+     * @param params Mapping of parameter-records to the user specified parameters represented as a string
+     * @return true if rated, false if the algorithm does not support distributions
+     */
+    private boolean rateQualityOfRatings(RatingQualityStrategy ratingIdentifier, AnswerRecord answerRecord, RatingDistribution distribution, Map<AlgorithmRatingQualityParamRecord, String> params) {
+        Optional<Map<Integer, Integer>> qualities = ratingIdentifier.identifyRatingQuality(distribution, params, MAXIMUM_QUALITY, MINIMUM_QUALITY);
+        if (!qualities.isPresent()) {
+            synchronized (distributions) {
+                distributions.remove(answerRecord.getIdAnswer());
+            }
+            return false;
+        }
+        try {
+            qualities.get().forEach((value, quality) -> {
+                if (distribution.setQuality(value, quality) > 0) {
+                    answerRatingOperations.setQualityToRatings(answerRecord.getIdAnswer(), value, quality);
+                }
+            });
+        } catch (RuntimeException e) {
+            // the distribution already contains the qualities the database failed to store
+            synchronized (distributions) {
+                distributions.remove(answerRecord.getIdAnswer());
+            }
+            throw e;
+        }
+        return true;
+    }
+
     /**
      * Rates and sets quality of all answers of specified experiment.
      * Only uses ratings of a specified quality
@@ -207,18 +492,26 @@ public class QualityIdentificator {
      * and it thus the answer's quality is unlikely to change. In that case the corresponding
      * quality-assured-bit is set in the database.
      *
+     * @param answerIdentifier the algorithm to use
      * @param experimentRecord the experiment the answer is related to
      * @param answerRecord  which is going to be rated
+     * @param distribution the distribution of the ratings of the answer, null to read the ratings from the database
      * @param params Mapping of parameter-records to the user specified parameters represented as a string
      */
-    private void rateQualityOfAnswers(ExperimentRecord experimentRecord,AnswerRecord answerRecord, Map<AlgorithmAnswerQualityParamRecord, String> params) {
-        Map<String, Integer> result;
-        result = answerIdentifier.identifyAnswerQuality(answerRatingOperations, answerRecord, params, MAXIMUM_QUALITY, MINIMUM_QUALITY);
+    private void rateQualityOfAnswers(AnswerQualityStrategy answerIdentifier, ExperimentRecord experimentRecord, AnswerRecord answerRecord, RatingDistribution distribution, Map<AlgorithmAnswerQualityParamRecord, String> params) {
+        Optional<Map<String, Integer>> incrementalResult = distribution == null ? Optional.empty()
+                : answerIdentifier.identifyAnswerQuality(answerRecord, distribution, params, MAXIMUM_QUALITY, MINIMUM_QUALITY);
+        Map<String, Integer> result = incrementalResult.orElseGet(() ->
+                answerIdentifier.identifyAnswerQuality(answerRatingOperations, answerRecord, params, MAXIMUM_QUALITY, MINIMUM_QUALITY));
         answerRatingOperations.setQualityToAnswer(answerRecord, result.get(AnswerQualityStrategy.QUALITY));
 
         // Checks if quality_assured bit can be set.
         if(hasQualityAssured(experimentRecord,answerRecord,result.get(AnswerQualityStrategy.NUM_OF_RATINGS))){
             answerRatingOperations.setAnswerQualityAssured(answerRecord);
+            // the answer is not expected to receive further ratings
+            synchronized (distributions) {
+                distributions.remove(answerRecord.getIdAnswer());
+            }
         }
 
     }
@@ -232,15 +525,12 @@ public class QualityIdentificator {
      * @return true if quality of the answer cannot change anymore
      */
     private boolean hasQualityAssured(ExperimentRecord experimentRecord,AnswerRecord answerRecord, int numberOfRatings) {
-        int desiredRatingsPerAnswerOfExperiment = experimentOperations.getExperiment(answerRecord.getExperiment())
-                .orElseThrow(() -> new IllegalArgumentException("Error, can't find experiment of given experiment-ID: " + answerRecord.getExperiment()))
-                .getRatingsPerAnswer();
+        int desiredRatingsPerAnswerOfExperiment = experimentRecord.getRatingsPerAnswer();
         if (numberOfRatings >= desiredRatingsPerAnswerOfExperiment) {
             return true;
         } else {
-            int qualityOfAnswer = answerRatingOperations.getAnswer(answerRecord.getIdAnswer())
-                    .orElseThrow(() -> new IllegalArgumentException("Error, can't find answer of given answer-ID :" + answerRecord.getIdAnswer()))
-                    .getQuality();
+            // the quality was just set to the record by setQualityToAnswer
+            int qualityOfAnswer = answerRecord.getQuality();
             int qualityThreshold = experimentRecord.getResultQualityThreshold();
 
             if (qualityOfAnswer < qualityThreshold) {
@@ -270,6 +560,21 @@ public class QualityIdentificator {
         }
         return false;
     }
-}
 
+    /**
+     * The new ratings of one answer
+     */
+    private static class AnswerRatings {
+        private final int answer;
+        private final List<Rating> ratings;
 
+        private AnswerRatings(int answer, List<Rating> ratings) {
+            this.answer = answer;
+            this.ratings = ratings;
+        }
+
+        private int getAnswer() {
+            return answer;
+        }
+    }
+}
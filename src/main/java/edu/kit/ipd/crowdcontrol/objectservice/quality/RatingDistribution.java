@@ -0,0 +1,160 @@
+package edu.kit.ipd.crowdcontrol.objectservice.quality;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The aggregated ratings of one answer: the number of ratings per rating-value and rating-quality.
+ * <p>
+ * A new rating is added in constant time, so the quality-algorithms do not have to read all ratings of the
+ * answer again for every new rating. The ratings are identified by their reservation, a rating which is
+ * already contained is not counted twice.
+ * <p>
+ * The distribution is not thread-safe.
+ */
+public class RatingDistribution {
+    /**
+     * the smallest valid rating-value and rating-quality
+     */
+    public static final int MIN_VALUE = 0;
+    /**
+     * the highest valid rating-value and rating-quality
+     */
+    public static final int MAX_VALUE = 9;
+    /**
+     * the quality of ratings which were not yet rated
+     */
+    public static final int UNKNOWN_QUALITY = -1;
+
+    /**
+     * counts[rating][quality + 1], the quality UNKNOWN_QUALITY is stored at index 0
+     */
+    private final int[][] counts = new int[MAX_VALUE + 1][MAX_VALUE + 2];
+    private final Set<Integer> reservations = new HashSet<>();
+    private int size = 0;
+
+    /**
+     * Creates the distribution of the passed ratings.
+     *
+     * @param ratings all ratings of the answer
+     * @return the distribution of the ratings
+     * @throws IllegalArgumentException if a rating has an illegal value or quality
+     */
+    public static RatingDistribution of(List<RatingRecord> ratings) throws IllegalArgumentException {
+        RatingDistribution distribution = new RatingDistribution();
+        for (RatingRecord rating : ratings) {
+            distribution.add(rating.getReservation(), rating.getRating(),
+                    rating.getQuality() == null ? UNKNOWN_QUALITY : rating.getQuality());
+        }
+        return distribution;
+    }
+
+    /**
+     * Adds a new rating with an unknown quality.
+     *
+     * @param reservation the reservation of the rating
+     * @param rating the value of the rating
+     * @return true if added, false if the rating is already contained
+     * @throws IllegalArgumentException if the rating has an illegal value
+     */
+    public boolean add(int reservation, int rating) throws IllegalArgumentException {
+        return add(reservation, rating, UNKNOWN_QUALITY);
+    }
+
+    private boolean add(int reservation, int rating, int quality) throws IllegalArgumentException {
+        checkRating(rating);
+        if (quality != UNKNOWN_QUALITY) {
+            checkQuality(quality);
+        }
+        if (!reservations.add(reservation)) {
+            return false;
+        }
+        counts[rating][quality + 1]++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Sets the quality of all ratings with the passed value.
+     *
+     * @param rating the value of the ratings
+     * @param quality the new quality of the ratings
+     * @return the number of ratings whose quality changed
+     */
+    public int setQuality(int rating, int quality) {
+        checkRating(rating);
+        checkQuality(quality);
+        int count = getCountUnchecked(rating);
+        int changed = count - counts[rating][quality + 1];
+        Arrays.fill(counts[rating], 0);
+        counts[rating][quality + 1] = count;
+        return changed;
+    }
+
+    /**
+     * @param rating the value of the ratings
+     * @return the number of ratings with the passed value
+     */
+    public int getCount(int rating) {
+        checkRating(rating);
+        return getCountUnchecked(rating);
+    }
+
+    /**
+     * @param rating the value of the ratings
+     * @param quality the quality of the ratings, may be UNKNOWN_QUALITY
+     * @return the number of ratings with the passed value and quality
+     */
+    public int getCount(int rating, int quality) {
+        checkRating(rating);
+        if (quality != UNKNOWN_QUALITY) {
+            checkQuality(quality);
+        }
+        return counts[rating][quality + 1];
+    }
+
+    /**
+     * @param rating the value of the ratings
+     * @param threshold the quality the ratings have to exceed
+     * @return the number of ratings with the passed value and a quality greater than the threshold
+     */
+    public int getCountWithQualityAbove(int rating, int threshold) {
+        checkRating(rating);
+        int count = 0;
+        for (int quality = Math.max(threshold + 1, MIN_VALUE); quality <= MAX_VALUE; quality++) {
+            count += counts[rating][quality + 1];
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of ratings
+     */
+    public int size() {
+        return size;
+    }
+
+    private int getCountUnchecked(int rating) {
+        int count = 0;
+        for (int value : counts[rating]) {
+            count += value;
+        }
+        return count;
+    }
+
+    private void checkRating(int rating) {
+        if (rating < MIN_VALUE || rating > MAX_VALUE) {
+            throw new IllegalArgumentException("Error! Illegal rating value! Expected value from 0 to 9, but got :" + rating);
+        }
+    }
+
+    private void checkQuality(int quality) {
+        if (quality < MIN_VALUE || quality > MAX_VALUE) {
+            throw new IllegalArgumentException("Error! Illegal rating quality! Expected value from 0 to 9, but got :" + quality);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.Algo
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -11,6 +12,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Created by lucaskrauss on 19.01.2016.
@@ -32,8 +34,6 @@ public class AnswerQualityByRatings implements AnswerQualityStrategy {
             "Good ratings of an answer will be used to estimate the quality of the answer. This parameter has to be a positive integer between 0 and 9. ";
     static final String PARAMETER_ID = "RatingQualityThreshold";
 
-    private int ratingQualityThreshold;
-
     /**
      * Identifies the quality of an answer based on its ratings.
      * The answer's quality is equal to the average (rounded down) of all its ratings.
@@ -48,44 +48,12 @@ public class AnswerQualityByRatings implements AnswerQualityStrategy {
      */
     @Override
     public Map<String, Integer> identifyAnswerQuality(AnswerRatingOperations ops, AnswerRecord answer, Map<AlgorithmAnswerQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException {
-
-        Map<String, Integer> map = new HashMap<>();
         if (answer.getDuplicate()){
-            map.put(QUALITY,0);
-            /*
-             NUM_OF_RATINGS is used to estimate whether the quality of the answer can be assured or not,
-             because a duplicate's answer won't change anymore and is already marked assured, it is
-             save to return zero here.
-            */
-            map.put(NUM_OF_RATINGS,0);
-            return map;
+            return getDuplicateQuality();
         }
-        //Fetch parameter
-        passedParameters.entrySet().forEach(entry -> {
-            if (entry.getKey().getData().equals(PARAMETER_ID)) {
-                ratingQualityThreshold = Integer.valueOf(entry.getValue());
-                if (ratingQualityThreshold < 0 || ratingQualityThreshold > 9) {
-                    log.fatal(String.format("Error! Received illegal argument for %s! Should: %s   Is: %s! \n Setting threshold to 5.", entry.getKey().getAlgorithm(), entry.getKey().getRegex(), entry.getValue()));
-                    ratingQualityThreshold = 5;
-                }
-            }
-        });
 
         //Retrieve "good" ratings
-        List<RatingRecord> ratings = ops.getGoodRatingsOfAnswer(answer, ratingQualityThreshold);
-        if(ratings.size() == 0){
-            map.put(QUALITY,answer.getQuality());
-            map.put(NUM_OF_RATINGS,0);
-            return map;
-        }
-        if (ratings.size() == 1 && ratings.get(0).getRating() >= 0 && ratings.get(0).getRating() < 10 ) {
-
-            map.put(QUALITY,ratings.get(0).getRating());
-            map.put(NUM_OF_RATINGS,0);
-
-            return map;
-        }
-
+        List<RatingRecord> ratings = ops.getGoodRatingsOfAnswer(answer, getRatingQualityThreshold(passedParameters));
         int answerQuality = 0;
         for (RatingRecord rating : ratings) {
             if (rating.getRating() > 9 || rating.getRating() < 0) {
@@ -94,13 +62,92 @@ public class AnswerQualityByRatings implements AnswerQualityStrategy {
             }
             answerQuality += rating.getRating();
         }
-        map.put(QUALITY, (int) Math.round(answerQuality / (double) ratings.size()));
-        map.put(NUM_OF_RATINGS, ratings.size());
+        return getQuality(answer, ratings.size(), answerQuality);
+    }
 
+    /**
+     * Identifies the quality of an answer based on the distribution of its ratings, like
+     * {@link #identifyAnswerQuality(AnswerRatingOperations, AnswerRecord, Map, int, int)}.
+     *
+     * @param answer           answerRecord whose quality is to be estimated
+     * @param distribution     the distribution of the rated ratings of the answer
+     * @param passedParameters Mapping of required parameters and their actual values specified by the operator
+     * @param maximumQuality   value for an answer
+     * @param minimumQuality   value for an answer
+     * @return quality-value of the answer
+     */
+    @Override
+    public Optional<Map<String, Integer>> identifyAnswerQuality(AnswerRecord answer, RatingDistribution distribution, Map<AlgorithmAnswerQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException {
+        if (answer.getDuplicate()){
+            return Optional.of(getDuplicateQuality());
+        }
 
+        int ratingQualityThreshold = getRatingQualityThreshold(passedParameters);
+        int numberOfRatings = 0;
+        int answerQuality = 0;
+        for (int rating = RatingDistribution.MIN_VALUE; rating <= RatingDistribution.MAX_VALUE; rating++) {
+            int goodRatings = distribution.getCountWithQualityAbove(rating, ratingQualityThreshold);
+            numberOfRatings += goodRatings;
+            answerQuality += goodRatings * rating;
+        }
+        return Optional.of(getQuality(answer, numberOfRatings, answerQuality));
+    }
+
+    private Map<String, Integer> getDuplicateQuality() {
+        Map<String, Integer> map = new HashMap<>();
+        map.put(QUALITY,0);
+        /*
+         NUM_OF_RATINGS is used to estimate whether the quality of the answer can be assured or not,
+         because a duplicate's answer won't change anymore and is already marked assured, it is
+         save to return zero here.
+        */
+        map.put(NUM_OF_RATINGS,0);
+        return map;
+    }
+
+    /**
+     * Computes the result from the good ratings of the answer
+     *
+     * @param answer          answerRecord whose quality is to be estimated
+     * @param numberOfRatings the number of good ratings
+     * @param sumOfRatings    the sum of the values of the good ratings
+     * @return quality-value of the answer
+     */
+    private Map<String, Integer> getQuality(AnswerRecord answer, int numberOfRatings, int sumOfRatings) {
+        Map<String, Integer> map = new HashMap<>();
+        if (numberOfRatings == 0) {
+            map.put(QUALITY, answer.getQuality());
+            map.put(NUM_OF_RATINGS, 0);
+        } else if (numberOfRatings == 1) {
+            map.put(QUALITY, sumOfRatings);
+            map.put(NUM_OF_RATINGS, 0);
+        } else {
+            map.put(QUALITY, (int) Math.round(sumOfRatings / (double) numberOfRatings));
+            map.put(NUM_OF_RATINGS, numberOfRatings);
+        }
         return map;
     }
 
+    /**
+     * Fetches the threshold, which ratings have to exceed to be considered "good"
+     *
+     * @param passedParameters Mapping of required parameters and their actual values specified by the operator
+     * @return the threshold
+     */
+    private int getRatingQualityThreshold(Map<AlgorithmAnswerQualityParamRecord, String> passedParameters) {
+        int ratingQualityThreshold = 0;
+        for (Map.Entry<AlgorithmAnswerQualityParamRecord, String> entry : passedParameters.entrySet()) {
+            if (entry.getKey().getData().equals(PARAMETER_ID)) {
+                ratingQualityThreshold = Integer.valueOf(entry.getValue());
+                if (ratingQualityThreshold < 0 || ratingQualityThreshold > 9) {
+                    log.fatal(String.format("Error! Received illegal argument for %s! Should: %s   Is: %s! \n Setting threshold to 5.", entry.getKey().getAlgorithm(), entry.getKey().getRegex(), entry.getValue()));
+                    ratingQualityThreshold = 5;
+                }
+            }
+        }
+        return ratingQualityThreshold;
+    }
+
     @Override
     public String getAlgorithmName() {
         return ALGORITHM_NAME;
@@ -3,9 +3,11 @@ package edu.kit.ipd.crowdcontrol.objectservice.quality.answerQuality;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AlgorithmAnswerQualityParamRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Created by lucaskrauss on 19.01.2016.
@@ -13,6 +15,7 @@ import java.util.Map;
  * The AnswerQualityIdentification-interface is part of a strategy-design-pattern.
  * Classes which implement this interface calculate the quality of an answer.
  * They are passed the answer itself and additionally the answer's ratings.
+ * One instance rates many answers in parallel, so implementations must not store any state of a call.
  */
 public interface AnswerQualityStrategy {
 
@@ -33,6 +36,22 @@ public interface AnswerQualityStrategy {
      */
     Map<String,Integer> identifyAnswerQuality(AnswerRatingOperations ops, AnswerRecord answer, Map<AlgorithmAnswerQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException;
 
+    /**
+     * Identifies the quality of an answer from the aggregated distribution of its ratings.
+     * The default implementation does not support it.
+     *
+     * @param answer           answerRecord whose quality is to be estimated
+     * @param distribution     the distribution of the rated ratings of the answer
+     * @param passedParameters Mapping of required parameters and their actual values specified by the operator
+     * @param maximumQuality   value for an answer
+     * @param minimumQuality   value for an answer
+     * @return the same mapping as {@link #identifyAnswerQuality(AnswerRatingOperations, AnswerRecord, Map, int, int)}
+     * or empty if the algorithm needs the single ratings
+     */
+    default Optional<Map<String, Integer>> identifyAnswerQuality(AnswerRecord answer, RatingDistribution distribution, Map<AlgorithmAnswerQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException {
+        return Optional.empty();
+    }
+
     /**
      * Get the name of the implementing algorithm
      *
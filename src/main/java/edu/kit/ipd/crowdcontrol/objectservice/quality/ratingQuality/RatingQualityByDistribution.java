@@ -2,9 +2,9 @@ package edu.kit.ipd.crowdcontrol.objectservice.quality.ratingQuality;
 
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AlgorithmRatingQualityParamRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Created by lucaskrauss at 19.01.2016
@@ -43,21 +43,40 @@ public class RatingQualityByDistribution implements RatingQualityStrategy {
         });
         Map<RatingRecord, Integer> resultMap = new HashMap<>();
 
-        // Bucket sorts given ratings
-        Map<Integer, List<RatingRecord>> sortedMap = ratings.stream().collect(Collectors.groupingBy(RatingRecord::getRating));
-        int optimalRating = getOptimalRating(sortedMap);
+        int[] counts = new int[RatingDistribution.MAX_VALUE + 1];
+        ratings.forEach(rating -> counts[rating.getRating()]++);
+        int optimalRating = getOptimalRating(counts);
 
+        for (RatingRecord ratingRecord : ratings) {
+            resultMap.put(ratingRecord, getQuality(ratingRecord.getRating(), optimalRating, maximumQuality));
+        }
+        return resultMap;
+    }
+
+    /**
+     * Identifies the quality of the ratings from their distribution, like
+     * {@link #identifyRatingQuality(List, Map, int, int)}.
+     * @param distribution   the distribution of the ratings
+     * @param maximumQuality of the experiment
+     * @param minimumQuality of the experiment
+     * @return Mapping of the rating-values and their corresponding quality
+     * @throws IllegalArgumentException if the distribution is empty
+     */
+    @Override
+    public Optional<Map<Integer, Integer>> identifyRatingQuality(RatingDistribution distribution, Map<AlgorithmRatingQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException {
+        int[] counts = new int[RatingDistribution.MAX_VALUE + 1];
+        for (int rating = RatingDistribution.MIN_VALUE; rating <= RatingDistribution.MAX_VALUE; rating++) {
+            counts[rating] = distribution.getCount(rating);
+        }
+        int optimalRating = getOptimalRating(counts);
 
-        for (Map.Entry<Integer, List<RatingRecord>> entry : sortedMap.entrySet()) {
-            if (entry.getValue().size() > 0) {
-                for (RatingRecord ratingRecord : entry.getValue()) {
-                    int diffFromOptimal = Math.abs(ratingRecord.getRating() - optimalRating);
-                    int rating = maximumQuality - diffFromOptimal;
-                    resultMap.put(ratingRecord, rating);
-                }
+        Map<Integer, Integer> resultMap = new HashMap<>();
+        for (int rating = RatingDistribution.MIN_VALUE; rating <= RatingDistribution.MAX_VALUE; rating++) {
+            if (counts[rating] > 0) {
+                resultMap.put(rating, getQuality(rating, optimalRating, maximumQuality));
             }
         }
-        return resultMap;
+        return Optional.of(resultMap);
     }
 
     @Override
@@ -73,27 +92,33 @@ public class RatingQualityByDistribution implements RatingQualityStrategy {
     @Override
     public List<AlgorithmRatingQualityParamRecord> getParams() { return new LinkedList<>();   }
 
+    private int getQuality(int rating, int optimalRating, int maximumQuality) {
+        int diffFromOptimal = Math.abs(rating - optimalRating);
+        return maximumQuality - diffFromOptimal;
+    }
+
     /**
      * Calculates optimal rating based on how much a rating-value has been chosen for an answer.
      *
-     * @param sortedRatings mapping of ratings to their rating-records
+     * @param counts the number of ratings for every rating-value
      * @return the most chosen rating-values.  OR if more than one rating-value are the most chosen ones,
      * the average of those rating-values is returned.
      */
-    private int getOptimalRating(Map<Integer, List<RatingRecord>> sortedRatings) {
+    private int getOptimalRating(int[] counts) {
+        int maxCount = 0;
+        for (int count : counts) {
+            maxCount = Math.max(maxCount, count);
+        }
 
-        if (sortedRatings.size() == 0) {
+        if (maxCount == 0) {
             throw new IllegalArgumentException("Error! Answer without valid ratings. In " + this.getClass());
         }
 
-        ArrayList<Map.Entry<Integer, List<RatingRecord>>> list = new ArrayList<>(sortedRatings.entrySet());
-        Collections.sort(list, (o1, o2) -> Integer.compare(o1.getValue().size(), o2.getValue().size()));
-
         int optimalRating = 0;
         int divisor = 0;
-        for (int i = 0; i < list.size(); i++) {
-            if (list.get(i).getValue().size() == list.get(list.size() - 1).getValue().size()) {
-                optimalRating += list.get(i).getKey();
+        for (int rating = 0; rating < counts.length; rating++) {
+            if (counts[rating] == maxCount) {
+                optimalRating += rating;
                 divisor++;
             }
         }
@@ -102,4 +127,3 @@ public class RatingQualityByDistribution implements RatingQualityStrategy {
         return optimalRating;
     }
 }
-
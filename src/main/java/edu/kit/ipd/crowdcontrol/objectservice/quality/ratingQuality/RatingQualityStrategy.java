@@ -2,9 +2,11 @@ package edu.kit.ipd.crowdcontrol.objectservice.quality.ratingQuality;
 
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AlgorithmRatingQualityParamRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Created by lucaskrauss at 19.01.2016
@@ -12,6 +14,7 @@ import java.util.Map;
  * The RatingQualityStrategy-interface is part of a strategy-design-pattern.
  * Classes which implement this interface calculate the quality of a set of ratings.
  * These classes are passed a set of ratings of an answer.
+ * One instance rates the ratings of many answers in parallel, so implementations must not store any state of a call.
  */
 public interface RatingQualityStrategy {
 
@@ -28,6 +31,23 @@ public interface RatingQualityStrategy {
      */
     Map<RatingRecord, Integer> identifyRatingQuality(List<RatingRecord> ratings, Map<AlgorithmRatingQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException;
 
+    /**
+     * Identifies the quality of the ratings of an answer from their aggregated distribution.
+     * Only algorithms, where the quality of a rating depends on nothing but its value and the distribution,
+     * are able to support this. The default implementation does not support it.
+     *
+     * @param distribution         the distribution of the ratings of the answer
+     * @param passedParameters     Mapping of required parameters and their values specified by the operator
+     * @param maximumQuality-value for a rating
+     * @param minimumQuality       -value for a rating
+     * @return the quality for every rating-value contained in the distribution
+     * or empty if the algorithm needs the single ratings
+     * @throws IllegalArgumentException If ratings have a illegal value
+     */
+    default Optional<Map<Integer, Integer>> identifyRatingQuality(RatingDistribution distribution, Map<AlgorithmRatingQualityParamRecord, String> passedParameters, int maximumQuality, int minimumQuality) throws IllegalArgumentException {
+        return Optional.empty();
+    }
+
     /**
      * Get the name of the implementing algorithm
      *
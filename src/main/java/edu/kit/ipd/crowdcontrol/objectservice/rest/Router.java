@@ -177,6 +177,7 @@ public class Router implements SparkApplication {
         get("/experiments/:id/answers", answerRatingResource::getAnswers);
         get("/experiments/:id/answers/:aid", answerRatingResource::getAnswer);
         put("/experiments/:id/answers/:aid/rating", answerRatingResource::putRating, Rating.class);
+        put("/experiments/:id/ratings", answerRatingResource::putRatings, RatingList.class);
 
         LOGGER.trace("Finished setting up routes for Spark.");
     }
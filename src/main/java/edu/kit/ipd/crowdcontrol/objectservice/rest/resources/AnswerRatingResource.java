@@ -9,6 +9,7 @@ import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Answer;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.AnswerList;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.RatingList;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.Paginated;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.exceptions.BadRequestException;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.exceptions.NotFoundException;
@@ -16,7 +17,10 @@ import spark.Request;
 import spark.Response;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static edu.kit.ipd.crowdcontrol.objectservice.rest.RequestUtil.*;
 
@@ -62,8 +66,15 @@ public class AnswerRatingResource {
         int experimentId = getParamInt(request, "id");
 
         return answerRatingOperations.getAnswersFrom(experimentId, from, asc, 20)
-                .map(answerRecord -> AnswerRatingTransformer.toAnswerProto(answerRecord,
-                        answerRatingOperations.getRatings(answerRecord.getIdAnswer())))
+                .mapList(answerRecords -> {
+                    Map<Integer, List<Rating>> ratings = answerRatingOperations.getRatingsForAnswers(answerRecords.stream()
+                            .map(AnswerRecord::getIdAnswer)
+                            .collect(Collectors.toList()));
+                    return answerRecords.stream()
+                            .map(answerRecord -> AnswerRatingTransformer.toAnswerProto(answerRecord,
+                                    ratings.getOrDefault(answerRecord.getIdAnswer(), Collections.emptyList())))
+                            .collect(Collectors.toList());
+                })
                 .constructPaginated(AnswerList.newBuilder(), AnswerList.Builder::addAllItems);
     }
 
@@ -81,13 +92,7 @@ public class AnswerRatingResource {
         if (answer.getRatingsCount() != 0)
             throw new BadRequestException("A answer Resource can not have ratings while creating!");
 
-        //the worker of this rating does not exist
-        if (!workerOperations.getWorker(answer.getWorker()).isPresent())
-            throw new BadRequestException("The given worker does not exists!");
-
-        //check that the experiment really exists
-        if (!experimentOperations.getExperiment(answer.getExperimentId()).isPresent())
-            throw new BadRequestException("Experiment does not exists!");
+        //the existence of the worker and the experiment is checked while inserting
 
         //check that the experiment id does not differ
         if (experimentId != answer.getExperimentId())
@@ -163,8 +168,43 @@ public class AnswerRatingResource {
         response.status(201);
         response.header("Location", "/experiments/" + experimentId + "/answers/" + answerId);
 
-        eventManager.RATINGS_CREATE.emit(result);
+        eventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(result).build());
 
         return rating;
     }
+
+    /**
+     * Creates many new Ratings for answers in experiment :id at once
+     * @param request  Request provided by Spark.
+     * @param response Response provided by Spark.
+     * @return The new Created Ratings
+     */
+    public RatingList putRatings(Request request, Response response) {
+        int experimentId = getParamInt(request, "id");
+        RatingList ratingList = request.attribute("input");
+
+        for (Rating rating : ratingList.getItemsList()) {
+            if (rating.getQuality() != 0) {
+                throw new IllegalArgumentException("Quality cannot be set when creating a Rating");
+            }
+            if (rating.getExperimentId() != experimentId) {
+                throw new IllegalArgumentException("Rating does not belong to the given experiment");
+            }
+        }
+
+        List<Rating> result;
+
+        try {
+            result = answerRatingOperations.insertRatings(ratingList.getItemsList());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+
+        response.status(201);
+
+        RatingList created = RatingList.newBuilder().addAllItems(result).build();
+        eventManager.RATINGS_CREATE.emit(created);
+
+        return created;
+    }
 }
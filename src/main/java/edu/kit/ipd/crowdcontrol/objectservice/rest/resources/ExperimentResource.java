@@ -93,9 +93,10 @@ public class ExperimentResource {
         int from = getQueryInt(request, "from", 0);
         boolean asc = getQueryBool(request, "asc", true);
 
-        // TODO: (low priority) Optimize fetchExperiment for multiple experiments
         return experimentOperations.getExperimentsFrom(from, asc, 20)
-                .map(experimentRecord -> experimentFetcher.fetchExperiment(experimentRecord.getIdExperiment()))
+                .mapList(experimentRecords -> experimentFetcher.fetchExperiments(experimentRecords.stream()
+                        .map(ExperimentRecord::getIdExperiment)
+                        .collect(Collectors.toList())))
                 .constructPaginated(ExperimentList.newBuilder(), ExperimentList.Builder::addAllItems);
     }
 
@@ -0,0 +1,104 @@
+package edu.kit.ipd.crowdcontrol.objectservice.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * A template parsed into its literal segments and placeholder slots, so it can be rendered
+ * repeatedly without parsing it again.
+ * <p>
+ * The segments alternate: literal, placeholder, literal, ..., literal. Rendering appends them in a single
+ * pass into a builder sized to the rendered length.
+ */
+public class CompiledTemplate {
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+    private final Set<String> names;
+
+    private CompiledTemplate(String[] literals, String[] slots, int literalLength, Set<String> names) {
+        this.literals = literals;
+        this.slots = slots;
+        this.literalLength = literalLength;
+        this.names = names;
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param text
+     *         Raw template.
+     *
+     * @return The compiled template.
+     */
+    static CompiledTemplate compile(String text) {
+        Matcher matcher = Template.PLACEHOLDER_PATTERN.matcher(text);
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int literalLength = 0;
+        int last = 0;
+
+        while (matcher.find()) {
+            String literal = text.substring(last, matcher.start());
+            literals.add(literal);
+            literalLength += literal.length();
+            slots.add(matcher.group(1));
+            last = matcher.end();
+        }
+
+        String literal = text.substring(last);
+        literals.add(literal);
+        literalLength += literal.length();
+
+        return new CompiledTemplate(literals.toArray(new String[literals.size()]), slots.toArray(new String[slots.size()]),
+                literalLength, Collections.unmodifiableSet(new HashSet<>(slots)));
+    }
+
+    /**
+     * @return The names of all placeholders of the template.
+     */
+    public Set<String> getPlaceholderNames() {
+        return names;
+    }
+
+    /**
+     * Applies values to the template, effectively rendering it.
+     *
+     * @param placeholders
+     *         Placeholder name to replacement map.
+     *
+     * @return Rendered template.
+     */
+    public String render(Map<String, String> placeholders) {
+        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+            if (entry.getValue() == null) {
+                throw new IllegalArgumentException("Placeholder '" + entry.getKey() + "' must not be null!");
+            }
+        }
+
+        if (!names.equals(placeholders.keySet())) {
+            throw new IllegalArgumentException("Placeholders do not match the template's definition!");
+        }
+
+        String[] values = new String[slots.length];
+        int length = literalLength;
+
+        for (int i = 0; i < slots.length; i++) {
+            values[i] = placeholders.get(slots[i]);
+            length += values[i].length();
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]).append(values[i]);
+        }
+
+        return builder.append(literals[slots.length]).toString();
+    }
+}
@@ -8,7 +8,14 @@ import java.util.regex.Pattern;
  * Parses placeholders from templates and applies placeholder values to them.
  */
 public class Template {
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{([^:{}]+)(?::([^:{}]+))?(?::([^:{}]+))?\\}\\}");
+    static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{([^:{}]+)(?::([^:{}]+))?(?::([^:{}]+))?\\}\\}");
+    private static final int CACHE_SIZE = 256;
+    private static final Map<String, CompiledTemplate> CACHE = new LinkedHashMap<String, CompiledTemplate>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompiledTemplate> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
 
     private Template() {
         // intentionally left blank
@@ -62,96 +69,46 @@ public class Template {
     }
 
     /**
-     * Applies values to a template, effectively rendering it.
+     * Returns the compiled form of a template. The most recently used templates are cached by their text.
      *
      * @param text
      *         Raw template.
-     * @param placeholders
-     *         Placeholder name to replacement map.
      *
-     * @return Rendered template.
+     * @return The compiled template.
      */
-    public static String apply(String text, Map<String, String> placeholders) {
+    public static CompiledTemplate compile(String text) {
         if (text == null) {
             throw new IllegalArgumentException("Text must not be null!");
         }
 
-        for (String key : placeholders.keySet()) {
-            if (placeholders.get(key) == null) {
-                throw new IllegalArgumentException("Placeholder '" + key + "' must not be null!");
+        synchronized (CACHE) {
+            CompiledTemplate compiled = CACHE.get(text);
+            if (compiled != null) {
+                return compiled;
             }
         }
 
-        Map<String, Placeholder> placeholderMap = parse(text);
-
-        if (!placeholderMap.keySet().equals(placeholders.keySet())) {
-            throw new IllegalArgumentException("Placeholders do not match the template's definition!");
-        }
+        // compiling twice in a race is harmless, both results are equal
+        CompiledTemplate compiled = CompiledTemplate.compile(text);
 
-        int offset = 0;
-        List<ReplaceOp> replacements = new ArrayList<>();
-
-        for (Placeholder placeholder : placeholderMap.values()) {
-            for (Placeholder.Position position : placeholder.getPositions()) {
-                replacements.add(new ReplaceOp(position.getStart(), position.getEnd(), placeholders.get(placeholder.getName())));
-            }
+        synchronized (CACHE) {
+            CACHE.put(text, compiled);
         }
 
-        Collections.sort(replacements);
-
-        for (ReplaceOp op : replacements) {
-            text = text.substring(0, op.getStart() + offset) + op.getReplacement() + text.substring(op.getEnd() + offset);
-            offset += op.getReplacement().length() - (op.getEnd() - op.getStart());
-        }
-
-        return text;
+        return compiled;
     }
 
     /**
-     * Replacement operations have to be executed in order, so we need an additional helper class.
+     * Applies values to a template, effectively rendering it.
+     *
+     * @param text
+     *         Raw template.
+     * @param placeholders
+     *         Placeholder name to replacement map.
+     *
+     * @return Rendered template.
      */
-    private static class ReplaceOp implements Comparable<ReplaceOp> {
-        private int start;
-        private int end;
-        private String replacement;
-
-        public ReplaceOp(int start, int end, String replacement) {
-            this.start = start;
-            this.end = end;
-            this.replacement = replacement;
-        }
-
-        public int getStart() {
-            return this.start;
-        }
-
-        public int getEnd() {
-            return this.end;
-        }
-
-        public String getReplacement() {
-            return this.replacement;
-        }
-
-        @Override
-        public int compareTo(ReplaceOp op) {
-            if (start < op.start) {
-                return -1;
-            }
-
-            if (start > op.start) {
-                return 1;
-            }
-
-            if (end < op.end) {
-                return -1;
-            }
-
-            if (end > op.end) {
-                return 1;
-            }
-
-            return 0;
-        }
+    public static String apply(String text, Map<String, String> placeholders) {
+        return compile(text).render(placeholders);
     }
 }
@@ -139,8 +139,10 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Worker` (
   `email` VARCHAR(191) NULL DEFAULT NULL,
   `quality` INT NOT NULL DEFAULT 9,
   `identification` VARCHAR(191) GENERATED ALWAYS AS (JSON_EXTRACT(platform_data, '$.identification')),
+  `identification_hash` BINARY(16) GENERATED ALWAYS AS (UNHEX(MD5(`identification`))) VIRTUAL,
   PRIMARY KEY (`id_worker`),
   INDEX `workerOrigin_idx` (`platform` ASC),
+  INDEX `worker_identification_idx` (`platform` ASC, `identification_hash` ASC),
   CONSTRAINT `workerOrigin`
     FOREIGN KEY (`platform`)
     REFERENCES `crowdcontrol`.`Platform` (`id_platform`)
@@ -162,6 +164,7 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Answer_Reservation` (
   PRIMARY KEY (`id_answer_Reservation`),
   INDEX `experiment_will_be_answered_idx` (`experiment` ASC),
   INDEX `worker_wil_answer_idx` (`worker` ASC),
+  INDEX `answer_reservation_used_timestamp_idx` (`used` ASC, `timestamp` ASC),
   CONSTRAINT `experiment_will_be_answered`
     FOREIGN KEY (`experiment`)
     REFERENCES `crowdcontrol`.`Experiment` (`id_experiment`)
@@ -194,6 +197,9 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Answer` (
   INDEX `workerAnswered_idx` (`worker_id` ASC),
   INDEX `idExperimentAnswers_idx` (`experiment` ASC),
   INDEX `reservation_answer_idx` (`reservation` ASC),
+  INDEX `answer_experiment_worker_idx` (`experiment` ASC, `worker_id` ASC),
+  INDEX `answer_experiment_hash_idx` (`experiment` ASC, `hash` ASC, `timestamp` ASC),
+  INDEX `answer_experiment_quality_idx` (`experiment` ASC, `quality_assured` ASC, `quality` ASC),
   CONSTRAINT `idExperimentAnswers`
     FOREIGN KEY (`experiment`)
     REFERENCES `crowdcontrol`.`Experiment` (`id_experiment`)
@@ -384,6 +390,7 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Rating_Reservation` (
   INDEX `reserved_Answer_idx` (`answer` ASC),
   INDEX `worker_will_rate_idx` (`worker` ASC),
   INDEX `experiment_will_rated_on_idx` (`experiment` ASC),
+  INDEX `rating_reservation_used_timestamp_idx` (`used` ASC, `timestamp` ASC),
   CONSTRAINT `reserved_Answer`
     FOREIGN KEY (`answer`)
     REFERENCES `crowdcontrol`.`Answer` (`id_answer`)
@@ -420,6 +427,8 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Rating` (
   INDEX `workerRated_idx` (`worker_id` ASC),
   INDEX `idExperimentRating_idx` (`experiment` ASC),
   INDEX `reservation_idx` (`reservation` ASC),
+  INDEX `rating_answer_quality_idx` (`answer_r` ASC, `quality` ASC),
+  INDEX `rating_experiment_quality_idx` (`experiment` ASC, `quality` ASC, `worker_id` ASC),
   CONSTRAINT `idAnswersRatings`
     FOREIGN KEY (`answer_r`)
     REFERENCES `crowdcontrol`.`Answer` (`id_answer`)
@@ -476,6 +485,7 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Worker_Balance` (
   PRIMARY KEY (`id_worker_balance`),
   INDEX `transaction_partner_idx` (`worker` ASC),
   INDEX `used_gift_code_idx` (`gift_code` ASC),
+  INDEX `worker_balance_worker_value_idx` (`worker` ASC, `transaction_value` ASC),
   CONSTRAINT `transaction_partner`
     FOREIGN KEY (`worker`)
     REFERENCES `crowdcontrol`.`Worker` (`id_worker`)
@@ -489,6 +499,23 @@ CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Worker_Balance` (
 ENGINE = InnoDB;
 
 
+-- -----------------------------------------------------
+-- Table `crowdcontrol`.`Worker_Balance_Total`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Worker_Balance_Total` (
+  `worker` INT NOT NULL,
+  `balance` INT NOT NULL DEFAULT 0,
+  `latest_transaction` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`worker`),
+  INDEX `worker_balance_total_balance_idx` (`balance` ASC, `latest_transaction` ASC),
+  CONSTRAINT `balance_total_worker`
+    FOREIGN KEY (`worker`)
+    REFERENCES `crowdcontrol`.`Worker` (`id_worker`)
+    ON DELETE RESTRICT
+    ON UPDATE RESTRICT)
+ENGINE = InnoDB;
+
+
 -- -----------------------------------------------------
 -- Table `crowdcontrol`.`Rating_Option_Template`
 -- -----------------------------------------------------
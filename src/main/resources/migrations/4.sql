@@ -0,0 +1,33 @@
+-- -----------------------------------------------------
+-- Version 4: composite indexes for the hot queries
+-- every table is altered once and stays online
+-- -----------------------------------------------------
+
+-- answers of a worker to an experiment (answer quota)
+ALTER TABLE `crowdcontrol`.`Answer`
+  ADD INDEX `answer_experiment_worker_idx` (`experiment` ASC, `worker_id` ASC),
+  -- hashed and unhashed answers of an experiment (duplicate detection)
+  ADD INDEX `answer_experiment_hash_idx` (`experiment` ASC, `hash` ASC, `timestamp` ASC),
+  -- answers with assured quality of an experiment (experiment progress)
+  ADD INDEX `answer_experiment_quality_idx` (`experiment` ASC, `quality_assured` ASC, `quality` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- good ratings of an answer and of an experiment
+ALTER TABLE `crowdcontrol`.`Rating`
+  ADD INDEX `rating_answer_quality_idx` (`answer_r` ASC, `quality` ASC),
+  ADD INDEX `rating_experiment_quality_idx` (`experiment` ASC, `quality` ASC, `worker_id` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- outdated unused reservations (database maintainer)
+ALTER TABLE `crowdcontrol`.`Answer_Reservation`
+  ADD INDEX `answer_reservation_used_timestamp_idx` (`used` ASC, `timestamp` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE `crowdcontrol`.`Rating_Reservation`
+  ADD INDEX `rating_reservation_used_timestamp_idx` (`used` ASC, `timestamp` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- balance of a worker, covered by the index
+ALTER TABLE `crowdcontrol`.`Worker_Balance`
+  ADD INDEX `worker_balance_worker_value_idx` (`worker` ASC, `transaction_value` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
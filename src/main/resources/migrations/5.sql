@@ -0,0 +1,24 @@
+-- -----------------------------------------------------
+-- Version 5: materialized balance of the workers
+-- -----------------------------------------------------
+
+CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Worker_Balance_Total` (
+  `worker` INT NOT NULL,
+  `balance` INT NOT NULL DEFAULT 0,
+  `latest_transaction` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`worker`),
+  INDEX `worker_balance_total_balance_idx` (`balance` ASC, `latest_transaction` ASC),
+  CONSTRAINT `balance_total_worker`
+    FOREIGN KEY (`worker`)
+    REFERENCES `crowdcontrol`.`Worker` (`id_worker`)
+    ON DELETE RESTRICT
+    ON UPDATE RESTRICT)
+ENGINE = InnoDB;
+
+-- the balances of the existing ledger, transactions of object-services still running the old version
+-- are corrected by the balance reconciler
+INSERT INTO `crowdcontrol`.`Worker_Balance_Total` (`worker`, `balance`, `latest_transaction`)
+  SELECT `worker`, SUM(`transaction_value`), MAX(`timestamp`)
+  FROM `crowdcontrol`.`Worker_Balance`
+  GROUP BY `worker`
+ON DUPLICATE KEY UPDATE `balance` = VALUES(`balance`), `latest_transaction` = VALUES(`latest_transaction`);
@@ -0,0 +1,13 @@
+-- -----------------------------------------------------
+-- Version 6: hashed identification of the workers
+-- -----------------------------------------------------
+
+-- virtual columns can not be added together with other changes without copying the table
+ALTER TABLE `crowdcontrol`.`Worker`
+  ADD COLUMN `identification_hash` BINARY(16) GENERATED ALWAYS AS (UNHEX(MD5(`identification`))) VIRTUAL,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+-- workers identified by the worker-ui
+ALTER TABLE `crowdcontrol`.`Worker`
+  ADD INDEX `worker_identification_idx` (`platform` ASC, `identification_hash` ASC),
+  ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,22 @@
+-- -----------------------------------------------------
+-- Table `crowdcontrol`.`Schema_Migration`
+-- the applied migration-scripts
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Schema_Migration` (
+  `version` INT NOT NULL,
+  `checksum` CHAR(64) NOT NULL,
+  `execution_time` BIGINT NOT NULL,
+  `timestamp` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`version`))
+ENGINE = InnoDB;
+
+-- -----------------------------------------------------
+-- Table `crowdcontrol`.`Schema_Migration_Lock`
+-- the single row is locked by the object-service migrating the database
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `crowdcontrol`.`Schema_Migration_Lock` (
+  `id` INT NOT NULL,
+  `locked_by` VARCHAR(191) NULL,
+  `locked_at` TIMESTAMP NULL,
+  PRIMARY KEY (`id`))
+ENGINE = InnoDB;
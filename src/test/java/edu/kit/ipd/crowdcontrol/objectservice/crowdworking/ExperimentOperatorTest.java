@@ -49,7 +49,7 @@ public class ExperimentOperatorTest {
         experimentFetcher = mock(ExperimentFetcher.class);
         experimentsPlatformOperations = mock(ExperimentsPlatformOperations.class);
         platformManager = mock(PlatformManager.class);
-        experimentOperator = new ExperimentOperator(platformManager,experimentFetcher,experimentsPlatformOperations,new EventManager(),duplicateChecker,1);
+        experimentOperator = new ExperimentOperator(platformManager,experimentFetcher,experimentsPlatformOperations,new EventManager(),duplicateChecker,1,0);
 
 
 
@@ -0,0 +1,75 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerBalanceOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the verification of the materialized balances.
+ */
+public class BalanceReconcilerTest {
+    private WorkerBalanceOperations workerBalanceOperations;
+    private InMemoryMetricsRegistry metrics;
+    private BalanceReconciler reconciler;
+    private Map<Integer, Integer> ledger;
+    private Map<Integer, Integer> materialized;
+
+    @Before
+    public void setUp() throws Exception {
+        workerBalanceOperations = mock(WorkerBalanceOperations.class);
+        metrics = new InMemoryMetricsRegistry();
+        reconciler = new BalanceReconciler(workerBalanceOperations, 1, metrics);
+        ledger = new HashMap<>();
+        materialized = new HashMap<>();
+        when(workerBalanceOperations.getLedgerBalances()).thenReturn(ledger);
+        when(workerBalanceOperations.getMaterializedBalances()).thenReturn(materialized);
+        when(workerBalanceOperations.repairBalance(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    public void testMatchingBalances() throws Exception {
+        ledger.put(1, 20);
+        materialized.put(1, 20);
+        materialized.put(2, 0);
+
+        assertEquals(0, reconciler.reconcile());
+        verify(workerBalanceOperations, never()).repairBalance(anyInt());
+        assertEquals(0, metrics.getCount("balance.mismatches"));
+        assertEquals(1, metrics.getHistogramCount("balance.reconcile"));
+    }
+
+    @Test
+    public void testRepairsMismatches() throws Exception {
+        ledger.put(1, 20);
+        materialized.put(1, 10);
+        ledger.put(2, 5);
+        materialized.put(3, 7);
+
+        assertEquals(3, reconciler.reconcile());
+        verify(workerBalanceOperations).repairBalance(1);
+        verify(workerBalanceOperations).repairBalance(2);
+        verify(workerBalanceOperations).repairBalance(3);
+        assertEquals(3, metrics.getCount("balance.mismatches"));
+    }
+
+    @Test
+    public void testRunningTransactionIsNoMismatch() throws Exception {
+        ledger.put(1, 20);
+        materialized.put(1, 10);
+        when(workerBalanceOperations.repairBalance(1)).thenReturn(false);
+
+        assertEquals(0, reconciler.reconcile());
+        assertEquals(0, metrics.getCount("balance.mismatches"));
+    }
+}
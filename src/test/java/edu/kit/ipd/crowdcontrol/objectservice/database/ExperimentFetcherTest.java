@@ -0,0 +1,117 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.enums.ExperimentsPlatformModeMode;
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.*;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.*;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Calibration;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExperimentFetcherTest {
+    private ExperimentOperations experimentOperations;
+    private ExperimentsPlatformOperations experimentsPlatformOperations;
+    private TagConstraintsOperations tagConstraintsOperations;
+    private AlgorithmOperations algorithmOperations;
+    private CalibrationOperations calibrationOperations;
+    private ExperimentFetcher experimentFetcher;
+
+    @Before
+    public void setUp() {
+        experimentOperations = mock(ExperimentOperations.class);
+        experimentsPlatformOperations = mock(ExperimentsPlatformOperations.class);
+        tagConstraintsOperations = mock(TagConstraintsOperations.class);
+        algorithmOperations = mock(AlgorithmOperations.class);
+        calibrationOperations = mock(CalibrationOperations.class);
+        experimentFetcher = new ExperimentFetcher(experimentOperations, experimentsPlatformOperations,
+                tagConstraintsOperations, algorithmOperations, calibrationOperations);
+
+        ExperimentRecord published = new ExperimentRecord();
+        published.setIdExperiment(1);
+        published.setTitle("published");
+        published.setAlgorithmTaskChooser("taskChooser");
+        ExperimentRecord draft = new ExperimentRecord();
+        draft.setIdExperiment(2);
+        draft.setTitle("draft");
+
+        AlgorithmTaskChooserRecord taskChooser = new AlgorithmTaskChooserRecord("taskChooser", "description");
+        AlgorithmTaskChooserParamRecord param = new AlgorithmTaskChooserParamRecord(3, "param", "[0-9]+", "taskChooser", null);
+
+        TagRecord tag = new TagRecord(4, "tag", 1);
+
+        ExperimentsPlatformRecord platform = new ExperimentsPlatformRecord();
+        platform.setIdexperimentsPlatforms(5);
+        platform.setExperiment(1);
+        platform.setPlatform("platform");
+        ExperimentsCalibrationRecord experimentsCalibration = new ExperimentsCalibrationRecord(6, 5, 7, false);
+        CalibrationAnswerOptionRecord answerOption = new CalibrationAnswerOptionRecord(7, 8, "yes");
+        Calibration calibration = Calibration.newBuilder().setId(8).setName("calibration").build();
+
+        when(experimentOperations.getExperiment(1)).thenReturn(Optional.of(published));
+        when(experimentOperations.getExperiment(2)).thenReturn(Optional.of(draft));
+        when(experimentOperations.getExperimentState(1)).thenReturn(Experiment.State.PUBLISHED);
+        when(experimentOperations.getExperimentState(2)).thenReturn(Experiment.State.DRAFT);
+        when(experimentOperations.getCalibrations(1))
+                .thenReturn(Collections.singletonMap(platform, Collections.singletonList(experimentsCalibration)));
+        when(experimentsPlatformOperations.getActivePlatforms(1))
+                .thenReturn(Collections.singletonMap("platform", ExperimentsPlatformModeMode.answer));
+        when(tagConstraintsOperations.getTags(1)).thenReturn(Collections.singletonList(tag));
+        when(calibrationOperations.getCalibrationAnswerOption(7)).thenReturn(Optional.of(answerOption));
+        when(calibrationOperations.getCalibration(8)).thenReturn(Optional.of(calibration));
+        when(algorithmOperations.getTaskChooser(anyString())).thenReturn(Optional.empty());
+        when(algorithmOperations.getTaskChooser("taskChooser")).thenReturn(Optional.of(taskChooser));
+        when(algorithmOperations.getTaskChooserParams("taskChooser", 1)).thenReturn(Collections.singletonMap(param, "42"));
+        when(algorithmOperations.getAnswerQualityRecord(any())).thenReturn(Optional.empty());
+        when(algorithmOperations.getRatingQualityRecord(any())).thenReturn(Optional.empty());
+
+        Map<Integer, ExperimentRecord> experiments = new HashMap<>();
+        experiments.put(1, published);
+        experiments.put(2, draft);
+        Map<Integer, Experiment.State> states = new HashMap<>();
+        states.put(1, Experiment.State.PUBLISHED);
+        states.put(2, Experiment.State.DRAFT);
+        when(experimentOperations.getExperiments(anyCollectionOf(Integer.class))).thenReturn(experiments);
+        when(experimentOperations.getExperimentStates(anyCollectionOf(Integer.class))).thenReturn(states);
+        when(experimentOperations.getCalibrations(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(platform, Collections.singletonList(experimentsCalibration)));
+        when(experimentsPlatformOperations.getActivePlatforms(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(1, Collections.singletonMap("platform", ExperimentsPlatformModeMode.answer)));
+        when(tagConstraintsOperations.getTags(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(1, Collections.singletonList(tag)));
+        when(calibrationOperations.getCalibrationAnswerOptions(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(7, answerOption));
+        when(calibrationOperations.getCalibrations(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(8, calibration));
+        when(algorithmOperations.getTaskChoosers(anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonMap("taskChooser", taskChooser));
+        when(algorithmOperations.getTaskChooserParams(anyCollectionOf(Integer.class)))
+                .thenReturn(Collections.singletonMap(1, Collections.singletonMap(param, "42")));
+    }
+
+    @Test
+    public void testFetchExperimentsEqualsFetchExperiment() throws Exception {
+        Experiment published = experimentFetcher.fetchExperiment(1);
+        Experiment draft = experimentFetcher.fetchExperiment(2);
+        assertEquals("42", published.getAlgorithmTaskChooser().getParameters(0).getValue());
+        assertEquals("yes", published.getPopulations(0).getCalibrations(0).getAcceptedAnswers(0).getAnswer());
+        assertEquals(Experiment.Population.Task.ANSWER, published.getPopulations(0).getTask());
+
+        //missing experiments are left out, the order of the ids is kept
+        assertEquals(Arrays.asList(draft, published), experimentFetcher.fetchExperiments(Arrays.asList(2, 3, 1)));
+    }
+
+    @Test
+    public void testFetchNoExperiments() throws Exception {
+        assertTrue(experimentFetcher.fetchExperiments(Collections.emptyList()).isEmpty());
+    }
+}
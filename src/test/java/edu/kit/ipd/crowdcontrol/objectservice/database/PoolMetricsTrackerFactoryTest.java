@@ -0,0 +1,61 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import edu.kit.ipd.crowdcontrol.objectservice.config.DatabasePool;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the metrics and the configuration of the connection-pool.
+ */
+public class PoolMetricsTrackerFactoryTest {
+    @Test
+    public void testReportsPoolState() throws Exception {
+        InMemoryMetricsRegistry metrics = new InMemoryMetricsRegistry();
+        PoolStats stats = new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = 3;
+                idleConnections = 2;
+                totalConnections = 5;
+                pendingThreads = 1;
+            }
+        };
+        IMetricsTracker tracker = new PoolMetricsTrackerFactory(metrics, "db.pool").create("pool", stats);
+        tracker.recordConnectionAcquiredNanos(1000);
+        tracker.recordConnectionUsageMillis(2);
+        tracker.recordConnectionTimeout();
+
+        Map<String, String> snapshot = metrics.snapshot();
+        assertEquals("3", snapshot.get("db.pool.active"));
+        assertEquals("2", snapshot.get("db.pool.idle"));
+        assertEquals("5", snapshot.get("db.pool.total"));
+        assertEquals("1", snapshot.get("db.pool.pending"));
+        assertEquals(1, metrics.getHistogramCount("db.pool.acquire"));
+        assertEquals(1, metrics.getHistogramCount("db.pool.usage"));
+        assertEquals(1, metrics.getCount("db.pool.timeouts"));
+    }
+
+    @Test
+    public void testConfigurePool() throws Exception {
+        DatabasePool pool = new DatabasePool();
+        pool.maximumPoolSize = 20;
+        pool.minimumIdle = 5;
+        pool.leakDetectionThreshold = 10000;
+        pool.prepStmtCacheSize = 500;
+        HikariDataSource hds = new HikariDataSource();
+        DatabaseManager.configurePool(hds, pool);
+
+        assertEquals(20, hds.getMaximumPoolSize());
+        assertEquals(5, hds.getMinimumIdle());
+        assertEquals(10000, hds.getLeakDetectionThreshold());
+        assertEquals(500, hds.getDataSourceProperties().get("prepStmtCacheSize"));
+        assertEquals(true, hds.getDataSourceProperties().get("rewriteBatchedStatements"));
+    }
+}
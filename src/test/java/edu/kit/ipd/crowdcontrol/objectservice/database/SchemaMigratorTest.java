@@ -0,0 +1,139 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.DATABASE_VERSION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the statements sent to the database while migrating.
+ */
+public class SchemaMigratorTest {
+    private final DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+    private final Field<Integer> migrationVersion = DSL.field(DSL.name("version"), Integer.class);
+    private final Field<String> migrationChecksum = DSL.field(DSL.name("checksum"), String.class);
+    private List<String> statements;
+    private int version;
+    private int lockRows;
+    private String appliedChecksum;
+    private SchemaMigrator migrator;
+
+    @Before
+    public void setUp() throws Exception {
+        statements = new ArrayList<>();
+        version = 3;
+        lockRows = 1;
+        appliedChecksum = null;
+        DSLContext create = DSL.using(new MockConnection(ctx -> {
+            String sql = ctx.sql().toLowerCase();
+            statements.add(sql);
+            if (sql.startsWith("select") && sql.contains("database_version")) {
+                return new MockResult[]{new MockResult(1, result(new Field<?>[]{DATABASE_VERSION.VERSION}, version))};
+            } else if (sql.startsWith("select") && sql.contains("schema_migration")) {
+                Field<?>[] fields = {migrationVersion, migrationChecksum};
+                Result<Record> applied = appliedChecksum == null
+                        ? mysql.newResult(fields)
+                        : result(fields, 4, appliedChecksum);
+                return new MockResult[]{new MockResult(applied.size(), applied)};
+            } else if (sql.startsWith("update") && sql.contains("schema_migration_lock")
+                    && sql.contains("locked_by` is null")) {
+                return new MockResult[]{new MockResult(lockRows, null)};
+            }
+            return new MockResult[]{new MockResult(1, null)};
+        }), SQLDialect.MYSQL);
+        migrator = new SchemaMigrator(create, 4, "/migrations/", 0, 1000);
+    }
+
+    private Result<Record> result(Field<?>[] fields, Object... values) {
+        Result<Record> result = mysql.newResult(fields);
+        Record record = mysql.newRecord(fields);
+        record.fromArray(values);
+        result.add(record);
+        return result;
+    }
+
+    private long count(String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    @Test
+    public void testCurrentVersionIsVerifiedWithOneQuery() throws Exception {
+        version = 4;
+        Optional<Integer> current = migrator.getVersion();
+        migrator.migrate(current.get());
+
+        assertEquals(1, statements.size());
+    }
+
+    @Test
+    public void testMigrate() throws Exception {
+        migrator.migrate(migrator.getVersion().get());
+
+        assertEquals(5, count("alter table"));
+        // lock before the first alter, unlock after the last one
+        int firstAlter = statements.indexOf(statements.stream().filter(sql -> sql.startsWith("alter")).findFirst().get());
+        assertTrue(statements.subList(0, firstAlter).stream().anyMatch(sql -> sql.contains("locked_by` is null")));
+        String last = statements.get(statements.size() - 1);
+        assertTrue(last.startsWith("update") && last.contains("schema_migration_lock"));
+        assertEquals(1, statements.stream()
+                .filter(sql -> sql.startsWith("insert") && sql.contains("`schema_migration`")).count());
+    }
+
+    @Test
+    public void testChangedScript() throws Exception {
+        appliedChecksum = "changed";
+        try {
+            migrator.migrate(3);
+            fail("the changed script was not detected");
+        } catch (IllegalStateException e) {
+            assertEquals(0, count("alter table"));
+            String last = statements.get(statements.size() - 1);
+            assertTrue(last.startsWith("update") && last.contains("schema_migration_lock"));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLocked() throws Exception {
+        lockRows = 0;
+        migrator.migrate(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNewerDatabase() throws Exception {
+        migrator.migrate(5);
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        migrator.baseline();
+
+        assertEquals(0, count("alter table"));
+        assertEquals(1, statements.stream()
+                .filter(sql -> sql.startsWith("insert") && sql.contains("`schema_migration`")).count());
+        assertEquals(1, statements.stream()
+                .filter(sql -> sql.startsWith("insert") && sql.contains("database_version")).count());
+    }
+
+    @Test
+    public void testSplitStatements() throws Exception {
+        List<String> split = SchemaMigrator.splitStatements("-- comment\nCREATE TABLE a (\n  -- inner\n  b INT);\n\n;UPDATE a SET b = 1;");
+        assertEquals(2, split.size());
+        assertEquals("CREATE TABLE a (\n  b INT)", split.get(0));
+        assertEquals("UPDATE a SET b = 1", split.get(1));
+    }
+}
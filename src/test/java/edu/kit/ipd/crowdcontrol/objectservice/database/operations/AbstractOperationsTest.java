@@ -0,0 +1,89 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.EXPERIMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks which of the two databases the queries are sent to, when a read-replica is used.
+ */
+public class AbstractOperationsTest {
+    private final DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+    private List<String> primaryStatements;
+    private List<String> replicaStatements;
+    private ExperimentOperations experimentOperations;
+    private AbstractOperations operations;
+
+    @Before
+    public void setUp() throws Exception {
+        primaryStatements = new ArrayList<>();
+        replicaStatements = new ArrayList<>();
+        DSLContext primary = context(primaryStatements);
+        DSLContext replica = context(replicaStatements);
+        experimentOperations = new ExperimentOperations(primary, replica, mock(ExperimentsPlatformOperations.class));
+        operations = new AbstractOperations(primary, replica) { };
+    }
+
+    private DSLContext context(List<String> statements) {
+        MockDataProvider provider = ctx -> {
+            String sql = ctx.sql().toLowerCase();
+            statements.add(sql);
+            if (sql.contains("exists")) {
+                Field<?>[] one = {DSL.field("one", Integer.class)};
+                Result<Record> result = mysql.newResult(one);
+                Record record = mysql.newRecord(one);
+                record.fromArray(1);
+                result.add(record);
+                return new MockResult[]{new MockResult(1, result)};
+            }
+            return new MockResult[]{new MockResult(0, mysql.newResult(EXPERIMENT))};
+        };
+        return DSL.using(new MockConnection(provider) {
+            @Override
+            public Savepoint setSavepoint() throws SQLException {
+                // jOOQ keeps the savepoints of the transactions
+                return mock(Savepoint.class);
+            }
+        }, SQLDialect.MYSQL);
+    }
+
+    @Test
+    public void testListingsAreReadFromReplica() throws Exception {
+        experimentOperations.getExperiments(Collections.singletonList(1));
+        experimentOperations.getExperimentsFrom(0, true, 10);
+
+        assertTrue(primaryStatements.isEmpty());
+        assertEquals(3, replicaStatements.size());
+    }
+
+    @Test
+    public void testReadsInsideTransactionsGoToPrimary() throws Exception {
+        operations.doIfRunning(1, trans -> experimentOperations.getExperiments(Collections.singletonList(1)));
+
+        assertTrue(replicaStatements.isEmpty());
+        // check running, read
+        assertEquals(2, primaryStatements.size());
+
+        experimentOperations.getExperiments(Collections.singletonList(1));
+        assertEquals(1, replicaStatements.size());
+    }
+}
@@ -0,0 +1,130 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.CalibrationAnswerOptionRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.CalibrationAnswer;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.ANSWER;
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.ANSWER_RESERVATION;
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.WORKER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the statements sent to the database while inserting answers.
+ */
+public class AnswerRatingOperationsTest {
+    private final DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+    private List<String> statements;
+    private Boolean reservationUsed;
+    private int answers;
+    private AnswerRatingOperations answerRatingOperations;
+
+    @Before
+    public void setUp() throws Exception {
+        statements = new ArrayList<>();
+        reservationUsed = false;
+        answers = 0;
+        MockDataProvider provider = ctx -> {
+            String sql = ctx.sql().toLowerCase();
+            statements.add(sql);
+            if (sql.startsWith("select") && sql.contains("for update")) {
+                return new MockResult[]{new MockResult(1, result(
+                        new Field<?>[]{WORKER.ID_WORKER, ANSWER_RESERVATION.USED}, 1, reservationUsed))};
+            } else if (sql.startsWith("select")) {
+                return new MockResult[]{new MockResult(1, result(new Field<?>[]{
+                        DSL.field("answersPerWorker", Integer.class),
+                        DSL.field("answers", Integer.class),
+                        DSL.field("runningPlatforms", Integer.class)}, 2, answers, 1))};
+            } else if (sql.startsWith("insert")) {
+                return new MockResult[]{new MockResult(1, result(new Field<?>[]{ANSWER.ID_ANSWER}, 42))};
+            }
+            return new MockResult[]{new MockResult(1, null)};
+        };
+        DSLContext create = DSL.using(new MockConnection(provider) {
+            @Override
+            public Savepoint setSavepoint() throws SQLException {
+                // jOOQ keeps the savepoints of the transactions
+                return mock(Savepoint.class);
+            }
+        }, SQLDialect.MYSQL);
+
+        CalibrationOperations calibrationOperations = mock(CalibrationOperations.class);
+        WorkerCalibrationOperations workerCalibrationOperations = mock(WorkerCalibrationOperations.class);
+        when(calibrationOperations.getCalibrationForExperiment(anyInt()))
+                .thenReturn(Optional.of(new CalibrationAnswerOptionRecord(3, 2, "answer")));
+        when(workerCalibrationOperations.insertAnswer(anyInt(), anyInt())).thenReturn(CalibrationAnswer.getDefaultInstance());
+        answerRatingOperations = new AnswerRatingOperations(create, calibrationOperations,
+                workerCalibrationOperations, mock(ExperimentOperations.class));
+    }
+
+    private Result<Record> result(Field<?>[] fields, Object... values) {
+        Result<Record> result = mysql.newResult(fields);
+        Record record = mysql.newRecord(fields);
+        record.fromArray(values);
+        result.add(record);
+        return result;
+    }
+
+    private AnswerRecord answer() {
+        AnswerRecord answer = new AnswerRecord();
+        answer.setExperiment(1);
+        answer.setWorkerId(1);
+        answer.setReservation(5);
+        answer.setAnswer("answer");
+        answer.setTimestamp(new Timestamp(0));
+        return answer;
+    }
+
+    @Test
+    public void testInsertNewAnswerRoundTrips() throws Exception {
+        AnswerRecord inserted = answerRatingOperations.insertNewAnswer(answer());
+
+        assertEquals(42, (int) inserted.getIdAnswer());
+        assertFalse(inserted.getDuplicate());
+        assertFalse(inserted.getQualityAssured());
+        // lock worker and reservation, check experiment and quota, use reservation, insert
+        assertEquals(4, statements.size());
+        assertTrue(statements.get(0).contains("for update"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertNewAnswerWithUsedReservation() throws Exception {
+        reservationUsed = true;
+        answerRatingOperations.insertNewAnswer(answer());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNewAnswerWithMissingReservation() throws Exception {
+        reservationUsed = null;
+        answerRatingOperations.insertNewAnswer(answer());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertNewAnswerAboveQuota() throws Exception {
+        answers = 2;
+        answerRatingOperations.insertNewAnswer(answer());
+    }
+}
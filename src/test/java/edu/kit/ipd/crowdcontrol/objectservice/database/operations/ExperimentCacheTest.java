@@ -0,0 +1,161 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.ExperimentRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.event.ChangeEvent;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
+import org.jooq.DSLContext;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.EXPERIMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the caching and the invalidation of the experiments.
+ */
+public class ExperimentCacheTest {
+    private final DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+    private InMemoryMetricsRegistry metrics;
+    private ExperimentCache cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new InMemoryMetricsRegistry();
+        cache = new ExperimentCache(2, 60000, metrics);
+        loads = new AtomicInteger();
+    }
+
+    private Experiment.State loadState() {
+        loads.incrementAndGet();
+        return Experiment.State.PUBLISHED;
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        assertEquals(Experiment.State.PUBLISHED, cache.getState(1, this::loadState));
+        assertEquals(Experiment.State.PUBLISHED, cache.getState(1, this::loadState));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, metrics.getCount("experimentCache.misses"));
+        assertEquals(1, metrics.getCount("experimentCache.hits"));
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        cache.getState(1, this::loadState);
+        cache.getState(2, this::loadState);
+        cache.getState(3, this::loadState);
+        cache.getState(1, this::loadState);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testExpires() throws Exception {
+        cache = new ExperimentCache(2, 0, metrics);
+        cache.getState(1, this::loadState);
+        Thread.sleep(1);
+        // an other object-service may have changed the experiment meanwhile
+        cache.getState(1, this::loadState);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, metrics.getCount("experimentCache.hits"));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        Experiment experiment = Experiment.newBuilder().setId(1).build();
+        cache.getState(1, this::loadState);
+        cache.getExperiment(1, () -> experiment);
+
+        cache.invalidate(1);
+        cache.getState(1, this::loadState);
+        assertEquals(2, loads.get());
+        assertSame(experiment, cache.getExperiment(1, () -> experiment));
+        assertEquals(4, metrics.getCount("experimentCache.misses"));
+    }
+
+    @Test
+    public void testInvalidatedWhileLoading() throws Exception {
+        cache.getState(1, () -> {
+            // an other thread changes the experiment, while the old state is loaded
+            cache.invalidate(1);
+            return loadState();
+        });
+        cache.getState(1, this::loadState);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        EventManager eventManager = new EventManager();
+        cache.subscribe(eventManager);
+        Experiment experiment = Experiment.newBuilder().setId(1).build();
+
+        cache.getState(1, this::loadState);
+        eventManager.EXPERIMENT_CHANGE.emit(new ChangeEvent<>(experiment, experiment));
+        cache.getState(1, this::loadState);
+        eventManager.EXPERIMENT_DELETE.emit(experiment);
+        cache.getState(1, this::loadState);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        ExperimentCache disabled = ExperimentCache.disabled();
+        disabled.getState(1, this::loadState);
+        disabled.getState(1, this::loadState);
+
+        assertFalse(disabled.isEnabled());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        List<String> statements = new ArrayList<>();
+        MockDataProvider provider = ctx -> {
+            String sql = ctx.sql().toLowerCase();
+            statements.add(sql);
+            if (sql.startsWith("select")) {
+                Result<ExperimentRecord> result = mysql.newResult(EXPERIMENT);
+                ExperimentRecord record = mysql.newRecord(EXPERIMENT);
+                record.setIdExperiment(1);
+                record.setTitle("title");
+                result.add(record);
+                return new MockResult[]{new MockResult(1, result)};
+            }
+            return new MockResult[]{new MockResult(1, null)};
+        };
+        DSLContext create = DSL.using(new MockConnection(provider), SQLDialect.MYSQL);
+        ExperimentOperations experimentOperations = new ExperimentOperations(create, create,
+                new ExperimentsPlatformOperations(create, create, cache), cache);
+
+        ExperimentRecord first = experimentOperations.getExperiment(1).get();
+        first.setTitle("changed by the caller");
+        assertEquals("title", experimentOperations.getExperiment(1).get().getTitle());
+        assertEquals(1, statements.size());
+
+        experimentOperations.deleteRatingOptions(1);
+        experimentOperations.getExperiment(1);
+        assertEquals(3, statements.size());
+        assertTrue(statements.get(2).startsWith("select"));
+    }
+}
@@ -0,0 +1,122 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that the materialized balance is maintained together with the ledger and read by primary key.
+ */
+public class WorkerBalanceOperationsTest {
+    private final DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+    private List<String> statements;
+    private Integer materialized;
+    private BigDecimal ledger;
+    private WorkerBalanceOperations workerBalanceOperations;
+
+    @Before
+    public void setUp() throws Exception {
+        statements = new ArrayList<>();
+        materialized = null;
+        ledger = null;
+        MockDataProvider provider = ctx -> {
+            String sql = ctx.sql().toLowerCase();
+            statements.add(sql);
+            if (sql.startsWith("select") && sql.contains("sum(")) {
+                return new MockResult[]{new MockResult(1, result(
+                        new Field<?>[]{DSL.field("sum", BigDecimal.class)}, ledger))};
+            } else if (sql.startsWith("select")) {
+                Field<?>[] fields = {WorkerBalanceOperations.BALANCE_TOTAL_BALANCE};
+                if (materialized == null) {
+                    return new MockResult[]{new MockResult(0, mysql.newResult(fields))};
+                }
+                return new MockResult[]{new MockResult(1, result(fields, materialized))};
+            }
+            return new MockResult[]{new MockResult(1, null)};
+        };
+        DSLContext create = DSL.using(new MockConnection(provider) {
+            @Override
+            public Savepoint setSavepoint() throws SQLException {
+                // jOOQ keeps the savepoints of the transactions
+                return mock(Savepoint.class);
+            }
+        }, SQLDialect.MYSQL);
+        workerBalanceOperations = new WorkerBalanceOperations(create);
+    }
+
+    @Test
+    public void testAddCreditUpdatesBalance() throws Exception {
+        assertTrue(workerBalanceOperations.addCredit(1, 20, 3));
+
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).startsWith("insert into `crowdcontrol`.`worker_balance`"));
+        assertTrue(statements.get(1).startsWith("insert into `crowdcontrol`.`worker_balance_total`"));
+        assertTrue(statements.get(1).contains("on duplicate key update"));
+    }
+
+    @Test
+    public void testAddDebitUpdatesBalance() throws Exception {
+        assertTrue(workerBalanceOperations.addDebit(1, 20, 3));
+
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(1).startsWith("insert into `crowdcontrol`.`worker_balance_total`"));
+    }
+
+    @Test
+    public void testGetBalanceIsPointLookup() throws Exception {
+        materialized = 42;
+        assertEquals(42, workerBalanceOperations.getBalance(1));
+        assertEquals(1, statements.size());
+        assertFalse(statements.get(0).contains("sum("));
+        assertTrue(statements.get(0).contains("from `crowdcontrol`.`worker_balance_total`"));
+    }
+
+    @Test
+    public void testGetBalanceWithoutTransactions() throws Exception {
+        assertEquals(0, workerBalanceOperations.getBalance(1));
+    }
+
+    @Test
+    public void testRepairBalance() throws Exception {
+        materialized = 10;
+        ledger = new BigDecimal(30);
+        assertTrue(workerBalanceOperations.repairBalance(1));
+        assertTrue(statements.get(0).contains("for update"));
+        assertTrue(statements.get(statements.size() - 1).contains("on duplicate key update"));
+    }
+
+    @Test
+    public void testRepairCorrectBalance() throws Exception {
+        materialized = 30;
+        ledger = new BigDecimal(30);
+        assertFalse(workerBalanceOperations.repairBalance(1));
+        assertEquals(2, statements.size());
+    }
+
+    private Result<Record> result(Field<?>[] fields, Object... values) {
+        Result<Record> result = mysql.newResult(fields);
+        Record record = mysql.newRecord(fields);
+        record.fromArray(values);
+        result.add(record);
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package edu.kit.ipd.crowdcontrol.objectservice.database.operations;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.WorkerRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Worker;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables.WORKER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the caching and the invalidation of the identified workers.
+ */
+public class WorkerIdentityCacheTest {
+    private InMemoryMetricsRegistry metrics;
+    private WorkerIdentityCache cache;
+    private AtomicInteger loads;
+    private WorkerRecord worker;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new InMemoryMetricsRegistry();
+        cache = new WorkerIdentityCache(10, 60000, 60000, metrics);
+        loads = new AtomicInteger();
+        worker = new WorkerRecord(1, null, "platform", "worker@example.com", 9, "\"id\"");
+    }
+
+    private Optional<WorkerRecord> load() {
+        loads.incrementAndGet();
+        return Optional.ofNullable(worker);
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        cache.get("platform", "\"id\"", this::load);
+        WorkerRecord cached = cache.get("platform", "\"id\"", this::load).get();
+
+        assertEquals(1, loads.get());
+        assertEquals("worker@example.com", cached.getEmail());
+        assertEquals(1, metrics.getCount("workerCache.hits"));
+        assertEquals(1, metrics.getCount("workerCache.misses"));
+    }
+
+    @Test
+    public void testCopies() throws Exception {
+        cache.get("platform", "\"id\"", this::load).get().setEmail("changed@example.com");
+        assertEquals("worker@example.com", cache.get("platform", "\"id\"", this::load).get().getEmail());
+    }
+
+    @Test
+    public void testNegative() throws Exception {
+        worker = null;
+        assertFalse(cache.get("platform", "\"id\"", this::load).isPresent());
+        assertFalse(cache.get("platform", "\"id\"", this::load).isPresent());
+        assertEquals(1, loads.get());
+
+        cache.invalidatePlatform("platform");
+        cache.get("platform", "\"id\"", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testNegativeExpires() throws Exception {
+        cache = new WorkerIdentityCache(10, 60000, 0, metrics);
+        worker = null;
+        cache.get("platform", "\"id\"", this::load);
+        Thread.sleep(1);
+        cache.get("platform", "\"id\"", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testExpires() throws Exception {
+        cache = new WorkerIdentityCache(10, 0, 60000, metrics);
+        cache.get("platform", "\"id\"", this::load);
+        Thread.sleep(1);
+        // an other object-service may have deleted the worker meanwhile
+        worker = null;
+        assertFalse(cache.get("platform", "\"id\"", this::load).isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        EventManager eventManager = new EventManager();
+        cache.subscribe(eventManager);
+
+        cache.get("platform", "\"id\"", this::load);
+        eventManager.WORKER_CHANGE.emit(Worker.newBuilder().setId(2).build());
+        cache.get("platform", "\"id\"", this::load);
+        assertEquals(1, loads.get());
+
+        eventManager.WORKER_DELETE.emit(Worker.newBuilder().setId(1).build());
+        cache.get("platform", "\"id\"", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidatedWhileLoading() throws Exception {
+        cache.get("platform", "\"id\"", () -> {
+            // an other thread changes the worker, while the old one is loaded
+            cache.invalidateWorker(1);
+            return load();
+        });
+        cache.get("platform", "\"id\"", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        DSLContext mysql = DSL.using(SQLDialect.MYSQL);
+        List<String> statements = new ArrayList<>();
+        MockDataProvider provider = ctx -> {
+            statements.add(ctx.sql().toLowerCase());
+            return new MockResult[]{new MockResult(0, mysql.newResult(WORKER))};
+        };
+        DSLContext create = DSL.using(new MockConnection(provider), SQLDialect.MYSQL);
+        WorkerOperations workerOperations = new WorkerOperations(create, create, cache);
+
+        assertFalse(workerOperations.getWorker("platform", "\"id\"").isPresent());
+        assertFalse(workerOperations.getWorker("platform", "\"id\"").isPresent());
+
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).contains("`identification_hash` = unhex(md5("));
+    }
+}
@@ -6,8 +6,15 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.Expe
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.transformers.AnswerRatingTransformer;
-import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.HashSimilarity;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.Shingle;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.StringSimilarity;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.TextHash;
+import edu.kit.ipd.crowdcontrol.objectservice.event.ChangeEvent;
 import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
@@ -17,10 +24,17 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.net.URL;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -60,14 +74,6 @@ public class DuplicateCheckerTest {
         //--------------------answerRatingOperation-setup------------------------------------
         answerRatingOperations = mock(AnswerRatingOperations.class);
 
-        doAnswer(new Answer() {
-            @Override
-            public Object answer(InvocationOnMock invocation) throws Throwable {
-                return getDuplicate((long) invocation.getArguments()[0], (double) invocation.getArguments()[2]);
-            }
-        }).when(answerRatingOperations).getDuplicates(anyLong(), anyInt(), anyDouble());
-
-
         doAnswer(new Answer() {
             @Override
             public Object answer(InvocationOnMock invocation) throws Throwable {
@@ -151,6 +157,176 @@ public class DuplicateCheckerTest {
         assertTrue(duplicateChecker.terminate());
     }
 
+    @Test
+    public void testExperimentsAreCheckedInParallel() throws Exception {
+        duplicateChecker.terminate();
+        duplicateChecker = new DuplicateChecker(answerRatingOperations, experimentOperations, eventManager, 2, 10, TextHash.MD5, imageFetcher(), new InMemoryMetricsRegistry());
+
+        ExperimentRecord otherExperiment = DSL.using(SQLDialect.MYSQL).newRecord(Tables.EXPERIMENT);
+        otherExperiment.setIdExperiment(2);
+        when(experimentOperations.getExperiment(2)).thenReturn(Optional.of(otherExperiment));
+
+        AnswerRecord blockedAnswer = new AnswerRecord(0, experimentRecord.getIdExperiment(), "An answer which takes a long time", new Timestamp(0), 0, 0, 6, false, "", null, false);
+        AnswerRecord otherAnswer = new AnswerRecord(1, otherExperiment.getIdExperiment(), "An answer of another experiment", new Timestamp(0), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(blockedAnswer.getIdAnswer(), blockedAnswer);
+        answerRecordMap.put(otherAnswer.getIdAnswer(), otherAnswer);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(answerRatingOperations.getAnswer(blockedAnswer.getIdAnswer())).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(blockedAnswer);
+        });
+
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(blockedAnswer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(otherAnswer, new ArrayList<>()));
+
+        Thread.sleep(500);
+        assertNotNull(otherAnswer.getHash());
+        release.countDown();
+    }
+
+    @Test
+    public void testOverflowIsLoadedFromDatabase() throws Exception {
+        InMemoryMetricsRegistry metrics = new InMemoryMetricsRegistry();
+        duplicateChecker.terminate();
+        duplicateChecker = new DuplicateChecker(answerRatingOperations, experimentOperations, eventManager, 1, 1, TextHash.MD5, imageFetcher(), metrics);
+
+        AnswerRecord blockedAnswer = new AnswerRecord(0, experimentRecord.getIdExperiment(), "An answer which takes a long time", new Timestamp(0), 0, 0, 6, false, "", null, false);
+        AnswerRecord queuedAnswer = new AnswerRecord(1, experimentRecord.getIdExperiment(), "An answer waiting in the queue", new Timestamp(1), 0, 0, 6, false, "", null, false);
+        AnswerRecord overflowedAnswer = new AnswerRecord(2, experimentRecord.getIdExperiment(), "An answer not fitting into the queue", new Timestamp(2), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(blockedAnswer.getIdAnswer(), blockedAnswer);
+        answerRecordMap.put(queuedAnswer.getIdAnswer(), queuedAnswer);
+        answerRecordMap.put(overflowedAnswer.getIdAnswer(), overflowedAnswer);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(answerRatingOperations.getAnswer(blockedAnswer.getIdAnswer())).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(blockedAnswer);
+        });
+
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(blockedAnswer, new ArrayList<>()));
+        Thread.sleep(200);
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(queuedAnswer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(overflowedAnswer, new ArrayList<>()));
+        assertEquals(1, metrics.getCount("duplicateChecker.overflows"));
+
+        when(answerRatingOperations.getAnswersWithoutHash(experimentRecord.getIdExperiment())).then(invocation ->
+                answerRecordMap.values().stream()
+                        .filter(answerRecord -> answerRecord.getHash() == null)
+                        .collect(Collectors.toList()));
+        release.countDown();
+
+        Thread.sleep(500);
+        assertNotNull(queuedAnswer.getHash());
+        assertNotNull(overflowedAnswer.getHash());
+    }
+
+    @Test
+    public void testAnswerIsCheckedOnce() throws Exception {
+        duplicateChecker.terminate();
+        duplicateChecker = new DuplicateChecker(answerRatingOperations, experimentOperations, eventManager, 1, 10, TextHash.MD5, imageFetcher(), new InMemoryMetricsRegistry());
+
+        AnswerRecord blockedAnswer = new AnswerRecord(0, experimentRecord.getIdExperiment(), "An answer which takes a long time", new Timestamp(0), 0, 0, 6, false, "", null, false);
+        AnswerRecord answer = new AnswerRecord(1, experimentRecord.getIdExperiment(), "An answer which is announced twice", new Timestamp(1), 0, 0, 6, false, "", null, false);
+        AnswerRecord failedAnswer = new AnswerRecord(2, experimentRecord.getIdExperiment(), "An answer which could not be hashed", new Timestamp(2), 0, 0, 6, true, DuplicateChecker.URL_MALFORMED_RESPONSE, null, false);
+        answerRecordMap.put(blockedAnswer.getIdAnswer(), blockedAnswer);
+        answerRecordMap.put(answer.getIdAnswer(), answer);
+        answerRecordMap.put(failedAnswer.getIdAnswer(), failedAnswer);
+        when(answerRatingOperations.getAnswersWithoutHash(experimentRecord.getIdExperiment())).then(invocation ->
+                answerRecordMap.values().stream()
+                        .filter(answerRecord -> answerRecord.getHash() == null)
+                        .collect(Collectors.toList()));
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(answerRatingOperations.getAnswer(blockedAnswer.getIdAnswer())).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(blockedAnswer);
+        });
+
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(blockedAnswer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(answer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(answer, new ArrayList<>()));
+        duplicateChecker.rescheduleAnswersForDuplicateDetection(experimentRecord.getIdExperiment());
+        release.countDown();
+
+        Thread.sleep(500);
+        verify(answerRatingOperations, times(1)).getAnswer(answer.getIdAnswer());
+        verify(answerRatingOperations, times(1)).getAnswer(blockedAnswer.getIdAnswer());
+        verify(answerRatingOperations, never()).getAnswer(failedAnswer.getIdAnswer());
+        assertNotNull(answer.getHash());
+    }
+
+    @Test
+    public void testHashesAreLoadedOncePerExperiment() throws Exception {
+        String text = "An answer which was given before the restart";
+        AnswerRecord oldAnswer = new AnswerRecord(10, experimentRecord.getIdExperiment(), text, new Timestamp(0), 0, 0, 6, false, "",
+                StringSimilarity.computeSimhashFromShingles(Shingle.getShingle(text, 3)), false);
+        AnswerRecord newAnswer = new AnswerRecord(11, experimentRecord.getIdExperiment(), text, new Timestamp(1), 0, 0, 6, false, "", null, false);
+        AnswerRecord otherAnswer = new AnswerRecord(12, experimentRecord.getIdExperiment(), "Something completely different", new Timestamp(2), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(oldAnswer.getIdAnswer(), oldAnswer);
+        answerRecordMap.put(newAnswer.getIdAnswer(), newAnswer);
+        answerRecordMap.put(otherAnswer.getIdAnswer(), otherAnswer);
+        when(answerRatingOperations.getHashedAnswers(experimentRecord.getIdExperiment())).thenReturn(Collections.singletonList(oldAnswer));
+
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(newAnswer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(otherAnswer, new ArrayList<>()));
+        Thread.sleep(500);
+
+        assertTrue(newAnswer.getDuplicate());
+        assertEquals(DuplicateChecker.DUPLICATE_RESPONSE, newAnswer.getSystemResponse());
+        assertFalse(oldAnswer.getDuplicate());
+        assertFalse(otherAnswer.getDuplicate());
+        verify(answerRatingOperations, times(1)).getHashedAnswers(experimentRecord.getIdExperiment());
+
+        Experiment running = Experiment.newBuilder().setId(experimentRecord.getIdExperiment()).setState(Experiment.State.PUBLISHED).build();
+        Experiment stopped = running.toBuilder().setState(Experiment.State.STOPPED).build();
+        eventManager.EXPERIMENT_CHANGE.emit(new ChangeEvent<>(running, stopped));
+        AnswerRecord lateAnswer = new AnswerRecord(13, experimentRecord.getIdExperiment(), "A late answer", new Timestamp(3), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(lateAnswer.getIdAnswer(), lateAnswer);
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(lateAnswer, new ArrayList<>()));
+        Thread.sleep(500);
+
+        verify(answerRatingOperations, times(2)).getHashedAnswers(experimentRecord.getIdExperiment());
+
+        // no index is kept for the stopped experiment
+        AnswerRecord otherLateAnswer = new AnswerRecord(14, experimentRecord.getIdExperiment(), "An other late answer", new Timestamp(4), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(otherLateAnswer.getIdAnswer(), otherLateAnswer);
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(otherLateAnswer, new ArrayList<>()));
+        Thread.sleep(500);
+
+        verify(answerRatingOperations, times(3)).getHashedAnswers(experimentRecord.getIdExperiment());
+    }
+
+    @Test
+    public void testImageDownloadDoesNotBlock() throws Exception {
+        ImageFetcher imageFetcher = mock(ImageFetcher.class);
+        CompletableFuture<Optional<Long>> download = new CompletableFuture<>();
+        when(imageFetcher.fetchHash(any(URL.class))).thenReturn(download);
+        duplicateChecker.terminate();
+        duplicateChecker = new DuplicateChecker(answerRatingOperations, experimentOperations, eventManager, 1, 10, TextHash.MD5, imageFetcher, new InMemoryMetricsRegistry());
+
+        ExperimentRecord imageExperiment = DSL.using(SQLDialect.MYSQL).newRecord(Tables.EXPERIMENT);
+        imageExperiment.setIdExperiment(2);
+        imageExperiment.setAnswerType("picture");
+        when(experimentOperations.getExperiment(2)).thenReturn(Optional.of(imageExperiment));
+
+        AnswerRecord imageAnswer = new AnswerRecord(0, imageExperiment.getIdExperiment(), "http://localhost/image.png", new Timestamp(0), 0, 0, 6, false, "", null, false);
+        AnswerRecord textAnswer = new AnswerRecord(1, experimentRecord.getIdExperiment(), "A text answer", new Timestamp(1), 0, 0, 6, false, "", null, false);
+        answerRecordMap.put(imageAnswer.getIdAnswer(), imageAnswer);
+        answerRecordMap.put(textAnswer.getIdAnswer(), textAnswer);
+
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(imageAnswer, new ArrayList<>()));
+        eventManager.ANSWER_CREATE.emit(AnswerRatingTransformer.toAnswerProto(textAnswer, new ArrayList<>()));
+        Thread.sleep(300);
+        assertNotNull(textAnswer.getHash());
+        assertEquals(null, imageAnswer.getHash());
+
+        download.complete(Optional.of(42L));
+        Thread.sleep(300);
+        assertEquals(Long.valueOf(42), imageAnswer.getHash());
+        verify(imageFetcher, times(1)).fetchHash(any(URL.class));
+    }
+
     @Test
     public void testImageDuplicateDetection() throws Exception {
 
@@ -181,13 +357,7 @@ public class DuplicateCheckerTest {
         assertEquals(answerRecordMalformedURL.getSystemResponse(), DuplicateChecker.URL_MALFORMED_RESPONSE);
     }
 
-    private List<AnswerRecord> getDuplicate(long hash, double threshold) {
-        List<AnswerRecord> duplicates = new ArrayList<>();
-        for (Map.Entry<AnswerRecord, Long> entry : answerHashMap.entrySet()) {
-            if (HashSimilarity.getSimilarityFromHash(hash, entry.getValue()) > threshold) {
-                duplicates.add(entry.getKey());
-            }
-        }
-        return duplicates;
+    private ImageFetcher imageFetcher() {
+        return new ImageFetcher(1, 1000, 1000, 1024 * 1024, 0, 0, 10, ImageHash.SIGNATURE, MetricsRegistry.NOOP);
     }
 }
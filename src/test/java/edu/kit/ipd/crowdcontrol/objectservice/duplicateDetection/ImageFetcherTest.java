@@ -0,0 +1,166 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageHash;
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.ImageSimilarity;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the ImageFetcher against a local http server.
+ */
+public class ImageFetcherTest {
+    private HttpServer server;
+    private BufferedImage image;
+    private byte[] imageBytes;
+    private AtomicInteger requests;
+    private InMemoryMetricsRegistry metrics;
+    private ImageFetcher imageFetcher;
+
+    @Before
+    public void setUp() throws Exception {
+        image = new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, 60, 80);
+        graphics.setColor(Color.BLUE);
+        graphics.fillOval(50, 10, 60, 60);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        imageBytes = out.toByteArray();
+
+        requests = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/image.png", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, imageBytes);
+        });
+        server.createContext("/flaky.png", exchange -> {
+            requests.incrementAndGet();
+            if (failures.getAndIncrement() == 0) {
+                respond(exchange, 503, new byte[0]);
+            } else {
+                respond(exchange, 200, imageBytes);
+            }
+        });
+        server.createContext("/missing.png", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 404, new byte[0]);
+        });
+        server.createContext("/text.txt", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, "no image".getBytes());
+        });
+        server.createContext("/slow.png", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException ignored) {
+            }
+            respond(exchange, 200, imageBytes);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        metrics = new InMemoryMetricsRegistry();
+        imageFetcher = new ImageFetcher(2, 1000, 500, imageBytes.length, 2, 10, 10, ImageHash.SIGNATURE, metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        imageFetcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testFetchIsCached() throws Exception {
+        Optional<Long> hash = fetch("/image.png");
+        assertEquals(Optional.of(ImageSimilarity.getImageHashFromSignature(image)), hash);
+        assertEquals(hash, fetch("/image.png"));
+        assertEquals(1, requests.get());
+        assertEquals(1, metrics.getCount("imageFetcher.cacheHits"));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        assertTrue(fetch("/flaky.png").isPresent());
+        assertEquals(2, requests.get());
+        assertEquals(1, metrics.getCount("imageFetcher.retries"));
+    }
+
+    @Test
+    public void testNoRetryOnClientError() throws Exception {
+        assertFalse(fetch("/missing.png").isPresent());
+        assertEquals(1, requests.get());
+        //failures are not cached
+        assertFalse(fetch("/missing.png").isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testNoImage() throws Exception {
+        assertFalse(fetch("/text.txt").isPresent());
+    }
+
+    @Test
+    public void testTooLarge() throws Exception {
+        imageFetcher.shutdown();
+        imageFetcher = new ImageFetcher(2, 1000, 500, imageBytes.length - 1, 2, 10, 10, ImageHash.SIGNATURE, metrics);
+        assertFalse(fetch("/image.png").isPresent());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        long start = System.nanoTime();
+        assertFalse(fetch("/slow.png").isPresent());
+        assertEquals(3, requests.get());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 6000);
+    }
+
+    @Test
+    public void testDownloadsInParallel() throws Exception {
+        URL slow = url("/slow.png");
+        imageFetcher.fetchHash(slow);
+        Thread.sleep(100);
+        //one thread is busy with the slow image, the other one is still available
+        assertTrue(fetch("/image.png").isPresent());
+    }
+
+    private Optional<Long> fetch(String path) throws Exception {
+        return imageFetcher.fetchHash(url(path)).get(10, TimeUnit.SECONDS);
+    }
+
+    private URL url(String path) throws Exception {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection;
+
+import edu.kit.ipd.crowdcontrol.objectservice.duplicateDetection.Similarity.HashSimilarity;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the SimhashIndex against a linear search.
+ */
+public class SimhashIndexTest {
+
+    @Test
+    public void testFindMatchesLinearSearch() throws Exception {
+        Random random = new Random(42);
+        long[] hashes = new long[20000];
+        SimhashIndex index = new SimhashIndex();
+        for (int i = 0; i < hashes.length; i++) {
+            // every fourth hash is a near copy of an earlier one
+            hashes[i] = (i % 4 == 3) ? flipBits(hashes[random.nextInt(i)], random.nextInt(16), random) : random.nextLong();
+            index.add(i, hashes[i], i);
+        }
+        assertEquals(hashes.length, index.size());
+
+        for (double threshold : new double[] {.80, .75}) {
+            for (int i = 0; i < 500; i++) {
+                long hash = flipBits(hashes[random.nextInt(hashes.length)], random.nextInt(16), random);
+                Set<Integer> expected = new TreeSet<>();
+                for (int j = 0; j < hashes.length; j++) {
+                    if (HashSimilarity.getSimilarityFromHash(hash, hashes[j]) >= threshold) {
+                        expected.add(j);
+                    }
+                }
+                Set<Integer> found = index.find(hash, threshold).stream()
+                        .map(SimhashIndex.Entry::getAnswer)
+                        .collect(Collectors.toCollection(TreeSet::new));
+                assertEquals(expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void testAddTwice() throws Exception {
+        SimhashIndex index = new SimhashIndex();
+        index.add(1, 42, 0);
+        index.add(1, 42, 0);
+        assertEquals(1, index.size());
+        assertEquals(1, index.find(42, .80).size());
+    }
+
+    @Test
+    public void testMaxHammingDistance() throws Exception {
+        assertEquals(12, SimhashIndex.maxHammingDistance(.80));
+        assertEquals(15, SimhashIndex.maxHammingDistance(.75));
+        assertEquals(0, SimhashIndex.maxHammingDistance(1));
+        for (double threshold : new double[] {.80, .75}) {
+            int distance = SimhashIndex.maxHammingDistance(threshold);
+            // the highest possible similarity of a distance is reached if the highest bit differs
+            assertTrue(HashSimilarity.getSimilarityFromHash(0, -1L >>> (64 - distance) | Long.MIN_VALUE) < threshold);
+            assertTrue(HashSimilarity.getSimilarityFromHash(0, -1L >>> (65 - distance) | Long.MIN_VALUE) >= threshold);
+        }
+    }
+
+    private long flipBits(long hash, int bits, Random random) {
+        for (int i = 0; i < bits; i++) {
+            hash ^= 1L << random.nextInt(64);
+        }
+        return hash;
+    }
+}
@@ -6,7 +6,10 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import javax.imageio.ImageIO;
+import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.net.URL;
 
 import static org.junit.Assert.*;
@@ -174,4 +177,66 @@ public class ImageSimilarityTest {
         }
 
         }
-}
\ No newline at end of file
+
+    @Test
+    public void testRasterHashEqualsSignatureHash() throws Exception {
+        //an image of the size of the signature is not rescaled, so both hashes average the same pixels
+        BufferedImage image = drawImage(120, 150, BufferedImage.TYPE_INT_RGB);
+        assertEquals(ImageSimilarity.getImageHashFromSignature(image), ImageSimilarity.getImageHashFromRaster(image));
+    }
+
+    @Test
+    public void testRasterHashOfImageTypes() throws Exception {
+        long hash = ImageSimilarity.getImageHashFromRaster(drawImage(640, 480, BufferedImage.TYPE_INT_RGB));
+        assertEquals(hash, ImageSimilarity.getImageHashFromRaster(drawImage(640, 480, BufferedImage.TYPE_INT_ARGB)));
+        assertEquals(hash, ImageSimilarity.getImageHashFromRaster(drawImage(640, 480, BufferedImage.TYPE_3BYTE_BGR)));
+        assertEquals(hash, ImageSimilarity.getImageHashFromRaster(drawImage(640, 480, BufferedImage.TYPE_4BYTE_ABGR)));
+        assertEquals(hash, ImageSimilarity.getImageHashFromRaster(drawImage(640, 480, BufferedImage.TYPE_INT_BGR)));
+
+        BufferedImage larger = drawImage(700, 500, BufferedImage.TYPE_INT_RGB);
+        larger.createGraphics().drawImage(drawImage(640, 480, BufferedImage.TYPE_INT_RGB), 30, 10, null);
+        assertEquals(hash, ImageSimilarity.getImageHashFromRaster(larger.getSubimage(30, 10, 640, 480)));
+    }
+
+    @Test
+    public void testRasterHashIsSimilarToSignatureHash() throws Exception {
+        for (int size = 300; size <= 1500; size += 400) {
+            BufferedImage image = drawImage(size, size * 3 / 4, BufferedImage.TYPE_3BYTE_BGR);
+            assertTrue(HashSimilarity.getSimilarityFromHash(ImageSimilarity.getImageHashFromSignature(image),
+                    ImageSimilarity.getImageHashFromRaster(image)) >= .75);
+        }
+    }
+
+    @Test
+    public void testImageHash() throws Exception {
+        BufferedImage image = drawImage(1600, 1200, BufferedImage.TYPE_3BYTE_BGR);
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", jpeg);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        long raster = ImageHash.RASTER.compute(jpeg.toByteArray()).get();
+        assertEquals(ImageSimilarity.getImageHashFromSignature(ImageIO.read(new ByteArrayInputStream(jpeg.toByteArray()))),
+                (long) ImageHash.SIGNATURE.compute(jpeg.toByteArray()).get());
+        assertTrue(HashSimilarity.getSimilarityFromHash(raster, ImageHash.SUBSAMPLED.compute(jpeg.toByteArray()).get()) >= .75);
+        //only JPEGs are subsampled
+        assertEquals(ImageHash.RASTER.compute(png.toByteArray()), ImageHash.SUBSAMPLED.compute(png.toByteArray()));
+
+        for (ImageHash imageHash : ImageHash.values()) {
+            assertFalse(imageHash.compute("no image".getBytes()).isPresent());
+        }
+    }
+
+    private BufferedImage drawImage(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.YELLOW, width, height, Color.DARK_GRAY));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillOval(width / 8, height / 6, width / 3, height / 2);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(width / 2, height / 3, width / 3, height / 2);
+        graphics.dispose();
+        return image;
+    }
+}
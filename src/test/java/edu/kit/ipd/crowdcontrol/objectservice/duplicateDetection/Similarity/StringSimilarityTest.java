@@ -51,6 +51,42 @@ public class StringSimilarityTest {
 
     }
 
+    @Test
+    public void testRollingSimhash() throws Exception {
+        //test similar strings
+        assertTrue(HashSimilarity.getSimilarityFromHash(StringSimilarity.computeSimhash(simA1, 3), StringSimilarity.computeSimhash(simA2, 3)) > 0.8);
+        //test equal strings, spaces and case are ignored
+        assertEquals(StringSimilarity.computeSimhash(simA1, 3), StringSimilarity.computeSimhash(simA1.toUpperCase().replace(" ", ""), 3));
+        //test different strings
+        assertTrue(HashSimilarity.getSimilarityFromHash(StringSimilarity.computeSimhash(diffA, 3), StringSimilarity.computeSimhash(diffB, 3)) < 0.8);
+        //repeated n-grams are counted once
+        assertEquals(StringSimilarity.computeSimhash("abcabc", 3), StringSimilarity.computeSimhash("abcabcabc", 3));
+        //too short strings
+        assertEquals(0, StringSimilarity.computeSimhash("ab", 3));
+    }
+
+    @Test
+    public void testTextHash() throws Exception {
+        for (String text : new String[] {simA1, simA2, simB1, simB2, diffA, diffB, "", "ab"}) {
+            assertEquals(StringSimilarity.computeSimhashFromShingles(Shingle.getShingle(text, 3)), TextHash.MD5.compute(text, 3));
+            assertEquals(StringSimilarity.computeSimhash(text, 3), TextHash.ROLLING.compute(text, 3));
+        }
+    }
+
+    @Test
+    public void testRollingSimhashOfLongText() throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append(simB1).append(i);
+        }
+        String text = builder.toString();
+        //the buffers grown by the long text must not change the result of shorter texts
+        long shortHash = StringSimilarity.computeSimhash(simA1, 3);
+        long hash = StringSimilarity.computeSimhash(text, 3);
+        assertEquals(shortHash, StringSimilarity.computeSimhash(simA1, 3));
+        assertEquals(hash, StringSimilarity.computeSimhash(text, 3));
+    }
+
     @Test
     public void testHammingDistance() throws Exception{
         assertTrue(StringSimilarity.getHammingDistanceOfStrings(simA1,simA1) == 0);
@@ -26,4 +26,22 @@ public class EventLogTest {
 
         assertEquals(result, "bla : test1\ntest2\n\n");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBounded() throws Exception {
+        EventLog log = new EventLog(2);
+        log.addEntry("1", "a");
+        log.addEntry("2", "b");
+        log.addEntry("3", "c");
+
+        assertEquals(2, log.size());
+        assertEquals(1, log.getDropped());
+        assertEquals("1 older messages dropped\n2\nb\n3\nc\n", log.toString());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals("", eventLog.toString());
+        assertEquals(0, eventLog.size());
+    }
+}
@@ -1,11 +1,24 @@
 package edu.kit.ipd.crowdcontrol.objectservice.event;
 
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 import rx.Observer;
 import rx.functions.Action;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -32,6 +45,148 @@ public class EventObservableTest {
         verify(action).onNext(new Event<>(10));
     }
 
+    @Test
+    public void testAsyncEmitKeepsOrderPerKey() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        EventObservable<Integer> async = new EventObservable<>("TEST", i -> i % 2,
+                new AsyncDispatch(executor, 4, 100, Backpressure.BLOCK), MetricsRegistry.NOOP);
+        List<Integer> even = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> odd = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(100);
+        async.getAsyncObservable("test").subscribe(event -> {
+            (event.getData() % 2 == 0 ? even : odd).add(event.getData());
+            latch.countDown();
+        });
+
+        for (int i = 0; i < 100; i++) {
+            async.emit(i);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 50).map(i -> i * 2).boxed().collect(Collectors.toList()), even);
+        assertEquals(IntStream.range(0, 50).map(i -> i * 2 + 1).boxed().collect(Collectors.toList()), odd);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncEmitDoesNotWaitForSubscriber() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EventObservable<Integer> async = new EventObservable<>("TEST", i -> i,
+                new AsyncDispatch(executor, 1, 10, Backpressure.BLOCK), MetricsRegistry.NOOP);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        async.getAsyncObservable("test").subscribe(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            delivered.countDown();
+        });
+
+        async.emit(1);
+        release.countDown();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncDropOldest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EventObservable<Integer> async = new EventObservable<>("TEST", i -> 0,
+                new AsyncDispatch(executor, 1, 2, Backpressure.DROP_OLDEST), MetricsRegistry.NOOP);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        async.getAsyncObservable("test").subscribe(event -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            received.add(event.getData());
+            done.countDown();
+        });
+
+        async.emit(0);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 5; i++) {
+            async.emit(i);
+        }
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 4, 5), received);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncCallerRuns() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        EventObservable<Integer> async = new EventObservable<>("TEST", i -> 0,
+                new AsyncDispatch(executor, 1, 1, Backpressure.CALLER_RUNS), MetricsRegistry.NOOP);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        async.getAsyncObservable("test").subscribe(event -> {
+            if (event.getData() == 0) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            threads.add(Thread.currentThread());
+            done.countDown();
+        });
+
+        async.emit(0);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        async.emit(1);
+        async.emit(2);
+
+        assertEquals(Collections.singletonList(Thread.currentThread()), threads);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncWithoutDispatchIsSynchronous() throws Exception {
+        Observer<? super Event<Integer>> action = mock(Observer.class);
+        objserv.getAsyncObservable("test").subscribe(action);
+
+        objserv.emit(10);
+
+        verify(action).onNext(new Event<>(10));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        InMemoryMetricsRegistry metrics = new InMemoryMetricsRegistry();
+        EventObservable<Integer> observable = new EventObservable<>("TEST", i -> i, null, metrics);
+        observable.getObservable("ok").subscribe(event -> { });
+        observable.getObservable("failing").subscribe(event -> {
+            throw new IllegalStateException();
+        }, throwable -> { });
+
+        observable.emit(1);
+        observable.emit(2);
+
+        assertEquals(2, metrics.getCount("events.TEST.emitted"));
+        assertEquals(2, metrics.getHistogramCount("events.TEST.emit"));
+        assertEquals(2, metrics.getHistogramCount("events.TEST.ok.processing"));
+        assertEquals(2, metrics.getHistogramCount("events.TEST.ok.wait"));
+        assertEquals(0, metrics.getCount("events.TEST.ok.failures"));
+        // rx unsubscribes a subscriber after its first exception, so it fails the second event as well
+        assertEquals(2, metrics.getCount("events.TEST.failing.failures"));
+    }
+
     @Test
     public void testGetObservable() throws Exception {
         assertNotNull(objserv.getObservable());
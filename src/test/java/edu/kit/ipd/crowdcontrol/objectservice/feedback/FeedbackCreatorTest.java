@@ -1,22 +1,23 @@
 package edu.kit.ipd.crowdcontrol.objectservice.feedback;
 
 import edu.kit.ipd.crowdcontrol.objectservice.Utils;
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.Tables;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.ExperimentRecord;
-import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.WorkerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
 import edu.kit.ipd.crowdcontrol.objectservice.rest.JWTHelper;
 import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.Assert;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 import static org.mockito.Mockito.*;
 
@@ -47,14 +48,15 @@ public class FeedbackCreatorTest {
     public void testSendFeedback() throws Exception {
         List<AnswerRecord> answers = mock(Result.class);
         doReturn(answers).when(answerRatingOperations).getAnswersOfWorkerFromExperiment(0,0);
-        Iterator<AnswerRecord> answerIterator = mock(Iterator.class);
 
         AnswerRecord a1 = new AnswerRecord();
+        a1.setIdAnswer(1);
         a1.setWorkerId(0);
         a1.setAnswer("baz1");
         a1.setSystemResponse("awes0me Message");
 
         AnswerRecord a2 = new AnswerRecord();
+        a2.setIdAnswer(2);
         a2.setWorkerId(0);
         a2.setAnswer("baz2");
         a2.setSystemResponse(null);
@@ -65,44 +67,17 @@ public class FeedbackCreatorTest {
 
         doReturn("foobar").when(jwtHelper).generateJWT(0);
 
-        RatingRecord ratingAnswer1x1 = new RatingRecord();
-        ratingAnswer1x1.setFeedback("Foobar1");
-        ratingAnswer1x1.setQuality(1);
-        ratingAnswer1x1.setRating(1);
-
-        RatingRecord ratingAnswer1x2 = new RatingRecord();
-        ratingAnswer1x2.setFeedback("Foobar2");
-        ratingAnswer1x2.setQuality(2);
-        ratingAnswer1x2.setRating(2);
-
-        RatingRecord ratingAnswer2x1 = new RatingRecord();
-        ratingAnswer2x1.setFeedback("Foobar3");
-        ratingAnswer2x1.setQuality(3);
-        ratingAnswer2x1.setRating(3);
-
-        RatingRecord ratingAnswer2x2 = new RatingRecord();
-        ratingAnswer2x2.setFeedback("Foobar4");
-        ratingAnswer2x2.setQuality(4);
-        ratingAnswer2x2.setRating(4);
-
-        Result<RatingRecord> ratingListAnswer1 = mock(Result.class);
-        Iterator<RatingRecord> itRatingsAnswer1 = mock(Iterator.class);
-        when(ratingListAnswer1.iterator()).thenReturn(itRatingsAnswer1);
-        when(itRatingsAnswer1.hasNext()).thenReturn(true).thenReturn(true).thenReturn(false);
-        when(itRatingsAnswer1.next()).thenReturn(ratingAnswer1x1).thenReturn(ratingAnswer1x2);
-
-        Result<RatingRecord> ratingListAnswer2 = mock(Result.class);
-        Iterator<RatingRecord> itRatingsAnswer2 = mock(Iterator.class);
-        when(ratingListAnswer2.iterator()).thenReturn(itRatingsAnswer2);
-        when(itRatingsAnswer2.hasNext()).thenReturn(true).thenReturn(true).thenReturn(false);
-        when(itRatingsAnswer2.next()).thenReturn(ratingAnswer2x1).thenReturn(ratingAnswer2x2);
-
-        when(answerRatingOperations.getRatingsOfAnswer(a1)).thenReturn(ratingListAnswer1);
-        when(answerRatingOperations.getRatingsOfAnswer(a2)).thenReturn(ratingListAnswer2);
-
-        when(answers.iterator()).thenReturn(answerIterator);
-        when(answerIterator.hasNext()).thenReturn(true).thenReturn(true).thenReturn(false);
-        when(answerIterator.next()).thenReturn(a1).thenReturn(a2);
+        Rating ratingAnswer1x1 = Rating.newBuilder().setFeedback("Foobar1").setQuality(1).setRating(1).build();
+        Rating ratingAnswer1x2 = Rating.newBuilder().setFeedback("Foobar2").setQuality(2).setRating(2).build();
+        Rating ratingAnswer2x1 = Rating.newBuilder().setFeedback("Foobar3").setQuality(3).setRating(3).build();
+        Rating ratingAnswer2x2 = Rating.newBuilder().setFeedback("Foobar4").setQuality(4).setRating(4).build();
+
+        Map<Integer, List<Rating>> ratings = new HashMap<>();
+        ratings.put(1, Arrays.asList(ratingAnswer1x1, ratingAnswer1x2));
+        ratings.put(2, Arrays.asList(ratingAnswer2x1, ratingAnswer2x2));
+        when(answerRatingOperations.getRatingsForAnswers(Arrays.asList(1, 2))).thenReturn(ratings);
+
+        when(answers.iterator()).thenAnswer(invocation -> Arrays.asList(a1, a2).iterator());
 
         ExperimentRecord exp = new ExperimentRecord();
         exp.setTitle("foobarExperiment");
@@ -130,5 +105,51 @@ public class FeedbackCreatorTest {
         Assert.assertEquals("", sender.getFeedback(0,0));
     }
 
+    @Test
+    public void testFeedbackOfExperiment() throws Exception {
+        Result<AnswerRecord> answers = DSL.using(SQLDialect.MYSQL).newResult(Tables.ANSWER);
+
+        AnswerRecord a1 = new AnswerRecord();
+        a1.setIdAnswer(1);
+        a1.setWorkerId(0);
+        a1.setAnswer("baz1");
+        a1.setSystemResponse("awes0me Message");
+
+        AnswerRecord other = new AnswerRecord();
+        other.setIdAnswer(3);
+        other.setWorkerId(1);
+        other.setAnswer("other");
 
+        AnswerRecord a2 = new AnswerRecord();
+        a2.setIdAnswer(2);
+        a2.setWorkerId(0);
+        a2.setAnswer("baz2");
+        a2.setSystemResponse(null);
+
+        answers.addAll(Arrays.asList(a1, other, a2));
+        doReturn(answers).when(answerRatingOperations).getAnswersOfExperiment(0);
+
+        doReturn("foobar").when(jwtHelper).generateJWT(0);
+        doReturn("other").when(jwtHelper).generateJWT(1);
+
+        Map<Integer, List<Rating>> ratings = new HashMap<>();
+        ratings.put(1, Arrays.asList(
+                Rating.newBuilder().setFeedback("Foobar1").setQuality(1).setRating(1).build(),
+                Rating.newBuilder().setFeedback("Foobar2").setQuality(2).setRating(2).build()));
+        ratings.put(2, Arrays.asList(
+                Rating.newBuilder().setFeedback("Foobar3").setQuality(3).setRating(3).build(),
+                Rating.newBuilder().setFeedback("Foobar4").setQuality(4).setRating(4).build()));
+        when(answerRatingOperations.getRatingsOfExperiment(0)).thenReturn(ratings);
+
+        ExperimentRecord exp = new ExperimentRecord();
+        exp.setTitle("foobarExperiment");
+        doReturn(Optional.of(exp)).when(experimentOperations).getExperiment(0);
+
+        Map<Integer, String> feedback = sender.getFeedbackOfExperiment(0);
+
+        Assert.assertEquals(2, feedback.size());
+        Assert.assertEquals(Utils.loadFile("/feedback/workermessage1.txt"), feedback.get(0));
+        Assert.assertTrue(feedback.get(1).contains("other"));
+        verify(answerRatingOperations, never()).getAnswersOfWorkerFromExperiment(anyInt(), anyInt());
+    }
 }
@@ -0,0 +1,78 @@
+package edu.kit.ipd.crowdcontrol.objectservice.mail;
+
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.MessagingException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the sending of queued mails against a local fake server.
+ */
+public class MailQueueTest {
+    private FakeSmtpServer server;
+    private InMemoryMetricsRegistry metrics;
+    private MailSend mailSend;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        metrics = new InMemoryMetricsRegistry();
+        mailSend = new MailSend(MailSend.Protocol.smtp, "user", "password", "from@example.com", "localhost",
+                server.getPort(), false, 1, 0, 0, "test", metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testSendsInBackground() throws Exception {
+        MailQueue queue = new MailQueue(mailSend, 2, 100, 10, "test", metrics);
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            queue.sendMail(i + "@example.com", "subject", "message");
+            expected.add(i + "@example.com");
+        }
+        await(() -> metrics.getCount("mail.test.sent") == 50);
+        queue.shutdown();
+
+        assertEquals(expected, new HashSet<>(server.getRecipients()));
+        // the single connection of the MailSend is shared by both threads
+        assertEquals(1, server.getConnections());
+        assertEquals(50, metrics.getCount("mail.test.sent"));
+    }
+
+    @Test
+    public void testRejectedMailIsDropped() throws Exception {
+        MailQueue queue = new MailQueue(mailSend, 1, 100, 10, "test", metrics);
+        queue.sendMail("rejected@example.com", "subject", "message");
+        queue.sendMail("a@example.com", "subject", "message");
+        await(() -> metrics.getCount("mailQueue.test.dropped") == 1 && metrics.getCount("mail.test.sent") == 1);
+        queue.shutdown();
+
+        assertEquals(1, server.getRecipients().size());
+        assertEquals(1, metrics.getCount("mailQueue.test.dropped"));
+    }
+
+    @Test(expected = MessagingException.class)
+    public void testFullQueue() throws Exception {
+        MailQueue queue = new MailQueue(mailSend, 1, 1, 1, "test", metrics);
+        queue.shutdown();
+        queue.sendMail("a@example.com", "subject", "message");
+        queue.sendMail("b@example.com", "subject", "message");
+    }
+}
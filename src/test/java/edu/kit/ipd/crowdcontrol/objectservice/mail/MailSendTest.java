@@ -0,0 +1,86 @@
+package edu.kit.ipd.crowdcontrol.objectservice.mail;
+
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.InMemoryMetricsRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.Message;
+import javax.mail.SendFailedException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the pooled connections and the retries of the MailSend against a local fake server.
+ */
+public class MailSendTest {
+    private FakeSmtpServer server;
+    private InMemoryMetricsRegistry metrics;
+    private MailSend mailSend;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new FakeSmtpServer();
+        metrics = new InMemoryMetricsRegistry();
+        mailSend = new MailSend(MailSend.Protocol.smtp, "user", "password", "from@example.com", "localhost",
+                server.getPort(), false, 2, 2, 1, "test", metrics);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mailSend.close();
+        server.close();
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        mailSend.sendMail("a@example.com", "subject", "message");
+        mailSend.sendMail("b@example.com", "subject", "message");
+        mailSend.sendMail("c@example.com", "subject", "message");
+
+        assertEquals(Arrays.asList("a@example.com", "b@example.com", "c@example.com"), server.getRecipients());
+        assertEquals(1, server.getConnections());
+        assertEquals(3, metrics.getCount("mail.test.sent"));
+        assertEquals(1, metrics.getCount("mail.test.connects"));
+        assertEquals(3, metrics.getHistogramCount("mail.test.sending"));
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        server.dropConnections(2);
+        mailSend.sendMail("a@example.com", "subject", "message");
+
+        assertEquals(Arrays.asList("a@example.com"), server.getRecipients());
+        assertEquals(2, metrics.getCount("mail.test.retries"));
+        assertEquals(0, metrics.getCount("mail.test.failures"));
+    }
+
+    @Test
+    public void testSendAll() throws Exception {
+        List<Message> failed = mailSend.sendAll(Arrays.asList(
+                mailSend.createMessage("a@example.com", "subject", "message"),
+                mailSend.createMessage("rejected@example.com", "subject", "message"),
+                mailSend.createMessage("b@example.com", "subject", "message")));
+
+        assertEquals(1, failed.size());
+        assertEquals(Arrays.asList("a@example.com", "b@example.com"), server.getRecipients());
+        assertEquals(1, server.getConnections());
+        assertEquals(1, metrics.getCount("mail.test.failures"));
+        assertEquals(0, metrics.getCount("mail.test.retries"));
+    }
+
+    @Test
+    public void testRejectedIsNotRetried() throws Exception {
+        try {
+            mailSend.sendMail("rejected@example.com", "subject", "message");
+        } catch (SendFailedException e) {
+            assertTrue(server.getRecipients().isEmpty());
+            assertEquals(0, metrics.getCount("mail.test.retries"));
+            return;
+        }
+        throw new AssertionError("the rejected mail has to fail");
+    }
+}
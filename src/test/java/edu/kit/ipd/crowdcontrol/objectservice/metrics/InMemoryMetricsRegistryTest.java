@@ -0,0 +1,51 @@
+package edu.kit.ipd.crowdcontrol.objectservice.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the in-memory metrics registry.
+ */
+public class InMemoryMetricsRegistryTest {
+    private InMemoryMetricsRegistry registry;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = new InMemoryMetricsRegistry();
+    }
+
+    @Test
+    public void testCounter() throws Exception {
+        registry.counter("a").increment();
+        registry.counter("a").add(4);
+
+        assertEquals(5, registry.getCount("a"));
+        assertEquals(0, registry.getCount("b"));
+    }
+
+    @Test
+    public void testHistogram() throws Exception {
+        Histogram histogram = registry.histogram("h");
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(100, registry.getHistogramCount("h"));
+        assertEquals("count=100 mean=59us p50=15us p99=15us max=5000us", registry.snapshot().get("h"));
+    }
+
+    @Test
+    public void testGauge() throws Exception {
+        registry.gauge("g", () -> 42);
+
+        Map<String, String> snapshot = registry.snapshot();
+
+        assertEquals("42", snapshot.get("g"));
+    }
+}
@@ -0,0 +1,68 @@
+package edu.kit.ipd.crowdcontrol.objectservice.quality;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ExperimentProgressTest {
+    private AnswerRatingOperations answerRatingOperations;
+
+    @Before
+    public void setUp() throws Exception {
+        answerRatingOperations = mock(AnswerRatingOperations.class);
+        when(answerRatingOperations.getNumberOfFinalGoodAnswers(1)).thenReturn(2);
+        when(answerRatingOperations.getNumberOfAnswersWithoutMaxRatings(1)).thenReturn(3);
+    }
+
+    @Test
+    public void testCountersAreUpdatedInMemory() throws Exception {
+        ExperimentProgress progress = new ExperimentProgress(answerRatingOperations, 60000);
+        assertEquals(2, progress.getFinalGoodAnswers(1));
+        assertEquals(3, progress.getAnswersWithoutMaxRatings(1));
+
+        progress.answerCreated(1);
+        progress.answerSaturated(1);
+        progress.answerSaturated(1);
+        progress.finalGoodAnswer(1);
+
+        assertEquals(3, progress.getFinalGoodAnswers(1));
+        assertEquals(2, progress.getAnswersWithoutMaxRatings(1));
+        verify(answerRatingOperations, times(1)).getNumberOfFinalGoodAnswers(1);
+        verify(answerRatingOperations, times(1)).getNumberOfAnswersWithoutMaxRatings(1);
+    }
+
+    @Test
+    public void testVerifyReloadsCounters() throws Exception {
+        ExperimentProgress progress = new ExperimentProgress(answerRatingOperations, 60000);
+        progress.getFinalGoodAnswers(1);
+        progress.finalGoodAnswer(1);
+        progress.answerCreated(1);
+
+        progress.verify(1);
+
+        assertEquals(2, progress.getFinalGoodAnswers(1));
+        assertEquals(3, progress.getAnswersWithoutMaxRatings(1));
+    }
+
+    @Test
+    public void testUnknownExperimentsAreLoadedOnAccess() throws Exception {
+        ExperimentProgress progress = new ExperimentProgress(answerRatingOperations, 60000);
+        // counted by the database anyway
+        progress.answerCreated(1);
+
+        assertEquals(3, progress.getAnswersWithoutMaxRatings(1));
+    }
+
+    @Test
+    public void testNoIntervalAlwaysQueries() throws Exception {
+        ExperimentProgress progress = new ExperimentProgress(answerRatingOperations, 0);
+        progress.getFinalGoodAnswers(1);
+        progress.finalGoodAnswer(1);
+
+        assertEquals(2, progress.getFinalGoodAnswers(1));
+        verify(answerRatingOperations, times(2)).getNumberOfFinalGoodAnswers(1);
+    }
+}
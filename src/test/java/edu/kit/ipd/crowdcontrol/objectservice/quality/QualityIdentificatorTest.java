@@ -9,9 +9,13 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AlgorithmOpera
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentsPlatformOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.event.AsyncDispatch;
+import edu.kit.ipd.crowdcontrol.objectservice.event.Backpressure;
 import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.metrics.MetricsRegistry;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Experiment;
 import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.RatingList;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.answerQuality.AnswerQualityByRatings;
 import edu.kit.ipd.crowdcontrol.objectservice.quality.ratingQuality.RatingQualityByDistribution;
 import org.jooq.DSLContext;
@@ -25,12 +29,22 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.anyMap;
 import static org.mockito.Mockito.*;
 
 /**
@@ -94,7 +108,10 @@ public class QualityIdentificatorTest {
         ratingAlgorithms = new ArrayList<>();
         when(answerRatingOperations.getAnswer(anyInt())).thenReturn(Optional.of(answerRecord));
         when(answerRatingOperations.getNumberOfFinalGoodAnswers(anyInt())).thenReturn(1);
-        when(answerRatingOperations.getAnswerFromRating(rating)).thenReturn(Optional.of(answerRecord));
+        when(answerRatingOperations.getAnswerIdsOfRatings(anyCollectionOf(Rating.class))).thenAnswer(invocation -> {
+            Collection<Rating> ratings = (Collection<Rating>) invocation.getArguments()[0];
+            return ratings.stream().collect(Collectors.toMap(Rating::getReservation, rating -> answerRecord.getIdAnswer()));
+        });
         List<RatingRecord> ratingRecordList = new ArrayList<>();
         ratingRecordList.add(new RatingRecord(0,0,0,null,0,1,"",0,0));
         when(answerRatingOperations.getRelatedRatings(answerRecord.getIdAnswer())).thenReturn(ratingRecordList);
@@ -183,8 +200,134 @@ public class QualityIdentificatorTest {
         ratingRecords.add(ratingRecord);
 
 
-        eventManager.RATINGS_CREATE.emit(rating);
+        eventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
         assertTrue(reachedTargetMethod);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRatingsOfAnAnswerAreRatedOneAtATime() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        EventManager asyncEventManager = new EventManager();
+        new QualityIdentificator(algorithmOperations, answerRatingOperations, experimentOperations, experimentOperator,
+                experimentsPlatformOperations, asyncEventManager, experimentFetcher,
+                new AsyncDispatch(executor, 4, 100, Backpressure.BLOCK), MetricsRegistry.NOOP, false, 0, 0);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(40);
+        doAnswer(invocation -> {
+            if (running.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+            Thread.sleep(1);
+            running.decrementAndGet();
+            done.countDown();
+            return null;
+        }).when(answerRatingOperations).setQualityToRatings(anyMap());
+
+        for (int i = 0; i < 40; i++) {
+            asyncEventManager.RATINGS_CREATE.emit(RatingList.newBuilder()
+                    .addItems(Rating.newBuilder().setExperimentId(0).setReservation(i))
+                    .build());
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(overlapped.get());
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testProgressIsKeptInMemory() throws Exception {
+        EventManager progressEventManager = new EventManager();
+        new QualityIdentificator(algorithmOperations, answerRatingOperations, experimentOperations, experimentOperator,
+                experimentsPlatformOperations, progressEventManager, experimentFetcher, null, MetricsRegistry.NOOP, false, 0, 60000);
+        when(answerRatingOperations.getNumberOfFinalGoodAnswers(anyInt())).thenReturn(0);
+        when(answerRatingOperations.getNumberOfAnswersWithoutMaxRatings(anyInt())).thenReturn(5);
+
+        progressEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+        progressEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+
+        verify(answerRatingOperations, times(1)).getNumberOfFinalGoodAnswers(anyInt());
+        verify(experimentsPlatformOperations, never()).getExperimentsPlatformStatusPlatformStatuses(anyInt());
+        assertFalse(reachedTargetMethod);
+    }
+
+    @Test
+    public void testDriftedProgressIsVerified() throws Exception {
+        EventManager progressEventManager = new EventManager();
+        QualityIdentificator identificator = new QualityIdentificator(algorithmOperations, answerRatingOperations,
+                experimentOperations, experimentOperator, experimentsPlatformOperations, progressEventManager,
+                experimentFetcher, null, MetricsRegistry.NOOP, false, 0, 60000);
+        when(answerRatingOperations.getNumberOfFinalGoodAnswers(anyInt())).thenReturn(0);
+        when(answerRatingOperations.getNumberOfAnswersWithoutMaxRatings(anyInt())).thenReturn(5);
+        progressEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+        assertFalse(reachedTargetMethod);
+
+        // the last answers got their ratings, but the progress in memory missed it
+        when(answerRatingOperations.getNumberOfFinalGoodAnswers(anyInt())).thenReturn(1);
+        when(answerRatingOperations.getNumberOfAnswersWithoutMaxRatings(anyInt())).thenReturn(0);
+        identificator.verifyProgress();
+
+        assertTrue(reachedTargetMethod);
+    }
+
+    @Test
+    public void testBatchIsRatedOncePerAnswer() throws Exception {
+        Map<Integer, Integer> answers = new HashMap<>();
+        answers.put(1, 1);
+        answers.put(2, 1);
+        answers.put(3, 2);
+        when(answerRatingOperations.getAnswerIdsOfRatings(anyCollectionOf(Rating.class))).thenReturn(answers);
+
+        eventManager.RATINGS_CREATE.emit(RatingList.newBuilder()
+                .addItems(Rating.newBuilder().setExperimentId(0).setReservation(1))
+                .addItems(Rating.newBuilder().setExperimentId(0).setReservation(2))
+                .addItems(Rating.newBuilder().setExperimentId(0).setReservation(3))
+                .build());
+
+        verify(answerRatingOperations, times(1)).getAnswerIdsOfRatings(anyCollectionOf(Rating.class));
+        verify(answerRatingOperations, times(1)).getAnswer(1);
+        verify(answerRatingOperations, times(1)).getAnswer(2);
+    }
+
+    @Test
+    public void testAnswersAreNotLookedUpOnTheEmittingThread() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        EventManager asyncEventManager = new EventManager();
+        new QualityIdentificator(algorithmOperations, answerRatingOperations, experimentOperations, experimentOperator,
+                experimentsPlatformOperations, asyncEventManager, experimentFetcher,
+                new AsyncDispatch(executor, 2, 100, Backpressure.BLOCK), MetricsRegistry.NOOP, false, 0, 0);
+        List<Thread> lookups = new ArrayList<>();
+        CountDownLatch looked = new CountDownLatch(1);
+        when(answerRatingOperations.getAnswerIdsOfRatings(anyCollectionOf(Rating.class))).thenAnswer(invocation -> {
+            lookups.add(Thread.currentThread());
+            looked.countDown();
+            return Collections.emptyMap();
+        });
+
+        asyncEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+
+        assertTrue(looked.await(5, TimeUnit.SECONDS));
+        assertFalse(lookups.contains(Thread.currentThread()));
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDistributionIsDroppedIfTheUpdateFails() throws Exception {
+        EventManager incrementalEventManager = new EventManager();
+        new QualityIdentificator(algorithmOperations, answerRatingOperations, experimentOperations, experimentOperator,
+                experimentsPlatformOperations, incrementalEventManager, experimentFetcher, null, MetricsRegistry.NOOP,
+                true, 10, 0);
+        when(answerRatingOperations.setQualityToRatings(anyInt(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+
+        incrementalEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+        incrementalEventManager.RATINGS_CREATE.emit(RatingList.newBuilder().addItems(rating).build());
+
+        // the distribution is loaded again, it does not contain the quality which failed to be stored
+        verify(answerRatingOperations, times(2)).getRelatedRatings(answerRecord.getIdAnswer());
+        verify(answerRatingOperations, times(2)).setQualityToRatings(anyInt(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,65 @@
+package edu.kit.ipd.crowdcontrol.objectservice.quality;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RatingDistributionTest {
+    private RatingDistribution distribution;
+
+    @Before
+    public void setUp() throws Exception {
+        distribution = RatingDistribution.of(Arrays.asList(
+                new RatingRecord(1, 0, 0, null, 3, 1, "", 0, 9),
+                new RatingRecord(2, 0, 0, null, 3, 2, "", 0, null),
+                new RatingRecord(3, 0, 0, null, 5, 3, "", 0, 7)
+        ));
+    }
+
+    @Test
+    public void testOf() throws Exception {
+        assertEquals(3, distribution.size());
+        assertEquals(2, distribution.getCount(3));
+        assertEquals(1, distribution.getCount(3, 9));
+        assertEquals(1, distribution.getCount(3, RatingDistribution.UNKNOWN_QUALITY));
+        assertEquals(1, distribution.getCount(5, 7));
+        assertEquals(0, distribution.getCount(4));
+    }
+
+    @Test
+    public void testAddIgnoresContainedRatings() throws Exception {
+        assertFalse(distribution.add(2, 3));
+        assertTrue(distribution.add(4, 3));
+        assertEquals(4, distribution.size());
+        assertEquals(2, distribution.getCount(3, RatingDistribution.UNKNOWN_QUALITY));
+    }
+
+    @Test
+    public void testSetQuality() throws Exception {
+        assertEquals(1, distribution.setQuality(3, 9));
+        assertEquals(2, distribution.getCount(3, 9));
+        assertEquals(0, distribution.setQuality(3, 9));
+        assertEquals(2, distribution.setQuality(3, 8));
+        assertEquals(0, distribution.setQuality(4, 8));
+        assertEquals(3, distribution.size());
+    }
+
+    @Test
+    public void testGetCountWithQualityAbove() throws Exception {
+        assertEquals(1, distribution.getCountWithQualityAbove(3, 8));
+        assertEquals(0, distribution.getCountWithQualityAbove(3, 9));
+        assertEquals(1, distribution.getCountWithQualityAbove(5, 0));
+        assertEquals(0, distribution.getCountWithQualityAbove(5, 7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRating() throws Exception {
+        distribution.add(5, 10);
+    }
+}
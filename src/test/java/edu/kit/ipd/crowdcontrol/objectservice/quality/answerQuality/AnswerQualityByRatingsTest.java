@@ -5,6 +5,7 @@ import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.Algo
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AnswerRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 import org.jooq.DSLContext;
 import org.jooq.Result;
 import org.jooq.SQLDialect;
@@ -90,6 +91,24 @@ public class AnswerQualityByRatingsTest {
         assertEquals(answerQuality, 4);
     }
 
+    /**
+     * Testing if the quality from the distribution of the ratings equals the quality from the ratings
+     */
+    @Test
+    public void distributionEqualsRatings() {
+        ratings.add(new RatingRecord(0, 0, 0, null, 1, 0, "", 0, ratingThreshold + 1));
+        ratings.add(new RatingRecord(1, 0, 0, null, 2, 1, "", 0, ratingThreshold + 1));
+        ratings.add(new RatingRecord(2, 0, 0, null, 8, 2, "", 0, ratingThreshold + 1));
+        ratings.add(new RatingRecord(3, 0, 0, null, 8, 3, "", 0, ratingThreshold + 1));
+        RatingDistribution distribution = RatingDistribution.of(ratings);
+        // not rated yet, so it does not count
+        distribution.add(4, 0);
+
+        Map<String, Integer> expected = identifier.identifyAnswerQuality(answerRatingOperations, answer, params, maxQuality, minQuality);
+        assertEquals(expected, identifier.identifyAnswerQuality(answer, distribution, params, maxQuality, minQuality).get());
+        assertEquals(5, (int) expected.get(AnswerQualityStrategy.QUALITY));
+    }
+
     /**
      * Testing qualityIdentification with random ratings
      */
@@ -2,6 +2,7 @@ package edu.kit.ipd.crowdcontrol.objectservice.quality.ratingQuality;
 
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.AlgorithmRatingQualityParamRecord;
 import edu.kit.ipd.crowdcontrol.objectservice.database.model.tables.records.RatingRecord;
+import edu.kit.ipd.crowdcontrol.objectservice.quality.RatingDistribution;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -94,6 +95,22 @@ public class RatingQualityByDistributionTest {
 
 
     }
+    @Test
+    public void distributionEqualsRatings(){
+        Random rand = new Random(42);
+        for (int i = 0; i < 30; i++) {
+            ratings.add(new RatingRecord(i,0,0,null,rand.nextInt(10),i,"",0,null));
+        }
+        RatingDistribution distribution = RatingDistribution.of(ratings);
+
+        Map<RatingRecord,Integer> expected = identifier.identifyRatingQuality(ratings,params,maxQuality, minQuality);
+        Map<Integer,Integer> actual = identifier.identifyRatingQuality(distribution,params,maxQuality, minQuality).get();
+        for (Map.Entry<RatingRecord,Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), actual.get(entry.getKey().getRating()));
+        }
+        assertEquals(expected.keySet().stream().map(RatingRecord::getRating).collect(Collectors.toSet()), actual.keySet());
+    }
+
     @Ignore
     @Test
     public void testRndRatings(){
@@ -0,0 +1,81 @@
+package edu.kit.ipd.crowdcontrol.objectservice.rest.resources;
+
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.AnswerRatingOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.ExperimentOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.database.operations.WorkerOperations;
+import edu.kit.ipd.crowdcontrol.objectservice.event.EventManager;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.Rating;
+import edu.kit.ipd.crowdcontrol.objectservice.proto.RatingList;
+import edu.kit.ipd.crowdcontrol.objectservice.rest.exceptions.BadRequestException;
+import org.junit.Before;
+import org.junit.Test;
+import spark.Request;
+import spark.Response;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+
+public class AnswerRatingResourceTest {
+    private Request request;
+    private Response response;
+    private AnswerRatingOperations answerRatingOperations;
+    private EventManager eventManager;
+    private AnswerRatingResource resource;
+
+    @Before
+    public void setUp() {
+        request = mock(Request.class);
+        response = mock(Response.class);
+        answerRatingOperations = mock(AnswerRatingOperations.class);
+        eventManager = new EventManager();
+        resource = new AnswerRatingResource(mock(ExperimentOperations.class), answerRatingOperations,
+                mock(WorkerOperations.class), eventManager);
+        when(request.params("id")).thenReturn("1");
+    }
+
+    @Test
+    public void testPutRatings() throws Exception {
+        Rating first = Rating.newBuilder().setExperimentId(1).setReservation(1).setRating(3).build();
+        Rating second = Rating.newBuilder().setExperimentId(1).setReservation(2).setRating(5).build();
+        RatingList ratings = RatingList.newBuilder().addItems(first).addItems(second).build();
+        when(request.attribute("input")).thenReturn(ratings);
+        List<Rating> inserted = Arrays.asList(first.toBuilder().setTime(42).build(), second.toBuilder().setTime(42).build());
+        when(answerRatingOperations.insertRatings(ratings.getItemsList())).thenReturn(inserted);
+        List<RatingList> emitted = new ArrayList<>();
+        eventManager.RATINGS_CREATE.getObservable().subscribe(event -> emitted.add(event.getData()));
+
+        RatingList result = resource.putRatings(request, response);
+
+        assertEquals(inserted, result.getItemsList());
+        // one event for the whole batch
+        assertEquals(Collections.singletonList(result), emitted);
+        // the list survives the wire format
+        assertEquals(result, RatingList.parseFrom(result.toByteArray()));
+        verify(response).status(201);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutRatingsOfOtherExperiment() throws Exception {
+        when(request.attribute("input")).thenReturn(RatingList.newBuilder()
+                .addItems(Rating.newBuilder().setExperimentId(2).setReservation(1))
+                .build());
+
+        resource.putRatings(request, response);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testPutRatingsWithUsedReservation() throws Exception {
+        when(request.attribute("input")).thenReturn(RatingList.newBuilder()
+                .addItems(Rating.newBuilder().setExperimentId(1).setReservation(1))
+                .build());
+        when(answerRatingOperations.insertRatings(anyListOf(Rating.class))).thenThrow(new IllegalStateException("Reservation 1 is already in use"));
+
+        resource.putRatings(request, response);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.Test;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class TemplateTest {
 	@Test
@@ -59,4 +60,43 @@ public class TemplateTest {
 	public void applyIllegal() {
 		Template.apply("{{Foobar}}", new HashMap<>());
 	}
+
+	@Test
+	public void compileIsCached() {
+		String template = "Foobar: {{Foobar}}";
+
+		assertSame(Template.compile(template), Template.compile(new String(template)));
+		assertEquals(Collections.singleton("Foobar"), Template.compile(template).getPlaceholderNames());
+	}
+
+	@Test
+	public void applyWithoutPlaceholders() {
+		assertEquals("", Template.apply("", new HashMap<>()));
+		assertEquals("{{ }", Template.apply("{{ }", new HashMap<>()));
+	}
+
+	@Test
+	public void applyLarge() {
+		StringBuilder template = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		Map<String, String> map = new HashMap<>();
+
+		for (int i = 0; i < 1000; i++) {
+			template.append("line ").append(i).append(": {{p").append(i % 50).append(":Description:text}}\n");
+			expected.append("line ").append(i).append(": value ").append(i % 50).append("\n");
+			map.put("p" + (i % 50), "value " + (i % 50));
+		}
+
+		assertEquals(expected.toString(), Template.apply(template.toString(), map));
+		assertEquals(expected.toString(), Template.apply(template.toString(), map));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void applyAdditionalPlaceholder() {
+		Map<String, String> map = new HashMap<>();
+		map.put("foo", "bar");
+		map.put("baz", "bar");
+
+		Template.apply("{{foo}}", map);
+	}
 }